@@ -0,0 +1,38 @@
+package spring_jedis.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 依次以 1, 2, 4 ... maxThreads 个线程运行匹配的基准, 附带 gc profiler(gc.alloc.rate.norm 即每次操作分配的字节数).
+ * 结果写入 jmh-result-t{threads}.json, 便于逐版本比较.
+ *
+ * java -jar target/benchmarks.jar [includeRegex] [maxThreads]
+ *
+ * 需要其他 JMH 参数时直接使用 JMH 自带入口:
+ * java -cp target/benchmarks.jar org.openjdk.jmh.Main StringBenchmark -t 8 -prof gc
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-result-t" + threads + ".json")
+                    .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
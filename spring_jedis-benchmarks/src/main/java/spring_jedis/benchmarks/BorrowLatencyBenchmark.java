@@ -0,0 +1,89 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.JedisPoolMetrics;
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.LatencyHistogram;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * 持续压测下连接池的借用等待: {@value #THREADS} 个线程不停 get, 连接池只有 poolSize 个连接.
+ * poolSize 小于线程数时连接池一直处于饱和状态, 线程排队等待连接.
+ * 每轮结束时打印 {@link JedisPoolMetrics} 记录的本轮借用次数与借用等待 p50 / p99 / 最大值;
+ * 连接都能归还时各轮的 p99 保持平稳, 连接泄漏时会逐轮增长直至 maxWait 超时.
+ * commons-pool 默认不公平(刚归还连接的线程可以立即再借到), 饱和时大部分借用不需要等待, 等待集中在 p99 以上.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 6, time = 10)
+@Threads(BorrowLatencyBenchmark.THREADS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BorrowLatencyBenchmark {
+
+    static final int THREADS = 64;
+
+    @Param({"16", "64"})
+    public int poolSize;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private RespStubServer server;
+    private JedisTemplate jedisTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = new RespStubServer(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        int port = server.start();
+        server.setLatencyMicros(latencyMicros);
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(poolSize);
+        poolConfig.setMaxIdle(poolSize);
+        poolConfig.setMaxWaitMillis(2000);
+        jedisTemplate = new JedisTemplate(new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBorrowWait() {
+        jedisTemplate.getPoolMetrics().getRecentBorrowWait().reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printBorrowWait() {
+        JedisPoolMetrics metrics = jedisTemplate.getPoolMetrics();
+        LatencyHistogram borrowWait = metrics.getRecentBorrowWait();
+        System.out.printf("%npool %d, %d threads: %d borrows, wait p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                poolSize, THREADS, borrowWait.getCount(),
+                borrowWait.getPercentileMillis(50), borrowWait.getPercentileMillis(99), borrowWait.getMaxNanos() / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jedisTemplate.getJedisPool().close();
+        server.close();
+    }
+
+    @Benchmark
+    public String get(KeyState keys) {
+        return jedisTemplate.get(keys.nextKey());
+    }
+}
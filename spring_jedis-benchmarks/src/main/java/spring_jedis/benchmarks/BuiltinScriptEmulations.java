@@ -0,0 +1,173 @@
+package spring_jedis.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.netty.handler.codec.redis.ArrayRedisMessage;
+import io.netty.handler.codec.redis.ErrorRedisMessage;
+import io.netty.handler.codec.redis.FullBulkStringRedisMessage;
+import io.netty.handler.codec.redis.IntegerRedisMessage;
+import io.netty.handler.codec.redis.RedisMessage;
+
+import spring_jedis.jedis.RedisScript;
+import spring_jedis.jedis.RedisScripts;
+
+/**
+ * 内置脚本({@link RedisScripts})在桩服务器上的 Java 实现, 与 scripts/*.lua 的逻辑一一对应, 通过桩服务器的命令读写数据.
+ */
+public final class BuiltinScriptEmulations {
+
+    private static final Set<String> STREAM_COMMANDS = new HashSet<>(Arrays.asList("XLEN", "XACK", "XCLAIM", "XAUTOCLAIM", "XPENDING"));
+
+    private BuiltinScriptEmulations() {
+    }
+
+    public static void register(RespStubStore store) {
+        store.registerScript(RedisScripts.SLIDING_WINDOW_RATE_LIMIT.getSource(), BuiltinScriptEmulations::slidingLog);
+        store.registerScript(RedisScripts.SLIDING_WINDOW_COUNTER_RATE_LIMIT.getSource(), BuiltinScriptEmulations::slidingWindowCounter);
+        store.registerScript(RedisScripts.TOKEN_BUCKET_RATE_LIMIT.getSource(), BuiltinScriptEmulations::tokenBucket);
+        store.registerScript(RedisScripts.LEADERBOARD_AROUND.getSource(), BuiltinScriptEmulations::leaderboardAround);
+        store.registerScript(RedisScripts.STREAM_ADD.getSource(), BuiltinScriptEmulations::streamAdd);
+        store.registerScript(RedisScripts.STREAM_GROUP_CREATE.getSource(), BuiltinScriptEmulations::streamGroupCreate);
+        store.registerScript(RedisScripts.STREAM_READ_GROUP.getSource(), BuiltinScriptEmulations::streamReadGroup);
+        // STREAM_COMMAND 不公开, 与 RedisScripts 从同一个 classpath 资源读取源码
+        store.registerScript(RedisScript.fromClasspath("scripts/stream_command.lua", (raw) -> raw).getSource(), BuiltinScriptEmulations::streamCommand);
+    }
+
+    private static RedisMessage slidingLog(RespStubStore store, List<String> keys, List<String> args) {
+        long now = Long.parseLong(args.get(0));
+        long window = Long.parseLong(args.get(1));
+        long limit = Long.parseLong(args.get(2));
+        String key = keys.get(0);
+        store.execute(new String[] {"ZREMRANGEBYSCORE", key, "-inf", Long.toString(now - window)});
+        long count = integer(store.execute(new String[] {"ZCARD", key}));
+        if (count < limit) {
+            store.execute(new String[] {"ZADD", key, Long.toString(now), args.get(3)});
+            store.execute(new String[] {"PEXPIRE", key, Long.toString(window)});
+            return reply(1, 0);
+        }
+        String index = Long.toString(count - limit);
+        List<RedisMessage> blocking = ((ArrayRedisMessage) store.execute(new String[] {"ZRANGE", key, index, index, "WITHSCORES"})).children();
+        return reply(0, Math.max(1, (long) Math.floor(Double.parseDouble(string(blocking.get(1))) + window - now)));
+    }
+
+    private static RedisMessage slidingWindowCounter(RespStubStore store, List<String> keys, List<String> args) {
+        long now = Long.parseLong(args.get(0));
+        long window = Long.parseLong(args.get(1));
+        long limit = Long.parseLong(args.get(2));
+        long elapsed = now % window;
+        String current = string(store.execute(new String[] {"GET", keys.get(0)}));
+        String previous = string(store.execute(new String[] {"GET", keys.get(1)}));
+        long currentCount = current == null ? 0 : Long.parseLong(current);
+        long previousCount = previous == null ? 0 : Long.parseLong(previous);
+        if (previousCount * (double) (window - elapsed) / window + currentCount + 1 <= limit) {
+            store.execute(new String[] {"INCR", keys.get(0)});
+            store.execute(new String[] {"PEXPIRE", keys.get(0), Long.toString(window * 2)});
+            return reply(1, 0);
+        }
+        long wait = window - elapsed;
+        if (currentCount + 1 <= limit && previousCount > 0) {
+            wait = (long) Math.ceil(window * (1 - (double) (limit - 1 - currentCount) / previousCount)) - elapsed;
+        }
+        return reply(0, Math.max(1, wait));
+    }
+
+    private static RedisMessage tokenBucket(RespStubStore store, List<String> keys, List<String> args) {
+        double now = Double.parseDouble(args.get(0));
+        double capacity = Double.parseDouble(args.get(1));
+        double rate = Double.parseDouble(args.get(2));
+        double requested = Double.parseDouble(args.get(3));
+        String key = keys.get(0);
+        List<RedisMessage> state = ((ArrayRedisMessage) store.execute(new String[] {"HMGET", key, "tokens", "ts"})).children();
+        String storedTokens = string(state.get(0));
+        String storedTs = string(state.get(1));
+        double tokens = storedTokens == null ? capacity : Double.parseDouble(storedTokens);
+        double ts = storedTs == null ? now : Double.parseDouble(storedTs);
+        if (now > ts) {
+            tokens = Math.min(capacity, tokens + (now - ts) * rate);
+            ts = now;
+        }
+        boolean allowed = tokens >= requested;
+        if (allowed) {
+            tokens -= requested;
+        }
+        store.execute(new String[] {"HMSET", key, "tokens", Double.toString(tokens), "ts", Double.toString(ts)});
+        store.execute(new String[] {"PEXPIRE", key, Long.toString((long) Math.ceil(capacity / rate) + 1000)});
+        return allowed ? reply(1, 0) : reply(0, Math.max(1, (long) Math.ceil((requested - tokens) / rate)));
+    }
+
+    private static RedisMessage leaderboardAround(RespStubStore store, List<String> keys, List<String> args) {
+        String key = keys.get(0);
+        RedisMessage rank = store.execute(new String[] {"ZREVRANK", key, args.get(0)});
+        if (!(rank instanceof IntegerRedisMessage)) {
+            return FullBulkStringRedisMessage.NULL_INSTANCE;
+        }
+        long start = Math.max(0, integer(rank) - Long.parseLong(args.get(1)));
+        List<RedisMessage> result = new ArrayList<>();
+        result.add(rank);
+        result.add(store.execute(new String[] {"ZSCORE", key, args.get(0)}));
+        result.add(new IntegerRedisMessage(start));
+        String end = Long.toString(integer(rank) + Long.parseLong(args.get(1)));
+        result.addAll(((ArrayRedisMessage) store.execute(new String[] {"ZREVRANGE", key, Long.toString(start), end, "WITHSCORES"})).children());
+        return new ArrayRedisMessage(result);
+    }
+
+    private static RedisMessage streamAdd(RespStubStore store, List<String> keys, List<String> args) {
+        List<RedisMessage> ids = new ArrayList<>();
+        int i = 1;
+        while (i < args.size()) {
+            int fields = Integer.parseInt(args.get(i));
+            List<String> command = new ArrayList<>(Arrays.asList("XADD", keys.get(0)));
+            if (Long.parseLong(args.get(0)) > 0) {
+                command.addAll(Arrays.asList("MAXLEN", "~", args.get(0)));
+            }
+            command.add("*");
+            command.addAll(args.subList(i + 1, i + 1 + 2 * fields));
+            ids.add(store.execute(command.toArray(new String[0])));
+            i += 2 * fields + 1;
+        }
+        return new ArrayRedisMessage(ids);
+    }
+
+    private static RedisMessage streamGroupCreate(RespStubStore store, List<String> keys, List<String> args) {
+        RedisMessage reply = store.execute(new String[] {"XGROUP", "CREATE", keys.get(0), args.get(0), args.get(1), "MKSTREAM"});
+        if (reply instanceof ErrorRedisMessage) {
+            return ((ErrorRedisMessage) reply).content().startsWith("BUSYGROUP") ? new IntegerRedisMessage(0) : reply;
+        }
+        return new IntegerRedisMessage(1);
+    }
+
+    private static RedisMessage streamReadGroup(RespStubStore store, List<String> keys, List<String> args) {
+        return store.execute(new String[] {"XREADGROUP", "GROUP", args.get(0), args.get(1), "COUNT", args.get(2), "STREAMS", keys.get(0), args.get(3)});
+    }
+
+    private static RedisMessage streamCommand(RespStubStore store, List<String> keys, List<String> args) {
+        if (!STREAM_COMMANDS.contains(args.get(0).toUpperCase())) {
+            return new ErrorRedisMessage("ERR unsupported stream command " + args.get(0));
+        }
+        String[] command = new String[args.size() + 1];
+        command[0] = args.get(0).toUpperCase();
+        command[1] = keys.get(0);
+        for (int i = 1; i < args.size(); i++) {
+            command[i + 1] = args.get(i);
+        }
+        return store.execute(command);
+    }
+
+    private static long integer(RedisMessage message) {
+        return ((IntegerRedisMessage) message).value();
+    }
+
+    private static String string(RedisMessage message) {
+        FullBulkStringRedisMessage bulk = (FullBulkStringRedisMessage) message;
+        return bulk.isNull() ? null : bulk.content().toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static RedisMessage reply(long first, long second) {
+        return new ArrayRedisMessage(Arrays.<RedisMessage>asList(new IntegerRedisMessage(first), new IntegerRedisMessage(second)));
+    }
+}
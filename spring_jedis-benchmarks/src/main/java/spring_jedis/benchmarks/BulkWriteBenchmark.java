@@ -0,0 +1,75 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bulk Actions: 分块的 mset / saddAll / zaddAll 与逐条写对比, 吞吐按单个元素计.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriteBenchmark {
+
+    private static final int ITEMS = 2000;
+
+    @State(Scope.Thread)
+    public static class Batch {
+        final Map<String, String> keyValues = new HashMap<>();
+        final List<String> members = new ArrayList<>();
+        final Map<String, Double> scoreMembers = new HashMap<>();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            for (int i = 0; i < ITEMS; i++) {
+                keyValues.put(StubRedisState.key(i), StubRedisState.value(i));
+                members.add(StubRedisState.member(i));
+                scoreMembers.put(StubRedisState.member(i), (double) i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void setOneByOne(StubRedisState redis, Batch batch) {
+        for (Map.Entry<String, String> entry : batch.keyValues.entrySet()) {
+            redis.jedisTemplate.set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void mset(StubRedisState redis, Batch batch) {
+        redis.jedisTemplate.mset(batch.keyValues);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public Long saddAll(StubRedisState redis, Batch batch) {
+        return redis.jedisTemplate.saddAll("bench:bulk:set", batch.members);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public Long zaddAll(StubRedisState redis, Batch batch) {
+        return redis.jedisTemplate.zaddAll("bench:bulk:zset", batch.scoreMembers);
+    }
+}
@@ -0,0 +1,87 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.RedisCacheLoader;
+
+/**
+ * 热点 key 过期时的击穿: {@value #HOT_KEYS} 个热点 key, 有效期 {@value #TTL_SECONDS} 秒, 每次加载(模拟查库)耗时 {@value #LOAD_MILLIS} 毫秒, 8 个线程并发读.
+ * 对照手写的 get -> 未命中 -> 加载 -> Setex 与 {@link RedisCacheLoader#getOrLoad}; 吞吐为每秒读取次数,
+ * 结束时打印每秒加载次数(理想值为 HOT_KEYS / TTL_SECONDS). 单进程内测试, 不使用跨实例租约.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheLoaderBenchmark {
+
+    static final int HOT_KEYS = 10;
+    static final int TTL_SECONDS = 1;
+    static final long LOAD_MILLIS = 5;
+
+    @Param({"handwritten", "getOrLoad"})
+    public String mode;
+
+    private StubRedisState stub;
+    private RedisCacheLoader cacheLoader;
+    private final LongAdder loads = new LongAdder();
+    private long startedAt;
+
+    @Setup(Level.Trial)
+    public void setUp(StubRedisState stub) {
+        this.stub = stub;
+        cacheLoader = new RedisCacheLoader(stub.jedisTemplate, 1.0, 0, 1000, 2);
+        startedAt = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheLoader.close();
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        System.out.printf("%n%s: %.1f loads/s%n", mode, loads.sum() / seconds);
+    }
+
+    private String load(String key) {
+        loads.increment();
+        try {
+            Thread.sleep(LOAD_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return key + ":0123456789abcdefghijklmnopqrstuvwxyz";
+    }
+
+    @Benchmark
+    public String read() {
+        String key = "bench:cache:" + ThreadLocalRandom.current().nextInt(HOT_KEYS);
+        if ("getOrLoad".equals(mode)) {
+            return cacheLoader.getOrLoad(key, TTL_SECONDS, () -> load(key));
+        }
+        String value = stub.jedisTemplate.get(key);
+        if (value == null) {
+            value = load(key);
+            stub.jedisTemplate.Setex(key, value, TTL_SECONDS);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,121 @@
+package spring_jedis.benchmarks;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * 16 / 64 / 256 个线程并发 get 时, 两种连接池用法的吞吐与连接数:
+ * <ul>
+ * <li>threadLocal: 原 JedisConfiguration.FTL 的做法, 每个线程第一次使用时新建一个默认配置的 JedisPool, 连接数随线程数增长.</li>
+ * <li>shared: 所有线程共享一个 maxTotal 为 {@value #SHARED_MAX_TOTAL}(redis.maxTotal 的默认值)的连接池, 连接数不超过该值.</li>
+ * </ul>
+ * 每轮结束时打印桩服务器上当前与峰值的连接数. 桩服务器不限制连接数, 也没有每个连接的内存与调度开销,
+ * 线程数远大于连接数时 shared 的吞吐受 maxTotal 限制, 比较时应结合连接数一起看.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionSharingBenchmark {
+
+    static final int SHARED_MAX_TOTAL = 50;
+
+    @Param({"threadLocal", "shared"})
+    public String design;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private RespStubServer server;
+    private JedisTemplate sharedTemplate;
+    private final Queue<JedisPool> threadPools = new ConcurrentLinkedQueue<>();
+    private FastThreadLocal<JedisTemplate> threadTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = new RespStubServer(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        final int port = server.start();
+        server.setLatencyMicros(latencyMicros);
+        if ("shared".equals(design)) {
+            GenericObjectPoolConfig poolConfig = new JedisPoolConfig();
+            poolConfig.setMaxTotal(SHARED_MAX_TOTAL);
+            poolConfig.setMaxIdle(SHARED_MAX_TOTAL);
+            poolConfig.setMaxWaitMillis(-1);
+            sharedTemplate = new JedisTemplate(new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0));
+        } else {
+            threadTemplate = new FastThreadLocal<JedisTemplate>() {
+                @Override
+                protected JedisTemplate initialValue() {
+                    JedisPool vJedisPool = new JedisPool(new JedisPoolConfig(), "127.0.0.1", port, 2000, null, 0);
+                    threadPools.add(vJedisPool);
+                    return new JedisTemplate(vJedisPool);
+                }
+            };
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printConnections(BenchmarkParams params) {
+        System.out.printf("%n%s %d threads: %d connections open, peak %d%n",
+                design, params.getThreads(), server.getConnectionCount(), server.getPeakConnectionCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (sharedTemplate != null) {
+            sharedTemplate.getJedisPool().close();
+        }
+        for (JedisPool vJedisPool : threadPools) {
+            vJedisPool.close();
+        }
+        server.close();
+    }
+
+    private JedisTemplate template() {
+        return sharedTemplate != null ? sharedTemplate : threadTemplate.get();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String get16(KeyState keys) {
+        return template().get(keys.nextKey());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String get64(KeyState keys) {
+        return template().get(keys.nextKey());
+    }
+
+    @Benchmark
+    @Threads(256)
+    public String get256(KeyState keys) {
+        return template().get(keys.nextKey());
+    }
+}
@@ -0,0 +1,77 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.HedgedReads;
+
+/**
+ * 偶发连接卡顿时读的延迟分布(SampleTime, 看 p99.9), 4 个线程并发.
+ * 桩服务器 {@value #STALL_PER_MILLE}‰ 的应答卡顿 {@value #STALL_MILLIS} 毫秒(同一连接上排在其后的应答一同推迟),
+ * 对照是否开启 {@link HedgedReads}(p95 触发, 预算 {@value #BUDGET_PERCENT}%); 结束时打印对冲率与对冲前后的 p99.9.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HedgingBenchmark {
+
+    static final int STALL_PER_MILLE = 2;
+    static final long STALL_MILLIS = 100;
+    static final int BUDGET_PERCENT = 10;
+
+    @Param({"false", "true"})
+    public boolean hedge;
+
+    private StubRedisState stub;
+    private HedgedReads hedgedReads;
+
+    @Setup(Level.Trial)
+    public void setUp(StubRedisState stub) {
+        this.stub = stub;
+        if (hedge) {
+            hedgedReads = new HedgedReads(95, 1, BUDGET_PERCENT, 32);
+            stub.jedisTemplate.setHedgedReads(hedgedReads);
+        }
+        stub.server.setFaults(STALL_PER_MILLE / 1000d, TimeUnit.MILLISECONDS.toMicros(STALL_MILLIS), 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stub.server.setFaults(0, 0, 0);
+        if (hedgedReads != null) {
+            stub.jedisTemplate.setHedgedReads(null);
+            hedgedReads.close();
+            System.out.printf("%nhedge rate %.2f%%, wins %d, attempt p99.9 %.1f ms, caller p99.9 %.1f ms%n", hedgedReads.getHedgeRate(),
+                    hedgedReads.getHedgeWinCount(), hedgedReads.getAttemptLatency().getPercentileMillis(99.9), hedgedReads.getLatency().getPercentileMillis(99.9));
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return stub.jedisTemplate.get(StubRedisState.key(ThreadLocalRandom.current().nextInt(StubRedisState.KEY_SPACE)));
+    }
+
+    @Benchmark
+    public Double zscore() {
+        return stub.jedisTemplate.zscore("bench:zset", StubRedisState.member(ThreadLocalRandom.current().nextInt(StubRedisState.ZSET_SIZE)));
+    }
+}
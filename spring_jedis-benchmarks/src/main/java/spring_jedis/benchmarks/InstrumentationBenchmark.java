@@ -0,0 +1,67 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import redis.clients.jedis.Protocol;
+import spring_jedis.jedis.CommandMetrics;
+
+/**
+ * 按命令统计的开销.
+ * recordHook 与 nanoTimeOnly 之差即每次执行额外付出的记录成本(目标 &lt; 100ns);
+ * getEndToEnd 在桩服务器上对比开启与关闭统计时的 get.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Metrics {
+        final CommandMetrics commandMetrics = new CommandMetrics();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Toggle {
+        @Param({"true", "false"})
+        public boolean metricsEnabled;
+
+        @Setup(Level.Trial)
+        public void setUp(StubRedisState redis) {
+            redis.jedisTemplate.setCommandMetrics(metricsEnabled ? new CommandMetrics() : null);
+        }
+    }
+
+    @Benchmark
+    public long nanoTimeOnly() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public long recordHook(Metrics metrics) {
+        long start = System.nanoTime();
+        metrics.commandMetrics.record(Protocol.Command.GET, false, 1, 1000, start & 0xFFFF, 32, null);
+        return start;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String getEndToEnd(StubRedisState redis, Toggle toggle, KeyState keys) {
+        return redis.jedisTemplate.get(keys.nextKey());
+    }
+}
@@ -0,0 +1,43 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每个基准线程各自的随机 key 序列, 避免线程间共享 Random 带来的竞争.
+ */
+@State(Scope.Thread)
+public class KeyState {
+
+    private final String[] keys = new String[StubRedisState.KEY_SPACE];
+    private final String[] members = new String[StubRedisState.KEY_SPACE];
+
+    public KeyState() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = StubRedisState.key(i);
+            members[i] = StubRedisState.member(i);
+        }
+    }
+
+    public int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(keys.length);
+    }
+
+    public String nextKey() {
+        return keys[nextIndex()];
+    }
+
+    public String nextMember() {
+        return members[nextIndex()];
+    }
+
+    public String[] nextKeys(int count) {
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = nextKey();
+        }
+        return result;
+    }
+}
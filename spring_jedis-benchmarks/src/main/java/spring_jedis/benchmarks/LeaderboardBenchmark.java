@@ -0,0 +1,77 @@
+package spring_jedis.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import redis.clients.jedis.Tuple;
+import spring_jedis.jedis.Leaderboard;
+import spring_jedis.jedis.ScoredMembers;
+
+/**
+ * 排行榜页面: 前 10 名 + 当前用户的排名、分数与前后各 2 名, 榜单含 {@value StubRedisState#ZSET_SIZE} 个成员.
+ * legacyView 为原来的写法(zrevrangeWithScores + zrevrank + zscore + zrevrangeWithScores, 4 次往返, 构造 Tuple 集合);
+ * leaderboardView 使用 {@link Leaderboard}(前 10 名读本地缓存, 其余一次脚本调用).
+ * 分配量用 -prof gc 对比.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    private static final String KEY = "bench:{board}";
+
+    private Leaderboard leaderboard;
+
+    @Setup(Level.Trial)
+    public void setUp(StubRedisState redis) {
+        RespStubStore store = redis.server.getStore();
+        BuiltinScriptEmulations.register(store);
+        for (int i = 0; i < StubRedisState.ZSET_SIZE; i++) {
+            store.execute(new String[] {"ZADD", KEY, Integer.toString(i), StubRedisState.member(i)});
+        }
+        leaderboard = new Leaderboard(redis.jedisTemplate, "bench:", "board", Leaderboard.Bucketing.NONE, 1, 100, 1000);
+    }
+
+    @Benchmark
+    public void legacyView(StubRedisState redis, KeyState keys, Blackhole blackhole) {
+        String member = StubRedisState.member(keys.nextIndex() % StubRedisState.ZSET_SIZE);
+        blackhole.consume(redis.jedisTemplate.zrevrangeWithScores(KEY, 0, 9));
+        Long rank = redis.jedisTemplate.zrevrank(KEY, member);
+        blackhole.consume(redis.jedisTemplate.zscore(KEY, member));
+        Set<Tuple> neighbours = redis.jedisTemplate.zrevrangeWithScores(KEY, (int) Math.max(0, rank - 2), (int) (rank + 2));
+        blackhole.consume(neighbours);
+    }
+
+    @Benchmark
+    public void leaderboardView(KeyState keys, Blackhole blackhole) {
+        String member = StubRedisState.member(keys.nextIndex() % StubRedisState.ZSET_SIZE);
+        blackhole.consume(leaderboard.top(10));
+        blackhole.consume(leaderboard.around(member, 2));
+    }
+
+    @Benchmark
+    public Set<Tuple> top10Tuples(StubRedisState redis) {
+        return redis.jedisTemplate.zrevrangeWithScores(KEY, 0, 9);
+    }
+
+    @Benchmark
+    public ScoredMembers top10Scored(StubRedisState redis) {
+        return redis.jedisTemplate.zrevrangeScored(KEY, 0, 9);
+    }
+}
@@ -0,0 +1,40 @@
+package spring_jedis.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * List Actions: lpush + rpop 成对执行保持队列长度稳定, lrange 读取前 10 个元素, llen.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListBenchmark {
+
+    @Benchmark
+    public String lpushRpop(StubRedisState redis, KeyState keys) {
+        String key = "bench:queue:" + (keys.nextIndex() & 15);
+        redis.jedisTemplate.lpush(key, StubRedisState.value(0));
+        return redis.jedisTemplate.rpop(key);
+    }
+
+    @Benchmark
+    public List<String> lrange10(StubRedisState redis) {
+        return redis.jedisTemplate.lrange("bench:list", 0, 9);
+    }
+
+    @Benchmark
+    public Long llen(StubRedisState redis) {
+        return redis.jedisTemplate.llen("bench:list");
+    }
+}
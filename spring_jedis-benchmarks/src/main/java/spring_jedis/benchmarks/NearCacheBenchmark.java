@@ -0,0 +1,93 @@
+package spring_jedis.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.NearCache;
+
+/**
+ * 近端缓存: Zipf 分布(热点集中)的 get, 对比开启与关闭近端缓存, 写比例 writePercent.
+ * 写操作会触发本地失效, 反映命中率下降后的效果.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearCacheBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Cache {
+        @Param({"false", "true"})
+        public boolean nearCacheEnabled;
+
+        @Param({"0", "5"})
+        public int writePercent;
+
+        NearCache nearCache;
+        StubRedisState redis;
+
+        @Setup(Level.Trial)
+        public void setUp(StubRedisState redis) {
+            this.redis = redis;
+            if (nearCacheEnabled) {
+                nearCache = new NearCache(2000, 60000);
+                redis.jedisTemplate.setNearCache(nearCache);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            redis.jedisTemplate.setNearCache(null);
+            if (nearCache != null) {
+                nearCache.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Zipf {
+        private final double[] cumulative = new double[StubRedisState.KEY_SPACE];
+
+        public Zipf() {
+            double sum = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += 1.0 / (i + 1);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+        }
+    }
+
+    @Benchmark
+    public String zipfGet(StubRedisState redis, Cache cache, Zipf zipf) {
+        int i = zipf.next();
+        if (cache.writePercent > 0 && ThreadLocalRandom.current().nextInt(100) < cache.writePercent) {
+            redis.jedisTemplate.set(StubRedisState.key(i), StubRedisState.value(i));
+            return null;
+        }
+        return redis.jedisTemplate.get(StubRedisState.key(i));
+    }
+}
@@ -0,0 +1,137 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import redis.clients.jedis.Response;
+import spring_jedis.jedis.AsyncJedisTemplate;
+import spring_jedis.jedis.AutoPipeline;
+import spring_jedis.jedis.BatchResult;
+import spring_jedis.jedis.JedisBatch;
+
+/**
+ * 管道路径: 显式 executePipeline 批量写, 与逐条写对比;
+ * 以及单条 get 分别走连接池, AutoPipeline 自动合并, AsyncJedisTemplate 三种方式;
+ * 批量读取 get 分别用 executePipeline + Response 列表与 {@link spring_jedis.jedis.JedisBatch}, 分配量用 -prof gc 对比.
+ * 批量基准的吞吐按单条命令计.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    private static final int BATCH = 100;
+
+    @State(Scope.Benchmark)
+    public static class Clients {
+        AutoPipeline autoPipeline;
+        AsyncJedisTemplate asyncJedisTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp(StubRedisState redis) {
+            autoPipeline = new AutoPipeline(redis.jedisTemplate, 2, 128, 50);
+            asyncJedisTemplate = new AsyncJedisTemplate("127.0.0.1", redis.port, 2000, null, 0, 2, 2);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            autoPipeline.close();
+            asyncJedisTemplate.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void setOneByOne(StubRedisState redis, KeyState keys) {
+        for (int i = 0; i < BATCH; i++) {
+            int index = keys.nextIndex();
+            redis.jedisTemplate.set(StubRedisState.key(index), StubRedisState.value(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void setPipelined(StubRedisState redis, KeyState keys) {
+        redis.jedisTemplate.executePipeline((pipeline) -> {
+            for (int i = 0; i < BATCH; i++) {
+                int index = keys.nextIndex();
+                pipeline.set(StubRedisState.key(index), StubRedisState.value(index));
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getPipelinedResponses(StubRedisState redis, KeyState keys, Blackhole blackhole) {
+        final List<Response<String>> responses = new ArrayList<>(BATCH);
+        redis.jedisTemplate.executePipeline((pipeline) -> {
+            for (int i = 0; i < BATCH; i++) {
+                responses.add(pipeline.get(keys.nextKey()));
+            }
+        });
+        for (Response<String> response : responses) {
+            blackhole.consume(response.get());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getBatch(StubRedisState redis, KeyState keys, Blackhole blackhole) {
+        JedisBatch batch = redis.jedisTemplate.batch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.get(keys.nextKey());
+        }
+        BatchResult result = batch.execute();
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(result.getString(i));
+        }
+    }
+
+    @Benchmark
+    public String getPooled(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.get(keys.nextKey());
+    }
+
+    @Benchmark
+    public String getAutoPipelined(Clients clients, KeyState keys) {
+        final String key = keys.nextKey();
+        return clients.autoPipeline.execute((pipeline) -> pipeline.get(key));
+    }
+
+    @Benchmark
+    public String getAsync(Clients clients, KeyState keys) {
+        return clients.asyncJedisTemplate.get(keys.nextKey()).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getAsyncInFlight(Clients clients, KeyState keys, Blackhole blackhole) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<String>[] futures = new CompletableFuture[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = clients.asyncJedisTemplate.get(keys.nextKey());
+        }
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(futures[i].join());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 发布 {@value #BATCH} 条消息: 逐条 PUBLISH 与 {@link spring_jedis.jedis.JedisTemplate#publishAll} 一次管道发送.
+ * 吞吐为每秒消息数, 桩服务器没有订阅者(PUBLISH 返回 0), 只比较往返次数.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+@State(Scope.Thread)
+public class PublishBenchmark {
+
+    static final int BATCH = 32;
+    static final String CHANNEL = "bench:channel";
+
+    private final List<String> messages = new ArrayList<>(BATCH);
+
+    public PublishBenchmark() {
+        for (int i = 0; i < BATCH; i++) {
+            messages.add("instance-0:bench:key:" + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishEach(StubRedisState stub) {
+        for (String message : messages) {
+            stub.jedisTemplate.publish(CHANNEL, message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishAll(StubRedisState stub) {
+        stub.jedisTemplate.publishAll(CHANNEL, messages);
+    }
+}
@@ -0,0 +1,96 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.QueueConsumer;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * 可靠队列消费吞吐(消息/秒): 每次调用一次性 LPUSH MESSAGES 条消息, 等待消费者全部处理并 ack.
+ * batchSize = 1 时每条消息一次 BRPOPLPUSH + 一次 LREM 往返, 对比批量拉取与批量 ack 的收益.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+    private static final int MESSAGES = 1000;
+    private static final String QUEUE = "{bench-queue}";
+
+    @Param({"1", "32"})
+    public int batchSize;
+
+    @Param({"1", "4"})
+    public int fetchers;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private RespStubServer server;
+    private JedisTemplate producer;
+    private QueueConsumer consumer;
+    private final AtomicLong handled = new AtomicLong();
+    private String[] messages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = new RespStubServer(1);
+        int port = server.start();
+        server.setLatencyMicros(latencyMicros);
+        producer = new JedisTemplate(newPool(port, 4));
+        int handlerThreads = 4;
+        consumer = new QueueConsumer(newPool(port, fetchers + handlerThreads), QUEUE, QUEUE + ":processing",
+                (batch) -> handled.addAndGet(batch.size()), fetchers, handlerThreads, batchSize, 1024, 1).start();
+        messages = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = StubRedisState.value(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        consumer.close();
+        producer.getJedisPool().close();
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long consume() {
+        long target = handled.get() + MESSAGES;
+        producer.lpush(QUEUE, messages);
+        while (handled.get() < target || consumer.getInFlight() > 0) {
+            LockSupport.parkNanos(20_000);
+        }
+        return handled.get();
+    }
+
+    private static ResizableJedisPool newPool(int port, int size) {
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(size);
+        poolConfig.setMaxIdle(size);
+        return new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0);
+    }
+}
@@ -0,0 +1,79 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.RedisRateLimiter;
+
+/**
+ * 限流检查吞吐(每秒检查次数), 单线程运行(-t 1)即为每核吞吐.
+ * 调用方共 1000 个, 其中 10 个"热点"调用方发出 90% 的请求并持续超限, 其余调用方都在限额内;
+ * 对照 localPrecheck 开关, 以及单次检查与 {@value #BATCH} 个调用方一次 Pipeline 的批量检查.
+ * 桩服务器不能运行 Lua, 脚本由 {@link BuiltinScriptEmulations} 以 Java 实现, 服务端开销与真实 Redis 不同, 主要比较客户端开销与往返次数.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    static final int CALLERS = 1000;
+    static final int HOT_CALLERS = 10;
+    static final int BATCH = 16;
+
+    @Param({"SLIDING_LOG", "SLIDING_WINDOW_COUNTER", "TOKEN_BUCKET"})
+    public RedisRateLimiter.Mode mode;
+
+    @Param({"false", "true"})
+    public boolean localPrecheck;
+
+    private final String[] callers = new String[CALLERS];
+    private RedisRateLimiter rateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp(StubRedisState stub) {
+        BuiltinScriptEmulations.register(stub.server.getStore());
+        rateLimiter = new RedisRateLimiter(stub.jedisTemplate, "bench:rate:", mode, 100, 1000, localPrecheck);
+        for (int i = 0; i < CALLERS; i++) {
+            callers[i] = "caller:" + i;
+        }
+    }
+
+    private String nextCaller() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return callers[random.nextInt(10) < 9 ? random.nextInt(HOT_CALLERS) : random.nextInt(CALLERS)];
+    }
+
+    @Benchmark
+    public boolean check() {
+        return rateLimiter.tryAcquire(nextCaller());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Boolean> checkBatch() {
+        List<String> ids = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            ids.add(nextCaller());
+        }
+        return rateLimiter.tryAcquireAll(ids);
+    }
+}
@@ -0,0 +1,113 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import redis.clients.jedis.JedisPool;
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.ReplicaRouter;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * 读写分离: 主节点 + 0 / 2 个从节点(桩服务器), 只读 get 与 9:1 读写混合.
+ * 从节点数为 0 时全部由主节点执行, 作为对照.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplicaBenchmark {
+
+    @Param({"0", "2"})
+    public int replicas;
+
+    @Param({"LEAST_OUTSTANDING", "LATENCY_WEIGHTED"})
+    public ReplicaRouter.Strategy strategy;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private final List<RespStubServer> servers = new ArrayList<>();
+    private JedisTemplate jedisTemplate;
+    private ReplicaRouter replicaRouter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        jedisTemplate = new JedisTemplate(newPool(startServer()));
+        List<JedisPool> replicaPools = new ArrayList<>();
+        for (int i = 0; i < replicas; i++) {
+            replicaPools.add(newPool(startServer()));
+        }
+        for (int i = 0; i < StubRedisState.KEY_SPACE; i++) {
+            for (RespStubServer server : servers) {
+                server.getStore().execute(new String[] {"SET", StubRedisState.key(i), StubRedisState.value(i)});
+            }
+        }
+        if (replicas > 0) {
+            replicaRouter = new ReplicaRouter(replicaPools, strategy, 0);
+            jedisTemplate.setReplicaRouter(replicaRouter);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (replicaRouter != null) {
+            replicaRouter.close();
+            replicaRouter = null;
+        }
+        jedisTemplate.getJedisPool().close();
+        for (RespStubServer server : servers) {
+            server.close();
+        }
+        servers.clear();
+    }
+
+    @Benchmark
+    public String get(KeyState keys) {
+        return jedisTemplate.get(keys.nextKey());
+    }
+
+    @Benchmark
+    public String readMostly(KeyState keys) {
+        int index = keys.nextIndex();
+        String key = StubRedisState.key(index);
+        if (index % 10 == 0) {
+            jedisTemplate.set(key, StubRedisState.value(index));
+            return null;
+        }
+        return jedisTemplate.get(key);
+    }
+
+    private int startServer() throws InterruptedException {
+        RespStubServer server = new RespStubServer(1);
+        int port = server.start();
+        server.setLatencyMicros(latencyMicros);
+        servers.add(server);
+        return port;
+    }
+
+    private static ResizableJedisPool newPool(int port) {
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(StubRedisState.POOL_SIZE);
+        poolConfig.setMaxIdle(StubRedisState.POOL_SIZE);
+        return new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0);
+    }
+}
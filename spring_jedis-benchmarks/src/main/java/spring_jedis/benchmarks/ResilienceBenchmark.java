@@ -0,0 +1,122 @@
+package spring_jedis.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import redis.clients.jedis.exceptions.JedisException;
+import spring_jedis.jedis.JedisResilience;
+
+/**
+ * Redis 变慢(brownout)期间 get 的延迟分布(SampleTime, 看 p99 / p99.9), 8 个线程并发.
+ * 桩服务器 {@value #SLOW_PERCENT}% 的应答延迟 {@value #SLOW_MILLIS} 毫秒(小于连接池 2000 毫秒的读超时, 不开启时调用最终成功).
+ * 开启 {@link JedisResilience} 后: 命令截止时间 {@value #COMMAND_TIMEOUT_MILLIS} 毫秒, 失败率过半即熔断,
+ * 熔断期间快速失败或返回本地旧值; 失败的调用也计入样本(返回 null), 比较的是调用线程被占用的时间.
+ * 延迟必须结合 {@link Outcomes} 一起看: successes 为正常返回的调用(含旧值), staleHits 为其中的本地旧值, failures 为抛出异常的调用;
+ * JMH 只在 Throughput 模式下输出 AuxCounters, 因此同时以 Throughput 模式运行一次, 三者在结果中为每毫秒的次数.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResilienceBenchmark {
+
+    static final int SLOW_PERCENT = 50;
+    static final long SLOW_MILLIS = 1000;
+    static final long COMMAND_TIMEOUT_MILLIS = 50;
+
+    @Param({"false", "true"})
+    public boolean resilience;
+
+    private StubRedisState stub;
+
+    /**
+     * 每个线程的调用结果计数. staleHits 只能从 {@link JedisResilience#getStaleHitCount()} 取得全局增量, 只记在第 0 个线程上.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long successes;
+        public long staleHits;
+        public long failures;
+
+        private ResilienceBenchmark benchmark;
+        private boolean first;
+        private long staleHitsAtStart;
+
+        @Setup(Level.Iteration)
+        public void reset(ResilienceBenchmark benchmark, ThreadParams threadParams) {
+            this.benchmark = benchmark;
+            successes = 0;
+            staleHits = 0;
+            failures = 0;
+            first = threadParams.getThreadIndex() == 0;
+            staleHitsAtStart = benchmark.staleHitCount();
+        }
+
+        /**
+         * JMH 在本轮的 TearDown 之前读取计数, 因此由第 0 个线程在每次调用后更新.
+         */
+        void afterCall() {
+            if (first) {
+                staleHits = benchmark.staleHitCount() - staleHitsAtStart;
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(StubRedisState stub) {
+        this.stub = stub;
+        if (resilience) {
+            stub.jedisTemplate.setResilience(new JedisResilience(COMMAND_TIMEOUT_MILLIS, StubRedisState.POOL_SIZE, 4, 0)
+                    .setCircuitBreaker(50, 10, 50, 80, COMMAND_TIMEOUT_MILLIS / 2, 200, 3)
+                    .enableStaleFallback(StubRedisState.KEY_SPACE, 60000));
+        }
+        stub.server.setFaults(SLOW_PERCENT / 100d, TimeUnit.MILLISECONDS.toMicros(SLOW_MILLIS), 0);
+    }
+
+    long staleHitCount() {
+        JedisResilience vResilience = stub.jedisTemplate.getResilience();
+        return vResilience == null ? 0 : vResilience.getStaleHitCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stub.server.setFaults(0, 0, 0);
+        stub.jedisTemplate.setResilience(null);
+    }
+
+    @Benchmark
+    public String get(Outcomes outcomes) {
+        try {
+            String value = stub.jedisTemplate.get(StubRedisState.key(ThreadLocalRandom.current().nextInt(StubRedisState.KEY_SPACE)));
+            outcomes.successes++;
+            return value;
+        } catch (JedisException e) {
+            outcomes.failures++;
+            return null;
+        } finally {
+            outcomes.afterCall();
+        }
+    }
+
+}
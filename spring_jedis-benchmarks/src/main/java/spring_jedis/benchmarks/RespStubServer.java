@@ -0,0 +1,308 @@
+package spring_jedis.benchmarks;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.redis.ArrayRedisMessage;
+import io.netty.handler.codec.redis.ErrorRedisMessage;
+import io.netty.handler.codec.redis.FullBulkStringRedisMessage;
+import io.netty.handler.codec.redis.RedisArrayAggregator;
+import io.netty.handler.codec.redis.RedisBulkStringAggregator;
+import io.netty.handler.codec.redis.RedisDecoder;
+import io.netty.handler.codec.redis.RedisEncoder;
+import io.netty.handler.codec.redis.RedisMessage;
+import io.netty.handler.codec.redis.SimpleStringRedisMessage;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * 进程内的 RESP 桩服务器, 供基准测试离线运行.
+ * 命令由 {@link RespStubStore} 在内存中执行; 可注入固定的应答延迟, 模拟真实网络往返;
+ * 也可按比例注入慢应答与断开连接, 模拟 Redis 变慢或不可用.
+ */
+public class RespStubServer implements Closeable {
+
+    private final EventLoopGroup bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("resp-stub-boss", true));
+    private final EventLoopGroup workerGroup;
+    private final RespStubStore store = new RespStubStore();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final ByteCounter byteCounter = new ByteCounter();
+    private volatile long latencyMicros;
+    private volatile double slowRate;
+    private volatile long slowMicros;
+    private volatile double dropRate;
+    private Channel serverChannel;
+
+    public RespStubServer(int ioThreads) {
+        this.workerGroup = new NioEventLoopGroup(ioThreads, new DefaultThreadFactory("resp-stub-io", true));
+    }
+
+    /**
+     * 绑定 127.0.0.1 的随机端口, 返回端口号.
+     */
+    public int start() throws InterruptedException {
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                byteCounter,
+                                new RedisDecoder(),
+                                new RedisBulkStringAggregator(),
+                                new RedisArrayAggregator(),
+                                new RedisEncoder(),
+                                new CommandHandler());
+                    }
+                });
+        serverChannel = bootstrap.bind("127.0.0.1", 0).sync().channel();
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    /**
+     * 每条应答额外延迟的微秒数, 0 表示立即应答.
+     */
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+
+    /**
+     * 故障注入: 比例为 slowRate 的应答再延迟 slowMicros 微秒, 比例为 dropRate 的命令不应答并断开连接; 全为 0 时关闭.
+     * 同一连接上的应答保持顺序, 排在慢应答之后的应答一同被推迟.
+     */
+    public void setFaults(double slowRate, long slowMicros, double dropRate) {
+        this.slowRate = slowRate;
+        this.slowMicros = slowMicros;
+        this.dropRate = dropRate;
+    }
+
+    public RespStubStore getStore() {
+        return store;
+    }
+
+    /**
+     * 当前打开的客户端连接数.
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * 启动以来同时打开的最大连接数.
+     */
+    public int getPeakConnectionCount() {
+        return peakConnections.get();
+    }
+
+    /**
+     * 启动以来从客户端收到的字节数(命令的 RESP 编码).
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * 启动以来发给客户端的字节数(应答的 RESP 编码).
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public void close() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+        }
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    private static final AttributeKey<List<String[]>> TRANSACTION = AttributeKey.valueOf("resp-stub-transaction");
+    private static final AttributeKey<DelayedReplies> DELAYED_REPLIES = AttributeKey.valueOf("resp-stub-delayed-replies");
+    private static final RedisMessage OK = new SimpleStringRedisMessage("OK");
+    private static final RedisMessage QUEUED = new SimpleStringRedisMessage("QUEUED");
+
+    /**
+     * 连接上等待发送的应答, 只在连接的 EventLoop 线程中访问; 第 n 条入队的应答序号为 n.
+     */
+    private static final class DelayedReplies {
+        final ArrayDeque<RedisMessage> queue = new ArrayDeque<>();
+        long queued;
+        long written;
+        long lastReplyAt;
+    }
+
+    /**
+     * 位于 pipeline 最前面, 统计收发的原始字节数.
+     */
+    @ChannelHandler.Sharable
+    private final class ByteCounter extends ChannelDuplexHandler {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof ByteBuf) {
+                bytesReceived.add(((ByteBuf) msg).readableBytes());
+            }
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof ByteBuf) {
+                bytesSent.add(((ByteBuf) msg).readableBytes());
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    /**
+     * MULTI 之后的命令在连接上排队, EXEC 时在同一把锁内依次执行.
+     */
+    @ChannelHandler.Sharable
+    private final class CommandHandler extends SimpleChannelInboundHandler<ArrayRedisMessage> {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            peakConnections.accumulateAndGet(connections.incrementAndGet(), Math::max);
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            connections.decrementAndGet();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ArrayRedisMessage msg) {
+            String[] args = new String[msg.children().size()];
+            for (int i = 0; i < args.length; i++) {
+                ByteBuf content = ((FullBulkStringRedisMessage) msg.children().get(i)).content();
+                args[i] = content.toString(StandardCharsets.ISO_8859_1);
+            }
+            List<String[]> transaction = ctx.channel().attr(TRANSACTION).get();
+            String command = args[0].toUpperCase();
+            if ("MULTI".equals(command)) {
+                ctx.channel().attr(TRANSACTION).set(new ArrayList<>());
+                reply(ctx, OK);
+                return;
+            }
+            if ("DISCARD".equals(command)) {
+                ctx.channel().attr(TRANSACTION).set(null);
+                reply(ctx, OK);
+                return;
+            }
+            if ("EXEC".equals(command)) {
+                ctx.channel().attr(TRANSACTION).set(null);
+                reply(ctx, transaction == null ? new ErrorRedisMessage("ERR EXEC without MULTI") : store.executeAll(transaction));
+                return;
+            }
+            if (transaction != null) {
+                transaction.add(args);
+                reply(ctx, QUEUED);
+                return;
+            }
+            if ("BRPOPLPUSH".equals(command)) {
+                long timeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[3]));
+                blockingReply(ctx, args, System.nanoTime() + (timeoutNanos == 0 ? Long.MAX_VALUE / 2 : timeoutNanos));
+                return;
+            }
+            reply(ctx, store.execute(args));
+        }
+
+        /**
+         * 阻塞命令: 列表为空时每毫秒重试一次, 直到取到元素或超时.
+         */
+        private void blockingReply(ChannelHandlerContext ctx, String[] args, long deadline) {
+            RedisMessage reply = store.execute(args);
+            if (reply == FullBulkStringRedisMessage.NULL_INSTANCE && System.nanoTime() - deadline < 0 && ctx.channel().isActive()) {
+                ctx.executor().schedule(() -> blockingReply(ctx, args, deadline), 1, TimeUnit.MILLISECONDS);
+                return;
+            }
+            reply(ctx, reply);
+            ctx.flush();
+        }
+
+        private void reply(ChannelHandlerContext ctx, RedisMessage reply) {
+            long delay = latencyMicros;
+            if (slowRate > 0 || dropRate > 0) {
+                replyWithFaults(ctx, reply, delay);
+            } else if (delay > 0) {
+                ctx.executor().schedule(() -> ctx.writeAndFlush(reply), delay, TimeUnit.MICROSECONDS);
+            } else {
+                ctx.write(reply);
+            }
+        }
+
+        /**
+         * 注入故障时应答进入连接上的队列, 发送时刻不早于前一条应答;
+         * 每条应答调度一次发送, 发送时连同排在它之前的应答一起按顺序写出, 保证同一连接上的应答顺序不变.
+         */
+        private void replyWithFaults(ChannelHandlerContext ctx, RedisMessage reply, long delayMicros) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < dropRate) {
+                ctx.close();
+                return;
+            }
+            if (random.nextDouble() < slowRate) {
+                delayMicros += slowMicros;
+            }
+            DelayedReplies pending = ctx.channel().attr(DELAYED_REPLIES).get();
+            if (pending == null) {
+                pending = new DelayedReplies();
+                ctx.channel().attr(DELAYED_REPLIES).set(pending);
+            }
+            long now = System.nanoTime();
+            long replyAt = Math.max(now + TimeUnit.MICROSECONDS.toNanos(delayMicros), pending.lastReplyAt);
+            long sequence = ++pending.queued;
+            pending.lastReplyAt = replyAt;
+            pending.queue.add(reply);
+            final DelayedReplies vPending = pending;
+            ctx.executor().schedule(() -> {
+                while (vPending.written < sequence) {
+                    ctx.write(vPending.queue.poll());
+                    vPending.written++;
+                }
+                ctx.flush();
+            }, replyAt - now, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
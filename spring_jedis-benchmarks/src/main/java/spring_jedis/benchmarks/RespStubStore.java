@@ -0,0 +1,627 @@
+package spring_jedis.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.redis.ArrayRedisMessage;
+import io.netty.handler.codec.redis.ErrorRedisMessage;
+import io.netty.handler.codec.redis.FullBulkStringRedisMessage;
+import io.netty.handler.codec.redis.IntegerRedisMessage;
+import io.netty.handler.codec.redis.RedisMessage;
+import io.netty.handler.codec.redis.SimpleStringRedisMessage;
+
+/**
+ * 桩服务器的内存数据集, 只实现基准测试用到的命令子集; stream 命令见 {@link StubStream}.
+ * 过期时间只在访问时检查(命令的第一个 key 与 MGET 的各个 key), 没有后台清理.
+ * 所有命令在同一把锁内串行执行, 与 Redis 的单线程语义一致.
+ * 桩服务器不能运行 Lua, EVAL / EVALSHA 只支持通过 {@link #registerScript(String, ScriptEmulation)} 登记了 Java 实现的脚本.
+ */
+public class RespStubStore {
+
+    /**
+     * 脚本的 Java 实现, 在数据集的锁内执行, 可通过 {@link RespStubStore#execute(String[])} 调用其他命令.
+     */
+    public interface ScriptEmulation {
+        RedisMessage eval(RespStubStore store, List<String> keys, List<String> args);
+    }
+
+    private static final RedisMessage OK = new SimpleStringRedisMessage("OK");
+    private static final RedisMessage PONG = new SimpleStringRedisMessage("PONG");
+    private static final RedisMessage WRONG_TYPE = new ErrorRedisMessage("WRONGTYPE Operation against a key holding the wrong kind of value");
+
+    private final Map<String, Object> data = new HashMap<>();
+    private final Map<String, Long> expiresAt = new HashMap<>();
+    private final Map<String, ScriptEmulation> scripts = new HashMap<>();
+    private final Set<String> loadedScripts = new HashSet<>();
+
+    /**
+     * 登记脚本源码对应的 Java 实现, 之后 EVAL 该源码或 SCRIPT LOAD 后 EVALSHA 时执行.
+     */
+    public synchronized void registerScript(String source, ScriptEmulation emulation) {
+        scripts.put(sha1Hex(source.getBytes(StandardCharsets.UTF_8)), emulation);
+    }
+
+    public synchronized void flushAll() {
+        data.clear();
+        expiresAt.clear();
+        loadedScripts.clear();
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public synchronized RedisMessage execute(String[] args) {
+        try {
+            if (args.length > 1) {
+                expireIfDue(args[1]);
+            }
+            return dispatch(args[0].toUpperCase(), args);
+        } catch (ClassCastException e) {
+            return WRONG_TYPE;
+        } catch (NumberFormatException e) {
+            return new ErrorRedisMessage("ERR value is not an integer or out of range");
+        } catch (IndexOutOfBoundsException e) {
+            return new ErrorRedisMessage("ERR wrong number of arguments for '" + args[0].toLowerCase() + "' command");
+        }
+    }
+
+    /**
+     * 依次执行事务中的命令, 返回各命令应答组成的数组.
+     */
+    public synchronized RedisMessage executeAll(List<String[]> commands) {
+        List<RedisMessage> replies = new ArrayList<>(commands.size());
+        for (String[] args : commands) {
+            replies.add(execute(args));
+        }
+        return new ArrayRedisMessage(replies);
+    }
+
+    private RedisMessage dispatch(String command, String[] args) {
+        switch (command) {
+            case "PING":
+                return PONG;
+            case "AUTH":
+            case "SELECT":
+            case "QUIT":
+                return OK;
+            case "FLUSHDB":
+            case "FLUSHALL":
+                data.clear();
+                expiresAt.clear();
+                return OK;
+            case "PUBLISH":
+                return new IntegerRedisMessage(0);
+
+            //================================String
+            case "GET":
+                return bulk((String) data.get(args[1]));
+            case "SET":
+                return set(args);
+            case "SETEX":
+                data.put(args[1], args[3]);
+                expiresAt.put(args[1], System.currentTimeMillis() + 1000 * Long.parseLong(args[2]));
+                return OK;
+            case "PSETEX":
+                data.put(args[1], args[3]);
+                expiresAt.put(args[1], System.currentTimeMillis() + Long.parseLong(args[2]));
+                return OK;
+            case "SETNX":
+                return new IntegerRedisMessage(data.putIfAbsent(args[1], args[2]) == null ? 1 : 0);
+            case "GETSET":
+                return bulk((String) data.put(args[1], args[2]));
+            case "MGET": {
+                List<RedisMessage> values = new ArrayList<>(args.length - 1);
+                for (int i = 1; i < args.length; i++) {
+                    expireIfDue(args[i]);
+                    Object value = data.get(args[i]);
+                    values.add(bulk(value instanceof String ? (String) value : null));
+                }
+                return new ArrayRedisMessage(values);
+            }
+            case "MSET":
+                for (int i = 1; i + 1 < args.length; i += 2) {
+                    data.put(args[i], args[i + 1]);
+                }
+                return OK;
+            case "INCR":
+                return incrBy(args[1], 1);
+            case "INCRBY":
+                return incrBy(args[1], Long.parseLong(args[2]));
+            case "DECR":
+                return incrBy(args[1], -1);
+            case "DECRBY":
+                return incrBy(args[1], -Long.parseLong(args[2]));
+
+            //================================Common
+            case "DEL": {
+                int removed = 0;
+                for (int i = 1; i < args.length; i++) {
+                    expiresAt.remove(args[i]);
+                    removed += data.remove(args[i]) == null ? 0 : 1;
+                }
+                return new IntegerRedisMessage(removed);
+            }
+            case "EXISTS":
+                return new IntegerRedisMessage(data.containsKey(args[1]) ? 1 : 0);
+            case "EXPIRE":
+            case "PEXPIRE": {
+                if (!data.containsKey(args[1])) {
+                    return new IntegerRedisMessage(0);
+                }
+                long millis = Long.parseLong(args[2]) * ("EXPIRE".equals(command) ? 1000 : 1);
+                expiresAt.put(args[1], System.currentTimeMillis() + millis);
+                return new IntegerRedisMessage(1);
+            }
+
+            //================================List
+            case "LPUSH":
+            case "RPUSH": {
+                LinkedList<String> list = list(args[1], true);
+                for (int i = 2; i < args.length; i++) {
+                    if ("LPUSH".equals(command)) {
+                        list.addFirst(args[i]);
+                    } else {
+                        list.addLast(args[i]);
+                    }
+                }
+                return new IntegerRedisMessage(list.size());
+            }
+            case "LPOP":
+            case "RPOP": {
+                LinkedList<String> list = list(args[1], false);
+                if (list == null || list.isEmpty()) {
+                    return FullBulkStringRedisMessage.NULL_INSTANCE;
+                }
+                String value = "LPOP".equals(command) ? list.removeFirst() : list.removeLast();
+                removeIfEmpty(args[1], list);
+                return bulk(value);
+            }
+            case "RPOPLPUSH":
+            case "BRPOPLPUSH": {
+                LinkedList<String> source = list(args[1], false);
+                if (source == null || source.isEmpty()) {
+                    return FullBulkStringRedisMessage.NULL_INSTANCE;
+                }
+                String value = source.removeLast();
+                removeIfEmpty(args[1], source);
+                list(args[2], true).addFirst(value);
+                return bulk(value);
+            }
+            case "LREM": {
+                LinkedList<String> list = list(args[1], false);
+                long count = Long.parseLong(args[2]);
+                int removed = 0;
+                if (list != null) {
+                    Iterator<String> iterator = count < 0 ? list.descendingIterator() : list.iterator();
+                    while (iterator.hasNext() && (count == 0 || removed < Math.abs(count))) {
+                        if (iterator.next().equals(args[3])) {
+                            iterator.remove();
+                            removed++;
+                        }
+                    }
+                    removeIfEmpty(args[1], list);
+                }
+                return new IntegerRedisMessage(removed);
+            }
+            case "LLEN": {
+                LinkedList<String> list = list(args[1], false);
+                return new IntegerRedisMessage(list == null ? 0 : list.size());
+            }
+            case "LRANGE":
+                return lrange(args[1], Long.parseLong(args[2]), Long.parseLong(args[3]));
+            case "LTRIM": {
+                LinkedList<String> list = list(args[1], false);
+                if (list != null) {
+                    int[] range = range(list.size(), Long.parseLong(args[2]), Long.parseLong(args[3]));
+                    List<String> kept = range == null ? new ArrayList<>() : new ArrayList<>(list.subList(range[0], range[1] + 1));
+                    list.clear();
+                    list.addAll(kept);
+                    removeIfEmpty(args[1], list);
+                }
+                return OK;
+            }
+
+            //================================Set
+            case "SADD": {
+                Set<String> set = set(args[1], true);
+                int added = 0;
+                for (int i = 2; i < args.length; i++) {
+                    added += set.add(args[i]) ? 1 : 0;
+                }
+                return new IntegerRedisMessage(added);
+            }
+            case "SREM": {
+                Set<String> set = set(args[1], false);
+                int removed = 0;
+                for (int i = 2; set != null && i < args.length; i++) {
+                    removed += set.remove(args[i]) ? 1 : 0;
+                }
+                removeIfEmpty(args[1], set);
+                return new IntegerRedisMessage(removed);
+            }
+            case "SCARD": {
+                Set<String> set = set(args[1], false);
+                return new IntegerRedisMessage(set == null ? 0 : set.size());
+            }
+            case "SISMEMBER": {
+                Set<String> set = set(args[1], false);
+                return new IntegerRedisMessage(set != null && set.contains(args[2]) ? 1 : 0);
+            }
+            case "SMEMBERS": {
+                Set<String> set = set(args[1], false);
+                return strings(set == null ? new ArrayList<>() : new ArrayList<>(set));
+            }
+            case "SPOP": {
+                Set<String> set = set(args[1], false);
+                if (set == null || set.isEmpty()) {
+                    return FullBulkStringRedisMessage.NULL_INSTANCE;
+                }
+                Iterator<String> iterator = set.iterator();
+                String value = iterator.next();
+                iterator.remove();
+                removeIfEmpty(args[1], set);
+                return bulk(value);
+            }
+
+            //================================ZSet
+            case "ZADD": {
+                Map<String, Double> zset = zset(args[1], true);
+                int added = 0;
+                for (int i = 2; i + 1 < args.length; i += 2) {
+                    added += zset.put(args[i + 1], parseScore(args[i])) == null ? 1 : 0;
+                }
+                return new IntegerRedisMessage(added);
+            }
+            case "ZINCRBY": {
+                Map<String, Double> zset = zset(args[1], true);
+                double score = zset.merge(args[3], parseScore(args[2]), Double::sum);
+                return bulk(formatScore(score));
+            }
+            case "ZREM": {
+                Map<String, Double> zset = zset(args[1], false);
+                int removed = 0;
+                for (int i = 2; zset != null && i < args.length; i++) {
+                    removed += zset.remove(args[i]) == null ? 0 : 1;
+                }
+                removeIfEmpty(args[1], zset);
+                return new IntegerRedisMessage(removed);
+            }
+            case "ZSCORE": {
+                Map<String, Double> zset = zset(args[1], false);
+                Double score = zset == null ? null : zset.get(args[2]);
+                return bulk(score == null ? null : formatScore(score));
+            }
+            case "ZREMRANGEBYSCORE": {
+                Map<String, Double> zset = zset(args[1], false);
+                double min = parseScore(args[2]);
+                double max = parseScore(args[3]);
+                int removed = 0;
+                for (Iterator<Double> iterator = zset == null ? null : zset.values().iterator(); iterator != null && iterator.hasNext(); ) {
+                    double score = iterator.next();
+                    if (score >= min && score <= max) {
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+                removeIfEmpty(args[1], zset);
+                return new IntegerRedisMessage(removed);
+            }
+            case "ZCARD": {
+                Map<String, Double> zset = zset(args[1], false);
+                return new IntegerRedisMessage(zset == null ? 0 : zset.size());
+            }
+            case "ZRANK":
+            case "ZREVRANK": {
+                List<Map.Entry<String, Double>> sorted = sorted(args[1], "ZREVRANK".equals(command));
+                for (int i = 0; i < sorted.size(); i++) {
+                    if (sorted.get(i).getKey().equals(args[2])) {
+                        return new IntegerRedisMessage(i);
+                    }
+                }
+                return FullBulkStringRedisMessage.NULL_INSTANCE;
+            }
+            case "ZRANGE":
+            case "ZREVRANGE": {
+                List<Map.Entry<String, Double>> sorted = sorted(args[1], "ZREVRANGE".equals(command));
+                boolean withScores = args.length > 4 && "WITHSCORES".equalsIgnoreCase(args[4]);
+                int[] range = range(sorted.size(), Long.parseLong(args[2]), Long.parseLong(args[3]));
+                List<RedisMessage> reply = new ArrayList<>();
+                for (int i = range == null ? 0 : range[0]; range != null && i <= range[1]; i++) {
+                    reply.add(bulk(sorted.get(i).getKey()));
+                    if (withScores) {
+                        reply.add(bulk(formatScore(sorted.get(i).getValue())));
+                    }
+                }
+                return new ArrayRedisMessage(reply);
+            }
+
+            //================================Hash
+            case "HSET":
+            case "HMSET": {
+                Map<String, String> hash = hash(args[1], true);
+                int added = 0;
+                for (int i = 2; i + 1 < args.length; i += 2) {
+                    added += hash.put(args[i], args[i + 1]) == null ? 1 : 0;
+                }
+                return "HMSET".equals(command) ? OK : new IntegerRedisMessage(added);
+            }
+            case "HGET": {
+                Map<String, String> hash = hash(args[1], false);
+                return bulk(hash == null ? null : hash.get(args[2]));
+            }
+            case "HMGET": {
+                Map<String, String> hash = hash(args[1], false);
+                List<RedisMessage> values = new ArrayList<>(args.length - 2);
+                for (int i = 2; i < args.length; i++) {
+                    values.add(bulk(hash == null ? null : hash.get(args[i])));
+                }
+                return new ArrayRedisMessage(values);
+            }
+            case "HGETALL": {
+                Map<String, String> hash = hash(args[1], false);
+                List<String> values = new ArrayList<>();
+                if (hash != null) {
+                    for (Map.Entry<String, String> entry : hash.entrySet()) {
+                        values.add(entry.getKey());
+                        values.add(entry.getValue());
+                    }
+                }
+                return strings(values);
+            }
+            case "HLEN": {
+                Map<String, String> hash = hash(args[1], false);
+                return new IntegerRedisMessage(hash == null ? 0 : hash.size());
+            }
+            case "HDEL": {
+                Map<String, String> hash = hash(args[1], false);
+                int removed = 0;
+                for (int i = 2; hash != null && i < args.length; i++) {
+                    removed += hash.remove(args[i]) == null ? 0 : 1;
+                }
+                removeIfEmpty(args[1], hash);
+                return new IntegerRedisMessage(removed);
+            }
+            case "HINCRBY": {
+                Map<String, String> hash = hash(args[1], true);
+                long value = Long.parseLong(hash.getOrDefault(args[2], "0")) + Long.parseLong(args[3]);
+                hash.put(args[2], Long.toString(value));
+                return new IntegerRedisMessage(value);
+            }
+
+            //================================Stream
+            case "XADD":
+                return stream(args[1], true).add(args);
+            case "XLEN": {
+                StubStream stream = stream(args[1], false);
+                return new IntegerRedisMessage(stream == null ? 0 : stream.size());
+            }
+            case "XGROUP": {
+                if (!"CREATE".equalsIgnoreCase(args[1])) {
+                    return new ErrorRedisMessage("ERR unsupported XGROUP subcommand");
+                }
+                StubStream stream = stream(args[2], true);
+                if (!stream.createGroup(args[3], args[4])) {
+                    return new ErrorRedisMessage("BUSYGROUP Consumer Group name already exists");
+                }
+                return OK;
+            }
+            case "XREADGROUP": {
+                // XREADGROUP GROUP group consumer COUNT count STREAMS key id
+                StubStream stream = stream(args[7], false);
+                if (stream == null) {
+                    return new ErrorRedisMessage("NOGROUP No such key or consumer group");
+                }
+                return stream.readGroup(args[2], args[3], Integer.parseInt(args[5]), args[8], args[7]);
+            }
+            case "XACK": {
+                StubStream stream = stream(args[1], false);
+                return stream == null ? new IntegerRedisMessage(0) : stream.ack(args[2], args, 3);
+            }
+            case "XCLAIM":
+                return stream(args[1], true).claim(args[2], args[3], Long.parseLong(args[4]), args, 5);
+            case "XAUTOCLAIM":
+                return stream(args[1], true).autoClaim(args[2], args[3], Long.parseLong(args[4]), args[5], Integer.parseInt(args[7]));
+            case "XPENDING":
+                return stream(args[1], true).pendingSummary(args[2]);
+
+            //================================Script
+            case "SCRIPT": {
+                if (!"LOAD".equalsIgnoreCase(args[1])) {
+                    return new ErrorRedisMessage("ERR unsupported SCRIPT subcommand");
+                }
+                String sha1 = sha1Hex(args[2].getBytes(StandardCharsets.ISO_8859_1));
+                loadedScripts.add(sha1);
+                return bulk(sha1);
+            }
+            case "EVAL": {
+                String sha1 = sha1Hex(args[1].getBytes(StandardCharsets.ISO_8859_1));
+                loadedScripts.add(sha1);
+                return evalScript(sha1, args);
+            }
+            case "EVALSHA":
+                if (!loadedScripts.contains(args[1].toLowerCase())) {
+                    return new ErrorRedisMessage("NOSCRIPT No matching script. Please use EVAL.");
+                }
+                return evalScript(args[1].toLowerCase(), args);
+            default:
+                return new ErrorRedisMessage("ERR unknown command '" + args[0] + "'");
+        }
+    }
+
+    private RedisMessage evalScript(String sha1, String[] args) {
+        ScriptEmulation emulation = scripts.get(sha1);
+        if (emulation == null) {
+            return new ErrorRedisMessage("ERR stub server cannot run Lua, script " + sha1 + " is not emulated");
+        }
+        int numKeys = Integer.parseInt(args[2]);
+        List<String> keys = Arrays.asList(args).subList(3, 3 + numKeys);
+        List<String> scriptArgs = Arrays.asList(args).subList(3 + numKeys, args.length);
+        return emulation.eval(this, keys, scriptArgs);
+    }
+
+    /**
+     * 命令参数按 ISO-8859-1 解码, 还原为字节后与客户端(UTF-8 编码源码)算出的 SHA1 一致.
+     */
+    private static String sha1Hex(byte[] source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(source);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RedisMessage set(String[] args) {
+        boolean nx = false;
+        boolean xx = false;
+        for (int i = 3; i < args.length; i++) {
+            nx |= "NX".equalsIgnoreCase(args[i]);
+            xx |= "XX".equalsIgnoreCase(args[i]);
+        }
+        boolean exists = data.containsKey(args[1]);
+        if ((nx && exists) || (xx && !exists)) {
+            return FullBulkStringRedisMessage.NULL_INSTANCE;
+        }
+        data.put(args[1], args[2]);
+        expiresAt.remove(args[1]);
+        for (int i = 3; i < args.length - 1; i++) {
+            if ("PX".equalsIgnoreCase(args[i])) {
+                expiresAt.put(args[1], System.currentTimeMillis() + Long.parseLong(args[i + 1]));
+            } else if ("EX".equalsIgnoreCase(args[i])) {
+                expiresAt.put(args[1], System.currentTimeMillis() + 1000 * Long.parseLong(args[i + 1]));
+            }
+        }
+        return OK;
+    }
+
+    private void expireIfDue(String key) {
+        if (expiresAt.isEmpty()) {
+            return;
+        }
+        Long at = expiresAt.get(key);
+        if (at != null && at <= System.currentTimeMillis()) {
+            expiresAt.remove(key);
+            data.remove(key);
+        }
+    }
+
+    private RedisMessage incrBy(String key, long delta) {
+        long value = Long.parseLong((String) data.getOrDefault(key, "0")) + delta;
+        data.put(key, Long.toString(value));
+        return new IntegerRedisMessage(value);
+    }
+
+    private RedisMessage lrange(String key, long start, long stop) {
+        LinkedList<String> list = list(key, false);
+        List<String> values = new ArrayList<>();
+        int[] range = list == null ? null : range(list.size(), start, stop);
+        if (range != null) {
+            ListIterator<String> iterator = list.listIterator(range[0]);
+            for (int i = range[0]; i <= range[1]; i++) {
+                values.add(iterator.next());
+            }
+        }
+        return strings(values);
+    }
+
+    /**
+     * 把 Redis 风格的(可为负数的)闭区间换算为 [from, to], 区间为空时返回 null.
+     */
+    private static int[] range(int size, long start, long stop) {
+        long from = start < 0 ? Math.max(0, size + start) : start;
+        long to = stop < 0 ? size + stop : Math.min(stop, size - 1);
+        if (from > to || from >= size) {
+            return null;
+        }
+        return new int[] {(int) from, (int) to};
+    }
+
+    private List<Map.Entry<String, Double>> sorted(String key, boolean reverse) {
+        Map<String, Double> zset = zset(key, false);
+        List<Map.Entry<String, Double>> sorted = zset == null ? new ArrayList<>() : new ArrayList<>(zset.entrySet());
+        Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+        sorted.sort(reverse ? order.reversed() : order);
+        return sorted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedList<String> list(String key, boolean create) {
+        return (LinkedList<String>) (create ? data.computeIfAbsent(key, (k) -> new LinkedList<String>()) : data.get(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> set(String key, boolean create) {
+        return (Set<String>) (create ? data.computeIfAbsent(key, (k) -> new HashSet<String>()) : data.get(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> zset(String key, boolean create) {
+        return (Map<String, Double>) (create ? data.computeIfAbsent(key, (k) -> new HashMap<String, Double>()) : data.get(key));
+    }
+
+    private StubStream stream(String key, boolean create) {
+        return (StubStream) (create ? data.computeIfAbsent(key, (k) -> new StubStream()) : data.get(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> hash(String key, boolean create) {
+        return (Map<String, String>) (create ? data.computeIfAbsent(key, (k) -> new HashMap<String, String>()) : data.get(key));
+    }
+
+    private void removeIfEmpty(String key, Object collection) {
+        if ((collection instanceof java.util.Collection && ((java.util.Collection<?>) collection).isEmpty())
+                || (collection instanceof Map && ((Map<?, ?>) collection).isEmpty())) {
+            data.remove(key);
+        }
+    }
+
+    private static double parseScore(String score) {
+        if ("+inf".equalsIgnoreCase(score) || "inf".equalsIgnoreCase(score)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("-inf".equalsIgnoreCase(score)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.parseDouble(score);
+    }
+
+    private static String formatScore(double score) {
+        if (score == Math.rint(score) && !Double.isInfinite(score) && Math.abs(score) < 1e15) {
+            return Long.toString((long) score);
+        }
+        return Double.isInfinite(score) ? (score > 0 ? "inf" : "-inf") : Double.toString(score);
+    }
+
+    private static RedisMessage strings(List<String> values) {
+        List<RedisMessage> children = new ArrayList<>(values.size());
+        for (String value : values) {
+            children.add(bulk(value));
+        }
+        return new ArrayRedisMessage(children);
+    }
+
+    private static RedisMessage bulk(String value) {
+        if (value == null) {
+            return FullBulkStringRedisMessage.NULL_INSTANCE;
+        }
+        return new FullBulkStringRedisMessage(Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+}
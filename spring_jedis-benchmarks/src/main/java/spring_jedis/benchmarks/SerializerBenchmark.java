@@ -0,0 +1,194 @@
+package spring_jedis.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.RedisSerializer;
+import spring_jedis.jedis.RedisSerializers;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * RedisSerializer 的开销.
+ * <ul>
+ * <li>longAsText / longAsVarint: 只编解码, 不访问 Redis.</li>
+ * <li>其余基准使用 {@link Payload}: 约 size 字节的 JSON 文本(带随机数字, 不是一眼可压缩的重复内容),
+ * 只编解码(compress / decompress)或经桩服务器 SET + GET 一次(string / bytes / compressed 三条路径):
+ * string 为 String 重载, bytes 为 byte[] 重载(UTF-8 编码在调用方), compressed 为 Deflate 压缩的 byte[] 重载.
+ * 每轮结束时打印每次 SET + GET 在线路上收发的字节数.</li>
+ * </ul>
+ * 启动时先对 0 字节到 8 MB 的随机 / 小字母表 / 单字符数据检查 compressed 的编解码往返, 不一致时直接失败.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializerBenchmark {
+
+    static final int THRESHOLD = 256;
+
+    private final long number = 1234567L;
+
+    @Setup(Level.Trial)
+    public void verifyRoundTrip() {
+        RedisSerializer<byte[]> compressed = RedisSerializers.compressed(RedisSerializers.bytes(), THRESHOLD);
+        Random random = new Random(42);
+        int[] sizes = {0, 1, THRESHOLD - 1, THRESHOLD, 4096, 32767, 32768, 33000, 40000, 65536, 70000, 200000,
+                1 << 20, 3 << 20, 8 << 20};
+        for (int size : sizes) {
+            for (int alphabet : new int[] {256, 4, 1}) {
+                byte[] raw = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    raw[i] = (byte) ('a' + random.nextInt(alphabet));
+                }
+                byte[] decoded = compressed.deserialize(compressed.serialize(raw));
+                if (!Arrays.equals(raw, decoded)) {
+                    throw new IllegalStateException("compressed round trip failed, size " + size + ", alphabet " + alphabet);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Long longAsText() {
+        return Long.valueOf(RedisSerializers.string().deserialize(RedisSerializers.string().serialize(Long.toString(number))));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Long longAsVarint() {
+        return RedisSerializers.varLong().deserialize(RedisSerializers.varLong().serialize(number));
+    }
+
+    @Benchmark
+    public byte[] compress(Payload payload) {
+        return payload.compressed.serialize(payload.text);
+    }
+
+    @Benchmark
+    public String decompress(Payload payload) {
+        return payload.compressed.deserialize(payload.encoded);
+    }
+
+    @Benchmark
+    public String string(Payload payload) {
+        payload.jedisTemplate.set(Payload.KEY, payload.text);
+        payload.operations.increment();
+        return payload.jedisTemplate.get(Payload.KEY);
+    }
+
+    @Benchmark
+    public String bytes(Payload payload) {
+        payload.jedisTemplate.set(Payload.BINARY_KEY, payload.text.getBytes(StandardCharsets.UTF_8));
+        payload.operations.increment();
+        return new String(payload.jedisTemplate.get(Payload.BINARY_KEY), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String compressed(Payload payload) {
+        payload.jedisTemplate.set(Payload.KEY, payload.text, payload.compressed);
+        payload.operations.increment();
+        return payload.jedisTemplate.get(Payload.KEY, payload.compressed);
+    }
+
+    /**
+     * 值与桩服务器, 每个 size 一套; 桩服务器不注入延迟, 大值时耗时主要是编解码与拷贝.
+     */
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        static final String KEY = "bench:serializer";
+        static final byte[] BINARY_KEY = KEY.getBytes(StandardCharsets.UTF_8);
+
+        @Param({"1024", "65536", "1048576"})
+        public int size;
+
+        final RedisSerializer<String> compressed = RedisSerializers.compressed(RedisSerializers.string(), THRESHOLD);
+        final LongAdder operations = new LongAdder();
+        String text;
+        byte[] encoded;
+        RespStubServer server;
+        JedisTemplate jedisTemplate;
+        private long wireBytes;
+
+        @Setup(Level.Trial)
+        public void setUp() throws InterruptedException {
+            text = json(size);
+            encoded = compressed.serialize(text);
+            System.out.printf("%nsize %d: text %d bytes, compressed %d bytes%n", size, text.length(), encoded.length);
+            server = new RespStubServer(2);
+            int port = server.start();
+            GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+            poolConfig.setMaxTotal(StubRedisState.POOL_SIZE);
+            poolConfig.setMaxIdle(StubRedisState.POOL_SIZE);
+            jedisTemplate = new JedisTemplate(new ResizableJedisPool(poolConfig, "127.0.0.1", port, 10000, null, 0));
+        }
+
+        @Setup(Level.Iteration)
+        public void mark() {
+            operations.reset();
+            wireBytes = server.getBytesReceived() + server.getBytesSent();
+        }
+
+        @TearDown(Level.Iteration)
+        public void printWireBytes(BenchmarkParams params) {
+            long operationCount = operations.sum();
+            if (operationCount > 0) {
+                long bytes = server.getBytesReceived() + server.getBytesSent() - wireBytes;
+                System.out.printf("%n%s size %d: %d wire bytes per SET + GET%n", params.getBenchmark(), size, bytes / operationCount);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            jedisTemplate.getJedisPool().close();
+            server.close();
+        }
+
+        /**
+         * 形如 [{"id":1,"user":"user-83721","score":0.4521...,"tags":["t3","t17"]},...] 的 JSON, 约 size 个字符.
+         */
+        static String json(int size) {
+            Random random = new Random(size);
+            StringBuilder builder = new StringBuilder(size + 128).append('[');
+            List<String> tags = new ArrayList<>();
+            for (int id = 0; builder.length() < size; id++) {
+                tags.clear();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    tags.add("\"t" + random.nextInt(50) + "\"");
+                }
+                builder.append(id == 0 ? "" : ",")
+                        .append("{\"id\":").append(id)
+                        .append(",\"user\":\"user-").append(random.nextInt(100000))
+                        .append("\",\"score\":").append(random.nextDouble())
+                        .append(",\"tags\":").append(tags)
+                        .append('}');
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
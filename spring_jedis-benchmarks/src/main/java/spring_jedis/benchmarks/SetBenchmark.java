@@ -0,0 +1,38 @@
+package spring_jedis.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Set Actions: sadd / scard / smembers(100 个成员).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SetBenchmark {
+
+    @Benchmark
+    public Boolean sadd(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.sadd("bench:set:write", keys.nextMember());
+    }
+
+    @Benchmark
+    public Long scard(StubRedisState redis) {
+        return redis.jedisTemplate.scard("bench:set");
+    }
+
+    @Benchmark
+    public Set<String> smembers100(StubRedisState redis) {
+        return redis.jedisTemplate.smembers("bench:set");
+    }
+}
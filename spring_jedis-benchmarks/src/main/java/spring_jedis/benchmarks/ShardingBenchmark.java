@@ -0,0 +1,84 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.ResizableJedisPool;
+import spring_jedis.jedis.ShardedJedisTemplate;
+
+/**
+ * 分片扩展性: 1 / 2 / 4 个桩服务器节点, 单 key get 与跨分片并行 mget.
+ * 每个节点独立的 IO 线程与连接池, 多线程运行时吞吐应随节点数近似线性增长.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardingBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int shards;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private final List<RespStubServer> servers = new ArrayList<>();
+    private ShardedJedisTemplate shardedJedisTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        List<JedisTemplate> templates = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            RespStubServer server = new RespStubServer(1);
+            int port = server.start();
+            server.setLatencyMicros(latencyMicros);
+            servers.add(server);
+            GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+            poolConfig.setMaxTotal(StubRedisState.POOL_SIZE);
+            poolConfig.setMaxIdle(StubRedisState.POOL_SIZE);
+            templates.add(new JedisTemplate(new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0)));
+        }
+        shardedJedisTemplate = new ShardedJedisTemplate(templates);
+        for (int i = 0; i < StubRedisState.KEY_SPACE; i++) {
+            shardedJedisTemplate.set(StubRedisState.key(i), StubRedisState.value(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shardedJedisTemplate.close();
+        for (RespStubServer server : servers) {
+            server.close();
+        }
+        servers.clear();
+    }
+
+    @Benchmark
+    public String get(KeyState keys) {
+        return shardedJedisTemplate.get(keys.nextKey());
+    }
+
+    @Benchmark
+    public List<String> mget20(KeyState keys) {
+        return shardedJedisTemplate.mget(keys.nextKeys(20));
+    }
+}
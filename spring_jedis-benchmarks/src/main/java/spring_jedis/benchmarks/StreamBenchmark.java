@@ -0,0 +1,154 @@
+package spring_jedis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.LatencyHistogram;
+import spring_jedis.jedis.QueueConsumer;
+import spring_jedis.jedis.ResizableJedisPool;
+import spring_jedis.jedis.StreamConsumer;
+
+/**
+ * 列表队列与 stream 消费组的消费吞吐(消息/秒): 每次调用一次往返写入 MESSAGES 条消息(LPUSH 多个值 / 一次追加多条的 XADD 脚本),
+ * 等待消费者全部处理并 ack. 两边的批量、处理线程数与在途上限相同:
+ * list 为 {@link QueueConsumer}(BRPOPLPUSH + Pipeline RPOPLPUSH 取消息, 每批一次 Pipeline LREM ack),
+ * stream 为 {@link StreamConsumer}(XREADGROUP 取消息, ack 与下一次读取合并为一次往返).
+ * consume 的消息中带有写入时刻, 每轮结束时打印从写入到处理的延迟分位(成批写入, 主要是排队时间);
+ * single 每次只写入一条消息并等待处理完成, 为空闲时的单条消息延迟(SampleTime):
+ * stream 的 XREADGROUP 不能阻塞, 空闲时从 1 毫秒起加倍退避轮询, 最长间隔 {@value #POLL_MILLIS} 毫秒, 长时间空闲后第一条消息的延迟可达该值.
+ * 桩服务器以 Java 实现 stream 命令与脚本, 服务端开销与真实 Redis 不同, 主要比较往返次数.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+
+    private static final int MESSAGES = 1000;
+    private static final int BATCH_SIZE = 32;
+    private static final int HANDLER_THREADS = 4;
+    private static final String QUEUE = "{bench-queue}";
+    private static final String STREAM = "{bench-stream}";
+    private static final long POLL_MILLIS = 10;
+
+    @Param({"list", "stream"})
+    public String mode;
+
+    @Param({"200"})
+    public long latencyMicros;
+
+    private RespStubServer server;
+    private JedisTemplate producer;
+    private QueueConsumer queueConsumer;
+    private StreamConsumer streamConsumer;
+    private final AtomicLong handled = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = new RespStubServer(1);
+        int port = server.start();
+        server.setLatencyMicros(latencyMicros);
+        BuiltinScriptEmulations.register(server.getStore());
+        producer = new JedisTemplate(newPool(port, 4));
+        if ("stream".equals(mode)) {
+            streamConsumer = new StreamConsumer(new JedisTemplate(newPool(port, 4)), STREAM, "bench", "consumer-0",
+                    (entry) -> onMessage(entry.getField("ts")), HANDLER_THREADS, BATCH_SIZE, 1024, POLL_MILLIS, 60000).start();
+        } else {
+            queueConsumer = new QueueConsumer(newPool(port, 1 + HANDLER_THREADS), QUEUE, QUEUE + ":processing", (batch) -> {
+                for (String message : batch) {
+                    onMessage(message);
+                }
+            }, 1, HANDLER_THREADS, BATCH_SIZE, 1024, 1).start();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatency() {
+        System.out.printf("%n%s: end-to-end p50 %.2f ms, p99 %.2f ms%n", mode, latency.getPercentileMillis(50), latency.getPercentileMillis(99));
+        latency.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (streamConsumer != null) {
+            streamConsumer.close();
+        }
+        if (queueConsumer != null) {
+            queueConsumer.close();
+        }
+        producer.getJedisPool().close();
+        server.close();
+    }
+
+    private void onMessage(String sentAt) {
+        latency.record(System.nanoTime() - Long.parseLong(sentAt));
+        handled.incrementAndGet();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long consume() {
+        return produceAndWait(MESSAGES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long single() {
+        return produceAndWait(1);
+    }
+
+    private long produceAndWait(int count) {
+        long target = handled.get() + count;
+        String sentAt = Long.toString(System.nanoTime());
+        if (streamConsumer != null) {
+            List<Map<String, String>> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(Collections.singletonMap("ts", sentAt));
+            }
+            producer.xaddAll(STREAM, 100000, entries);
+        } else {
+            String[] messages = new String[count];
+            for (int i = 0; i < count; i++) {
+                messages[i] = sentAt;
+            }
+            producer.lpush(QUEUE, messages);
+        }
+        while (handled.get() < target) {
+            LockSupport.parkNanos(20_000);
+        }
+        return handled.get();
+    }
+
+    private static ResizableJedisPool newPool(int port, int size) {
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(size);
+        poolConfig.setMaxIdle(size);
+        return new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0);
+    }
+}
@@ -0,0 +1,44 @@
+package spring_jedis.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String Actions: get / set / incr / mget.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringBenchmark {
+
+    @Benchmark
+    public String get(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.get(keys.nextKey());
+    }
+
+    @Benchmark
+    public void set(StubRedisState redis, KeyState keys) {
+        int i = keys.nextIndex();
+        redis.jedisTemplate.set(StubRedisState.key(i), StubRedisState.value(i));
+    }
+
+    @Benchmark
+    public Long incr(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.incr("bench:counter:" + (keys.nextIndex() & 63));
+    }
+
+    @Benchmark
+    public List<String> mget10(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.mget(keys.nextKeys(10));
+    }
+}
@@ -0,0 +1,83 @@
+package spring_jedis.benchmarks;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.ResizableJedisPool;
+
+/**
+ * 所有基准共享的环境: 一个进程内 RESP 桩服务器, 以及连到它的连接池和 JedisTemplate.
+ * latencyMicros 为桩服务器每条应答注入的延迟, 0 时只剩本机回环的开销, 主要衡量客户端 CPU 开销.
+ */
+@State(Scope.Benchmark)
+public class StubRedisState {
+
+    public static final int KEY_SPACE = 10000;
+    public static final int ZSET_SIZE = 1000;
+    public static final int POOL_SIZE = 128;
+
+    @Param({"0", "200"})
+    public long latencyMicros;
+
+    public RespStubServer server;
+    public ResizableJedisPool jedisPool;
+    public JedisTemplate jedisTemplate;
+    public int port;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        server = new RespStubServer(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        port = server.start();
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(POOL_SIZE);
+        poolConfig.setMaxIdle(POOL_SIZE);
+        poolConfig.setMinIdle(0);
+        poolConfig.setTestWhileIdle(false);
+        jedisPool = new ResizableJedisPool(poolConfig, "127.0.0.1", port, 2000, null, 0);
+        jedisTemplate = new JedisTemplate(jedisPool);
+        populate();
+        server.setLatencyMicros(latencyMicros);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jedisPool.close();
+        server.close();
+    }
+
+    /**
+     * 预置数据, 读类基准命中已有的 key.
+     */
+    protected void populate() {
+        jedisTemplate.executePipeline((pipeline) -> {
+            for (int i = 0; i < KEY_SPACE; i++) {
+                pipeline.set(key(i), value(i));
+            }
+            for (int i = 0; i < ZSET_SIZE; i++) {
+                pipeline.zadd("bench:zset", i, member(i));
+            }
+            for (int i = 0; i < 100; i++) {
+                pipeline.lpush("bench:list", value(i));
+                pipeline.sadd("bench:set", member(i));
+            }
+        });
+    }
+
+    public static String key(int i) {
+        return "bench:key:" + i;
+    }
+
+    public static String member(int i) {
+        return "member:" + i;
+    }
+
+    public static String value(int i) {
+        return "value-" + i + "-0123456789abcdefghijklmnopqrstuvwxyz";
+    }
+}
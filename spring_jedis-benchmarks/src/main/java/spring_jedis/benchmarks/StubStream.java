@@ -0,0 +1,233 @@
+package spring_jedis.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.redis.ArrayRedisMessage;
+import io.netty.handler.codec.redis.ErrorRedisMessage;
+import io.netty.handler.codec.redis.FullBulkStringRedisMessage;
+import io.netty.handler.codec.redis.IntegerRedisMessage;
+import io.netty.handler.codec.redis.RedisMessage;
+
+/**
+ * 桩服务器中的 stream 与消费组, 只实现 {@link RespStubStore} 用到的 XADD / XLEN / XGROUP CREATE / XREADGROUP(不阻塞) /
+ * XACK / XCLAIM / XAUTOCLAIM / XPENDING(摘要中的条数). id 内部编码为 毫秒 * 2^20 + 序号, 同一毫秒最多 2^20 条.
+ */
+final class StubStream {
+
+    private static final long SEQ_BITS = 20;
+
+    private final TreeMap<Long, String[]> entries = new TreeMap<>();
+    private final Map<String, Group> groups = new HashMap<>();
+    private long lastId;
+
+    private static final class Group {
+        long lastDelivered;
+        final TreeMap<Long, Pending> pending = new TreeMap<>();
+    }
+
+    private static final class Pending {
+        String consumer;
+        long deliveredAt;
+
+        Pending(String consumer, long deliveredAt) {
+            this.consumer = consumer;
+            this.deliveredAt = deliveredAt;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * args 为 XADD 命令的完整参数.
+     */
+    RedisMessage add(String[] args) {
+        int i = 2;
+        long maxLen = 0;
+        if ("MAXLEN".equalsIgnoreCase(args[i])) {
+            i++;
+            if ("~".equals(args[i]) || "=".equals(args[i])) {
+                i++;
+            }
+            maxLen = Long.parseLong(args[i++]);
+        }
+        if (!"*".equals(args[i++])) {
+            return new ErrorRedisMessage("ERR stub server only supports XADD with '*' id");
+        }
+        long now = System.currentTimeMillis() << SEQ_BITS;
+        lastId = Math.max(now, lastId + 1);
+        entries.put(lastId, Arrays.copyOfRange(args, i, args.length));
+        while (maxLen > 0 && entries.size() > maxLen) {
+            entries.pollFirstEntry();
+        }
+        return bulk(format(lastId));
+    }
+
+    /**
+     * 消费组已存在时返回 false.
+     */
+    boolean createGroup(String name, String startId) {
+        if (groups.containsKey(name)) {
+            return false;
+        }
+        Group group = new Group();
+        group.lastDelivered = "$".equals(startId) ? lastId : parse(startId);
+        groups.put(name, group);
+        return true;
+    }
+
+    /**
+     * id 为 ">" 时读取新消息并记入待确认列表, 否则读取该消费者 id 之后的待确认消息(已删除的消息字段为 nil).
+     */
+    RedisMessage readGroup(String groupName, String consumer, int count, String id, String key) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            return nogroup();
+        }
+        long now = System.currentTimeMillis();
+        List<RedisMessage> items = new ArrayList<>();
+        if (">".equals(id)) {
+            for (Map.Entry<Long, String[]> entry : entries.tailMap(group.lastDelivered, false).entrySet()) {
+                if (items.size() >= count) {
+                    break;
+                }
+                group.lastDelivered = entry.getKey();
+                group.pending.put(entry.getKey(), new Pending(consumer, now));
+                items.add(entry(entry.getKey(), entry.getValue()));
+            }
+        } else {
+            for (Map.Entry<Long, Pending> pending : group.pending.tailMap(parse(id), false).entrySet()) {
+                if (items.size() >= count) {
+                    break;
+                }
+                if (consumer.equals(pending.getValue().consumer)) {
+                    pending.getValue().deliveredAt = now;
+                    items.add(entry(pending.getKey(), entries.get(pending.getKey())));
+                }
+            }
+        }
+        if (items.isEmpty() && ">".equals(id)) {
+            return FullBulkStringRedisMessage.NULL_INSTANCE;
+        }
+        return new ArrayRedisMessage(Arrays.<RedisMessage>asList(
+                new ArrayRedisMessage(Arrays.asList(bulk(key), new ArrayRedisMessage(items)))));
+    }
+
+    RedisMessage ack(String groupName, String[] ids, int from) {
+        Group group = groups.get(groupName);
+        long acked = 0;
+        if (group != null) {
+            for (int i = from; i < ids.length; i++) {
+                if (group.pending.remove(parse(ids[i])) != null) {
+                    acked++;
+                }
+            }
+        }
+        return new IntegerRedisMessage(acked);
+    }
+
+    RedisMessage claim(String groupName, String consumer, long minIdle, String[] ids, int from) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            return nogroup();
+        }
+        long now = System.currentTimeMillis();
+        List<RedisMessage> items = new ArrayList<>();
+        for (int i = from; i < ids.length; i++) {
+            long id = parse(ids[i]);
+            if (claimOne(group, id, consumer, minIdle, now)) {
+                items.add(entry(id, entries.get(id)));
+            }
+        }
+        return new ArrayRedisMessage(items);
+    }
+
+    /**
+     * 与 Redis 7 一致: 已删除的消息从待确认列表中移除, 不返回; 返回 [下一次的起始 id, 消息, 已删除的 id].
+     */
+    RedisMessage autoClaim(String groupName, String consumer, long minIdle, String start, int count) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            return nogroup();
+        }
+        long now = System.currentTimeMillis();
+        List<RedisMessage> items = new ArrayList<>();
+        List<RedisMessage> deleted = new ArrayList<>();
+        Long next = group.pending.ceilingKey(parse(start));
+        int scanned = 0;
+        while (next != null && scanned < count * 10 && items.size() < count) {
+            long id = next;
+            next = group.pending.higherKey(id);
+            scanned++;
+            if (!entries.containsKey(id)) {
+                group.pending.remove(id);
+                deleted.add(bulk(format(id)));
+            } else if (claimOne(group, id, consumer, minIdle, now)) {
+                items.add(entry(id, entries.get(id)));
+            }
+        }
+        return new ArrayRedisMessage(Arrays.asList(bulk(next == null ? "0-0" : format(next)), new ArrayRedisMessage(items), new ArrayRedisMessage(deleted)));
+    }
+
+    RedisMessage pendingSummary(String groupName) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            return nogroup();
+        }
+        long count = group.pending.size();
+        return new ArrayRedisMessage(Arrays.asList(new IntegerRedisMessage(count),
+                count == 0 ? FullBulkStringRedisMessage.NULL_INSTANCE : bulk(format(group.pending.firstKey())),
+                count == 0 ? FullBulkStringRedisMessage.NULL_INSTANCE : bulk(format(group.pending.lastKey())),
+                FullBulkStringRedisMessage.NULL_INSTANCE));
+    }
+
+    private static boolean claimOne(Group group, long id, String consumer, long minIdle, long now) {
+        Pending pending = group.pending.get(id);
+        if (pending == null || now - pending.deliveredAt < minIdle) {
+            return false;
+        }
+        pending.consumer = consumer;
+        pending.deliveredAt = now;
+        return true;
+    }
+
+    private static RedisMessage entry(long id, String[] fields) {
+        RedisMessage values = FullBulkStringRedisMessage.NULL_INSTANCE;
+        if (fields != null) {
+            List<RedisMessage> items = new ArrayList<>(fields.length);
+            for (String field : fields) {
+                items.add(bulk(field));
+            }
+            values = new ArrayRedisMessage(items);
+        }
+        return new ArrayRedisMessage(Arrays.asList(bulk(format(id)), values));
+    }
+
+    private static RedisMessage nogroup() {
+        return new ErrorRedisMessage("NOGROUP No such key or consumer group");
+    }
+
+    private static String format(long id) {
+        return (id >>> SEQ_BITS) + "-" + (id & ((1L << SEQ_BITS) - 1));
+    }
+
+    private static long parse(String id) {
+        int split = id.indexOf('-');
+        if (split < 0) {
+            return Long.parseLong(id) << SEQ_BITS;
+        }
+        return (Long.parseLong(id.substring(0, split)) << SEQ_BITS) + Long.parseLong(id.substring(split + 1));
+    }
+
+    private static RedisMessage bulk(String value) {
+        return new FullBulkStringRedisMessage(Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+}
@@ -0,0 +1,41 @@
+package spring_jedis.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import redis.clients.jedis.Tuple;
+
+/**
+ * ZSet Actions: zadd / zscore / zrevrangeWithScores(前 10 名), 有序集合含 1000 个成员.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZSetBenchmark {
+
+    @Benchmark
+    public Boolean zadd(StubRedisState redis, KeyState keys) {
+        int i = keys.nextIndex();
+        return redis.jedisTemplate.zadd("bench:zset:write", i, StubRedisState.member(i));
+    }
+
+    @Benchmark
+    public Double zscore(StubRedisState redis, KeyState keys) {
+        return redis.jedisTemplate.zscore("bench:zset", StubRedisState.member(keys.nextIndex() % StubRedisState.ZSET_SIZE));
+    }
+
+    @Benchmark
+    public Set<Tuple> zrevrangeTop10(StubRedisState redis) {
+        return redis.jedisTemplate.zrevrangeWithScores("bench:zset", 0, 9);
+    }
+}
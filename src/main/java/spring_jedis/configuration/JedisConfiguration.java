@@ -1,39 +1,318 @@
 package spring_jedis.configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import spring_jedis.jedis.AsyncJedisTemplate;
+import spring_jedis.jedis.AutoPipeline;
+import spring_jedis.jedis.HedgedReads;
 import spring_jedis.jedis.JedisConfig;
+import spring_jedis.jedis.JedisPoolSizer;
+import spring_jedis.jedis.JedisResilience;
 import spring_jedis.jedis.JedisTemplate;
-import io.netty.util.concurrent.FastThreadLocal;
+import spring_jedis.jedis.Leaderboard;
+import spring_jedis.jedis.NearCache;
+import spring_jedis.jedis.RedisCacheLoader;
+import spring_jedis.jedis.QueueConsumer;
+import spring_jedis.jedis.RedisLockManager;
+import spring_jedis.jedis.RedisRateLimiter;
+import spring_jedis.jedis.RedisSubscriptionManager;
+import spring_jedis.jedis.RedisScripts;
+import spring_jedis.jedis.ReplicaRouter;
+import spring_jedis.jedis.ResizableJedisPool;
+import spring_jedis.jedis.ShardedJedisTemplate;
+import spring_jedis.jedis.StreamConsumer;
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisException;
 
 @Configuration
 public class JedisConfiguration {
-	private final JedisPoolConfig mJedisPoolConfig = new JedisPoolConfig();
 
 	@Bean
 	public JedisConfig getJedisConfig() {
 		return new JedisConfig();
 	}
 
-	public final FastThreadLocal<JedisTemplate> FTL = new FastThreadLocal<JedisTemplate>() {
-		@Override
-		protected JedisTemplate initialValue() throws Exception {
-			JedisConfig jedisConfig = getJedisConfig();
-			//logger.debug("mFastThreadLocal :{} json:{}", "RedisProvider 连接池初始化",binder.toJson(getJedisConfig()));
-			JedisPool vJedisPool = new JedisPool(mJedisPoolConfig, jedisConfig.getHost(), Integer.parseInt(jedisConfig.getPort()), jedisConfig.getTimeout(), jedisConfig.getPassword(),jedisConfig.getDatabase());
+	/**
+	 * 将 JedisConfig 中的连接池参数全部应用到 JedisPoolConfig.
+	 */
+	public JedisPoolConfig buildJedisPoolConfig(JedisConfig jedisConfig) {
+		JedisPoolConfig vJedisPoolConfig = new JedisPoolConfig();
+		vJedisPoolConfig.setMaxTotal(jedisConfig.getMaxTotal());
+		vJedisPoolConfig.setMaxIdle(jedisConfig.getMaxIdle());
+		vJedisPoolConfig.setMinIdle(Math.min(jedisConfig.getMinIdle(), jedisConfig.getMaxIdle()));
+		vJedisPoolConfig.setMaxWaitMillis(jedisConfig.getMaxWaitMillis());
+		vJedisPoolConfig.setBlockWhenExhausted(jedisConfig.getBlockWhenExhausted());
+		vJedisPoolConfig.setTestWhileIdle(jedisConfig.getTestWhileIdle());
+		vJedisPoolConfig.setTimeBetweenEvictionRunsMillis(jedisConfig.getTimeBetweenEvictionRunsMillis());
+		return vJedisPoolConfig;
+	}
+
+	/**
+	 * 全局唯一的连接池, 所有线程共享, 连接总数受 redis.maxTotal 限制.
+	 */
+	@Bean(destroyMethod = "close")
+	public ResizableJedisPool getJedisPool() {
+		JedisConfig jedisConfig = getJedisConfig();
+		//logger.debug("getJedisPool :{} json:{}", "RedisProvider 连接池初始化",binder.toJson(getJedisConfig()));
+		return new ResizableJedisPool(buildJedisPoolConfig(jedisConfig), jedisConfig.getHost(), Integer.parseInt(jedisConfig.getPort()), jedisConfig.getTimeout(), jedisConfig.getPassword(),jedisConfig.getDatabase());
+	}
 
-			JedisTemplate vTemplate = new JedisTemplate(vJedisPool);
-			
-			return vTemplate;
-		}
-	};
-	
 	@Bean
 	public JedisTemplate getJedisTemplate() {
-		return FTL.get();
+		JedisTemplate vTemplate = new JedisTemplate(getJedisPool());
+		if (!getJedisConfig().getMetricsEnabled()) {
+			vTemplate.setCommandMetrics(null);
+		}
+		if (getJedisConfig().getScriptsPreload()) {
+			try {
+				vTemplate.loadScripts(RedisScripts.all());
+			} catch (JedisException e) {
+				//logger.error("preload lua scripts error :{}", e.getMessage());
+			}
+		}
+		return vTemplate;
+	}
+
+	/**
+	 * actuator 端点 /redis, 输出连接池状态与按命令统计.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "redis.metrics.enabled", havingValue = "true", matchIfMissing = true)
+	public JedisMetricsEndpoint getJedisMetricsEndpoint() {
+		return new JedisMetricsEndpoint(getJedisTemplate());
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.adaptive.enabled", havingValue = "true")
+	public JedisPoolSizer getJedisPoolSizer() {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new JedisPoolSizer(getJedisPool(), getJedisTemplate().getPoolMetrics(), jedisConfig.getAdaptiveMaxTotal(), jedisConfig.getAdaptiveTargetBorrowWaitMillis())
+				.start(jedisConfig.getAdaptiveIntervalMillis());
+	}
+
+	/**
+	 * 开启后 JedisTemplate 的单 key 小命令走自动管道.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.autoPipeline.enabled", havingValue = "true")
+	public AutoPipeline getAutoPipeline() {
+		JedisConfig jedisConfig = getJedisConfig();
+		JedisTemplate vTemplate = getJedisTemplate();
+		AutoPipeline vAutoPipeline = new AutoPipeline(vTemplate, jedisConfig.getAutoPipelineConnections(), jedisConfig.getAutoPipelineMaxBatch(), jedisConfig.getAutoPipelineMaxDelayMicros());
+		vTemplate.setAutoPipeline(vAutoPipeline);
+		return vAutoPipeline;
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.async.enabled", havingValue = "true")
+	public AsyncJedisTemplate getAsyncJedisTemplate() {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new AsyncJedisTemplate(jedisConfig.getHost(), Integer.parseInt(jedisConfig.getPort()), jedisConfig.getTimeout(), jedisConfig.getPassword(), jedisConfig.getDatabase(), jedisConfig.getAsyncConnections(), jedisConfig.getAsyncIoThreads());
+	}
+
+	/**
+	 * 开启后 get / mget 先读进程内近端缓存, 写操作同步失效.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.nearCache.enabled", havingValue = "true")
+	public NearCache getNearCache() {
+		JedisConfig jedisConfig = getJedisConfig();
+		JedisTemplate vTemplate = getJedisTemplate();
+		NearCache vNearCache = new NearCache(jedisConfig.getNearCacheMaxEntries(), jedisConfig.getNearCacheTtlMillis());
+		String channel = jedisConfig.getNearCacheChannel();
+		if (channel != null && !channel.isEmpty()) {
+			if (jedisConfig.getPubsubEnabled()) {
+				vNearCache.enableBroadcast(getRedisSubscriptionManager(), channel);
+			} else {
+				vNearCache.enableBroadcast(vTemplate, this::createDedicatedJedis, channel);
+			}
+		}
+		if (jedisConfig.getNearCacheKeyspaceInvalidation() && jedisConfig.getPubsubEnabled()) {
+			vNearCache.enableKeyspaceInvalidation(getRedisSubscriptionManager(), jedisConfig.getDatabase(), jedisConfig.getNearCacheKeyspacePattern());
+		}
+		vTemplate.setNearCache(vNearCache);
+		return vNearCache;
+	}
+
+	/**
+	 * 开启后 JedisTemplate 按节点熔断, 普通命令使用较短的读超时, 普通 / 阻塞命令分别限制并发, 可选地在读失败时返回旧值.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "redis.resilience.enabled", havingValue = "true")
+	public JedisResilience getJedisResilience() {
+		JedisConfig jedisConfig = getJedisConfig();
+		int maxBlocking = jedisConfig.getResilienceMaxBlocking();
+		int maxConcurrent = jedisConfig.getResilienceMaxConcurrent();
+		if (maxConcurrent <= 0) {
+			maxConcurrent = jedisConfig.getMaxTotal() - maxBlocking;
+		}
+		JedisResilience vResilience = new JedisResilience(jedisConfig.getResilienceCommandTimeoutMillis(), maxConcurrent, maxBlocking, jedisConfig.getResilienceBulkheadWaitMillis())
+				.setCircuitBreaker(jedisConfig.getResilienceWindowSize(), jedisConfig.getResilienceMinimumCalls(), jedisConfig.getResilienceFailureRatePercent(),
+						jedisConfig.getResilienceSlowCallRatePercent(), jedisConfig.getResilienceSlowCallMillis(), jedisConfig.getResilienceOpenMillis(), jedisConfig.getResilienceHalfOpenCalls())
+				.enableStaleFallback(jedisConfig.getResilienceStaleMaxEntries(), jedisConfig.getResilienceStaleMillis());
+		getJedisTemplate().setResilience(vResilience);
+		return vResilience;
+	}
+
+	/**
+	 * 开启后 JedisTemplate 的只读方法慢于最近耗时的 p95 时对冲, 连接错误时在预算内重试.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.hedge.enabled", havingValue = "true")
+	public HedgedReads getHedgedReads() {
+		JedisConfig jedisConfig = getJedisConfig();
+		HedgedReads vHedgedReads = new HedgedReads(jedisConfig.getHedgePercentile(), jedisConfig.getHedgeMinDelayMillis(), jedisConfig.getHedgeBudgetPercent(), jedisConfig.getHedgeMaxThreads());
+		getJedisTemplate().setHedgedReads(vHedgedReads);
+		return vHedgedReads;
 	}
-}
 
+	/**
+	 * 旁路缓存加载器: 未命中合并加载, 跨实例租约, 过期前后台提前刷新.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.cache.enabled", havingValue = "true")
+	public RedisCacheLoader getRedisCacheLoader() {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new RedisCacheLoader(getJedisTemplate(), jedisConfig.getCacheBeta(), jedisConfig.getCacheLeaseMillis(), jedisConfig.getCacheGraceMillis(), jedisConfig.getCacheRefreshThreads());
+	}
+
+	/**
+	 * 分片模式: redis.sharding.nodes 中每个节点一个连接池, 连接池参数与单节点模式相同.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.sharding.enabled", havingValue = "true")
+	public ShardedJedisTemplate getShardedJedisTemplate() {
+		JedisConfig jedisConfig = getJedisConfig();
+		List<JedisTemplate> shards = new ArrayList<>();
+		for (ResizableJedisPool pool : buildNodePools(jedisConfig, jedisConfig.getShardingNodes())) {
+			JedisTemplate vTemplate = new JedisTemplate(pool);
+			if (!jedisConfig.getMetricsEnabled()) {
+				vTemplate.setCommandMetrics(null);
+			}
+			shards.add(vTemplate);
+		}
+		return new ShardedJedisTemplate(shards);
+	}
+
+	/**
+	 * 读写分离: redis.replica.nodes 中每个从节点一个连接池, JedisTemplate 的只读方法由从节点执行.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.replica.enabled", havingValue = "true")
+	public ReplicaRouter getReplicaRouter() {
+		JedisConfig jedisConfig = getJedisConfig();
+		List<JedisPool> replicaPools = new ArrayList<>(buildNodePools(jedisConfig, jedisConfig.getReplicaNodes()));
+		ReplicaRouter vReplicaRouter = new ReplicaRouter(replicaPools, ReplicaRouter.Strategy.valueOf(jedisConfig.getReplicaStrategy().trim()), jedisConfig.getReplicaReadYourWritesMillis());
+		getJedisTemplate().setReplicaRouter(vReplicaRouter);
+		return vReplicaRouter;
+	}
+
+	/**
+	 * 按 "host:port,host:port" 为每个节点创建连接池, 连接池参数与单节点模式相同.
+	 */
+	private List<ResizableJedisPool> buildNodePools(JedisConfig jedisConfig, String nodes) {
+		List<ResizableJedisPool> pools = new ArrayList<>();
+		for (String node : nodes.split(",")) {
+			node = node.trim();
+			if (node.isEmpty()) {
+				continue;
+			}
+			int split = node.lastIndexOf(':');
+			String host = split > 0 ? node.substring(0, split) : node;
+			int port = split > 0 ? Integer.parseInt(node.substring(split + 1)) : 6379;
+			pools.add(new ResizableJedisPool(buildJedisPoolConfig(jedisConfig), host, port, jedisConfig.getTimeout(), jedisConfig.getPassword(), jedisConfig.getDatabase()));
+		}
+		return pools;
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.lock.enabled", havingValue = "true")
+	public RedisLockManager getRedisLockManager() {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new RedisLockManager(getJedisTemplate(), this::createDedicatedJedis, jedisConfig.getLockKeyPrefix(), jedisConfig.getLockLeaseMillis());
+	}
+
+	/**
+	 * 订阅管理: 所有频道 / 模式的订阅共用一个独立连接, 消息分派到有界的派发线程, 断线自动重连并重新订阅.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "redis.pubsub.enabled", havingValue = "true")
+	public RedisSubscriptionManager getRedisSubscriptionManager() {
+		JedisConfig jedisConfig = getJedisConfig();
+		RedisSubscriptionManager vManager = new RedisSubscriptionManager(getJedisTemplate(), this::createDedicatedJedis, jedisConfig.getPubsubDispatchThreads(), jedisConfig.getPubsubQueueCapacity());
+		String keyspaceEvents = jedisConfig.getPubsubKeyspaceEvents();
+		if (keyspaceEvents != null && !keyspaceEvents.isEmpty()) {
+			try {
+				vManager.enableKeyspaceEvents(keyspaceEvents);
+			} catch (JedisException e) {
+				//logger.error("redis notify-keyspace-events error :{}", e.getMessage());
+			}
+		}
+		return vManager;
+	}
+
+	/**
+	 * 创建已启动的可靠队列消费者, 使用独立连接池, 不占用 JedisTemplate 的连接; 由调用方负责 close.
+	 * processingKey 为 queueKey + ":processing", 失败次数达到 redis.queue.maxAttempts 的消息移入 queueKey + ":dead".
+	 */
+	public QueueConsumer createQueueConsumer(String queueKey, QueueConsumer.Handler handler) {
+		JedisConfig jedisConfig = getJedisConfig();
+		int fetchers = jedisConfig.getQueueFetchers();
+		int handlerThreads = jedisConfig.getQueueHandlerThreads();
+		JedisPoolConfig vJedisPoolConfig = buildJedisPoolConfig(jedisConfig);
+		vJedisPoolConfig.setMaxTotal(fetchers + handlerThreads);
+		vJedisPoolConfig.setMaxIdle(fetchers + handlerThreads);
+		vJedisPoolConfig.setMinIdle(0);
+		ResizableJedisPool consumerPool = new ResizableJedisPool(vJedisPoolConfig, jedisConfig.getHost(), Integer.parseInt(jedisConfig.getPort()), jedisConfig.getTimeout(), jedisConfig.getPassword(), jedisConfig.getDatabase());
+		return new QueueConsumer(consumerPool, queueKey, queueKey + ":processing", handler, fetchers, handlerThreads,
+				jedisConfig.getQueueBatchSize(), jedisConfig.getQueueMaxInFlight(), jedisConfig.getQueueBlockSeconds())
+				.deadLetter(queueKey + ":dead", jedisConfig.getQueueMaxAttempts()).start();
+	}
+
+	/**
+	 * 创建已启动的 stream 消费组消费者, 消费组不存在时从 stream 开头创建; 使用 JedisTemplate 的连接池, 由调用方负责 close.
+	 * consumer 在消费组内唯一, 重启后使用相同名称可以接着处理上次未 ack 的消息.
+	 */
+	public StreamConsumer createStreamConsumer(String streamKey, String group, String consumer, StreamConsumer.Handler handler) {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new StreamConsumer(getJedisTemplate(), streamKey, group, consumer, handler, jedisConfig.getStreamHandlerThreads(), jedisConfig.getStreamBatchSize(),
+				jedisConfig.getStreamMaxInFlight(), jedisConfig.getStreamPollMillis(), jedisConfig.getStreamClaimIdleMillis()).start();
+	}
+
+	/**
+	 * 创建排行榜, key 为 redis.leaderboard.keyPrefix + "{" + name + "}".
+	 */
+	public Leaderboard createLeaderboard(String name, Leaderboard.Bucketing bucketing) {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new Leaderboard(getJedisTemplate(), jedisConfig.getLeaderboardKeyPrefix(), name, bucketing, jedisConfig.getLeaderboardRetainBuckets(),
+				jedisConfig.getLeaderboardTopN(), jedisConfig.getLeaderboardTopCacheMillis());
+	}
+
+	/**
+	 * 创建限流器, 限流 key 为 redis.rateLimiter.keyPrefix + name + ":{调用方 id}".
+	 */
+	public RedisRateLimiter createRateLimiter(String name, RedisRateLimiter.Mode mode, long limit, long windowMillis) {
+		JedisConfig jedisConfig = getJedisConfig();
+		return new RedisRateLimiter(getJedisTemplate(), jedisConfig.getRateLimiterKeyPrefix() + name + ":", mode, limit, windowMillis, jedisConfig.getRateLimiterLocalPrecheck());
+	}
+
+	/**
+	 * 创建不属于连接池的独立连接, 用于订阅等长期占用连接的场景.
+	 */
+	public Jedis createDedicatedJedis() {
+		JedisConfig jedisConfig = getJedisConfig();
+		Jedis jedis = new Jedis(jedisConfig.getHost(), Integer.parseInt(jedisConfig.getPort()), jedisConfig.getTimeout());
+		String password = jedisConfig.getPassword();
+		if (password != null && !password.isEmpty()) {
+			jedis.auth(password);
+		}
+		return jedis;
+	}
+}
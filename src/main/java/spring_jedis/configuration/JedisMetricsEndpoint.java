@@ -0,0 +1,107 @@
+package spring_jedis.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import spring_jedis.jedis.CircuitBreaker;
+import spring_jedis.jedis.CommandMetrics;
+import spring_jedis.jedis.CommandStats;
+import spring_jedis.jedis.HedgedReads;
+import spring_jedis.jedis.JedisPoolMetrics;
+import spring_jedis.jedis.JedisResilience;
+import spring_jedis.jedis.JedisTemplate;
+import spring_jedis.jedis.LatencyHistogram;
+
+/**
+ * actuator 端点 /redis: 连接池状态与按命令统计, 耗时单位为微秒; 开启 {@link JedisResilience} 时附带熔断器状态,
+ * 开启 {@link HedgedReads} 时附带对冲率与对冲前后的读耗时(attemptLatency / latency).
+ */
+@ConfigurationProperties(prefix = "endpoints.redis")
+public class JedisMetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+	private final JedisTemplate jedisTemplate;
+
+	public JedisMetricsEndpoint(JedisTemplate jedisTemplate) {
+		super("redis");
+		this.jedisTemplate = jedisTemplate;
+	}
+
+	@Override
+	public Map<String, Object> invoke() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		JedisPoolMetrics poolMetrics = jedisTemplate.getPoolMetrics();
+		Map<String, Object> pool = new LinkedHashMap<>();
+		pool.put("active", poolMetrics.getNumActive());
+		pool.put("idle", poolMetrics.getNumIdle());
+		pool.put("waiters", poolMetrics.getNumWaiters());
+		pool.put("borrowWait", toMap(poolMetrics.getBorrowWait()));
+		result.put("pool", pool);
+
+		Map<String, Object> commands = new LinkedHashMap<>();
+		CommandMetrics commandMetrics = jedisTemplate.getCommandMetrics();
+		if (commandMetrics != null) {
+			for (CommandStats stats : commandMetrics.getAll()) {
+				Map<String, Object> command = new LinkedHashMap<>();
+				command.put("calls", stats.getCalls());
+				command.put("commands", stats.getCommands());
+				command.put("errors", stats.getErrors());
+				command.put("responseBytes", stats.getResponseBytes());
+				command.put("rtt", toMap(stats.getRtt()));
+				command.put("borrow", toMap(stats.getBorrow()));
+				commands.put(stats.getName(), command);
+			}
+		}
+		result.put("commands", commands);
+
+		JedisResilience resilience = jedisTemplate.getResilience();
+		if (resilience != null) {
+			Map<String, Object> breakers = new LinkedHashMap<>();
+			for (CircuitBreaker breaker : resilience.getCircuitBreakers()) {
+				Map<String, Object> state = new LinkedHashMap<>();
+				state.put("state", breaker.getState());
+				state.put("failureRate", breaker.getFailureRate());
+				state.put("slowCallRate", breaker.getSlowCallRate());
+				state.put("opened", breaker.getOpenedCount());
+				state.put("rejected", breaker.getRejectedCount());
+				breakers.put(breaker.getName(), state);
+			}
+			Map<String, Object> vResilience = new LinkedHashMap<>();
+			vResilience.put("circuitBreakers", breakers);
+			vResilience.put("availableConcurrency", resilience.getAvailableConcurrency());
+			vResilience.put("availableBlockingConcurrency", resilience.getAvailableBlockingConcurrency());
+			vResilience.put("bulkheadRejected", resilience.getBulkheadRejectedCount());
+			vResilience.put("staleHits", resilience.getStaleHitCount());
+			result.put("resilience", vResilience);
+		}
+
+		HedgedReads hedgedReads = jedisTemplate.getHedgedReads();
+		if (hedgedReads != null) {
+			Map<String, Object> hedge = new LinkedHashMap<>();
+			hedge.put("reads", hedgedReads.getReadCount());
+			hedge.put("hedges", hedgedReads.getHedgeCount());
+			hedge.put("hedgeRatePercent", hedgedReads.getHedgeRate());
+			hedge.put("hedgeWins", hedgedReads.getHedgeWinCount());
+			hedge.put("retries", hedgedReads.getRetryCount());
+			hedge.put("budgetExhausted", hedgedReads.getBudgetExhaustedCount());
+			hedge.put("hedgeDelayMillis", hedgedReads.getHedgeDelayMillis());
+			hedge.put("attemptLatency", toMap(hedgedReads.getAttemptLatency()));
+			hedge.put("latency", toMap(hedgedReads.getLatency()));
+			result.put("hedgedReads", hedge);
+		}
+		return result;
+	}
+
+	private static Map<String, Object> toMap(LatencyHistogram histogram) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("count", histogram.getCount());
+		map.put("meanMicros", histogram.getMeanNanos() / 1000d);
+		map.put("p50Micros", histogram.getPercentileNanos(50) / 1000d);
+		map.put("p99Micros", histogram.getPercentileNanos(99) / 1000d);
+		map.put("p999Micros", histogram.getPercentileNanos(99.9) / 1000d);
+		map.put("maxMicros", histogram.getMaxNanos() / 1000d);
+		return map;
+	}
+}
@@ -0,0 +1,404 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.redis.RedisArrayAggregator;
+import io.netty.handler.codec.redis.RedisBulkStringAggregator;
+import io.netty.handler.codec.redis.RedisDecoder;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import redis.clients.jedis.Tuple;
+
+/**
+ * 异步版 JedisTemplate, 方法分组与 {@link JedisTemplate} 一致, 返回 CompletableFuture.
+ * 基于 Netty EventLoop 与 RESP 编解码, 少量通道上以管道方式复用大量在途命令, 调用线程不再阻塞等待往返.
+ * 回调在 EventLoop 线程上执行, 回调中不要做阻塞操作.
+ * 阻塞类命令(brpop / brpoplpush)会占住整个共享通道, 因此不在此提供, 仍使用 {@link JedisTemplate}.
+ */
+public class AsyncJedisTemplate implements Closeable {
+
+    private final EventLoopGroup eventLoopGroup;
+    private final AsyncRedisConnection[] connections;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public AsyncJedisTemplate(String host, int port, int timeout, String password, int database,
+                              int connections, int ioThreads) {
+        this.eventLoopGroup = new NioEventLoopGroup(ioThreads, new DefaultThreadFactory("jedis-async", true));
+        Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                new FlushConsolidationHandler(256, true),
+                                new RedisDecoder(),
+                                new RedisBulkStringAggregator(),
+                                new RedisArrayAggregator(),
+                                new RespClientHandler());
+                    }
+                });
+        this.connections = new AsyncRedisConnection[Math.max(1, connections)];
+        for (int i = 0; i < this.connections.length; i++) {
+            this.connections[i] = new AsyncRedisConnection(bootstrap, host, port, timeout, password, database);
+        }
+    }
+
+    /**
+     * 发送任意命令, 应答转换为 String / Long / List&lt;Object&gt; / null.
+     */
+    public CompletableFuture<Object> send(String... args) {
+        int index = (next.getAndIncrement() & Integer.MAX_VALUE) % connections.length;
+        return connections[index].send(args);
+    }
+
+    // Common Actions S
+
+    public CompletableFuture<Boolean> Exists(final String key) {
+        return send("EXISTS", key).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    /**
+     * dbSize 当前库key的数量
+     */
+    public CompletableFuture<Long> dbSize() {
+        return send("DBSIZE").thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    /***
+     * @param keys
+     * @return false if one of the key is not exist.
+     */
+    public CompletableFuture<Boolean> del(final String... keys) {
+        return send(prepend("DEL", keys)).thenApply(reply -> toLong(reply) == keys.length);
+    }
+
+    //================================String Action S ============================================
+
+    public CompletableFuture<String> get(final String key) {
+        return send("GET", key).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    public CompletableFuture<Long> getAsLong(final String key) {
+        return get(key).thenApply(result -> result != null ? Long.valueOf(result) : null);
+    }
+
+    public CompletableFuture<Integer> getAsInt(final String key) {
+        return get(key).thenApply(result -> result != null ? Integer.valueOf(result) : null);
+    }
+
+    public CompletableFuture<List<String>> mget(final String... keys) {
+        return send(prepend("MGET", keys)).thenApply(AsyncJedisTemplate::toList);
+    }
+
+    public CompletableFuture<Void> set(final String key, final String value) {
+        return send("SET", key, value).thenApply(reply -> null);
+    }
+
+    public CompletableFuture<Void> Setex(final String key, final String value, final int seconds) {
+        return send("SETEX", key, String.valueOf(seconds), value).thenApply(reply -> null);
+    }
+
+    public CompletableFuture<Boolean> setnx(final String key, final String value) {
+        return send("SETNX", key, value).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    public CompletableFuture<Boolean> setIfNotnxex(final String key, final String value, final int seconds) {
+        return send("SET", key, value, "NX", "EX", String.valueOf(seconds)).thenApply(AsyncJedisTemplate::toStatusOk);
+    }
+
+    public CompletableFuture<Boolean> setIfnxex(final String key, final String value, final int seconds) {
+        return send("SET", key, value, "XX", "EX", String.valueOf(seconds)).thenApply(AsyncJedisTemplate::toStatusOk);
+    }
+
+    public CompletableFuture<Boolean> setIfNotnxpx(final String key, final String value, final long milliseconds) {
+        return send("SET", key, value, "NX", "PX", String.valueOf(milliseconds)).thenApply(AsyncJedisTemplate::toStatusOk);
+    }
+
+    public CompletableFuture<Boolean> setIfnxpx(final String key, final String value, final long milliseconds) {
+        return send("SET", key, value, "XX", "PX", String.valueOf(milliseconds)).thenApply(AsyncJedisTemplate::toStatusOk);
+    }
+
+    public CompletableFuture<String> getSet(final String key, final String value) {
+        return send("GETSET", key, value).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    public CompletableFuture<Long> incr(final String key) {
+        return send("INCR", key).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> incrBy(final String key, final long increment) {
+        return send("INCRBY", key, String.valueOf(increment)).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> decr(final String key) {
+        return send("DECR", key).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> decrBy(final String key, final long decrement) {
+        return send("DECRBY", key, String.valueOf(decrement)).thenApply(AsyncJedisTemplate::toLong);
+    }
+    //================================String Action E ============================================
+
+    //================================List Action S ============================================
+
+    public CompletableFuture<Long> lpush(final String key, final String... values) {
+        return send(prepend("LPUSH", key, values)).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<String> rpop(final String key) {
+        return send("RPOP", key).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    /**
+     * Not support for sharding.
+     */
+    public CompletableFuture<String> rpoplpush(final String sourceKey, final String destinationKey) {
+        return send("RPOPLPUSH", sourceKey, destinationKey).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    public CompletableFuture<Long> llen(final String key) {
+        return send("LLEN", key).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<String> lindex(final String key, final long index) {
+        return send("LINDEX", key, String.valueOf(index)).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    public CompletableFuture<List<String>> lrange(final String key, final int start, final int end) {
+        return send("LRANGE", key, String.valueOf(start), String.valueOf(end)).thenApply(AsyncJedisTemplate::toList);
+    }
+
+    public CompletableFuture<Void> ltrim(final String key, final int start, final int end) {
+        return send("LTRIM", key, String.valueOf(start), String.valueOf(end)).thenApply(reply -> null);
+    }
+
+    public CompletableFuture<Void> ltrimFromLeft(final String key, final int size) {
+        return ltrim(key, 0, size - 1);
+    }
+
+    public CompletableFuture<Boolean> lremFirst(final String key, final String value) {
+        return send("LREM", key, "1", value).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    public CompletableFuture<Boolean> lremAll(final String key, final String value) {
+        return send("LREM", key, "0", value).thenApply(reply -> toLong(reply) > 0);
+    }
+    //================================List Action E ============================================
+
+    //================================Set Actions  S ============================================
+
+    public CompletableFuture<Boolean> sadd(final String key, final String member) {
+        return send("SADD", key, member).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    public CompletableFuture<String> spop(final String key) {
+        return send("SPOP", key).thenApply(AsyncJedisTemplate::toStr);
+    }
+
+    public CompletableFuture<Set<String>> smembers(final String key) {
+        return send("SMEMBERS", key).thenApply(AsyncJedisTemplate::toSet);
+    }
+
+    public CompletableFuture<Long> scard(final String key) {
+        return send("SCARD", key).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Set<String>> sdiff(final String key1, final String key2) {
+        return send("SDIFF", key1, key2).thenApply(AsyncJedisTemplate::toSet);
+    }
+    //================================Set Actions  E ============================================
+
+    //================================Ordered Set Actions  S ============================================
+
+    public CompletableFuture<Boolean> zadd(final String key, final double score, final String member) {
+        return send("ZADD", key, toArg(score), member).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    public CompletableFuture<Double> zscore(final String key, final String member) {
+        return send("ZSCORE", key, member).thenApply(AsyncJedisTemplate::toDouble);
+    }
+
+    public CompletableFuture<Long> zrank(final String key, final String member) {
+        return send("ZRANK", key, member).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> zrevrank(final String key, final String member) {
+        return send("ZREVRANK", key, member).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> zcount(final String key, final double min, final double max) {
+        return send("ZCOUNT", key, toArg(min), toArg(max)).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Set<String>> zrange(final String key, final int start, final int end) {
+        return send("ZRANGE", key, String.valueOf(start), String.valueOf(end)).thenApply(AsyncJedisTemplate::toSet);
+    }
+
+    public CompletableFuture<Set<Tuple>> zrangeWithScores(final String key, final int start, final int end) {
+        return send("ZRANGE", key, String.valueOf(start), String.valueOf(end), "WITHSCORES").thenApply(AsyncJedisTemplate::toTuples);
+    }
+
+    public CompletableFuture<Set<String>> zrevrange(final String key, final int start, final int end) {
+        return send("ZREVRANGE", key, String.valueOf(start), String.valueOf(end)).thenApply(AsyncJedisTemplate::toSet);
+    }
+
+    public CompletableFuture<Set<Tuple>> zrevrangeWithScores(final String key, final int start, final int end) {
+        return send("ZREVRANGE", key, String.valueOf(start), String.valueOf(end), "WITHSCORES").thenApply(AsyncJedisTemplate::toTuples);
+    }
+
+    public CompletableFuture<Set<String>> zrangeByScore(final String key, final double min, final double max) {
+        return send("ZRANGEBYSCORE", key, toArg(min), toArg(max)).thenApply(AsyncJedisTemplate::toSet);
+    }
+
+    public CompletableFuture<Set<Tuple>> zrangeByScoreWithScores(final String key, final double min, final double max) {
+        return send("ZRANGEBYSCORE", key, toArg(min), toArg(max), "WITHSCORES").thenApply(AsyncJedisTemplate::toTuples);
+    }
+
+    public CompletableFuture<Set<String>> zrevrangeByScore(final String key, final double max, final double min) {
+        return send("ZREVRANGEBYSCORE", key, toArg(max), toArg(min)).thenApply(AsyncJedisTemplate::toSet);
+    }
+
+    public CompletableFuture<Set<Tuple>> zrevrangeByScoreWithScores(final String key, final double max, final double min) {
+        return send("ZREVRANGEBYSCORE", key, toArg(max), toArg(min), "WITHSCORES").thenApply(AsyncJedisTemplate::toTuples);
+    }
+
+    public CompletableFuture<Boolean> zrem(final String key, final String member) {
+        return send("ZREM", key, member).thenApply(AsyncJedisTemplate::toBoolean);
+    }
+
+    public CompletableFuture<Long> zremByScore(final String key, final double start, final double end) {
+        return send("ZREMRANGEBYSCORE", key, toArg(start), toArg(end)).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> zremByRank(final String key, final long start, final long end) {
+        return send("ZREMRANGEBYRANK", key, String.valueOf(start), String.valueOf(end)).thenApply(AsyncJedisTemplate::toLong);
+    }
+
+    public CompletableFuture<Long> zcard(final String key) {
+        return send("ZCARD", key).thenApply(AsyncJedisTemplate::toLong);
+    }
+    //================================Ordered Set Actions  E ============================================
+
+    // Common Actions E
+
+    @Override
+    public void close() {
+        for (AsyncRedisConnection connection : connections) {
+            connection.close();
+        }
+        eventLoopGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    private static String[] prepend(String command, String... args) {
+        String[] result = new String[args.length + 1];
+        result[0] = command;
+        System.arraycopy(args, 0, result, 1, args.length);
+        return result;
+    }
+
+    private static String[] prepend(String command, String key, String... args) {
+        String[] result = new String[args.length + 2];
+        result[0] = command;
+        result[1] = key;
+        System.arraycopy(args, 0, result, 2, args.length);
+        return result;
+    }
+
+    private static String toArg(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+inf";
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return "-inf";
+        }
+        return String.valueOf(value);
+    }
+
+    private static String toStr(Object reply) {
+        return (String) reply;
+    }
+
+    private static Long toLong(Object reply) {
+        return (Long) reply;
+    }
+
+    private static Boolean toBoolean(Object reply) {
+        return reply != null && (Long) reply == 1;
+    }
+
+    private static Boolean toStatusOk(Object reply) {
+        return JedisUtils.isStatusOk((String) reply);
+    }
+
+    private static Double toDouble(Object reply) {
+        return reply != null ? parseScore((String) reply) : null;
+    }
+
+    private static Double parseScore(String score) {
+        if ("inf".equals(score) || "+inf".equals(score)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("-inf".equals(score)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.valueOf(score);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> toList(Object reply) {
+        if (reply == null) {
+            return Collections.emptyList();
+        }
+        List<Object> values = (List<Object>) reply;
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add((String) value);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> toSet(Object reply) {
+        if (reply == null) {
+            return Collections.emptySet();
+        }
+        List<Object> values = (List<Object>) reply;
+        Set<String> result = new LinkedHashSet<>(values.size() * 4 / 3 + 1);
+        for (Object value : values) {
+            result.add((String) value);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Tuple> toTuples(Object reply) {
+        if (reply == null) {
+            return Collections.emptySet();
+        }
+        List<Object> values = (List<Object>) reply;
+        Set<Tuple> result = new LinkedHashSet<>(values.size() * 2 / 3 + 1);
+        for (int i = 0; i + 1 < values.size(); i += 2) {
+            result.add(new Tuple((String) values.get(i), parseScore((String) values.get(i + 1))));
+        }
+        return result;
+    }
+}
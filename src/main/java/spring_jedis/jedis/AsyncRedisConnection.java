@@ -0,0 +1,157 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * 一个复用的 Netty 通道, 断开后在下一次发送时惰性重连, 重连时重新执行 AUTH / SELECT.
+ * 重连不阻塞调用线程(可能是 EventLoop 中的回调): 建连与 AUTH / SELECT 以 future 串联,
+ * 期间发送的命令按发送顺序排队, 连接就绪后依次写出, 建连失败时全部以 {@link JedisConnectionException} 完成.
+ */
+class AsyncRedisConnection {
+
+    private final Bootstrap bootstrap;
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final String password;
+    private final int database;
+    private volatile Channel channel;
+
+    /**
+     * 正在建连时等待写出的命令, 不为 null 表示正在建连; 由 this 保护.
+     */
+    private List<RespClientHandler.Command> pending;
+
+    AsyncRedisConnection(Bootstrap bootstrap, String host, int port, int timeout, String password, int database) {
+        this.bootstrap = bootstrap;
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.password = password;
+        this.database = database;
+    }
+
+    /**
+     * 发送一条命令, 应答到达或超时后完成返回的 future.
+     */
+    CompletableFuture<Object> send(String... args) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Channel ch = channel;
+        if (ch != null && ch.isActive()) {
+            write(ch, args, future);
+            return future;
+        }
+        synchronized (this) {
+            ch = channel;
+            if (ch == null || !ch.isActive()) {
+                channel = null;
+                boolean connecting = pending != null;
+                if (!connecting) {
+                    pending = new ArrayList<>();
+                }
+                pending.add(new RespClientHandler.Command(args, future));
+                if (!connecting) {
+                    connect();
+                }
+                return future;
+            }
+        }
+        write(ch, args, future);
+        return future;
+    }
+
+    private void write(Channel ch, String[] args, CompletableFuture<Object> future) {
+        ch.writeAndFlush(new RespClientHandler.Command(args, future)).addListener((ChannelFuture written) -> {
+            if (!written.isSuccess()) {
+                future.completeExceptionally(new JedisConnectionException(written.cause()));
+            }
+        });
+        if (timeout > 0) {
+            ScheduledFuture<?> timer = ch.eventLoop().schedule(() -> {
+                future.completeExceptionally(new JedisConnectionException("Read timed out after " + timeout + " ms"));
+            }, timeout, TimeUnit.MILLISECONDS);
+            future.whenComplete((reply, error) -> timer.cancel(false));
+        }
+    }
+
+    /**
+     * 建连(超时由 bootstrap 的 CONNECT_TIMEOUT_MILLIS 控制)后依次执行 AUTH / SELECT, 全部在 EventLoop 的回调中完成.
+     */
+    private void connect() {
+        bootstrap.connect(host, port).addListener((ChannelFuture connected) -> {
+            if (!connected.isSuccess()) {
+                failPending(new JedisConnectionException("Failed connecting to " + host + ":" + port, connected.cause()));
+                return;
+            }
+            final Channel ch = connected.channel();
+            CompletableFuture<Object> handshake = CompletableFuture.completedFuture(null);
+            if (password != null && !password.isEmpty()) {
+                handshake = handshake.thenCompose((reply) -> handshake(ch, "AUTH", password));
+            }
+            if (database != 0) {
+                handshake = handshake.thenCompose((reply) -> handshake(ch, "SELECT", String.valueOf(database)));
+            }
+            handshake.whenComplete((reply, error) -> {
+                if (error != null) {
+                    ch.close();
+                    failPending(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    ready(ch);
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<Object> handshake(Channel ch, String... args) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        write(ch, args, future);
+        return future.handle((reply, error) -> {
+            if (error != null) {
+                throw new JedisConnectionException(args[0] + " failed", error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+            return reply;
+        });
+    }
+
+    /**
+     * 先按顺序写出排队的命令, 再公开通道, 之后的发送不会排到排队的命令之前.
+     */
+    private synchronized void ready(Channel ch) {
+        List<RespClientHandler.Command> commands = pending;
+        pending = null;
+        for (RespClientHandler.Command command : commands) {
+            write(ch, command.args, command.future);
+        }
+        channel = ch;
+    }
+
+    private void failPending(Throwable cause) {
+        List<RespClientHandler.Command> commands;
+        synchronized (this) {
+            commands = pending;
+            pending = null;
+        }
+        JedisConnectionException error = cause instanceof JedisConnectionException
+                ? (JedisConnectionException) cause : new JedisConnectionException(cause);
+        for (RespClientHandler.Command command : commands) {
+            command.future.completeExceptionally(error);
+        }
+    }
+
+    void close() {
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close().awaitUninterruptibly();
+        }
+    }
+}
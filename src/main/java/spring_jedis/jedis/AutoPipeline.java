@@ -0,0 +1,170 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * 自动管道(implicit pipelining).
+ * 多个线程并发提交的单 key 命令进入同一个队列, 由 flusher 线程按批量大小或微秒级截止时间凑批,
+ * 每批在一个连接上以 Pipeline 发送并 sync, 再把结果交还给各自的调用线程.
+ * 每个 flusher 线程同一时刻只占用一个连接, flusher 数即自动管道使用的连接数.
+ */
+public class AutoPipeline implements Closeable {
+
+    private final JedisTemplate jedisTemplate;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingCommand<?>> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> flushers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public AutoPipeline(JedisTemplate jedisTemplate, int connections, int maxBatch, long maxDelayMicros) {
+        this.jedisTemplate = jedisTemplate;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        for (int i = 0; i < Math.max(1, connections); i++) {
+            Thread flusher = new Thread(this::runFlusher, "jedis-auto-pipeline-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+    }
+
+    /**
+     * 提交一条命令并阻塞等待其所在批次 sync 完成.
+     */
+    public <R> R execute(Function<Pipeline, Response<R>> command) throws JedisException {
+        if (!running) {
+            throw new JedisException("AutoPipeline is closed");
+        }
+        PendingCommand<R> pending = new PendingCommand<>(command);
+        queue.add(pending);
+        if (!running) {
+            failPending(new JedisException("AutoPipeline is closed"));
+        }
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while waiting for pipelined reply", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JedisException) {
+                throw (JedisException) cause;
+            }
+            throw new JedisException(cause);
+        }
+    }
+
+    /**
+     * 当前排队等待发送的命令数.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<PendingCommand<?>> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                PendingCommand<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingCommand<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (PendingCommand<?> pending : batch) {
+                    pending.future.completeExceptionally(new JedisException("AutoPipeline is closed"));
+                }
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        failPending(new JedisException("AutoPipeline is closed"));
+    }
+
+    private void flush(List<PendingCommand<?>> batch) {
+        try {
+            jedisTemplate.executePipeline((pipeline) -> {
+                for (PendingCommand<?> pending : batch) {
+                    pending.send(pipeline);
+                }
+            });
+        } catch (RuntimeException e) {
+            for (PendingCommand<?> pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (PendingCommand<?> pending : batch) {
+            pending.complete();
+        }
+    }
+
+    private void failPending(JedisException e) {
+        PendingCommand<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread flusher : flushers) {
+            flusher.interrupt();
+        }
+        failPending(new JedisException("AutoPipeline is closed"));
+    }
+
+    private static final class PendingCommand<R> {
+        private final Function<Pipeline, Response<R>> command;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private Response<R> response;
+
+        PendingCommand(Function<Pipeline, Response<R>> command) {
+            this.command = command;
+        }
+
+        void send(Pipeline pipeline) {
+            response = command.apply(pipeline);
+        }
+
+        void complete() {
+            try {
+                future.complete(response.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
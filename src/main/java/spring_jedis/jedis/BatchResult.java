@@ -0,0 +1,77 @@
+package spring_jedis.jedis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * {@link JedisBatch} 的执行结果, 按命令添加顺序(从 0 开始)取值.
+ * 类型与 JedisTemplate 中对应方法的返回值相同: get / hget 等为 String, 计数类为 Long,
+ * exists / sismember / expire / hset / del / zadd 为 Boolean, zscore / zincrby 为 Double,
+ * lrange / hmget 为 List, smembers 为 Set, hgetAll 为 Map, zrevrangeScored 为 {@link ScoredMembers}.
+ * 以下与 JedisTemplate 不同: set / setex 在 JedisTemplate 中没有返回值, 这里为服务端的状态 "OK";
+ * 可变参数的 sadd / srem / zrem / hdel / lpush / rpush 为实际增删的个数(Long), 不是 JedisTemplate 单成员版本的 Boolean.
+ * 出错的命令在取值时抛出服务端返回的 JedisDataException.
+ */
+public final class BatchResult {
+
+    private final Object[] results;
+
+    BatchResult(Object[] results) {
+        this.results = results;
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * 第 index 条命令的结果, 由调用方指定类型.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index) {
+        Object result = results[index];
+        if (result instanceof JedisDataException) {
+            throw (JedisDataException) result;
+        }
+        return (T) result;
+    }
+
+    public boolean isError(int index) {
+        return results[index] instanceof JedisDataException;
+    }
+
+    public String getString(int index) {
+        return get(index);
+    }
+
+    public Long getLong(int index) {
+        return get(index);
+    }
+
+    public Double getDouble(int index) {
+        return get(index);
+    }
+
+    public Boolean getBoolean(int index) {
+        return get(index);
+    }
+
+    public List<String> getList(int index) {
+        return get(index);
+    }
+
+    public Set<String> getSet(int index) {
+        return get(index);
+    }
+
+    public Map<String, String> getMap(int index) {
+        return get(index);
+    }
+
+    public ScoredMembers getScoredMembers(int index) {
+        return get(index);
+    }
+}
@@ -0,0 +1,203 @@
+package spring_jedis.jedis;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个 Redis 节点的熔断器, 由最近 windowSize 次调用的结果驱动:
+ * <ul>
+ * <li>CLOSED: 正常放行; 样本数达到 minimumCalls 且失败率或慢调用率达到阈值时转为 OPEN.</li>
+ * <li>OPEN: 直接拒绝, 不再占用连接与线程; openMillis 后转为 HALF_OPEN.</li>
+ * <li>HALF_OPEN: 只放行 halfOpenCalls 次探测调用, 全部成功且不慢则转为 CLOSED, 任一失败或慢调用则重新 OPEN.</li>
+ * </ul>
+ * 只有连接类错误(网络错误、超时)计为失败, 数据类错误(如 WRONGTYPE)说明节点正常应答.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    /**
+     * 环形窗口, 每次调用一个字节(FAILURE / SLOW 标志位).
+     */
+    private final byte[] outcomes;
+    private int index;
+    private int count;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    /**
+     * @param windowSize          统计的最近调用次数
+     * @param minimumCalls        窗口内至少有这么多次调用才计算比例
+     * @param failureRatePercent  失败率阈值(百分比)
+     * @param slowCallRatePercent 慢调用率阈值(百分比), 100 以上表示不按慢调用熔断
+     * @param slowCallMillis      耗时(含借连接)达到该值即为慢调用
+     * @param openMillis          OPEN 状态持续时间
+     * @param halfOpenCalls       HALF_OPEN 状态放行的探测调用数
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, int slowCallRatePercent,
+                          long slowCallMillis, long openMillis, int halfOpenCalls) {
+        this.name = name;
+        this.outcomes = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * 调用前申请放行, 返回 false 时调用方应直接失败.
+     * 放行后必须调用 {@link #onResult(long, boolean)} 或 {@link #release()} 之一.
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    rejected.increment();
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    rejected.increment();
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 放行后未实际执行(如被并发隔离拒绝), 归还 HALF_OPEN 的探测名额.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * 记录一次调用的耗时与是否失败.
+     */
+    public void onResult(long elapsedNanos, boolean failure) {
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (elapsedNanos >= slowCallNanos ? SLOW : 0));
+        synchronized (this) {
+            switch (state) {
+                case OPEN:
+                    // 熔断前发出的调用迟到的结果
+                    return;
+                case HALF_OPEN:
+                    if (outcome != 0) {
+                        open();
+                    } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                        close();
+                    }
+                    return;
+                default:
+                    record(outcome);
+                    if (count >= minimumCalls
+                            && (failures * 100L >= (long) failureRatePercent * count || slowCalls * 100L >= (long) slowCallRatePercent * count)) {
+                        open();
+                    }
+            }
+        }
+    }
+
+    private void record(byte outcome) {
+        if (count == outcomes.length) {
+            byte evicted = outcomes[index];
+            failures -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            count++;
+        }
+        outcomes[index] = outcome;
+        failures += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+        index = (index + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened.increment();
+    }
+
+    private void close() {
+        index = 0;
+        count = 0;
+        failures = 0;
+        slowCalls = 0;
+        state = State.CLOSED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 窗口内的失败率(百分比).
+     */
+    public synchronized double getFailureRate() {
+        return count == 0 ? 0 : failures * 100d / count;
+    }
+
+    /**
+     * 窗口内的慢调用率(百分比).
+     */
+    public synchronized double getSlowCallRate() {
+        return count == 0 ? 0 : slowCalls * 100d / count;
+    }
+
+    /**
+     * OPEN / HALF_OPEN 状态下被拒绝的调用数.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 转为 OPEN 的次数.
+     */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker[" + name + ", " + state + ", failureRate=" + getFailureRate() + ", slowCallRate=" + getSlowCallRate() + "]";
+    }
+}
@@ -0,0 +1,19 @@
+package spring_jedis.jedis;
+
+/**
+ * 命令执行监听器, 通过 {@link CommandMetrics#addListener(CommandListener)} 注册.
+ * 在执行命令的线程上同步回调, 实现必须足够轻量且不能阻塞; 抛出的异常会被忽略.
+ */
+@FunctionalInterface
+public interface CommandListener {
+
+    /**
+     * @param command       命令名, 管道为 {@link CommandMetrics#PIPELINE}
+     * @param commands      本次借用连接期间发出的命令条数
+     * @param borrowNanos   从连接池借出连接的耗时
+     * @param rttNanos      借出连接到执行完毕的耗时, 即客户端观察到的往返时间
+     * @param responseBytes 应答的负载字节数(不含 RESP 协议头)
+     * @param error         执行失败时的异常, 成功为 null
+     */
+    void onCommand(String command, int commands, long borrowNanos, long rttNanos, long responseBytes, Throwable error);
+}
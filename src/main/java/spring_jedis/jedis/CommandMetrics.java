@@ -0,0 +1,115 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import redis.clients.jedis.Protocol;
+
+/**
+ * 按命令名统计 {@link JedisTemplate} 的每次执行.
+ * 命令名取连接上发出的第一条命令; 管道统一记为 PIPELINE, 命令条数单独累计.
+ * 统计槽按 Protocol.Command 的序号存放在数组中, 首次出现时创建, 记录路径上没有锁和哈希查找.
+ * 只有 {@link ResizableJedisPool} 创建的连接带有命令轨迹, 其他连接池的连接不会被统计.
+ */
+public class CommandMetrics {
+
+    public static final String PIPELINE = "PIPELINE";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private static final Protocol.Command[] COMMANDS = Protocol.Command.values();
+
+    private final AtomicReferenceArray<CommandStats> byCommand = new AtomicReferenceArray<>(COMMANDS.length);
+    private final CommandStats pipeline = new CommandStats(PIPELINE);
+    private final CommandStats unknown = new CommandStats(UNKNOWN);
+    private final List<CommandListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(CommandListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CommandListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 记录一次执行. command 为 null 表示没有发出命令或命令未知.
+     */
+    public void record(Protocol.Command command, boolean pipelined, int commandCount, long borrowNanos,
+                       long rttNanos, long responseBytes, Throwable error) {
+        CommandStats stats = pipelined ? pipeline : statsFor(command);
+        stats.record(commandCount, borrowNanos, rttNanos, responseBytes, error != null);
+        if (!listeners.isEmpty()) {
+            for (CommandListener listener : listeners) {
+                try {
+                    listener.onCommand(stats.getName(), commandCount, borrowNanos, rttNanos, responseBytes, error);
+                } catch (RuntimeException e) {
+                    //logger.error("command listener error :{}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 按名称查找统计, 没有记录过返回 null.
+     */
+    public CommandStats get(String name) {
+        if (PIPELINE.equals(name)) {
+            return pipeline;
+        }
+        if (UNKNOWN.equals(name)) {
+            return unknown;
+        }
+        for (int i = 0; i < COMMANDS.length; i++) {
+            if (COMMANDS[i].name().equalsIgnoreCase(name)) {
+                return byCommand.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 所有有过调用的统计.
+     */
+    public List<CommandStats> getAll() {
+        List<CommandStats> all = new ArrayList<>();
+        for (int i = 0; i < COMMANDS.length; i++) {
+            CommandStats stats = byCommand.get(i);
+            if (stats != null) {
+                all.add(stats);
+            }
+        }
+        if (pipeline.getCalls() > 0) {
+            all.add(pipeline);
+        }
+        if (unknown.getCalls() > 0) {
+            all.add(unknown);
+        }
+        return all;
+    }
+
+    public void reset() {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            CommandStats stats = byCommand.get(i);
+            if (stats != null) {
+                stats.reset();
+            }
+        }
+        pipeline.reset();
+        unknown.reset();
+    }
+
+    private CommandStats statsFor(Protocol.Command command) {
+        if (command == null) {
+            return unknown;
+        }
+        int index = command.ordinal();
+        CommandStats stats = byCommand.get(index);
+        if (stats == null) {
+            byCommand.compareAndSet(index, null, new CommandStats(command.name()));
+            stats = byCommand.get(index);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,84 @@
+package spring_jedis.jedis;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个命令的累计统计: 调用次数, 命令条数, 错误数, 应答字节数, 借用耗时与往返耗时直方图.
+ */
+public class CommandStats {
+
+    private final String name;
+    private final LongAdder extraCommands = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LatencyHistogram borrow = new LatencyHistogram();
+    private final LatencyHistogram rtt = new LatencyHistogram();
+
+    public CommandStats(String name) {
+        this.name = name;
+    }
+
+    void record(int commandCount, long borrowNanos, long rttNanos, long bytes, boolean error) {
+        rtt.record(rttNanos);
+        borrow.record(borrowNanos);
+        if (commandCount != 1) {
+            extraCommands.add(commandCount - 1);
+        }
+        responseBytes.add(bytes);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 调用次数(每次借还连接算一次).
+     */
+    public long getCalls() {
+        return rtt.getCount();
+    }
+
+    /**
+     * 发出的命令条数, 管道中每条命令各算一条.
+     */
+    public long getCommands() {
+        return getCalls() + extraCommands.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    public LatencyHistogram getBorrow() {
+        return borrow;
+    }
+
+    public LatencyHistogram getRtt() {
+        return rtt;
+    }
+
+    public void reset() {
+        extraCommands.reset();
+        errors.reset();
+        responseBytes.reset();
+        borrow.reset();
+        rtt.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + "[calls=" + getCalls()
+                + ", commands=" + getCommands()
+                + ", errors=" + getErrors()
+                + ", responseBytes=" + getResponseBytes()
+                + ", rtt={" + rtt + "}"
+                + ", borrow={" + borrow + "}]";
+    }
+}
@@ -0,0 +1,232 @@
+package spring_jedis.jedis;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * POJO 与 Redis Hash 之间的字段映射.
+ * 每个类只在第一次使用时内省一次, 把 getter / setter / 无参构造器解析为 MethodHandle 缓存起来, 之后读写字段不再走反射查找.
+ * 支持 String, 基本类型及其包装类型, 枚举; 其他类型的属性会被忽略.
+ */
+public final class HashMapper<T> {
+
+    private static final Map<Class<?>, HashMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private final MethodHandle constructor;
+    private final Property[] properties;
+    private final Map<String, Property> propertiesByName;
+
+    private HashMapper(Class<T> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+            BeanInfo beanInfo = Introspector.getBeanInfo(type, Object.class);
+            List<Property> found = new ArrayList<>();
+            for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                Function<String, Object> parser = parserFor(descriptor.getPropertyType());
+                if (descriptor.getReadMethod() == null || descriptor.getWriteMethod() == null || parser == null) {
+                    continue;
+                }
+                MethodHandle getter = lookup.unreflect(descriptor.getReadMethod())
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                MethodHandle setter = lookup.unreflect(descriptor.getWriteMethod())
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                found.add(new Property(descriptor.getName(), getter, setter, parser, descriptor.getPropertyType().isPrimitive()));
+            }
+            this.properties = found.toArray(new Property[found.size()]);
+            this.propertiesByName = new HashMap<>(properties.length * 4 / 3 + 1);
+            for (Property property : properties) {
+                propertiesByName.put(property.name, property);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException | IntrospectionException e) {
+            throw new JedisException("Cannot map " + type.getName() + " to redis hash", e);
+        }
+    }
+
+    /**
+     * 获取(首次使用时创建)类对应的映射器.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HashMapper<T> of(Class<T> type) {
+        return (HashMapper<T>) MAPPERS.computeIfAbsent(type, HashMapper::new);
+    }
+
+    /**
+     * 可映射的字段名.
+     */
+    public String[] fieldNames() {
+        String[] names = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            names[i] = properties[i].name;
+        }
+        return names;
+    }
+
+    /**
+     * 对象所有非 null 字段.
+     */
+    public Map<String, String> toHash(T object) {
+        Map<String, String> hash = new HashMap<>(properties.length * 4 / 3 + 1);
+        for (Property property : properties) {
+            Object value = property.get(object);
+            if (value != null) {
+                hash.put(property.name, toString(value));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 比较两个对象, 返回值发生变化的非 null 字段; 变为 null 的字段放入 removedFields.
+     */
+    public Map<String, String> diff(T before, T after, Collection<String> removedFields) {
+        Map<String, String> changed = new HashMap<>();
+        for (Property property : properties) {
+            Object oldValue = before == null ? null : property.get(before);
+            Object newValue = property.get(after);
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (newValue == null) {
+                removedFields.add(property.name);
+            } else {
+                changed.put(property.name, toString(newValue));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 由 Hash 创建对象, hash 为空时返回 null.
+     */
+    public T fromHash(Map<String, String> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        T object = newInstance();
+        apply(object, hash);
+        return object;
+    }
+
+    /**
+     * 把 Hash 中的字段写入已有对象, 未知字段忽略.
+     */
+    public void apply(T object, Map<String, String> hash) {
+        for (Map.Entry<String, String> entry : hash.entrySet()) {
+            Property property = propertiesByName.get(entry.getKey());
+            if (property != null) {
+                property.set(object, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 按 fields 顺序写入 values(HMGET 的结果), null 值跳过.
+     */
+    public void apply(T object, String[] fields, List<String> values) {
+        for (int i = 0; i < fields.length; i++) {
+            Property property = propertiesByName.get(fields[i]);
+            if (property != null && values.get(i) != null) {
+                property.set(object, values.get(i));
+            }
+        }
+    }
+
+    /**
+     * 创建一个空对象.
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new JedisException("Cannot instantiate mapped object", e);
+        }
+    }
+
+    private static String toString(Object value) {
+        return value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> parserFor(Class<?> type) {
+        if (type == String.class) {
+            return (s) -> s;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        }
+        if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        }
+        if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        }
+        if (type == float.class || type == Float.class) {
+            return Float::valueOf;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Boolean::valueOf;
+        }
+        if (type == short.class || type == Short.class) {
+            return Short::valueOf;
+        }
+        if (type == byte.class || type == Byte.class) {
+            return Byte::valueOf;
+        }
+        if (type.isEnum()) {
+            return (s) -> Enum.valueOf((Class) type, s);
+        }
+        return null;
+    }
+
+    private static final class Property {
+        final String name;
+        final MethodHandle getter;
+        final MethodHandle setter;
+        final Function<String, Object> parser;
+        final boolean primitive;
+
+        Property(String name, MethodHandle getter, MethodHandle setter, Function<String, Object> parser, boolean primitive) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.parser = parser;
+            this.primitive = primitive;
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw new JedisException("Cannot read field " + name, e);
+            }
+        }
+
+        void set(Object target, String value) {
+            if (value == null && primitive) {
+                return;
+            }
+            try {
+                setter.invokeExact(target, value == null ? null : parser.apply(value));
+            } catch (Throwable e) {
+                throw new JedisException("Cannot write field " + name, e);
+            }
+        }
+    }
+}
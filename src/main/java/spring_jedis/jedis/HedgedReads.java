@@ -0,0 +1,304 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * {@link JedisTemplate} 只读方法的对冲读(hedged read)与重试:
+ * <ul>
+ * <li>第一次尝试在 hedge 线程中执行, 调用线程最多等待最近读耗时的 percentile 分位(不低于 minDelayMillis);
+ * 仍未返回时再发出一次相同的读, 取先返回的结果. 第二次尝试另借一个连接, 配置了从节点时按负载重新选择节点,
+ * 正在等待应答的从节点未完成请求数较多, 通常会选到另一个节点.</li>
+ * <li>第一次尝试很快以连接错误失败时(熔断快速失败除外)在调用线程重试一次.</li>
+ * <li>对冲与重试共用一个预算: 每次读存入 budgetPercent% 次额度, 最多积累 {@value #MAX_BURST} 次;
+ * 额度不足时不对冲, 此时读直接在调用线程执行, 额外负载不超过读请求的 budgetPercent%.</li>
+ * </ul>
+ * 触发分位每 {@value #REFRESH_MILLIS} 毫秒由当前统计窗口重算一次, 窗口每 {@value #WINDOW_MILLIS} 毫秒轮换;
+ * 样本不足 {@value #MIN_SAMPLES} 个时不对冲.
+ * 每次读多一次线程切换, 中位耗时会略有上升, 适合尾延迟比中位延迟更重要的场景.
+ * {@link #getAttemptLatency()} 为第一次尝试的耗时(即不对冲时的耗时), {@link #getLatency()} 为调用方实际等待的耗时, 两者的 p999 之差即对冲的收益.
+ */
+public class HedgedReads implements Closeable {
+
+    static final int MAX_BURST = 100;
+    static final long REFRESH_MILLIS = 1000;
+    static final long WINDOW_MILLIS = 10000;
+    static final int MIN_SAMPLES = 100;
+
+    /**
+     * 预算以 1/100 次为单位.
+     */
+    private static final long UNIT = 100;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int budgetPercent;
+    private final ThreadPoolExecutor executor;
+
+    private final LatencyHistogram[] windows = {new LatencyHistogram(), new LatencyHistogram()};
+    private volatile int activeWindow;
+    private volatile long hedgeDelayNanos = Long.MAX_VALUE;
+    private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime());
+    private volatile long nextRotate = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS);
+    private final AtomicLong budget = new AtomicLong();
+
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * @param percentile     触发对冲的耗时分位, 如 95
+     * @param minDelayMillis 触发对冲的最短等待
+     * @param budgetPercent  对冲与重试最多占读请求的百分比
+     * @param maxThreads     hedge 线程数上限, 线程用尽时读在调用线程执行
+     */
+    public HedgedReads(double percentile, long minDelayMillis, int budgetPercent, int maxThreads) {
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.budgetPercent = Math.max(0, budgetPercent);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(2, maxThreads), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), (r) -> {
+            Thread thread = new Thread(r, "jedis-hedge-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 执行一次读; attempt 必须幂等, 可能被并发执行两次.
+     */
+    public <R> R execute(Supplier<R> attempt) {
+        long start = System.nanoTime();
+        reads.increment();
+        maybeRefresh(start);
+        if (budget.get() < UNIT * MAX_BURST) {
+            budget.addAndGet(budgetPercent);
+        }
+        try {
+            long delay = hedgeDelayNanos;
+            if (delay == Long.MAX_VALUE || budget.get() < UNIT) {
+                return executeInline(attempt, start);
+            }
+            CompletableFuture<R> first;
+            try {
+                first = CompletableFuture.supplyAsync(timed(attempt), executor);
+            } catch (RejectedExecutionException e) {
+                return executeInline(attempt, start);
+            }
+            try {
+                return first.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return hedge(attempt, first);
+            } catch (ExecutionException e) {
+                return retry(attempt, unwrap(e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JedisException("Interrupted while waiting for read", e);
+            }
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private <R> R executeInline(Supplier<R> attempt, long start) {
+        try {
+            R result = attempt.get();
+            recordAttempt(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            recordAttempt(System.nanoTime() - start);
+            return retry(attempt, e);
+        }
+    }
+
+    /**
+     * 第一次尝试超过触发时间: 预算允许时发出第二次尝试, 返回先成功的结果; 两次都失败时抛出第一次的异常.
+     */
+    private <R> R hedge(Supplier<R> attempt, CompletableFuture<R> first) {
+        if (!withdraw()) {
+            return await(first);
+        }
+        CompletableFuture<R> second;
+        try {
+            second = CompletableFuture.supplyAsync(attempt, executor);
+        } catch (RejectedExecutionException e) {
+            return await(first);
+        }
+        hedges.increment();
+        CompletableFuture<R> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        first.whenComplete((result, error) -> {
+            if (error == null) {
+                winner.complete(result);
+            } else if (failed.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        second.whenComplete((result, error) -> {
+            if (error == null) {
+                if (winner.complete(result)) {
+                    hedgeWins.increment();
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                first.whenComplete((r, firstError) -> winner.completeExceptionally(firstError));
+            }
+        });
+        return await(winner);
+    }
+
+    /**
+     * 第一次尝试以连接错误失败时, 预算允许则在调用线程重试一次.
+     */
+    private <R> R retry(Supplier<R> attempt, RuntimeException error) {
+        if (!(error instanceof JedisConnectionException) || error instanceof JedisFailFastException || !withdraw()) {
+            throw error;
+        }
+        retries.increment();
+        return attempt.get();
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < UNIT) {
+                budgetExhausted.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    private <R> Supplier<R> timed(Supplier<R> attempt) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return attempt.get();
+            } finally {
+                recordAttempt(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private void recordAttempt(long nanos) {
+        attemptLatency.record(nanos);
+        windows[activeWindow].record(nanos);
+    }
+
+    /**
+     * 定期按当前窗口重算触发时间, 窗口到期时换用另一个(清空后的)窗口.
+     */
+    private void maybeRefresh(long now) {
+        long next = nextRefresh.get();
+        if (now - next < 0 || !nextRefresh.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(REFRESH_MILLIS))) {
+            return;
+        }
+        LatencyHistogram window = windows[activeWindow];
+        if (window.getCount() >= MIN_SAMPLES) {
+            hedgeDelayNanos = Math.max(minDelayNanos, window.getPercentileNanos(percentile));
+        }
+        if (now - nextRotate >= 0) {
+            int other = activeWindow ^ 1;
+            windows[other].reset();
+            activeWindow = other;
+            nextRotate = now + TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS);
+        }
+    }
+
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while waiting for read", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new JedisException(cause);
+    }
+
+    /**
+     * 当前的对冲触发时间(毫秒), 样本不足时为 -1.
+     */
+    public double getHedgeDelayMillis() {
+        long delay = hedgeDelayNanos;
+        return delay == Long.MAX_VALUE ? -1 : delay / 1e6;
+    }
+
+    public long getReadCount() {
+        return reads.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * 第二次尝试先返回的次数.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * 需要对冲或重试但预算不足的次数.
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * 对冲次数占读请求的比例(百分比).
+     */
+    public double getHedgeRate() {
+        long total = reads.sum();
+        return total == 0 ? 0 : hedges.sum() * 100d / total;
+    }
+
+    /**
+     * 第一次尝试的耗时, 相当于不对冲时的读耗时.
+     */
+    public LatencyHistogram getAttemptLatency() {
+        return attemptLatency;
+    }
+
+    /**
+     * 调用方实际等待的耗时.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+package spring_jedis.jedis;
+
+import java.util.List;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Protocol;
+
+/**
+ * 记录命令轨迹的 Jedis 连接: 每次从连接池借出时开始一段新轨迹,
+ * 记下借用耗时, 发出的第一条命令, 命令条数与应答的负载字节数, 供 {@link CommandMetrics} 统计.
+ * 只做字段读写, 不加锁, 连接同一时刻只被一个线程持有.
+ */
+class InstrumentedJedis extends Jedis {
+
+    private final TracingClient tracingClient;
+    private long borrowNanos;
+    private long traceStart;
+
+    InstrumentedJedis(String host, int port, int connectionTimeout, int soTimeout) {
+        super(host, port, connectionTimeout, soTimeout);
+        this.tracingClient = new TracingClient(host, port);
+        this.tracingClient.setConnectionTimeout(connectionTimeout);
+        this.tracingClient.setSoTimeout(soTimeout);
+        this.client = tracingClient;
+    }
+
+    /**
+     * 借出连接后调用, 清空上一段轨迹.
+     */
+    void beginTrace(long borrowNanos, long now) {
+        this.borrowNanos = borrowNanos;
+        this.traceStart = now;
+        tracingClient.firstCommand = null;
+        tracingClient.commandCount = 0;
+        tracingClient.responseBytes = 0;
+    }
+
+    long getBorrowNanos() {
+        return borrowNanos;
+    }
+
+    long getTraceStart() {
+        return traceStart;
+    }
+
+    Protocol.Command getFirstCommand() {
+        return tracingClient.firstCommand;
+    }
+
+    int getCommandCount() {
+        return tracingClient.commandCount;
+    }
+
+    long getResponseBytes() {
+        return tracingClient.responseBytes;
+    }
+
+    private static final class TracingClient extends Client {
+        Protocol.Command firstCommand;
+        int commandCount;
+        long responseBytes;
+
+        TracingClient(String host, int port) {
+            super(host, port);
+        }
+
+        @Override
+        protected Connection sendCommand(Protocol.Command cmd, byte[]... args) {
+            if (commandCount++ == 0) {
+                firstCommand = cmd;
+            }
+            return super.sendCommand(cmd, args);
+        }
+
+        @Override
+        protected Object readProtocolWithCheckingBroken() {
+            Object reply = super.readProtocolWithCheckingBroken();
+            responseBytes += sizeOf(reply);
+            return reply;
+        }
+
+        private static long sizeOf(Object reply) {
+            if (reply instanceof byte[]) {
+                return ((byte[]) reply).length;
+            }
+            if (reply instanceof List) {
+                long size = 0;
+                for (Object item : (List<?>) reply) {
+                    size += sizeOf(item);
+                }
+                return size;
+            }
+            return reply == null ? 0 : Long.BYTES;
+        }
+    }
+}
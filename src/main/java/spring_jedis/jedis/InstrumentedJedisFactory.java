@@ -0,0 +1,86 @@
+package spring_jedis.jedis;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * 创建 {@link InstrumentedJedis} 的连接工厂, 行为与 Jedis 自带的 JedisFactory 一致:
+ * 建连后 AUTH / SELECT, 借出时切回配置的 database, 校验时 PING, 销毁时 QUIT.
+ */
+class InstrumentedJedisFactory implements PooledObjectFactory<Jedis> {
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final String password;
+    private final int database;
+
+    InstrumentedJedisFactory(String host, int port, int timeout, String password, int database) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.password = password;
+        this.database = database;
+    }
+
+    @Override
+    public PooledObject<Jedis> makeObject() throws Exception {
+        Jedis jedis = new InstrumentedJedis(host, port, timeout, timeout);
+        try {
+            jedis.connect();
+            if (password != null && !password.isEmpty()) {
+                jedis.auth(password);
+            }
+            if (database != 0) {
+                jedis.select(database);
+            }
+        } catch (RuntimeException e) {
+            jedis.close();
+            throw e;
+        }
+        return new DefaultPooledObject<>(jedis);
+    }
+
+    @Override
+    public void activateObject(PooledObject<Jedis> pooledJedis) throws Exception {
+        Jedis jedis = pooledJedis.getObject();
+        if (jedis.getDB() != database) {
+            jedis.select(database);
+        }
+    }
+
+    @Override
+    public void passivateObject(PooledObject<Jedis> pooledJedis) throws Exception {
+        // nothing to do
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<Jedis> pooledJedis) {
+        Jedis jedis = pooledJedis.getObject();
+        try {
+            return jedis.isConnected() && "PONG".equals(jedis.ping());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<Jedis> pooledJedis) throws Exception {
+        Jedis jedis = pooledJedis.getObject();
+        if (jedis.isConnected()) {
+            try {
+                jedis.quit();
+            } catch (Exception e) {
+                // connection may already be broken
+            }
+            try {
+                jedis.disconnect();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package spring_jedis.jedis;
+
+import java.util.Arrays;
+import java.util.List;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.Client;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * 批量命令构造器, 由 {@link JedisTemplate#batch()} / {@link JedisTemplate#transaction()} 创建:
+ * <pre>
+ * BatchResult r = template.batch().get(k1).zscore(k2, m).llen(k3).execute();
+ * String v = r.getString(0); Double s = r.getDouble(1); Long n = r.getLong(2);
+ * </pre>
+ * 结果按添加顺序编号, 从 0 开始. 命令直接写入连接, 应答逐条读入预先分配的结果数组, 不创建 Response 对象.
+ * 超过 {@link JedisTemplate#setBatchCommandsPerSync(int)} 条(默认 1000)的批量自动分段发送(同一连接), 限制两端的缓冲区;
+ * 事务模式包在 MULTI / EXEC 中, 不分段.
+ * 只含读命令的非事务批量可由从节点执行; 含写命令时执行后失效这些 key 的近端缓存.
+ * 非线程安全, 每次使用新建一个.
+ */
+public final class JedisBatch {
+
+    enum Op {
+        GET(false), EXISTS(false), TTL(false), HGET(false), HMGET(false), HGETALL(false), HLEN(false),
+        LLEN(false), LINDEX(false), LRANGE(false), SCARD(false), SISMEMBER(false), SMEMBERS(false),
+        ZSCORE(false), ZRANK(false), ZREVRANK(false), ZCARD(false), ZREVRANGE_SCORED(false),
+        SET(true), SETEX(true), DEL(true), INCR(true), INCRBY(true), EXPIRE(true), HSET(true), HINCRBY(true), HDEL(true),
+        LPUSH(true), RPUSH(true), SADD(true), SREM(true), ZADD(true), ZINCRBY(true), ZREM(true);
+
+        final boolean write;
+
+        Op(boolean write) {
+            this.write = write;
+        }
+    }
+
+    private final JedisTemplate jedisTemplate;
+    private final boolean transactional;
+    private Op[] ops;
+    private String[] keys;
+    private Object[] firstArgs;
+    private Object[] secondArgs;
+    private int size;
+    private boolean hasWrites;
+
+    JedisBatch(JedisTemplate jedisTemplate, boolean transactional, int expectedSize) {
+        this.jedisTemplate = jedisTemplate;
+        this.transactional = transactional;
+        int capacity = Math.max(4, expectedSize);
+        this.ops = new Op[capacity];
+        this.keys = new String[capacity];
+        this.firstArgs = new Object[capacity];
+        this.secondArgs = new Object[capacity];
+    }
+
+    private JedisBatch add(Op op, String key, Object first, Object second) {
+        if (size == ops.length) {
+            int capacity = size * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            firstArgs = Arrays.copyOf(firstArgs, capacity);
+            secondArgs = Arrays.copyOf(secondArgs, capacity);
+        }
+        ops[size] = op;
+        keys[size] = key;
+        firstArgs[size] = first;
+        secondArgs[size] = second;
+        size++;
+        hasWrites |= op.write;
+        return this;
+    }
+
+    //================================Read
+
+    public JedisBatch get(String key) {
+        return add(Op.GET, key, null, null);
+    }
+
+    public JedisBatch exists(String key) {
+        return add(Op.EXISTS, key, null, null);
+    }
+
+    public JedisBatch ttl(String key) {
+        return add(Op.TTL, key, null, null);
+    }
+
+    public JedisBatch hget(String key, String field) {
+        return add(Op.HGET, key, field, null);
+    }
+
+    public JedisBatch hmget(String key, String... fields) {
+        return add(Op.HMGET, key, fields, null);
+    }
+
+    public JedisBatch hgetAll(String key) {
+        return add(Op.HGETALL, key, null, null);
+    }
+
+    public JedisBatch hlen(String key) {
+        return add(Op.HLEN, key, null, null);
+    }
+
+    public JedisBatch llen(String key) {
+        return add(Op.LLEN, key, null, null);
+    }
+
+    public JedisBatch lindex(String key, long index) {
+        return add(Op.LINDEX, key, index, null);
+    }
+
+    public JedisBatch lrange(String key, long start, long end) {
+        return add(Op.LRANGE, key, start, end);
+    }
+
+    public JedisBatch scard(String key) {
+        return add(Op.SCARD, key, null, null);
+    }
+
+    public JedisBatch sismember(String key, String member) {
+        return add(Op.SISMEMBER, key, member, null);
+    }
+
+    public JedisBatch smembers(String key) {
+        return add(Op.SMEMBERS, key, null, null);
+    }
+
+    public JedisBatch zscore(String key, String member) {
+        return add(Op.ZSCORE, key, member, null);
+    }
+
+    public JedisBatch zrank(String key, String member) {
+        return add(Op.ZRANK, key, member, null);
+    }
+
+    public JedisBatch zrevrank(String key, String member) {
+        return add(Op.ZREVRANK, key, member, null);
+    }
+
+    public JedisBatch zcard(String key) {
+        return add(Op.ZCARD, key, null, null);
+    }
+
+    /**
+     * ZREVRANGE WITHSCORES, 结果为 {@link ScoredMembers}.
+     */
+    public JedisBatch zrevrangeScored(String key, long start, long end) {
+        return add(Op.ZREVRANGE_SCORED, key, start, end);
+    }
+
+    //================================Write
+
+    public JedisBatch set(String key, String value) {
+        return add(Op.SET, key, value, null);
+    }
+
+    public JedisBatch setex(String key, int seconds, String value) {
+        return add(Op.SETEX, key, seconds, value);
+    }
+
+    public JedisBatch del(String key) {
+        return add(Op.DEL, key, null, null);
+    }
+
+    public JedisBatch incr(String key) {
+        return add(Op.INCR, key, null, null);
+    }
+
+    public JedisBatch incrBy(String key, long increment) {
+        return add(Op.INCRBY, key, increment, null);
+    }
+
+    public JedisBatch expire(String key, int seconds) {
+        return add(Op.EXPIRE, key, seconds, null);
+    }
+
+    public JedisBatch hset(String key, String field, String value) {
+        return add(Op.HSET, key, field, value);
+    }
+
+    public JedisBatch hincrBy(String key, String field, long value) {
+        return add(Op.HINCRBY, key, field, value);
+    }
+
+    public JedisBatch hdel(String key, String... fields) {
+        return add(Op.HDEL, key, fields, null);
+    }
+
+    public JedisBatch lpush(String key, String... values) {
+        return add(Op.LPUSH, key, values, null);
+    }
+
+    public JedisBatch rpush(String key, String... values) {
+        return add(Op.RPUSH, key, values, null);
+    }
+
+    public JedisBatch sadd(String key, String... members) {
+        return add(Op.SADD, key, members, null);
+    }
+
+    public JedisBatch srem(String key, String... members) {
+        return add(Op.SREM, key, members, null);
+    }
+
+    public JedisBatch zadd(String key, double score, String member) {
+        return add(Op.ZADD, key, score, member);
+    }
+
+    public JedisBatch zincrby(String key, double increment, String member) {
+        return add(Op.ZINCRBY, key, increment, member);
+    }
+
+    public JedisBatch zrem(String key, String... members) {
+        return add(Op.ZREM, key, members, null);
+    }
+
+    //================================Execute
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    boolean hasWrites() {
+        return hasWrites;
+    }
+
+    /**
+     * 执行并返回结果; 单条命令出错不影响其他命令, 读取该条结果时抛出.
+     */
+    public BatchResult execute() {
+        if (size == 0) {
+            return new BatchResult(new Object[0]);
+        }
+        return jedisTemplate.executeBatch(this);
+    }
+
+    /**
+     * 写命令涉及的 key, 用于失效近端缓存.
+     */
+    String[] writtenKeys() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += ops[i].write ? 1 : 0;
+        }
+        String[] written = new String[count];
+        for (int i = 0, j = 0; i < size; i++) {
+            if (ops[i].write) {
+                written[j++] = keys[i];
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 在连接上执行全部命令, 非事务模式每 commandsPerSync 条读取一次应答.
+     */
+    BatchResult run(Client client, int commandsPerSync) {
+        Object[] results = new Object[size];
+        if (transactional) {
+            runTransaction(client, results);
+            return new BatchResult(results);
+        }
+        int step = Math.max(1, commandsPerSync);
+        for (int from = 0; from < size; from += step) {
+            int to = Math.min(size, from + step);
+            for (int i = from; i < to; i++) {
+                send(client, i);
+            }
+            for (int i = from; i < to; i++) {
+                try {
+                    results[i] = decode(i, client.getOne());
+                } catch (JedisDataException e) {
+                    results[i] = e;
+                }
+            }
+        }
+        return new BatchResult(results);
+    }
+
+    private void runTransaction(Client client, Object[] results) {
+        client.multi();
+        for (int i = 0; i < size; i++) {
+            send(client, i);
+        }
+        client.exec();
+        JedisDataException queueError = null;
+        // MULTI 的 OK 与每条命令的 QUEUED
+        for (int i = 0; i <= size; i++) {
+            try {
+                client.getOne();
+            } catch (JedisDataException e) {
+                queueError = queueError == null ? e : queueError;
+            }
+        }
+        Object reply;
+        try {
+            reply = client.getOne();
+        } catch (JedisDataException e) {
+            throw queueError != null ? queueError : e;
+        }
+        if (reply == null) {
+            throw new JedisDataException("Transaction aborted");
+        }
+        List<?> replies = (List<?>) reply;
+        for (int i = 0; i < size; i++) {
+            Object raw = replies.get(i);
+            results[i] = raw instanceof JedisDataException ? raw : decode(i, raw);
+        }
+    }
+
+    private void send(Client client, int i) {
+        String key = keys[i];
+        Object first = firstArgs[i];
+        Object second = secondArgs[i];
+        switch (ops[i]) {
+            case GET:
+                client.get(key);
+                break;
+            case EXISTS:
+                client.exists(key);
+                break;
+            case TTL:
+                client.ttl(key);
+                break;
+            case HGET:
+                client.hget(key, (String) first);
+                break;
+            case HMGET:
+                client.hmget(key, (String[]) first);
+                break;
+            case HGETALL:
+                client.hgetAll(key);
+                break;
+            case HLEN:
+                client.hlen(key);
+                break;
+            case LLEN:
+                client.llen(key);
+                break;
+            case LINDEX:
+                client.lindex(key, (Long) first);
+                break;
+            case LRANGE:
+                client.lrange(key, (Long) first, (Long) second);
+                break;
+            case SCARD:
+                client.scard(key);
+                break;
+            case SISMEMBER:
+                client.sismember(key, (String) first);
+                break;
+            case SMEMBERS:
+                client.smembers(key);
+                break;
+            case ZSCORE:
+                client.zscore(key, (String) first);
+                break;
+            case ZRANK:
+                client.zrank(key, (String) first);
+                break;
+            case ZREVRANK:
+                client.zrevrank(key, (String) first);
+                break;
+            case ZCARD:
+                client.zcard(key);
+                break;
+            case ZREVRANGE_SCORED:
+                client.zrevrangeWithScores(key, (Long) first, (Long) second);
+                break;
+            case SET:
+                client.set(key, (String) first);
+                break;
+            case SETEX:
+                client.setex(key, (Integer) first, (String) second);
+                break;
+            case DEL:
+                client.del(key);
+                break;
+            case INCR:
+                client.incr(key);
+                break;
+            case INCRBY:
+                client.incrBy(key, (Long) first);
+                break;
+            case EXPIRE:
+                client.expire(key, (Integer) first);
+                break;
+            case HSET:
+                client.hset(key, (String) first, (String) second);
+                break;
+            case HINCRBY:
+                client.hincrBy(key, (String) first, (Long) second);
+                break;
+            case HDEL:
+                client.hdel(key, (String[]) first);
+                break;
+            case LPUSH:
+                client.lpush(key, (String[]) first);
+                break;
+            case RPUSH:
+                client.rpush(key, (String[]) first);
+                break;
+            case SADD:
+                client.sadd(key, (String[]) first);
+                break;
+            case SREM:
+                client.srem(key, (String[]) first);
+                break;
+            case ZADD:
+                client.zadd(key, (Double) first, (String) second);
+                break;
+            case ZINCRBY:
+                client.zincrby(key, (Double) first, (String) second);
+                break;
+            case ZREM:
+                client.zrem(key, (String[]) first);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported batch command " + ops[i]);
+        }
+    }
+
+    /**
+     * 把原始应答转换为与 JedisTemplate 对应方法相同的类型.
+     */
+    private Object decode(int i, Object raw) {
+        switch (ops[i]) {
+            case GET:
+            case HGET:
+            case LINDEX:
+            case SET:
+            case SETEX:
+                return raw == null ? null : SafeEncoder.encode((byte[]) raw);
+            case EXISTS:
+            case SISMEMBER:
+            case EXPIRE:
+            case HSET:
+            case DEL:
+            case ZADD:
+                return Long.valueOf(1L).equals(raw);
+            case HMGET:
+            case LRANGE:
+                return BuilderFactory.STRING_LIST.build(raw);
+            case HGETALL:
+                return BuilderFactory.STRING_MAP.build(raw);
+            case SMEMBERS:
+                return BuilderFactory.STRING_SET.build(raw);
+            case ZSCORE:
+            case ZINCRBY:
+                return BuilderFactory.DOUBLE.build(raw);
+            case ZREVRANGE_SCORED:
+                return ScoredMembers.fromReply((Long) firstArgs[i], (List<?>) raw, 0);
+            default:
+                return raw;
+        }
+    }
+}
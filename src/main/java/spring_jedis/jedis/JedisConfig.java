@@ -27,6 +27,237 @@ public class JedisConfig {
 	@Value("${redis.timeBetweenEvictionRunsMillis}")
 	private Integer timeBetweenEvictionRunsMillis;
 
+	@Value("${redis.minIdle:0}")
+	private Integer minIdle;
+
+	@Value("${redis.maxWaitMillis:-1}")
+	private Long maxWaitMillis;
+
+	@Value("${redis.testWhileIdle:true}")
+	private Boolean testWhileIdle;
+
+	@Value("${redis.blockWhenExhausted:true}")
+	private Boolean blockWhenExhausted;
+
+	@Value("${redis.adaptive.enabled:false}")
+	private Boolean adaptiveEnabled;
+
+	@Value("${redis.adaptive.maxTotal:200}")
+	private Integer adaptiveMaxTotal;
+
+	@Value("${redis.adaptive.targetBorrowWaitMillis:5}")
+	private Long adaptiveTargetBorrowWaitMillis;
+
+	@Value("${redis.adaptive.intervalMillis:10000}")
+	private Long adaptiveIntervalMillis;
+
+	@Value("${redis.autoPipeline.enabled:false}")
+	private Boolean autoPipelineEnabled;
+
+	@Value("${redis.autoPipeline.connections:2}")
+	private Integer autoPipelineConnections;
+
+	@Value("${redis.autoPipeline.maxBatch:128}")
+	private Integer autoPipelineMaxBatch;
+
+	@Value("${redis.autoPipeline.maxDelayMicros:50}")
+	private Long autoPipelineMaxDelayMicros;
+
+	@Value("${redis.async.enabled:false}")
+	private Boolean asyncEnabled;
+
+	@Value("${redis.async.connections:2}")
+	private Integer asyncConnections;
+
+	@Value("${redis.async.ioThreads:2}")
+	private Integer asyncIoThreads;
+
+	@Value("${redis.nearCache.enabled:false}")
+	private Boolean nearCacheEnabled;
+
+	@Value("${redis.nearCache.maxEntries:10000}")
+	private Integer nearCacheMaxEntries;
+
+	@Value("${redis.nearCache.ttlMillis:60000}")
+	private Long nearCacheTtlMillis;
+
+	@Value("${redis.nearCache.channel:}")
+	private String nearCacheChannel;
+
+	@Value("${redis.metrics.enabled:true}")
+	private Boolean metricsEnabled;
+
+	@Value("${redis.sharding.enabled:false}")
+	private Boolean shardingEnabled;
+
+	@Value("${redis.sharding.nodes:}")
+	private String shardingNodes;
+
+	@Value("${redis.replica.enabled:false}")
+	private Boolean replicaEnabled;
+
+	@Value("${redis.replica.nodes:}")
+	private String replicaNodes;
+
+	@Value("${redis.replica.strategy:LEAST_OUTSTANDING}")
+	private String replicaStrategy;
+
+	@Value("${redis.replica.readYourWritesMillis:0}")
+	private Long replicaReadYourWritesMillis;
+
+	@Value("${redis.queue.fetchers:2}")
+	private Integer queueFetchers;
+
+	@Value("${redis.queue.handlerThreads:4}")
+	private Integer queueHandlerThreads;
+
+	@Value("${redis.queue.batchSize:32}")
+	private Integer queueBatchSize;
+
+	@Value("${redis.queue.maxInFlight:256}")
+	private Integer queueMaxInFlight;
+
+	@Value("${redis.queue.blockSeconds:1}")
+	private Integer queueBlockSeconds;
+
+	@Value("${redis.queue.maxAttempts:5}")
+	private Integer queueMaxAttempts;
+
+	@Value("${redis.lock.enabled:false}")
+	private Boolean lockEnabled;
+
+	@Value("${redis.lock.keyPrefix:spring_jedis:lock:}")
+	private String lockKeyPrefix;
+
+	@Value("${redis.lock.leaseMillis:30000}")
+	private Long lockLeaseMillis;
+
+	@Value("${redis.scripts.preload:true}")
+	private Boolean scriptsPreload;
+
+	@Value("${redis.rateLimiter.keyPrefix:spring_jedis:rate:}")
+	private String rateLimiterKeyPrefix;
+
+	@Value("${redis.rateLimiter.localPrecheck:true}")
+	private Boolean rateLimiterLocalPrecheck;
+
+	@Value("${redis.leaderboard.keyPrefix:spring_jedis:board:}")
+	private String leaderboardKeyPrefix;
+
+	@Value("${redis.leaderboard.topN:100}")
+	private Integer leaderboardTopN;
+
+	@Value("${redis.leaderboard.topCacheMillis:1000}")
+	private Long leaderboardTopCacheMillis;
+
+	@Value("${redis.leaderboard.retainBuckets:8}")
+	private Integer leaderboardRetainBuckets;
+
+	@Value("${redis.resilience.enabled:false}")
+	private Boolean resilienceEnabled;
+
+	@Value("${redis.resilience.commandTimeoutMillis:500}")
+	private Long resilienceCommandTimeoutMillis;
+
+	@Value("${redis.resilience.maxConcurrent:0}")
+	private Integer resilienceMaxConcurrent;
+
+	@Value("${redis.resilience.maxBlocking:4}")
+	private Integer resilienceMaxBlocking;
+
+	@Value("${redis.resilience.bulkheadWaitMillis:0}")
+	private Long resilienceBulkheadWaitMillis;
+
+	@Value("${redis.resilience.windowSize:100}")
+	private Integer resilienceWindowSize;
+
+	@Value("${redis.resilience.minimumCalls:20}")
+	private Integer resilienceMinimumCalls;
+
+	@Value("${redis.resilience.failureRatePercent:50}")
+	private Integer resilienceFailureRatePercent;
+
+	@Value("${redis.resilience.slowCallRatePercent:80}")
+	private Integer resilienceSlowCallRatePercent;
+
+	@Value("${redis.resilience.slowCallMillis:200}")
+	private Long resilienceSlowCallMillis;
+
+	@Value("${redis.resilience.openMillis:5000}")
+	private Long resilienceOpenMillis;
+
+	@Value("${redis.resilience.halfOpenCalls:5}")
+	private Integer resilienceHalfOpenCalls;
+
+	@Value("${redis.resilience.staleMaxEntries:0}")
+	private Integer resilienceStaleMaxEntries;
+
+	@Value("${redis.resilience.staleMillis:300000}")
+	private Long resilienceStaleMillis;
+
+	@Value("${redis.hedge.enabled:false}")
+	private Boolean hedgeEnabled;
+
+	@Value("${redis.hedge.percentile:95}")
+	private Double hedgePercentile;
+
+	@Value("${redis.hedge.minDelayMillis:2}")
+	private Long hedgeMinDelayMillis;
+
+	@Value("${redis.hedge.budgetPercent:10}")
+	private Integer hedgeBudgetPercent;
+
+	@Value("${redis.hedge.maxThreads:64}")
+	private Integer hedgeMaxThreads;
+
+	@Value("${redis.cache.enabled:false}")
+	private Boolean cacheEnabled;
+
+	@Value("${redis.cache.beta:1.0}")
+	private Double cacheBeta;
+
+	@Value("${redis.cache.leaseMillis:3000}")
+	private Long cacheLeaseMillis;
+
+	@Value("${redis.cache.graceMillis:30000}")
+	private Long cacheGraceMillis;
+
+	@Value("${redis.cache.refreshThreads:4}")
+	private Integer cacheRefreshThreads;
+
+	@Value("${redis.pubsub.enabled:false}")
+	private Boolean pubsubEnabled;
+
+	@Value("${redis.pubsub.dispatchThreads:4}")
+	private Integer pubsubDispatchThreads;
+
+	@Value("${redis.pubsub.queueCapacity:10000}")
+	private Integer pubsubQueueCapacity;
+
+	@Value("${redis.pubsub.keyspaceEvents:}")
+	private String pubsubKeyspaceEvents;
+
+	@Value("${redis.nearCache.keyspaceInvalidation:false}")
+	private Boolean nearCacheKeyspaceInvalidation;
+
+	@Value("${redis.nearCache.keyspacePattern:*}")
+	private String nearCacheKeyspacePattern;
+
+	@Value("${redis.stream.handlerThreads:8}")
+	private Integer streamHandlerThreads;
+
+	@Value("${redis.stream.batchSize:64}")
+	private Integer streamBatchSize;
+
+	@Value("${redis.stream.maxInFlight:1024}")
+	private Integer streamMaxInFlight;
+
+	@Value("${redis.stream.pollMillis:50}")
+	private Long streamPollMillis;
+
+	@Value("${redis.stream.claimIdleMillis:60000}")
+	private Long streamClaimIdleMillis;
+
 	public String getHost() {
 		return host;
 	}
@@ -90,4 +321,620 @@ public class JedisConfig {
 	public void setTimeBetweenEvictionRunsMillis(Integer timeBetweenEvictionRunsMillis) {
 		this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
 	}
+
+	public Integer getMinIdle() {
+		return minIdle;
+	}
+
+	public void setMinIdle(Integer minIdle) {
+		this.minIdle = minIdle;
+	}
+
+	public Long getMaxWaitMillis() {
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(Long maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public Boolean getTestWhileIdle() {
+		return testWhileIdle;
+	}
+
+	public void setTestWhileIdle(Boolean testWhileIdle) {
+		this.testWhileIdle = testWhileIdle;
+	}
+
+	public Boolean getBlockWhenExhausted() {
+		return blockWhenExhausted;
+	}
+
+	public void setBlockWhenExhausted(Boolean blockWhenExhausted) {
+		this.blockWhenExhausted = blockWhenExhausted;
+	}
+
+	public Boolean getAdaptiveEnabled() {
+		return adaptiveEnabled;
+	}
+
+	public void setAdaptiveEnabled(Boolean adaptiveEnabled) {
+		this.adaptiveEnabled = adaptiveEnabled;
+	}
+
+	public Integer getAdaptiveMaxTotal() {
+		return adaptiveMaxTotal;
+	}
+
+	public void setAdaptiveMaxTotal(Integer adaptiveMaxTotal) {
+		this.adaptiveMaxTotal = adaptiveMaxTotal;
+	}
+
+	public Long getAdaptiveTargetBorrowWaitMillis() {
+		return adaptiveTargetBorrowWaitMillis;
+	}
+
+	public void setAdaptiveTargetBorrowWaitMillis(Long adaptiveTargetBorrowWaitMillis) {
+		this.adaptiveTargetBorrowWaitMillis = adaptiveTargetBorrowWaitMillis;
+	}
+
+	public Long getAdaptiveIntervalMillis() {
+		return adaptiveIntervalMillis;
+	}
+
+	public void setAdaptiveIntervalMillis(Long adaptiveIntervalMillis) {
+		this.adaptiveIntervalMillis = adaptiveIntervalMillis;
+	}
+
+	public Boolean getAutoPipelineEnabled() {
+		return autoPipelineEnabled;
+	}
+
+	public void setAutoPipelineEnabled(Boolean autoPipelineEnabled) {
+		this.autoPipelineEnabled = autoPipelineEnabled;
+	}
+
+	public Integer getAutoPipelineConnections() {
+		return autoPipelineConnections;
+	}
+
+	public void setAutoPipelineConnections(Integer autoPipelineConnections) {
+		this.autoPipelineConnections = autoPipelineConnections;
+	}
+
+	public Integer getAutoPipelineMaxBatch() {
+		return autoPipelineMaxBatch;
+	}
+
+	public void setAutoPipelineMaxBatch(Integer autoPipelineMaxBatch) {
+		this.autoPipelineMaxBatch = autoPipelineMaxBatch;
+	}
+
+	public Long getAutoPipelineMaxDelayMicros() {
+		return autoPipelineMaxDelayMicros;
+	}
+
+	public void setAutoPipelineMaxDelayMicros(Long autoPipelineMaxDelayMicros) {
+		this.autoPipelineMaxDelayMicros = autoPipelineMaxDelayMicros;
+	}
+
+	public Boolean getAsyncEnabled() {
+		return asyncEnabled;
+	}
+
+	public void setAsyncEnabled(Boolean asyncEnabled) {
+		this.asyncEnabled = asyncEnabled;
+	}
+
+	public Integer getAsyncConnections() {
+		return asyncConnections;
+	}
+
+	public void setAsyncConnections(Integer asyncConnections) {
+		this.asyncConnections = asyncConnections;
+	}
+
+	public Integer getAsyncIoThreads() {
+		return asyncIoThreads;
+	}
+
+	public void setAsyncIoThreads(Integer asyncIoThreads) {
+		this.asyncIoThreads = asyncIoThreads;
+	}
+
+	public Boolean getNearCacheEnabled() {
+		return nearCacheEnabled;
+	}
+
+	public void setNearCacheEnabled(Boolean nearCacheEnabled) {
+		this.nearCacheEnabled = nearCacheEnabled;
+	}
+
+	public Integer getNearCacheMaxEntries() {
+		return nearCacheMaxEntries;
+	}
+
+	public void setNearCacheMaxEntries(Integer nearCacheMaxEntries) {
+		this.nearCacheMaxEntries = nearCacheMaxEntries;
+	}
+
+	public Long getNearCacheTtlMillis() {
+		return nearCacheTtlMillis;
+	}
+
+	public void setNearCacheTtlMillis(Long nearCacheTtlMillis) {
+		this.nearCacheTtlMillis = nearCacheTtlMillis;
+	}
+
+	public String getNearCacheChannel() {
+		return nearCacheChannel;
+	}
+
+	public void setNearCacheChannel(String nearCacheChannel) {
+		this.nearCacheChannel = nearCacheChannel;
+	}
+
+	public Boolean getMetricsEnabled() {
+		return metricsEnabled;
+	}
+
+	public void setMetricsEnabled(Boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+	}
+
+	public Boolean getShardingEnabled() {
+		return shardingEnabled;
+	}
+
+	public void setShardingEnabled(Boolean shardingEnabled) {
+		this.shardingEnabled = shardingEnabled;
+	}
+
+	public String getShardingNodes() {
+		return shardingNodes;
+	}
+
+	public void setShardingNodes(String shardingNodes) {
+		this.shardingNodes = shardingNodes;
+	}
+
+	public Boolean getReplicaEnabled() {
+		return replicaEnabled;
+	}
+
+	public void setReplicaEnabled(Boolean replicaEnabled) {
+		this.replicaEnabled = replicaEnabled;
+	}
+
+	public String getReplicaNodes() {
+		return replicaNodes;
+	}
+
+	public void setReplicaNodes(String replicaNodes) {
+		this.replicaNodes = replicaNodes;
+	}
+
+	public String getReplicaStrategy() {
+		return replicaStrategy;
+	}
+
+	public void setReplicaStrategy(String replicaStrategy) {
+		this.replicaStrategy = replicaStrategy;
+	}
+
+	public Long getReplicaReadYourWritesMillis() {
+		return replicaReadYourWritesMillis;
+	}
+
+	public void setReplicaReadYourWritesMillis(Long replicaReadYourWritesMillis) {
+		this.replicaReadYourWritesMillis = replicaReadYourWritesMillis;
+	}
+
+	public Integer getQueueFetchers() {
+		return queueFetchers;
+	}
+
+	public void setQueueFetchers(Integer queueFetchers) {
+		this.queueFetchers = queueFetchers;
+	}
+
+	public Integer getQueueHandlerThreads() {
+		return queueHandlerThreads;
+	}
+
+	public void setQueueHandlerThreads(Integer queueHandlerThreads) {
+		this.queueHandlerThreads = queueHandlerThreads;
+	}
+
+	public Integer getQueueBatchSize() {
+		return queueBatchSize;
+	}
+
+	public void setQueueBatchSize(Integer queueBatchSize) {
+		this.queueBatchSize = queueBatchSize;
+	}
+
+	public Integer getQueueMaxInFlight() {
+		return queueMaxInFlight;
+	}
+
+	public void setQueueMaxInFlight(Integer queueMaxInFlight) {
+		this.queueMaxInFlight = queueMaxInFlight;
+	}
+
+	public Integer getQueueBlockSeconds() {
+		return queueBlockSeconds;
+	}
+
+	public void setQueueBlockSeconds(Integer queueBlockSeconds) {
+		this.queueBlockSeconds = queueBlockSeconds;
+	}
+
+	public Integer getQueueMaxAttempts() {
+		return queueMaxAttempts;
+	}
+
+	public void setQueueMaxAttempts(Integer queueMaxAttempts) {
+		this.queueMaxAttempts = queueMaxAttempts;
+	}
+
+	public Boolean getLockEnabled() {
+		return lockEnabled;
+	}
+
+	public void setLockEnabled(Boolean lockEnabled) {
+		this.lockEnabled = lockEnabled;
+	}
+
+	public String getLockKeyPrefix() {
+		return lockKeyPrefix;
+	}
+
+	public void setLockKeyPrefix(String lockKeyPrefix) {
+		this.lockKeyPrefix = lockKeyPrefix;
+	}
+
+	public Long getLockLeaseMillis() {
+		return lockLeaseMillis;
+	}
+
+	public void setLockLeaseMillis(Long lockLeaseMillis) {
+		this.lockLeaseMillis = lockLeaseMillis;
+	}
+
+	public Boolean getScriptsPreload() {
+		return scriptsPreload;
+	}
+
+	public void setScriptsPreload(Boolean scriptsPreload) {
+		this.scriptsPreload = scriptsPreload;
+	}
+
+	public String getRateLimiterKeyPrefix() {
+		return rateLimiterKeyPrefix;
+	}
+
+	public void setRateLimiterKeyPrefix(String rateLimiterKeyPrefix) {
+		this.rateLimiterKeyPrefix = rateLimiterKeyPrefix;
+	}
+
+	public Boolean getRateLimiterLocalPrecheck() {
+		return rateLimiterLocalPrecheck;
+	}
+
+	public void setRateLimiterLocalPrecheck(Boolean rateLimiterLocalPrecheck) {
+		this.rateLimiterLocalPrecheck = rateLimiterLocalPrecheck;
+	}
+
+	public String getLeaderboardKeyPrefix() {
+		return leaderboardKeyPrefix;
+	}
+
+	public void setLeaderboardKeyPrefix(String leaderboardKeyPrefix) {
+		this.leaderboardKeyPrefix = leaderboardKeyPrefix;
+	}
+
+	public Integer getLeaderboardTopN() {
+		return leaderboardTopN;
+	}
+
+	public void setLeaderboardTopN(Integer leaderboardTopN) {
+		this.leaderboardTopN = leaderboardTopN;
+	}
+
+	public Long getLeaderboardTopCacheMillis() {
+		return leaderboardTopCacheMillis;
+	}
+
+	public void setLeaderboardTopCacheMillis(Long leaderboardTopCacheMillis) {
+		this.leaderboardTopCacheMillis = leaderboardTopCacheMillis;
+	}
+
+	public Integer getLeaderboardRetainBuckets() {
+		return leaderboardRetainBuckets;
+	}
+
+	public void setLeaderboardRetainBuckets(Integer leaderboardRetainBuckets) {
+		this.leaderboardRetainBuckets = leaderboardRetainBuckets;
+	}
+
+	public Boolean getResilienceEnabled() {
+		return resilienceEnabled;
+	}
+
+	public void setResilienceEnabled(Boolean resilienceEnabled) {
+		this.resilienceEnabled = resilienceEnabled;
+	}
+
+	public Long getResilienceCommandTimeoutMillis() {
+		return resilienceCommandTimeoutMillis;
+	}
+
+	public void setResilienceCommandTimeoutMillis(Long resilienceCommandTimeoutMillis) {
+		this.resilienceCommandTimeoutMillis = resilienceCommandTimeoutMillis;
+	}
+
+	public Integer getResilienceMaxConcurrent() {
+		return resilienceMaxConcurrent;
+	}
+
+	public void setResilienceMaxConcurrent(Integer resilienceMaxConcurrent) {
+		this.resilienceMaxConcurrent = resilienceMaxConcurrent;
+	}
+
+	public Integer getResilienceMaxBlocking() {
+		return resilienceMaxBlocking;
+	}
+
+	public void setResilienceMaxBlocking(Integer resilienceMaxBlocking) {
+		this.resilienceMaxBlocking = resilienceMaxBlocking;
+	}
+
+	public Long getResilienceBulkheadWaitMillis() {
+		return resilienceBulkheadWaitMillis;
+	}
+
+	public void setResilienceBulkheadWaitMillis(Long resilienceBulkheadWaitMillis) {
+		this.resilienceBulkheadWaitMillis = resilienceBulkheadWaitMillis;
+	}
+
+	public Integer getResilienceWindowSize() {
+		return resilienceWindowSize;
+	}
+
+	public void setResilienceWindowSize(Integer resilienceWindowSize) {
+		this.resilienceWindowSize = resilienceWindowSize;
+	}
+
+	public Integer getResilienceMinimumCalls() {
+		return resilienceMinimumCalls;
+	}
+
+	public void setResilienceMinimumCalls(Integer resilienceMinimumCalls) {
+		this.resilienceMinimumCalls = resilienceMinimumCalls;
+	}
+
+	public Integer getResilienceFailureRatePercent() {
+		return resilienceFailureRatePercent;
+	}
+
+	public void setResilienceFailureRatePercent(Integer resilienceFailureRatePercent) {
+		this.resilienceFailureRatePercent = resilienceFailureRatePercent;
+	}
+
+	public Integer getResilienceSlowCallRatePercent() {
+		return resilienceSlowCallRatePercent;
+	}
+
+	public void setResilienceSlowCallRatePercent(Integer resilienceSlowCallRatePercent) {
+		this.resilienceSlowCallRatePercent = resilienceSlowCallRatePercent;
+	}
+
+	public Long getResilienceSlowCallMillis() {
+		return resilienceSlowCallMillis;
+	}
+
+	public void setResilienceSlowCallMillis(Long resilienceSlowCallMillis) {
+		this.resilienceSlowCallMillis = resilienceSlowCallMillis;
+	}
+
+	public Long getResilienceOpenMillis() {
+		return resilienceOpenMillis;
+	}
+
+	public void setResilienceOpenMillis(Long resilienceOpenMillis) {
+		this.resilienceOpenMillis = resilienceOpenMillis;
+	}
+
+	public Integer getResilienceHalfOpenCalls() {
+		return resilienceHalfOpenCalls;
+	}
+
+	public void setResilienceHalfOpenCalls(Integer resilienceHalfOpenCalls) {
+		this.resilienceHalfOpenCalls = resilienceHalfOpenCalls;
+	}
+
+	public Integer getResilienceStaleMaxEntries() {
+		return resilienceStaleMaxEntries;
+	}
+
+	public void setResilienceStaleMaxEntries(Integer resilienceStaleMaxEntries) {
+		this.resilienceStaleMaxEntries = resilienceStaleMaxEntries;
+	}
+
+	public Long getResilienceStaleMillis() {
+		return resilienceStaleMillis;
+	}
+
+	public void setResilienceStaleMillis(Long resilienceStaleMillis) {
+		this.resilienceStaleMillis = resilienceStaleMillis;
+	}
+
+	public Boolean getHedgeEnabled() {
+		return hedgeEnabled;
+	}
+
+	public void setHedgeEnabled(Boolean hedgeEnabled) {
+		this.hedgeEnabled = hedgeEnabled;
+	}
+
+	public Double getHedgePercentile() {
+		return hedgePercentile;
+	}
+
+	public void setHedgePercentile(Double hedgePercentile) {
+		this.hedgePercentile = hedgePercentile;
+	}
+
+	public Long getHedgeMinDelayMillis() {
+		return hedgeMinDelayMillis;
+	}
+
+	public void setHedgeMinDelayMillis(Long hedgeMinDelayMillis) {
+		this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+	}
+
+	public Integer getHedgeBudgetPercent() {
+		return hedgeBudgetPercent;
+	}
+
+	public void setHedgeBudgetPercent(Integer hedgeBudgetPercent) {
+		this.hedgeBudgetPercent = hedgeBudgetPercent;
+	}
+
+	public Integer getHedgeMaxThreads() {
+		return hedgeMaxThreads;
+	}
+
+	public void setHedgeMaxThreads(Integer hedgeMaxThreads) {
+		this.hedgeMaxThreads = hedgeMaxThreads;
+	}
+
+	public Boolean getCacheEnabled() {
+		return cacheEnabled;
+	}
+
+	public void setCacheEnabled(Boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	public Double getCacheBeta() {
+		return cacheBeta;
+	}
+
+	public void setCacheBeta(Double cacheBeta) {
+		this.cacheBeta = cacheBeta;
+	}
+
+	public Long getCacheLeaseMillis() {
+		return cacheLeaseMillis;
+	}
+
+	public void setCacheLeaseMillis(Long cacheLeaseMillis) {
+		this.cacheLeaseMillis = cacheLeaseMillis;
+	}
+
+	public Long getCacheGraceMillis() {
+		return cacheGraceMillis;
+	}
+
+	public void setCacheGraceMillis(Long cacheGraceMillis) {
+		this.cacheGraceMillis = cacheGraceMillis;
+	}
+
+	public Integer getCacheRefreshThreads() {
+		return cacheRefreshThreads;
+	}
+
+	public void setCacheRefreshThreads(Integer cacheRefreshThreads) {
+		this.cacheRefreshThreads = cacheRefreshThreads;
+	}
+
+	public Boolean getPubsubEnabled() {
+		return pubsubEnabled;
+	}
+
+	public void setPubsubEnabled(Boolean pubsubEnabled) {
+		this.pubsubEnabled = pubsubEnabled;
+	}
+
+	public Integer getPubsubDispatchThreads() {
+		return pubsubDispatchThreads;
+	}
+
+	public void setPubsubDispatchThreads(Integer pubsubDispatchThreads) {
+		this.pubsubDispatchThreads = pubsubDispatchThreads;
+	}
+
+	public Integer getPubsubQueueCapacity() {
+		return pubsubQueueCapacity;
+	}
+
+	public void setPubsubQueueCapacity(Integer pubsubQueueCapacity) {
+		this.pubsubQueueCapacity = pubsubQueueCapacity;
+	}
+
+	public String getPubsubKeyspaceEvents() {
+		return pubsubKeyspaceEvents;
+	}
+
+	public void setPubsubKeyspaceEvents(String pubsubKeyspaceEvents) {
+		this.pubsubKeyspaceEvents = pubsubKeyspaceEvents;
+	}
+
+	public Boolean getNearCacheKeyspaceInvalidation() {
+		return nearCacheKeyspaceInvalidation;
+	}
+
+	public void setNearCacheKeyspaceInvalidation(Boolean nearCacheKeyspaceInvalidation) {
+		this.nearCacheKeyspaceInvalidation = nearCacheKeyspaceInvalidation;
+	}
+
+	public String getNearCacheKeyspacePattern() {
+		return nearCacheKeyspacePattern;
+	}
+
+	public void setNearCacheKeyspacePattern(String nearCacheKeyspacePattern) {
+		this.nearCacheKeyspacePattern = nearCacheKeyspacePattern;
+	}
+
+	public Integer getStreamHandlerThreads() {
+		return streamHandlerThreads;
+	}
+
+	public void setStreamHandlerThreads(Integer streamHandlerThreads) {
+		this.streamHandlerThreads = streamHandlerThreads;
+	}
+
+	public Integer getStreamBatchSize() {
+		return streamBatchSize;
+	}
+
+	public void setStreamBatchSize(Integer streamBatchSize) {
+		this.streamBatchSize = streamBatchSize;
+	}
+
+	public Integer getStreamMaxInFlight() {
+		return streamMaxInFlight;
+	}
+
+	public void setStreamMaxInFlight(Integer streamMaxInFlight) {
+		this.streamMaxInFlight = streamMaxInFlight;
+	}
+
+	public Long getStreamPollMillis() {
+		return streamPollMillis;
+	}
+
+	public void setStreamPollMillis(Long streamPollMillis) {
+		this.streamPollMillis = streamPollMillis;
+	}
+
+	public Long getStreamClaimIdleMillis() {
+		return streamClaimIdleMillis;
+	}
+
+	public void setStreamClaimIdleMillis(Long streamClaimIdleMillis) {
+		this.streamClaimIdleMillis = streamClaimIdleMillis;
+	}
 }
@@ -0,0 +1,24 @@
+package spring_jedis.jedis;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * 熔断器打开或并发隔离已满时直接拒绝调用, 命令没有发出.
+ * 继承 {@link JedisConnectionException}, 原有按连接错误处理的代码(如从节点失败改读主节点)不需要改动.
+ */
+public class JedisFailFastException extends JedisConnectionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JedisFailFastException(String message) {
+        super(message);
+    }
+
+    /**
+     * 故障期间每秒可能抛出大量该异常, 不采集调用栈.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
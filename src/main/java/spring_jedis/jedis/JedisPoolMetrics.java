@@ -0,0 +1,68 @@
+package spring_jedis.jedis;
+
+import redis.clients.jedis.JedisPool;
+
+/**
+ * 连接池健康指标: active / idle / waiters 实时读取自连接池, 借用等待时间由 {@link JedisTemplate} 记录到直方图.
+ */
+public class JedisPoolMetrics {
+
+    private final JedisPool jedisPool;
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LatencyHistogram recentBorrowWait = new LatencyHistogram();
+
+    public JedisPoolMetrics(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    /**
+     * 记录一次 getResource 的等待时间(纳秒).
+     */
+    public void recordBorrow(long nanos) {
+        borrowWait.record(nanos);
+        recentBorrowWait.record(nanos);
+    }
+
+    /**
+     * 当前被借出的连接数.
+     */
+    public int getNumActive() {
+        return jedisPool.getNumActive();
+    }
+
+    /**
+     * 当前池中空闲的连接数.
+     */
+    public int getNumIdle() {
+        return jedisPool.getNumIdle();
+    }
+
+    /**
+     * 当前阻塞等待连接的线程数.
+     */
+    public int getNumWaiters() {
+        return jedisPool.getNumWaiters();
+    }
+
+    /**
+     * 借用等待时间直方图.
+     */
+    public LatencyHistogram getBorrowWait() {
+        return borrowWait;
+    }
+
+    /**
+     * 最近一个统计窗口的借用等待时间, 由 {@link JedisPoolSizer} 每个周期读取后清空.
+     */
+    public LatencyHistogram getRecentBorrowWait() {
+        return recentBorrowWait;
+    }
+
+    @Override
+    public String toString() {
+        return "JedisPoolMetrics[active=" + getNumActive()
+                + ", idle=" + getNumIdle()
+                + ", waiters=" + getNumWaiters()
+                + ", borrowWait={" + borrowWait + "}]";
+    }
+}
@@ -0,0 +1,76 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应连接池容量调整.
+ * 每个周期读取最近窗口的借用等待 p99:
+ * 超过目标值且有线程在等待时按 25% 扩容(不超过上限);
+ * 窗口内几乎无等待且空闲连接过多时缩容到当前活跃数的两倍(不低于配置的 maxTotal).
+ * maxIdle 随 maxTotal 一起调整: 扩容后不低于 maxTotal, 否则多出的连接归还时被直接关闭, 高峰期反复建连;
+ * 缩回配置值后恢复配置的 maxIdle.
+ */
+public class JedisPoolSizer implements Closeable {
+
+    private final ResizableJedisPool jedisPool;
+    private final JedisPoolMetrics poolMetrics;
+    private final int floorTotal;
+    private final int floorIdle;
+    private final int ceilingTotal;
+    private final long targetWaitNanos;
+    private final ScheduledExecutorService scheduler;
+
+    public JedisPoolSizer(ResizableJedisPool jedisPool, JedisPoolMetrics poolMetrics, int ceilingTotal,
+                          long targetBorrowWaitMillis) {
+        this.jedisPool = jedisPool;
+        this.poolMetrics = poolMetrics;
+        this.floorTotal = jedisPool.getMaxTotal();
+        this.floorIdle = jedisPool.getMaxIdle();
+        this.ceilingTotal = Math.max(ceilingTotal, floorTotal);
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetBorrowWaitMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jedis-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 预热 minIdle 个连接并开始周期性调整.
+     */
+    public JedisPoolSizer start(long intervalMillis) {
+        jedisPool.prewarm(jedisPool.getMinIdle());
+        scheduler.scheduleWithFixedDelay(this::resize, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * 执行一次调整, 返回调整后的 maxTotal.
+     */
+    public int resize() {
+        LatencyHistogram recent = poolMetrics.getRecentBorrowWait();
+        long p99 = recent.getPercentileNanos(99);
+        recent.reset();
+
+        int maxTotal = jedisPool.getMaxTotal();
+        int target = maxTotal;
+        if (p99 > targetWaitNanos && poolMetrics.getNumWaiters() > 0) {
+            target = Math.min(ceilingTotal, maxTotal + Math.max(1, maxTotal / 4));
+        } else if (p99 <= targetWaitNanos / 10 && poolMetrics.getNumIdle() > jedisPool.getMaxIdle() / 2) {
+            target = Math.max(floorTotal, poolMetrics.getNumActive() * 2);
+        }
+        if (target != maxTotal) {
+            jedisPool.setMaxTotal(target);
+            jedisPool.setMaxIdle(target > floorTotal ? Math.max(floorIdle, target) : Math.min(floorIdle, target));
+        }
+        return target;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
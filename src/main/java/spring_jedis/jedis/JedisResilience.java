@@ -0,0 +1,226 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * {@link JedisTemplate} 的故障隔离层, Redis 变慢或不可用时让调用快速失败, 而不是每次都等满 redis.timeout:
+ * <ul>
+ * <li>熔断: 每个节点(主节点、每个从节点)一个 {@link CircuitBreaker}, 按失败率与慢调用率熔断.</li>
+ * <li>命令截止时间: 借出的连接把读超时设为 commandTimeoutMillis(与建连超时 redis.timeout 分开),
+ * 阻塞命令(BRPOP 等)由 Jedis 自行改为无限超时, 返回后恢复; Pipeline(包括 {@link AutoPipeline} 的合并发送)、批量写与 SCAN / LRANGE 分页
+ * 沿用 redis.timeout, 耗时不计为慢调用.</li>
+ * <li>并发隔离: 普通命令与阻塞命令各一个信号量, 阻塞命令占满时不影响普通命令借到连接; 超出时等待 bulkheadWaitMillis 后失败.</li>
+ * <li>读降级(可选): {@link JedisTemplate#get(String)} 成功时把值记入本地缓存, 之后因连接错误或熔断失败时返回缓存中的旧值;
+ * 本进程写同一 key 时失效, 其他实例的写入感知不到, 最多返回 staleMillis 之前的值.</li>
+ * </ul>
+ * 快速失败抛出 {@link JedisFailFastException}. 自动管道({@link AutoPipeline})经 {@link JedisTemplate#executePipeline} 从同一个连接池发送,
+ * 同样受熔断与并发隔离限制, 一次合并发送计为一次调用; 失败时该批所有命令的 future 都以同一个异常完成.
+ */
+public class JedisResilience {
+
+    private final long commandTimeoutMillis;
+    private final Semaphore bulkhead;
+    private final Semaphore blockingBulkhead;
+    private final long bulkheadWaitNanos;
+    private final Map<JedisPool, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private int windowSize = 100;
+    private int minimumCalls = 20;
+    private int failureRatePercent = 50;
+    private int slowCallRatePercent = 80;
+    private long slowCallMillis = 200;
+    private long openMillis = 5000;
+    private int halfOpenCalls = 5;
+
+    private volatile NearCache staleCache;
+
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    /**
+     * @param commandTimeoutMillis 普通命令的读超时, 0 表示沿用连接池的 redis.timeout
+     * @param maxConcurrent        同时执行的普通命令数上限
+     * @param maxBlocking          同时执行的阻塞命令数上限
+     * @param bulkheadWaitMillis   超出并发上限时的最长等待, 0 表示立即失败
+     */
+    public JedisResilience(long commandTimeoutMillis, int maxConcurrent, int maxBlocking, long bulkheadWaitMillis) {
+        this.commandTimeoutMillis = Math.max(0, commandTimeoutMillis);
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrent));
+        this.blockingBulkhead = new Semaphore(Math.max(1, maxBlocking));
+        this.bulkheadWaitNanos = TimeUnit.MILLISECONDS.toNanos(bulkheadWaitMillis);
+    }
+
+    /**
+     * 熔断参数, 对之后首次使用的节点生效, 应在交给 JedisTemplate 之前调用. 参数含义见 {@link CircuitBreaker}.
+     */
+    public JedisResilience setCircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent, int slowCallRatePercent,
+                                             long slowCallMillis, long openMillis, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    /**
+     * 开启读降级, 最多保留 maxEntries 个 key 的最近一次读取结果, 保留 staleMillis 毫秒.
+     */
+    public JedisResilience enableStaleFallback(int maxEntries, long staleMillis) {
+        this.staleCache = maxEntries > 0 ? new NearCache(maxEntries, staleMillis) : null;
+        return this;
+    }
+
+    /**
+     * 节点的熔断器, 首次使用时创建; primary 用于命名.
+     */
+    CircuitBreaker breakerFor(JedisPool pool, boolean primary) {
+        CircuitBreaker breaker = breakers.get(pool);
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(pool, (p) -> new CircuitBreaker(primary ? "primary" : "replica-" + breakers.size(),
+                    windowSize, minimumCalls, failureRatePercent, slowCallRatePercent, slowCallMillis, openMillis, halfOpenCalls));
+        }
+        return breaker;
+    }
+
+    /**
+     * 调用前申请熔断器与并发隔离的许可, 失败时抛出 {@link JedisFailFastException}; 成功时返回占用的信号量.
+     */
+    Semaphore enter(CircuitBreaker breaker, boolean blocking) {
+        if (!breaker.tryAcquire()) {
+            throw new JedisFailFastException("Circuit breaker " + breaker.getName() + " is " + breaker.getState());
+        }
+        Semaphore semaphore = blocking ? blockingBulkhead : bulkhead;
+        boolean acquired;
+        try {
+            acquired = bulkheadWaitNanos > 0 ? semaphore.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS) : semaphore.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            breaker.release();
+            bulkheadRejected.increment();
+            throw new JedisFailFastException((blocking ? "Blocking" : "Command") + " bulkhead is full");
+        }
+        return semaphore;
+    }
+
+    /**
+     * 调用结束: 归还信号量, 向熔断器报告耗时与是否连接失败.
+     */
+    void exit(CircuitBreaker breaker, Semaphore semaphore, long elapsedNanos, RuntimeException error) {
+        semaphore.release();
+        breaker.onResult(elapsedNanos, error instanceof JedisConnectionException);
+    }
+
+    /**
+     * 对借出的连接应用命令截止时间, 只在与当前读超时不同时修改套接字.
+     */
+    void applyDeadline(Jedis jedis) {
+        if (commandTimeoutMillis > 0) {
+            setSoTimeout(jedis.getClient(), (int) commandTimeoutMillis);
+        }
+    }
+
+    /**
+     * Pipeline 与大分页不应用命令截止时间: 连接上次被设为截止时间时, 恢复为连接池的 redis.timeout(与建连超时相同).
+     */
+    void clearDeadline(Jedis jedis) {
+        Client client = jedis.getClient();
+        setSoTimeout(client, client.getConnectionTimeout());
+    }
+
+    private static void setSoTimeout(Client client, int timeout) {
+        if (client.getSoTimeout() != timeout) {
+            client.setSoTimeout(timeout);
+            if (client.isConnected()) {
+                client.rollbackTimeout();
+            }
+        }
+    }
+
+    /**
+     * 读降级: loader 成功时记录结果, 连接错误时返回未过期的旧值, 没有旧值则抛出原异常.
+     */
+    String readWithFallback(String key, Supplier<String> loader) {
+        NearCache vStaleCache = staleCache;
+        if (vStaleCache == null) {
+            return loader.get();
+        }
+        long stamp = vStaleCache.stamp(key);
+        try {
+            String value = loader.get();
+            if (value != null) {
+                vStaleCache.put(key, value, stamp);
+            } else {
+                vStaleCache.invalidateLocal(key);
+            }
+            return value;
+        } catch (JedisConnectionException e) {
+            String stale = vStaleCache.get(key);
+            if (stale == null) {
+                throw e;
+            }
+            staleHits.increment();
+            return stale;
+        }
+    }
+
+    /**
+     * 本进程的写操作失效读降级缓存.
+     */
+    void invalidate(String key) {
+        NearCache vStaleCache = staleCache;
+        if (vStaleCache != null) {
+            vStaleCache.invalidateLocal(key);
+        }
+    }
+
+    public long getCommandTimeoutMillis() {
+        return commandTimeoutMillis;
+    }
+
+    public List<CircuitBreaker> getCircuitBreakers() {
+        return new ArrayList<>(breakers.values());
+    }
+
+    /**
+     * 普通命令当前可用的并发名额.
+     */
+    public int getAvailableConcurrency() {
+        return bulkhead.availablePermits();
+    }
+
+    public int getAvailableBlockingConcurrency() {
+        return blockingBulkhead.availablePermits();
+    }
+
+    /**
+     * 因并发隔离已满被拒绝的调用数.
+     */
+    public long getBulkheadRejectedCount() {
+        return bulkheadRejected.sum();
+    }
+
+    /**
+     * 读降级返回旧值的次数.
+     */
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+}
@@ -17,11 +17,32 @@ package spring_jedis.jedis;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.util.SafeEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 /**
  * =====================================================================================
@@ -40,8 +61,56 @@ public class JedisTemplate {
 
     private JedisPool jedisPool;
 
+    private final JedisPoolMetrics poolMetrics;
+
+    private volatile CommandMetrics commandMetrics = new CommandMetrics();
+
+    private volatile AutoPipeline autoPipeline;
+
+    private volatile NearCache nearCache;
+
+    private volatile ReplicaRouter replicaRouter;
+
+    private volatile JedisResilience resilience;
+
+    private volatile HedgedReads hedgedReads;
+
+    /**
+     * 批量写: 单条命令最多携带的元素数, 避免单条大命令阻塞 Redis.
+     */
+    private int bulkItemsPerCommand = 500;
+
+    /**
+     * 批量写: 每批 Pipeline 最多的命令数与字节数, 达到任一上限即 sync 一次, 限制客户端与服务端缓冲区.
+     */
+    private int bulkCommandsPerSync = 100;
+    private int bulkBytesPerSync = 1024 * 1024;
+
+    /**
+     * {@link JedisBatch}: 超过该命令数的批量分段发送, 每段读完应答再发下一段.
+     */
+    private int batchCommandsPerSync = 1000;
+
+    /**
+     * 游标迭代每页的 COUNT.
+     */
+    private int scanCount = 100;
+
+    /**
+     * 游标迭代的预取线程, 最多 {@value #SCAN_PREFETCH_THREADS} 个(每个预取占用一个连接), 空闲 60 秒后回收;
+     * 线程都忙时由调用线程同步拉取下一页, 不再预取.
+     */
+    private static final int SCAN_PREFETCH_THREADS = 8;
+    private static final ExecutorService SCAN_PREFETCHER = new ThreadPoolExecutor(0, SCAN_PREFETCH_THREADS, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), (r) -> {
+                Thread thread = new Thread(r, "jedis-scan-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
     public JedisTemplate(JedisPool jedisPool) {
         this.jedisPool = jedisPool;
+        this.poolMetrics = new JedisPoolMetrics(jedisPool);
     }
 
     /**
@@ -74,67 +143,365 @@ public class JedisTemplate {
      * Execute with a call back action with result.
      */
     public <R> R execute(JedisAction<Jedis, R> jedisAction) throws JedisException {
+        recordWrite();
+        return executeOn(jedisPool, jedisAction);
+    }
+
+    /**
+     * 在指定连接池(主节点或从节点)上执行.
+     */
+    private <R> R executeOn(JedisPool pool, JedisAction<Jedis, R> jedisAction) throws JedisException {
+        return executeOn(pool, jedisAction, false, false);
+    }
+
+    /**
+     * pipelined 为 true 时计入 Pipeline 统计.
+     */
+    private <R> R executeOn(JedisPool pool, JedisAction<Jedis, R> jedisAction, boolean pipelined) throws JedisException {
+        return executeOn(pool, jedisAction, pipelined, false);
+    }
+
+    /**
+     * blocking 为 true 表示阻塞命令(BRPOP 等), 开启 {@link JedisResilience} 时使用单独的并发隔离, 不应用命令截止时间.
+     * Pipeline 的 sync 可能合法地持续很久, 同样不应用命令截止时间.
+     */
+    private <R> R executeOn(JedisPool pool, JedisAction<Jedis, R> jedisAction, boolean pipelined, boolean blocking) throws JedisException {
+        return executeOn(pool, jedisAction, pipelined, blocking, pipelined);
+    }
+
+    /**
+     * longRunning 为 true 表示 Pipeline 或大分页等耗时取决于数据量的调用: 开启 {@link JedisResilience} 时读超时恢复为连接池的 redis.timeout,
+     * 耗时不计为慢调用, 只有连接错误计入熔断.
+     */
+    private <R> R executeOn(JedisPool pool, JedisAction<Jedis, R> jedisAction, boolean pipelined, boolean blocking,
+                            boolean longRunning) throws JedisException {
+        JedisResilience vResilience = resilience;
+        CircuitBreaker breaker = null;
+        Semaphore bulkhead = null;
+        long start = 0;
+        if (vResilience != null) {
+            breaker = vResilience.breakerFor(pool, pool == jedisPool);
+            bulkhead = vResilience.enter(breaker, blocking);
+            start = System.nanoTime();
+        }
         Jedis jedis = null;
+        boolean broken = false;
+        JedisException error = null;
         try {
-            jedis = jedisPool.getResource();
+            jedis = getResource(pool);
+            if (vResilience != null && !blocking) {
+                if (longRunning) {
+                    vResilience.clearDeadline(jedis);
+                } else {
+                    vResilience.applyDeadline(jedis);
+                }
+            }
             return jedisAction.action(jedis);
         } catch (JedisException e) {
             //logger.error("JedisAction error :{}", e.getMessage());
+            error = e;
+            broken = JedisUtils.isConnectionBroken(e);
             throw e;
         } finally {
-            //closeResource(jedis);
+            recordCommand(jedis, pipelined, error);
+            JedisUtils.closeResource(jedis, broken);
+            if (vResilience != null) {
+                // 阻塞命令耗时取决于等待数据的时间, Pipeline 取决于命令数, 都不计为慢调用
+                vResilience.exit(breaker, bulkhead, blocking || longRunning ? 0 : System.nanoTime() - start, error);
+            }
         }
     }
 
+    /**
+     * 阻塞命令的执行入口.
+     */
+    private <R> R executeBlocking(JedisAction<Jedis, R> jedisAction) throws JedisException {
+        recordWrite();
+        return executeOn(jedisPool, jedisAction, false, true);
+    }
+
+    /**
+     * SCAN / LRANGE 分页等单条命令但应答可能很大的调用, 不应用命令截止时间.
+     */
+    private <R> R executeLongRunning(JedisAction<Jedis, R> jedisAction) throws JedisException {
+        recordWrite();
+        return executeOn(jedisPool, jedisAction, false, false, true);
+    }
+
     /**
      * Execute with a call back action without result.
      */
     public void execute(Consumer<Jedis> jedisAction) throws JedisException {
-        Jedis jedis = null;
-        try {
-            jedis = jedisPool.getResource();
+        recordWrite();
+        executeOn(jedisPool, (jedis) -> {
             jedisAction.accept(jedis);
-        } catch (JedisException e) {
-            //logger.error("JedisActionNoResult error :{}", e.getMessage());
-            throw e;
-        } finally {
-            //closeResource(jedis);
-        }
+            return null;
+        });
     }
 
 
     /**
      * Execute with a call back action with result in pipeline.
+     * action 返回后 sync, 返回值中的 Response 可直接 get; 需要按下标取得各命令结果时使用 {@link #batch()}.
      */
     public <R> R execute(PipelineAction<Pipeline, R> pipelineAction) throws JedisException {
-        Jedis jedis = null;
-        try {
-            jedis = jedisPool.getResource();
+        recordWrite();
+        return executeOn(jedisPool, (jedis) -> {
             Pipeline pipeline = jedis.pipelined();
-            return pipelineAction.action(pipeline);
-        } catch (JedisException e) {
-            //logger.error("PipelineAction error :{}", e.getMessage());
-            throw e;
-        } finally {
-            //closeResource(jedis);
-        }
+            R result = pipelineAction.action(pipeline);
+            pipeline.sync();
+            return result;
+        }, true);
     }
 
     /**
      * Execute with a call back action without result in pipeline.
      */
     public void executePipeline(Consumer<Pipeline> pipelineAction) throws JedisException {
-        Jedis jedis = null;
-        try {
-            jedis = jedisPool.getResource();
+        recordWrite();
+        executeOn(jedisPool, (jedis) -> {
             Pipeline pipeline = jedis.pipelined();
             pipelineAction.accept(pipeline);
             pipeline.sync();
-        } catch (JedisException e) {
-            //logger.error("PipelineActionNoResult error :{}", e.getMessage());
-            throw e;
+            return null;
+        }, true);
+    }
+
+    /**
+     * 批量命令构造器, 结果按下标取得, 详见 {@link JedisBatch}.
+     */
+    public JedisBatch batch() {
+        return new JedisBatch(this, false, 16);
+    }
+
+    /**
+     * expectedSize 为预计的命令数, 用于预先分配数组.
+     */
+    public JedisBatch batch(int expectedSize) {
+        return new JedisBatch(this, false, expectedSize);
+    }
+
+    /**
+     * MULTI / EXEC 事务的批量命令构造器, 不分段, 始终由主节点执行.
+     */
+    public JedisBatch transaction() {
+        return new JedisBatch(this, true, 16);
+    }
+
+    BatchResult executeBatch(final JedisBatch batch) {
+        final int commandsPerSync = batchCommandsPerSync;
+        JedisAction<Jedis, BatchResult> vJedisAction = (jedis) -> batch.run(jedis.getClient(), commandsPerSync);
+
+        if (!batch.hasWrites() && !batch.isTransactional()) {
+            return executeRead(null, vJedisAction, true);
+        }
+        recordWrite();
+        try {
+            return executeOn(jedisPool, vJedisAction, true);
+        } finally {
+            invalidateNearCache(batch.writtenKeys());
+        }
+    }
+
+    /**
+     * 单 key 小命令的执行入口: 开启自动管道时与其他线程的命令合并为一个 Pipeline 发送, 否则直接执行.
+     */
+    private <R> R executeBatchable(Function<Pipeline, Response<R>> pipelineAction, JedisAction<Jedis, R> jedisAction) {
+        AutoPipeline vAutoPipeline = autoPipeline;
+        if (vAutoPipeline != null) {
+            recordWrite();
+            return vAutoPipeline.execute(pipelineAction);
+        }
+        return execute(jedisAction);
+    }
+
+    /**
+     * 只读命令的执行入口: 配置了从节点且当前线程不在 read-your-writes 窗口内时由从节点执行,
+     * 从节点连接失败则暂停使用该节点并改由主节点执行; 否则与 {@link #executeBatchable} 相同, 但不算作写操作.
+     * 开启 {@link HedgedReads} 时慢读会再发出一次, 取先返回的结果.
+     */
+    private <R> R executeRead(Function<Pipeline, Response<R>> pipelineAction, JedisAction<Jedis, R> jedisAction) {
+        return executeRead(pipelineAction, jedisAction, false);
+    }
+
+    private <R> R executeRead(Function<Pipeline, Response<R>> pipelineAction, JedisAction<Jedis, R> jedisAction, boolean pipelined) {
+        return executeRead(pipelineAction, jedisAction, pipelined, false);
+    }
+
+    /**
+     * @param primaryOnly 为 true 时不使用从节点, 用于填充近端缓存: 从节点的复制延迟会把旧值写入近端缓存,
+     *                    而失效只在写入时发生, 旧值会一直留到过期
+     */
+    private <R> R executeRead(Function<Pipeline, Response<R>> pipelineAction, JedisAction<Jedis, R> jedisAction, boolean pipelined, boolean primaryOnly) {
+        ReplicaRouter vReplicaRouter = replicaRouter;
+        // read-your-writes 窗口按线程记录, 在调用线程判断, 对冲读在其他线程执行
+        boolean useReplica = !primaryOnly && vReplicaRouter != null && !vReplicaRouter.isPinnedToPrimary();
+        HedgedReads vHedgedReads = hedgedReads;
+        if (vHedgedReads != null) {
+            return vHedgedReads.execute(() -> readOnce(useReplica ? vReplicaRouter : null, pipelineAction, jedisAction, pipelined));
+        }
+        return readOnce(useReplica ? vReplicaRouter : null, pipelineAction, jedisAction, pipelined);
+    }
+
+    /**
+     * 执行一次读: vReplicaRouter 不为 null 时先尝试从节点.
+     */
+    private <R> R readOnce(ReplicaRouter vReplicaRouter, Function<Pipeline, Response<R>> pipelineAction, JedisAction<Jedis, R> jedisAction, boolean pipelined) {
+        if (vReplicaRouter != null) {
+            ReplicaRouter.Replica replica = vReplicaRouter.select();
+            if (replica != null) {
+                long start = System.nanoTime();
+                replica.begin();
+                try {
+                    return executeOn(replica.getPool(), jedisAction, pipelined);
+                } catch (JedisConnectionException e) {
+                    //logger.error("replica read error :{}", e.getMessage());
+                    replica.markDown();
+                } finally {
+                    replica.end(System.nanoTime() - start);
+                }
+            }
+        }
+        AutoPipeline vAutoPipeline = autoPipeline;
+        if (pipelineAction != null && vAutoPipeline != null) {
+            return vAutoPipeline.execute(pipelineAction);
+        }
+        return executeOn(jedisPool, jedisAction, pipelined);
+    }
+
+    private <R> R executeRead(JedisAction<Jedis, R> jedisAction) {
+        return executeRead(null, jedisAction);
+    }
+
+    /**
+     * 记录当前线程的写操作, 用于 read-your-writes 窗口.
+     */
+    private void recordWrite() {
+        ReplicaRouter vReplicaRouter = replicaRouter;
+        if (vReplicaRouter != null) {
+            vReplicaRouter.recordWrite();
+        }
+    }
+
+    /**
+     * 分块批量写的命令回调: 把 chunk 写成一条或多条命令, 每条命令的 Response 都加入 responses, 用于按命令数 sync.
+     */
+    @FunctionalInterface
+    private interface ChunkAction<T> {
+        void action(Pipeline pipeline, List<T> chunk, List<Response<?>> responses);
+    }
+
+    /**
+     * 分块批量写, 一条命令携带多个元素(MSET / SADD / DEL 等): 每条命令不超过 bulkItemsPerCommand 个元素.
+     */
+    private <T> long executeInChunks(final Collection<T> items, final ToIntFunction<T> weigher,
+                                     final ChunkAction<T> command) {
+        return executeInChunks(items, bulkItemsPerCommand, weigher, command);
+    }
+
+    /**
+     * 分块批量写: 在一个连接上把 items 切成每块不超过 itemsPerChunk 个元素交给 command,
+     * 已发出的命令数(responses 的个数)或字节数达到上限就 sync 一次, 返回各命令 Long 型应答之和.
+     * 每个元素一条命令的写法(SETEX / PUBLISH)以 bulkCommandsPerSync 为块大小, 保证每次 sync 的命令数不超过上限.
+     */
+    private <T> long executeInChunks(final Collection<T> items, final int itemsPerChunk, final ToIntFunction<T> weigher,
+                                     final ChunkAction<T> command) {
+        if (items.isEmpty()) {
+            return 0L;
+        }
+        JedisAction<Jedis, Long> vJedisAction = (jedis) -> {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<?>> responses = new ArrayList<>(Math.min(bulkCommandsPerSync, items.size()));
+            List<T> chunk = new ArrayList<>(Math.min(itemsPerChunk, items.size()));
+            long total = 0;
+            int pendingBytes = 0;
+            for (T item : items) {
+                chunk.add(item);
+                pendingBytes += weigher.applyAsInt(item);
+                if (chunk.size() >= itemsPerChunk || pendingBytes >= bulkBytesPerSync) {
+                    command.action(pipeline, chunk, responses);
+                    chunk = new ArrayList<>(itemsPerChunk);
+                }
+                if (responses.size() >= bulkCommandsPerSync || pendingBytes >= bulkBytesPerSync) {
+                    total += syncAndSum(pipeline, responses);
+                    pendingBytes = 0;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                command.action(pipeline, chunk, responses);
+            }
+            return total + syncAndSum(pipeline, responses);
+        };
+
+        recordWrite();
+        return executeOn(jedisPool, vJedisAction, true);
+    }
+
+    private static long syncAndSum(Pipeline pipeline, List<Response<?>> responses) {
+        pipeline.sync();
+        long total = 0;
+        for (Response<?> response : responses) {
+            Object value = response.get();
+            if (value instanceof Long) {
+                total += (Long) value;
+            }
+        }
+        responses.clear();
+        return total;
+    }
+
+    /**
+     * 调整批量写的分块上限.
+     */
+    public void setBulkLimits(int itemsPerCommand, int commandsPerSync, int bytesPerSync) {
+        this.bulkItemsPerCommand = Math.max(1, itemsPerCommand);
+        this.bulkCommandsPerSync = Math.max(1, commandsPerSync);
+        this.bulkBytesPerSync = Math.max(1, bytesPerSync);
+    }
+
+    /**
+     * 调整 {@link JedisBatch} 的分段上限.
+     */
+    public void setBatchCommandsPerSync(int commandsPerSync) {
+        this.batchCommandsPerSync = Math.max(1, commandsPerSync);
+    }
+
+    /**
+     * 调整游标迭代每页的 COUNT.
+     */
+    public void setScanCount(int scanCount) {
+        this.scanCount = Math.max(1, scanCount);
+    }
+
+    /**
+     * 从连接池借出连接, 主节点连接池记录借用等待时间.
+     */
+    private Jedis getResource(JedisPool pool) {
+        long start = System.nanoTime();
+        Jedis jedis = null;
+        try {
+            jedis = pool.getResource();
+            return jedis;
         } finally {
-            //closeResource(jedis);
+            long now = System.nanoTime();
+            if (pool == jedisPool) {
+                poolMetrics.recordBorrow(now - start);
+            }
+            if (jedis instanceof InstrumentedJedis) {
+                ((InstrumentedJedis) jedis).beginTrace(now - start, now);
+            }
+        }
+    }
+
+    /**
+     * 归还连接前按命令记录本次执行, 连接不带命令轨迹或统计已关闭时跳过.
+     */
+    private void recordCommand(Jedis jedis, boolean pipelined, JedisException error) {
+        CommandMetrics vCommandMetrics = commandMetrics;
+        if (vCommandMetrics != null && jedis instanceof InstrumentedJedis) {
+            InstrumentedJedis vJedis = (InstrumentedJedis) jedis;
+            vCommandMetrics.record(vJedis.getFirstCommand(), pipelined, vJedis.getCommandCount(), vJedis.getBorrowNanos(),
+                    System.nanoTime() - vJedis.getTraceStart(), vJedis.getResponseBytes(), error);
         }
     }
 
@@ -145,6 +512,100 @@ public class JedisTemplate {
         return jedisPool;
     }
 
+    /**
+     * Return the pool health metrics (active, idle, waiters, borrow wait).
+     */
+    public JedisPoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * Return the per-command metrics, null when disabled.
+     */
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
+    }
+
+    /**
+     * Replace (or disable with null) the per-command metrics.
+     */
+    public void setCommandMetrics(CommandMetrics commandMetrics) {
+        this.commandMetrics = commandMetrics;
+    }
+
+    /**
+     * Enable (or disable with null) automatic cross-thread pipelining of single-key commands.
+     */
+    public void setAutoPipeline(AutoPipeline autoPipeline) {
+        this.autoPipeline = autoPipeline;
+    }
+
+    public AutoPipeline getAutoPipeline() {
+        return autoPipeline;
+    }
+
+    /**
+     * Enable (or disable with null) read/write splitting: read-only methods go to replicas.
+     */
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    public ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
+    /**
+     * Enable (or disable with null) the in-process near cache in front of get / mget.
+     */
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    /**
+     * Enable (or disable with null) circuit breakers, command deadlines, bulkheads and stale reads.
+     */
+    public void setResilience(JedisResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    public JedisResilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * Enable (or disable with null) hedged and retried execution of read-only methods.
+     */
+    public void setHedgedReads(HedgedReads hedgedReads) {
+        this.hedgedReads = hedgedReads;
+    }
+
+    public HedgedReads getHedgedReads() {
+        return hedgedReads;
+    }
+
+    /**
+     * 写操作之后失效近端缓存.
+     */
+    private void invalidateNearCache(final String... keys) {
+        NearCache vNearCache = nearCache;
+        if (vNearCache != null) {
+            for (String key : keys) {
+                vNearCache.invalidate(key);
+            }
+        }
+        JedisResilience vResilience = resilience;
+        if (vResilience != null) {
+            for (String key : keys) {
+                vResilience.invalidate(key);
+            }
+        }
+    }
+
 
     // Common Actions S
 
@@ -155,7 +616,7 @@ public class JedisTemplate {
 			return jedis.exists(key);
 		};
 
-		return execute(vJedisAction);
+		return executeRead((pipeline) -> pipeline.exists(key), vJedisAction);
 	}
 
     /**
@@ -187,7 +648,11 @@ public class JedisTemplate {
             return jedis.del(keys) == keys.length ? true : false;
         };
 
-        return execute(vJedisAction);
+        try {
+            return execute(vJedisAction);
+        } finally {
+            invalidateNearCache(keys);
+        }
     }
 
     //================================String Action S ============================================
@@ -198,9 +663,27 @@ public class JedisTemplate {
      * because GET can only handle string values.
      */
     public String get(final String key) {
+        NearCache vNearCache = nearCache;
+        if (vNearCache == null) {
+            return getFromRedis(key, false);
+        }
+        String value = vNearCache.get(key);
+        if (value == null) {
+            long stamp = vNearCache.stamp(key);
+            value = getFromRedis(key, true);
+            vNearCache.put(key, value, stamp);
+        }
+        return value;
+    }
+
+    private String getFromRedis(final String key, final boolean primaryOnly) {
         JedisAction<Jedis, String> vJedisAction = (jedis) -> jedis.get(key);
 
-        return execute(vJedisAction);
+        JedisResilience vResilience = resilience;
+        if (vResilience != null) {
+            return vResilience.readWithFallback(key, () -> executeRead((pipeline) -> pipeline.get(key), vJedisAction, false, primaryOnly));
+        }
+        return executeRead((pipeline) -> pipeline.get(key), vJedisAction, false, primaryOnly);
     }
 
     /**
@@ -222,9 +705,42 @@ public class JedisTemplate {
     }
 
     public List<String> mget(final String... keys) {
+        NearCache vNearCache = nearCache;
+        if (vNearCache == null) {
+            return mgetFromRedis(false, keys);
+        }
+        List<String> values = new ArrayList<>(keys.length);
+        List<String> missedKeys = null;
+        long[] stamps = null;
+        int[] missedIndexes = null;
+        for (int i = 0; i < keys.length; i++) {
+            String value = vNearCache.get(keys[i]);
+            values.add(value);
+            if (value == null) {
+                if (missedKeys == null) {
+                    missedKeys = new ArrayList<>(keys.length - i);
+                    stamps = new long[keys.length - i];
+                    missedIndexes = new int[keys.length - i];
+                }
+                stamps[missedKeys.size()] = vNearCache.stamp(keys[i]);
+                missedIndexes[missedKeys.size()] = i;
+                missedKeys.add(keys[i]);
+            }
+        }
+        if (missedKeys != null) {
+            List<String> loaded = mgetFromRedis(true, missedKeys.toArray(new String[missedKeys.size()]));
+            for (int i = 0; i < loaded.size(); i++) {
+                values.set(missedIndexes[i], loaded.get(i));
+                vNearCache.put(missedKeys.get(i), loaded.get(i), stamps[i]);
+            }
+        }
+        return values;
+    }
+
+    private List<String> mgetFromRedis(final boolean primaryOnly, final String... keys) {
         JedisAction<Jedis, List<String>> vJedisAction = (jedis) -> jedis.mget(keys);
 
-        return execute(vJedisAction);
+        return executeRead(null, vJedisAction, false, primaryOnly);
     }
 
     /**
@@ -232,11 +748,13 @@ public class JedisTemplate {
      * The string can't be longer than 1073741824 bytes (1 GB).
      */
     public void set(final String key, final String value) {
-        Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
-            jedis.set(key, value);
-        };
+        JedisAction<Jedis, String> vJedisAction = (jedis) -> jedis.set(key, value);
 
-        execute(vJedisActionNoResult);
+        try {
+            executeBatchable((pipeline) -> pipeline.set(key, value), vJedisAction);
+        } finally {
+            invalidateNearCache(key);
+        }
     }
 
     /**
@@ -245,15 +763,17 @@ public class JedisTemplate {
      * The operation is atomic.
      */
     public void Setex(final String key, final String value, final int seconds) {
-        Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
-            jedis.setex(key, seconds, value);
-        };
+        JedisAction<Jedis, String> vJedisAction = (jedis) -> jedis.setex(key, seconds, value);
 
-        execute(vJedisActionNoResult);
+        try {
+            executeBatchable((pipeline) -> pipeline.setex(key, seconds, value), vJedisAction);
+        } finally {
+            invalidateNearCache(key);
+        }
     }
 
     /**
-     * 可以实现分布式锁
+     * 可以实现分布式锁, 但需要自行处理续期与安全释放, 建议直接使用 {@link RedisLock}.
      * redis> SETNX mykey “hello”
      * (integer) 1
      * redis> SETNX mykey “hello”
@@ -270,7 +790,11 @@ public class JedisTemplate {
     public Boolean setnx(final String key, final String value) {
         JedisAction<Jedis, Boolean> vJedisAction = (jedis) -> jedis.setnx(key, value) == 1 ? true : false;
 
-        return execute(vJedisAction);
+        try {
+            return execute(vJedisAction);
+        } finally {
+            invalidateNearCache(key);
+        }
     }
 
     /**
@@ -290,7 +814,11 @@ public class JedisTemplate {
             return JedisUtils.isStatusOk(result);
         };
 
-        return execute(vJedisAction);
+        try {
+            return execute(vJedisAction);
+        } finally {
+            invalidateNearCache(key);
+        }
     }
 
 	public Boolean setIfnxex(final String key, final String value, final int seconds) {
@@ -299,7 +827,11 @@ public class JedisTemplate {
 			return JedisUtils.isStatusOk(result);
 		};
 
-		return execute(vJedisAction);
+		try {
+			return execute(vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 
 	/**
@@ -315,7 +847,11 @@ public class JedisTemplate {
 			String result = jedis.set(key, value, "NX", "PX", milliseconds);
 			return JedisUtils.isStatusOk(result);
 		};
-		return execute(vJedisAction);
+		try {
+			return execute(vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 
 	/**
@@ -331,7 +867,11 @@ public class JedisTemplate {
 			String result = jedis.set(key, value, "XX", "PX", milliseconds);
 			return JedisUtils.isStatusOk(result);
 		};
-		return execute(vJedisAction);
+		try {
+			return execute(vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 
     /**
@@ -342,7 +882,11 @@ public class JedisTemplate {
     public String getSet(final String key, final String value) {
         JedisAction<Jedis, String> vJedisAction = (jedis) -> jedis.getSet(key, value);
 
-        return execute(vJedisAction);
+        try {
+            return executeBatchable((pipeline) -> pipeline.getSet(key, value), vJedisAction);
+        } finally {
+            invalidateNearCache(key);
+        }
     }
     
     /**
@@ -361,13 +905,21 @@ public class JedisTemplate {
 	public Long incr(final String key) {
 		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.incr(key);
 		
-		return execute(vJedisAction);
+		try {
+			return executeBatchable((pipeline) -> pipeline.incr(key), vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 	
 	public Long incrBy(final String key, final long increment) {
 		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.incrBy(key,increment);
 		
-		return execute(vJedisAction);
+		try {
+			return executeBatchable((pipeline) -> pipeline.incrBy(key, increment), vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 
 	/**
@@ -378,13 +930,21 @@ public class JedisTemplate {
 	public Long decr(final String key) {
 		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.decr(key);
 		
-		return execute(vJedisAction);
+		try {
+			return executeBatchable((pipeline) -> pipeline.decr(key), vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
 	
 	public Long decrBy(final String key, final long decrement) {
 		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.decrBy(key, decrement);
 		
-		return execute(vJedisAction);
+		try {
+			return executeBatchable((pipeline) -> pipeline.decrBy(key, decrement), vJedisAction);
+		} finally {
+			invalidateNearCache(key);
+		}
 	}
     //================================String Action E ============================================
 
@@ -418,6 +978,9 @@ public class JedisTemplate {
     	return execute(vJedisAction);
     }
     
+    /**
+     * 无超时阻塞, 在有消息之前一直占用连接池中的一个连接; 长期消费队列请使用 {@link QueueConsumer}.
+     */
     public String brpop(final String key) {
     	JedisAction<Jedis, String> vJedisAction = (jedis) ->{
     		List<String> nameValuePair = jedis.brpop(new String[] { key });
@@ -428,7 +991,7 @@ public class JedisTemplate {
 			}
     	};
     	
-		return execute(vJedisAction);
+		return executeBlocking(vJedisAction);
 	}
     
     /**
@@ -447,7 +1010,7 @@ public class JedisTemplate {
 			}
     	};
     	
-		return execute(vJedisAction);
+		return executeBlocking(vJedisAction);
 	}
     
     /**
@@ -455,7 +1018,7 @@ public class JedisTemplate {
      * @param sourceKey
      * @param destinationKey
      * 
-     * Not support for sharding.
+     * Not support for sharding, 分片模式下使用 {@link ShardedJedisTemplate#rpoplpush(String, String)}, 两个 key 需位于同一分片.
      * @return
      */
     public String rpoplpush(final String sourceKey, final String destinationKey) {
@@ -468,14 +1031,15 @@ public class JedisTemplate {
     
     /**
      * Redis Brpoplpush 命令从列表中弹出一个值，将弹出的元素插入到另外一个列表中并返回它； 如果列表没有元素会阻塞列表直到等待超时或发现可弹出元素为止。
-	 * Not support for sharding.
+	 * 阻塞期间占用连接池中的一个连接, 长期消费队列请使用 {@link QueueConsumer}.
+	 * Not support for sharding, 分片模式下使用 {@link ShardedJedisTemplate#brpoplpush(String, String, int)}.
 	 */
 	public String brpoplpush(final String source, final String destination, final int timeout) {
 		JedisAction<Jedis, String> vJedisAction = (jedis) ->{
 			return jedis.brpoplpush(source, destination, timeout);
     	};
     	
-		return execute(vJedisAction);
+		return executeBlocking(vJedisAction);
 	}
 	
 	/***
@@ -488,7 +1052,7 @@ public class JedisTemplate {
 			return jedis.llen(key);
     	};
     	
-		return execute(vJedisAction);
+		return executeRead((pipeline) -> pipeline.llen(key), vJedisAction);
 	}
 	
 	/***
@@ -502,7 +1066,7 @@ public class JedisTemplate {
 			return jedis.lindex(key, index);
     	};
     	
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 	
 	/**
@@ -518,7 +1082,7 @@ public class JedisTemplate {
 			return jedis.lrange(key, start, end);
     	};
     	
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 	
 	/**
@@ -605,7 +1169,7 @@ public class JedisTemplate {
 			return jedis.smembers(key);
     	};
     	
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 	
 	/**
@@ -619,7 +1183,7 @@ public class JedisTemplate {
 			return jedis.scard(key);
     	};
     	
-		return execute(vJedisAction);
+		return executeRead((pipeline) -> pipeline.scard(key), vJedisAction);
 	}
 	
 	/***
@@ -633,7 +1197,7 @@ public class JedisTemplate {
 			return jedis.sdiff(key1,key2);
     	};
     	
-    	return execute(vJedisAction);
+    	return executeRead(vJedisAction);
 	}
     //================================Set Actions  E ============================================
 
@@ -664,7 +1228,7 @@ public class JedisTemplate {
 			return jedis.zscore(key, member);
 		};
 
-		return execute(vJedisAction);
+		return executeRead((pipeline) -> pipeline.zscore(key, member), vJedisAction);
 	}
 
 	public Long zrank(final String key, final String member) {
@@ -672,7 +1236,7 @@ public class JedisTemplate {
 			return jedis.zrank(key, member);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Long zrevrank(final String key, final String member) {
@@ -680,7 +1244,7 @@ public class JedisTemplate {
 			return jedis.zrevrank(key, member);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Long zcount(final String key, final double min, final double max) {
@@ -688,7 +1252,7 @@ public class JedisTemplate {
 			return jedis.zcount(key, min, max);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<String> zrange(final String key, final int start, final int end) {
@@ -696,7 +1260,7 @@ public class JedisTemplate {
 			return jedis.zrange(key, start, end);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<Tuple> zrangeWithScores(final String key, final int start, final int end) {
@@ -704,7 +1268,7 @@ public class JedisTemplate {
 			return jedis.zrangeWithScores(key, start, end);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<String> zrevrange(final String key, final int start, final int end) {
@@ -712,7 +1276,7 @@ public class JedisTemplate {
 			return jedis.zrevrange(key, start, end);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<Tuple> zrevrangeWithScores(final String key, final int start, final int end) {
@@ -720,7 +1284,20 @@ public class JedisTemplate {
 			return jedis.zrevrangeWithScores(key, start, end);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
+	}
+
+	/**
+	 * 与 {@link #zrevrangeWithScores(String, int, int)} 相同, 但直接解析应答为数组, 不创建 Tuple 与 Set.
+	 * start 应为非负数, 结果的起始排名即为 start.
+	 */
+	public ScoredMembers zrevrangeScored(final String key, final long start, final long end) {
+		JedisAction<Jedis, ScoredMembers> vJedisAction = (jedis) ->{
+			jedis.getClient().zrevrangeWithScores(key, start, end);
+			return ScoredMembers.fromReply(start, jedis.getClient().getBinaryMultiBulkReply(), 0);
+		};
+
+		return executeRead(vJedisAction);
 	}
 
 	public Set<String> zrangeByScore(final String key, final double min, final double max) {
@@ -728,7 +1305,7 @@ public class JedisTemplate {
 			return jedis.zrangeByScore(key, min, max);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<Tuple> zrangeByScoreWithScores(final String key, final double min, final double max) {
@@ -736,7 +1313,7 @@ public class JedisTemplate {
 			return jedis.zrangeByScoreWithScores(key, min, max);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<String> zrevrangeByScore(final String key, final double max, final double min) {
@@ -744,7 +1321,7 @@ public class JedisTemplate {
 			return jedis.zrevrangeByScore(key, max, min);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Set<Tuple> zrevrangeByScoreWithScores(final String key, final double max, final double min) {
@@ -752,7 +1329,7 @@ public class JedisTemplate {
 			return jedis.zrevrangeByScoreWithScores(key, max, min);
 		};
 
-		return execute(vJedisAction);
+		return executeRead(vJedisAction);
 	}
 
 	public Boolean zrem(final String key, final String member) {
@@ -763,6 +1340,9 @@ public class JedisTemplate {
 		return execute(vJedisAction);
 	}
 
+	/**
+	 * 限流请使用 {@link RedisRateLimiter}, 一次脚本调用完成清理、计数与记录.
+	 */
 	public Long zremByScore(final String key, final double start, final double end) {
 		JedisAction<Jedis, Long> vJedisAction = (jedis) ->{
 			return jedis.zremrangeByScore(key, start, end);
@@ -784,10 +1364,631 @@ public class JedisTemplate {
 			return jedis.zcard(key);
 		};
 
-		return execute(vJedisAction);
+		return executeRead((pipeline) -> pipeline.zcard(key), vJedisAction);
 	}
 	//================================Ordered Set Actions  E ============================================
 
+	//================================Hash Actions  S ============================================
+
+	public String hget(final String key, final String field) {
+		JedisAction<Jedis, String> vJedisAction = (jedis) -> jedis.hget(key, field);
+
+		return executeRead(vJedisAction);
+	}
+
+	/**
+	 * Redis Hmget 返回哈希表中一个或多个给定字段的值, 字段不存在时对应位置为 null.
+	 */
+	public List<String> hmget(final String key, final String... fields) {
+		JedisAction<Jedis, List<String>> vJedisAction = (jedis) -> jedis.hmget(key, fields);
+
+		return executeRead(vJedisAction);
+	}
+
+	/**
+	 * return true if field is a new field in the hash and value was set.
+	 */
+	public Boolean hset(final String key, final String field, final String value) {
+		JedisAction<Jedis, Boolean> vJedisAction = (jedis) -> jedis.hset(key, field, value) == 1 ? true : false;
+
+		return execute(vJedisAction);
+	}
+
+	public void hmset(final String key, final Map<String, String> hash) {
+		if (hash.isEmpty()) {
+			return;
+		}
+		Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
+			jedis.hmset(key, hash);
+		};
+
+		execute(vJedisActionNoResult);
+	}
+
+	public Long hincrBy(final String key, final String field, final long value) {
+		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.hincrBy(key, field, value);
+
+		return execute(vJedisAction);
+	}
+
+	/**
+	 * 大 Hash 请使用 {@link #hscan(String)} 分页遍历.
+	 */
+	public Map<String, String> hgetAll(final String key) {
+		JedisAction<Jedis, Map<String, String>> vJedisAction = (jedis) -> jedis.hgetAll(key);
+
+		return executeRead(vJedisAction);
+	}
+
+	public Long hdel(final String key, final String... fields) {
+		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.hdel(key, fields);
+
+		return execute(vJedisAction);
+	}
+
+	public Boolean hexists(final String key, final String field) {
+		JedisAction<Jedis, Boolean> vJedisAction = (jedis) -> jedis.hexists(key, field);
+
+		return executeRead(vJedisAction);
+	}
+
+	public Long hlen(final String key) {
+		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.hlen(key);
+
+		return executeRead((pipeline) -> pipeline.hlen(key), vJedisAction);
+	}
+
+	/**
+	 * 把对象的非 null 字段整体写入 Hash.
+	 */
+	public <T> void hsetObject(final String key, final T object) {
+		@SuppressWarnings("unchecked")
+		HashMapper<T> mapper = HashMapper.of((Class<T>) object.getClass());
+		hmset(key, mapper.toHash(object));
+	}
+
+	/**
+	 * 局部更新: 只写入 before 与 after 之间发生变化的字段, 变为 null 的字段执行 HDEL, 在一个管道内完成.
+	 * 返回实际写入/删除的字段数.
+	 */
+	public <T> int hupdateObject(final String key, final T before, final T after) {
+		@SuppressWarnings("unchecked")
+		HashMapper<T> mapper = HashMapper.of((Class<T>) after.getClass());
+		List<String> removed = new ArrayList<>();
+		Map<String, String> changed = mapper.diff(before, after, removed);
+		if (changed.isEmpty() && removed.isEmpty()) {
+			return 0;
+		}
+		executePipeline((pipeline) -> {
+			if (!changed.isEmpty()) {
+				pipeline.hmset(key, changed);
+			}
+			if (!removed.isEmpty()) {
+				pipeline.hdel(key, removed.toArray(new String[removed.size()]));
+			}
+		});
+		return changed.size() + removed.size();
+	}
+
+	/**
+	 * 读取整个 Hash 并映射为对象, key 不存在时返回 null.
+	 */
+	public <T> T hgetObject(final String key, final Class<T> type) {
+		return HashMapper.of(type).fromHash(hgetAll(key));
+	}
+
+	/**
+	 * 只读取指定字段(HMGET)并映射为对象, 其余字段保持默认值; 所有字段都不存在时返回 null.
+	 */
+	public <T> T hgetObject(final String key, final Class<T> type, final String... fields) {
+		List<String> values = hmget(key, fields);
+		boolean found = false;
+		for (String value : values) {
+			if (value != null) {
+				found = true;
+				break;
+			}
+		}
+		if (!found) {
+			return null;
+		}
+		HashMapper<T> mapper = HashMapper.of(type);
+		T object = mapper.newInstance();
+		mapper.apply(object, fields, values);
+		return object;
+	}
+	//================================Hash Actions  E ============================================
+
+	//================================Binary Actions  S ============================================
+
+	/**
+	 * 二进制安全的 GET, 值原样返回, 不经过 String 编解码.
+	 */
+	public byte[] get(final byte[] key) {
+		JedisAction<Jedis, byte[]> vJedisAction = (jedis) -> jedis.get(key);
+
+		return executeRead(vJedisAction);
+	}
+
+	public void set(final byte[] key, final byte[] value) {
+		Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
+			jedis.set(key, value);
+		};
+
+		try {
+			execute(vJedisActionNoResult);
+		} finally {
+			invalidateNearCache(new String(key, StandardCharsets.UTF_8));
+		}
+	}
+
+	public void setex(final byte[] key, final byte[] value, final int seconds) {
+		Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
+			jedis.setex(key, seconds, value);
+		};
+
+		try {
+			execute(vJedisActionNoResult);
+		} finally {
+			invalidateNearCache(new String(key, StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * 毫秒精度过期的 SET, 即 PSETEX.
+	 */
+	public void psetex(final byte[] key, final byte[] value, final long milliseconds) {
+		Consumer<Jedis> vJedisActionNoResult = (jedis) -> {
+			jedis.psetex(key, milliseconds, value);
+		};
+
+		try {
+			execute(vJedisActionNoResult);
+		} finally {
+			invalidateNearCache(new String(key, StandardCharsets.UTF_8));
+		}
+	}
+
+	public List<byte[]> mget(final byte[]... keys) {
+		JedisAction<Jedis, List<byte[]>> vJedisAction = (jedis) -> jedis.mget(keys);
+
+		return executeRead(vJedisAction);
+	}
+
+	public Long lpush(final byte[] key, final byte[]... values) {
+		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.lpush(key, values);
+
+		return execute(vJedisAction);
+	}
+
+	public Boolean zadd(final byte[] key, final double score, final byte[] member) {
+		JedisAction<Jedis, Boolean> vJedisAction = (jedis) -> jedis.zadd(key, score, member) == 1 ? true : false;
+
+		return execute(vJedisAction);
+	}
+
+	/**
+	 * 读取并用 serializer 反序列化, key 不存在时返回 null.
+	 */
+	public <T> T get(final String key, final RedisSerializer<T> serializer) {
+		byte[] bytes = get(SafeEncoder.encode(key));
+		return bytes != null ? serializer.deserialize(bytes) : null;
+	}
+
+	public <T> void set(final String key, final T value, final RedisSerializer<T> serializer) {
+		set(SafeEncoder.encode(key), serializer.serialize(value));
+	}
+
+	public <T> void setex(final String key, final T value, final int seconds, final RedisSerializer<T> serializer) {
+		setex(SafeEncoder.encode(key), serializer.serialize(value), seconds);
+	}
+
+	public <T> List<T> mget(final RedisSerializer<T> serializer, final String... keys) {
+		byte[][] binaryKeys = new byte[keys.length][];
+		for (int i = 0; i < keys.length; i++) {
+			binaryKeys[i] = SafeEncoder.encode(keys[i]);
+		}
+		List<byte[]> values = mget(binaryKeys);
+		List<T> result = new ArrayList<>(values.size());
+		for (byte[] value : values) {
+			result.add(value != null ? serializer.deserialize(value) : null);
+		}
+		return result;
+	}
+
+	public <T> Long lpush(final String key, final List<T> values, final RedisSerializer<T> serializer) {
+		byte[][] binaryValues = new byte[values.size()][];
+		for (int i = 0; i < binaryValues.length; i++) {
+			binaryValues[i] = serializer.serialize(values.get(i));
+		}
+		return lpush(SafeEncoder.encode(key), binaryValues);
+	}
+
+	public <T> Boolean zadd(final String key, final double score, final T member, final RedisSerializer<T> serializer) {
+		return zadd(SafeEncoder.encode(key), score, serializer.serialize(member));
+	}
+	//================================Binary Actions  E ============================================
+
+	//================================Scan Actions  S ============================================
+
+	/**
+	 * SCAN 匹配 pattern 的 key, 惰性分页, 不会像 KEYS 一样阻塞 Redis.
+	 * 使用完毕请关闭 Stream(或用 try-with-resources), 以停止后台预取.
+	 */
+	public Stream<String> scanKeys(final String pattern) {
+		return scanKeys(pattern, scanCount);
+	}
+
+	public Stream<String> scanKeys(final String pattern, final int count) {
+		final ScanParams params = new ScanParams().match(pattern).count(count);
+		return new ScanIterator<String>((cursor) -> executeLongRunning((JedisAction<Jedis, ScanResult<String>>) (jedis) -> jedis.scan(cursor, params)),
+				SCAN_PREFETCHER).stream();
+	}
+
+	/**
+	 * SSCAN 集合成员, 替代大集合上的 smembers.
+	 */
+	public Stream<String> sscan(final String key) {
+		return sscan(key, scanCount);
+	}
+
+	public Stream<String> sscan(final String key, final int count) {
+		final ScanParams params = new ScanParams().count(count);
+		return new ScanIterator<String>((cursor) -> executeLongRunning((JedisAction<Jedis, ScanResult<String>>) (jedis) -> jedis.sscan(key, cursor, params)),
+				SCAN_PREFETCHER).stream();
+	}
+
+	/**
+	 * ZSCAN 有序集合成员及分数, 顺序不保证按分数排序.
+	 */
+	public Stream<Tuple> zscan(final String key) {
+		return zscan(key, scanCount);
+	}
+
+	public Stream<Tuple> zscan(final String key, final int count) {
+		final ScanParams params = new ScanParams().count(count);
+		return new ScanIterator<Tuple>((cursor) -> executeLongRunning((JedisAction<Jedis, ScanResult<Tuple>>) (jedis) -> jedis.zscan(key, cursor, params)),
+				SCAN_PREFETCHER).stream();
+	}
+
+	/**
+	 * HSCAN 哈希字段及值.
+	 */
+	public Stream<Map.Entry<String, String>> hscan(final String key) {
+		return hscan(key, scanCount);
+	}
+
+	public Stream<Map.Entry<String, String>> hscan(final String key, final int count) {
+		final ScanParams params = new ScanParams().count(count);
+		return new ScanIterator<Map.Entry<String, String>>((cursor) -> executeLongRunning((JedisAction<Jedis, ScanResult<Map.Entry<String, String>>>) (jedis) -> jedis.hscan(key, cursor, params)),
+				SCAN_PREFETCHER).stream();
+	}
+
+	/**
+	 * 分页 LRANGE, 每页 pageSize 个元素, 按下标从头到尾遍历整个列表.
+	 * 遍历期间若列表被头部插入/弹出, 元素会错位(重复或遗漏).
+	 */
+	public Stream<String> lrangeChunked(final String key, final int pageSize) {
+		return new ScanIterator<String>((cursor) -> {
+			long start = Long.parseLong(cursor);
+			List<String> page = executeLongRunning((JedisAction<Jedis, List<String>>) (jedis) -> jedis.lrange(key, start, start + pageSize - 1));
+			String next = page.size() < pageSize ? ScanParams.SCAN_POINTER_START : String.valueOf(start + pageSize);
+			return new ScanResult<>(next, page);
+		}, SCAN_PREFETCHER).stream();
+	}
+	//================================Scan Actions  E ============================================
+
+	//================================Bulk Actions  S ============================================
+
+	/**
+	 * 批量 MSET, 按 {@link #setBulkLimits(int, int, int)} 切分为多条 MSET 分批管道发送.
+	 * 每条 MSET 是原子的, 但整个 Map 不是.
+	 */
+	public void mset(final Map<String, String> keyValues) {
+		try {
+			executeInChunks(keyValues.entrySet(), JedisTemplate::weigh, (pipeline, chunk, responses) -> {
+				String[] keysvalues = new String[chunk.size() * 2];
+				int i = 0;
+				for (Map.Entry<String, String> entry : chunk) {
+					keysvalues[i++] = entry.getKey();
+					keysvalues[i++] = entry.getValue();
+				}
+				responses.add(pipeline.mset(keysvalues));
+			});
+		} finally {
+			invalidateNearCache(keyValues.keySet().toArray(new String[keyValues.size()]));
+		}
+	}
+
+	/**
+	 * 批量 SETEX, 每个 key 一条 SETEX, 每批最多 bulkCommandsPerSync 条, 分批管道发送.
+	 */
+	public void msetex(final Map<String, String> keyValues, final int seconds) {
+		try {
+			executeInChunks(keyValues.entrySet(), bulkCommandsPerSync, JedisTemplate::weigh, (pipeline, chunk, responses) -> {
+				for (Map.Entry<String, String> entry : chunk) {
+					responses.add(pipeline.setex(entry.getKey(), seconds, entry.getValue()));
+				}
+			});
+		} finally {
+			invalidateNearCache(keyValues.keySet().toArray(new String[keyValues.size()]));
+		}
+	}
+
+	/**
+	 * 批量 SADD, 返回新加入的成员数.
+	 */
+	public Long saddAll(final String key, final Collection<String> members) {
+		return executeInChunks(members, String::length,
+				(pipeline, chunk, responses) -> responses.add(pipeline.sadd(key, chunk.toArray(new String[chunk.size()]))));
+	}
+
+	/**
+	 * 批量 ZADD, 返回新加入的成员数(已存在成员只更新分数, 不计入).
+	 */
+	public Long zaddAll(final String key, final Map<String, Double> scoreMembers) {
+		return executeInChunks(scoreMembers.entrySet(), (entry) -> entry.getKey().length() + 8, (pipeline, chunk, responses) -> {
+			Map<String, Double> members = new HashMap<>(chunk.size() * 4 / 3 + 1);
+			for (Map.Entry<String, Double> entry : chunk) {
+				members.put(entry.getKey(), entry.getValue());
+			}
+			responses.add(pipeline.zadd(key, members));
+		});
+	}
+
+	/**
+	 * 批量 LPUSH, 按集合顺序依次插入表头, 结果与单条 LPUSH 全部元素一致.
+	 */
+	public void lpushAll(final String key, final Collection<String> values) {
+		executeInChunks(values, String::length,
+				(pipeline, chunk, responses) -> responses.add(pipeline.lpush(key, chunk.toArray(new String[chunk.size()]))));
+	}
+
+	/**
+	 * 批量 DEL, 返回实际删除的 key 数.
+	 */
+	public Long delAll(final Collection<String> keys) {
+		try {
+			return executeInChunks(keys, String::length,
+					(pipeline, chunk, responses) -> responses.add(pipeline.del(chunk.toArray(new String[chunk.size()]))));
+		} finally {
+			invalidateNearCache(keys.toArray(new String[keys.size()]));
+		}
+	}
+
+	private static int weigh(Map.Entry<String, String> entry) {
+		return entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length());
+	}
+	//================================Bulk Actions  E ============================================
+
+	//================================Script Actions  S ============================================
+
+	/**
+	 * 执行脚本: 先 EVALSHA, 服务端没有缓存该脚本(NOSCRIPT)时改用 EVAL, 结果经脚本的映射函数转换.
+	 * 脚本可能修改 keys, 执行后失效这些 key 的近端缓存.
+	 */
+	public <T> T eval(final RedisScript<T> script, final List<String> keys, final List<String> args) {
+		JedisAction<Jedis, Object> vJedisAction = (jedis) -> {
+			try {
+				return jedis.evalsha(script.getSha1(), keys, args);
+			} catch (JedisNoScriptException e) {
+				return jedis.eval(script.getSource(), keys, args);
+			}
+		};
+
+		try {
+			Object result = execute(vJedisAction);
+			return script.map(result);
+		} finally {
+			invalidateNearCache(keys.toArray(new String[keys.size()]));
+		}
+	}
+
+	/**
+	 * 在 Pipeline 中执行脚本, 用于 {@link #executePipeline(Consumer)} 等.
+	 * 总是发送 EVAL 源码: 服务端脚本缓存被清空(SCRIPT FLUSH / 重启)时 EVALSHA 返回 NOSCRIPT 且脚本未执行,
+	 * 而 Pipeline 中的结果可能不被读取, 事后重试也会排到之后的命令后面; EVAL 与其他命令按顺序执行, 不读取结果也不会丢失写入.
+	 * 注意 Pipeline 中的脚本不会失效近端缓存.
+	 */
+	public <T> ScriptResponse<T> eval(final Pipeline pipeline, final RedisScript<T> script, final List<String> keys, final List<String> args) {
+		Response<Object> response = pipeline.eval(SafeEncoder.encode(script.getSource()), encodeAll(keys), encodeAll(args));
+		return new ScriptResponse<>(script, response);
+	}
+
+	/**
+	 * 启动时预加载脚本(SCRIPT LOAD), 之后的调用直接命中 EVALSHA.
+	 */
+	public void loadScripts(final Collection<RedisScript<?>> scripts) {
+		Consumer<Jedis> vJedisAction = (jedis) -> {
+			for (RedisScript<?> script : scripts) {
+				jedis.scriptLoad(script.getSource());
+			}
+		};
+
+		execute(vJedisAction);
+	}
+
+	/**
+	 * LPUSH 后只保留最新的 maxSize 个元素, 一次往返且原子, 返回列表长度; maxSize 不大于 0 时删除列表并返回 0.
+	 */
+	public Long lpushCapped(final String key, final int maxSize, final String... values) {
+		List<String> args = new ArrayList<>(values.length + 1);
+		args.add(String.valueOf(maxSize));
+		Collections.addAll(args, values);
+		return eval(RedisScripts.CAPPED_LPUSH, Collections.singletonList(key), args);
+	}
+
+	/**
+	 * ZADD 后只保留分数最高的 maxSize 个成员, 一次往返且原子, 返回集合大小; maxSize 不大于 0 时删除集合并返回 0.
+	 */
+	public Long zaddCapped(final String key, final int maxSize, final double score, final String member) {
+		return eval(RedisScripts.CAPPED_ZADD, Collections.singletonList(key),
+				Arrays.asList(String.valueOf(maxSize), String.valueOf(score), member));
+	}
+
+	/**
+	 * 增加后不超过 max 时 INCRBY 并返回新值, 否则不修改并返回 null; expireMillis 大于 0 时为新建的计数器设置过期时间.
+	 */
+	public Long incrByCapped(final String key, final long increment, final long max, final long expireMillis) {
+		return eval(RedisScripts.INCRBY_CAPPED, Collections.singletonList(key),
+				Arrays.asList(String.valueOf(increment), String.valueOf(max), String.valueOf(expireMillis)));
+	}
+
+	private static List<byte[]> encodeAll(final List<String> values) {
+		List<byte[]> encoded = new ArrayList<>(values.size());
+		for (String value : values) {
+			encoded.add(SafeEncoder.encode(value));
+		}
+		return encoded;
+	}
+	//================================Script Actions  E ============================================
+
+	//================================Pub/Sub Actions  S ============================================
+
+	/**
+	 * PUBLISH, 返回收到消息的订阅者数; 订阅使用 {@link RedisSubscriptionManager}.
+	 */
+	public Long publish(final String channel, final String message) {
+		JedisAction<Jedis, Long> vJedisAction = (jedis) -> jedis.publish(channel, message);
+
+		return execute(vJedisAction);
+	}
+
+	/**
+	 * 批量 PUBLISH 到同一频道, 每条消息一条 PUBLISH, 每批最多 bulkCommandsPerSync 条, 分批管道发送, 消息顺序不变.
+	 */
+	public void publishAll(final String channel, final Collection<String> messages) {
+		executeInChunks(messages, bulkCommandsPerSync, String::length, (pipeline, chunk, responses) -> {
+			for (String message : chunk) {
+				responses.add(pipeline.publish(channel, message));
+			}
+		});
+	}
+	//================================Pub/Sub Actions  E ============================================
+
+	//================================Stream Actions  S ============================================
+	// 当前 Jedis 版本没有 stream 命令, 以下方法通过内置脚本(EVALSHA)执行, 需要 Redis 5.0+, xautoclaim 需要 6.2+.
+	// 脚本中的 XREADGROUP 不能阻塞, 没有消息时立即返回; 持续消费使用 StreamConsumer.
+
+	/**
+	 * XADD, maxLen 大于 0 时按 MAXLEN ~ 近似裁剪, 返回消息 id.
+	 */
+	public String xadd(final String key, final long maxLen, final Map<String, String> fields) {
+		return xaddAll(key, maxLen, Collections.singletonList(fields)).get(0);
+	}
+
+	/**
+	 * 一次往返追加多条消息, 顺序不变, 返回各条消息的 id.
+	 */
+	public List<String> xaddAll(final String key, final long maxLen, final List<Map<String, String>> entries) {
+		return eval(RedisScripts.STREAM_ADD, Collections.singletonList(key), streamAddArgs(maxLen, entries));
+	}
+
+	/**
+	 * Pipeline 中的 {@link #xaddAll(String, long, List)}, 以 EVAL 发送, 服务端脚本缓存被清空后也不会丢失消息;
+	 * 不需要消息 id 时可以不调用 {@link ScriptResponse#get()}.
+	 */
+	public ScriptResponse<List<String>> xaddAll(final Pipeline pipeline, final String key, final long maxLen, final List<Map<String, String>> entries) {
+		return eval(pipeline, RedisScripts.STREAM_ADD, Collections.singletonList(key), streamAddArgs(maxLen, entries));
+	}
+
+	public Long xlen(final String key) {
+		return (Long) streamCommand(key, "XLEN");
+	}
+
+	/**
+	 * 创建消费组, stream 不存在时一并创建; startId 为 "0" 从头消费, "$" 只消费之后的消息. 消费组已存在返回 false.
+	 */
+	public boolean xgroupCreate(final String key, final String group, final String startId) {
+		return eval(RedisScripts.STREAM_GROUP_CREATE, Collections.singletonList(key), Arrays.asList(group, startId));
+	}
+
+	/**
+	 * 以 consumer 身份读取最多 count 条消息, 不阻塞, 没有消息返回空列表.
+	 * id 为 ">" 读取新消息, "0" 重新读取本消费者已读取未 ack 的消息.
+	 */
+	public List<StreamEntry> xreadgroup(final String key, final String group, final String consumer, final int count, final String id) {
+		return eval(RedisScripts.STREAM_READ_GROUP, Collections.singletonList(key), Arrays.asList(group, consumer, String.valueOf(count), id));
+	}
+
+	/**
+	 * Pipeline 中的 {@link #xreadgroup(String, String, String, int, String)}.
+	 */
+	public ScriptResponse<List<StreamEntry>> xreadgroup(final Pipeline pipeline, final String key, final String group, final String consumer, final int count, final String id) {
+		return eval(pipeline, RedisScripts.STREAM_READ_GROUP, Collections.singletonList(key), Arrays.asList(group, consumer, String.valueOf(count), id));
+	}
+
+	/**
+	 * 一条 XACK 确认多条消息, 返回实际确认的条数.
+	 */
+	public Long xack(final String key, final String group, final Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return 0L;
+		}
+		return (Long) eval(RedisScripts.STREAM_COMMAND, Collections.singletonList(key), xackArgs(group, ids));
+	}
+
+	/**
+	 * Pipeline 中的 {@link #xack(String, String, Collection)}, ids 不能为空.
+	 */
+	public ScriptResponse<Object> xack(final Pipeline pipeline, final String key, final String group, final Collection<String> ids) {
+		return eval(pipeline, RedisScripts.STREAM_COMMAND, Collections.singletonList(key), xackArgs(group, ids));
+	}
+
+	/**
+	 * 把空闲超过 minIdleMillis 的待确认消息转给 consumer, 返回认领到的消息(已删除的消息不返回).
+	 */
+	public List<StreamEntry> xclaim(final String key, final String group, final String consumer, final long minIdleMillis, final Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> args = new ArrayList<>(ids.size() + 4);
+		Collections.addAll(args, "XCLAIM", group, consumer, String.valueOf(minIdleMillis));
+		args.addAll(ids);
+		return StreamEntry.fromEntries(eval(RedisScripts.STREAM_COMMAND, Collections.singletonList(key), args));
+	}
+
+	/**
+	 * XAUTOCLAIM: 从 startId 开始扫描待确认列表, 把最多 count 条空闲超过 minIdleMillis 的消息转给 consumer.
+	 * 下一页从 {@link StreamEntry.ClaimPage#getNextId()} 开始, 为 "0-0" 时表示已扫描完一轮.
+	 */
+	public StreamEntry.ClaimPage xautoclaim(final String key, final String group, final String consumer, final long minIdleMillis, final String startId, final int count) {
+		return StreamEntry.ClaimPage.fromReply(streamCommand(key, "XAUTOCLAIM", group, consumer, String.valueOf(minIdleMillis), startId, "COUNT", String.valueOf(count)));
+	}
+
+	/**
+	 * 消费组中已读取未 ack 的消息数.
+	 */
+	public Long xpendingCount(final String key, final String group) {
+		return (Long) ((List<?>) streamCommand(key, "XPENDING", group)).get(0);
+	}
+
+	private Object streamCommand(final String key, final String... args) {
+		return eval(RedisScripts.STREAM_COMMAND, Collections.singletonList(key), Arrays.asList(args));
+	}
+
+	private static List<String> streamAddArgs(final long maxLen, final List<Map<String, String>> entries) {
+		List<String> args = new ArrayList<>(1 + entries.size() * 3);
+		args.add(String.valueOf(Math.max(0, maxLen)));
+		for (Map<String, String> fields : entries) {
+			args.add(String.valueOf(fields.size()));
+			for (Map.Entry<String, String> field : fields.entrySet()) {
+				args.add(field.getKey());
+				args.add(field.getValue());
+			}
+		}
+		return args;
+	}
+
+	private static List<String> xackArgs(final String group, final Collection<String> ids) {
+		List<String> args = new ArrayList<>(ids.size() + 2);
+		args.add("XACK");
+		args.add(group);
+		args.addAll(ids);
+		return args;
+	}
+	//================================Stream Actions  E ============================================
+
     // Common Actions E
 }
 
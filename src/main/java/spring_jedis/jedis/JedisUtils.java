@@ -1,6 +1,8 @@
 package spring_jedis.jedis;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
 public class JedisUtils {
 
     private static final String OK_CODE = "OK";
@@ -18,6 +20,9 @@ public class JedisUtils {
      * Return jedis connection to the pool, call different return methods depends on the conectionBroken status.
      */
 	public static void closeResource(Jedis jedis) {
+        if (jedis == null) {
+            return;
+        }
         try {
             jedis.close();
         } catch (Exception e) {
@@ -26,6 +31,22 @@ public class JedisUtils {
         }
     }
 
+    /**
+     * 归还连接. 连接出现 JedisConnectionException(网络错误、读超时)后 Jedis 已将其标记为损坏,
+     * close() 会交给连接池作废而不是放回池中; 不在损坏的连接上发送 QUIT, 否则会再等待一个读超时或读到超时命令迟到的应答.
+     * connectionBroken 为兼容已有调用保留, 不影响归还方式.
+     */
+    public static void closeResource(Jedis jedis, boolean connectionBroken) {
+        closeResource(jedis);
+    }
+
+    /**
+     * 判断异常是否意味着连接已不可用(网络错误、超时等), 数据类错误(如 WRONGTYPE)不会损坏连接.
+     */
+    public static boolean isConnectionBroken(JedisException e) {
+        return e instanceof JedisConnectionException;
+    }
+
     /**
      * 在Pool以外强行销毁Jedis.
      */
@@ -35,12 +56,10 @@ public class JedisUtils {
                 try {
                     jedis.quit();
                 } catch (Exception e) {
-                    e.printStackTrace();
                     //logger.error("在Pool以外强行销毁Jedis quit error:{}", e.getMessage());
                 }
                 jedis.disconnect();
             } catch (Exception e) {
-                e.printStackTrace();
                 //logger.error("在Pool以外强行销毁Jedis disconnect error:{}", e.getMessage());
             }
         }
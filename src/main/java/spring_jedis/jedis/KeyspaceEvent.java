@@ -0,0 +1,79 @@
+package spring_jedis.jedis;
+
+/**
+ * 键空间通知(keyspace notification): 频道 __keyspace@{db}__:{key}, 消息为事件名.
+ * 需要服务端开启 notify-keyspace-events(如 "KA" 或只关心写与过期的 "Kg$xe"), 见 {@link RedisSubscriptionManager#enableKeyspaceEvents(String)}.
+ */
+public final class KeyspaceEvent {
+
+    /**
+     * 常用事件的分类, 其余事件为 OTHER, 原始事件名见 {@link #getEventName()}.
+     */
+    public enum Type {
+        SET, DEL, EXPIRE, EXPIRED, EVICTED, RENAME_FROM, RENAME_TO, OTHER;
+
+        static Type of(String eventName) {
+            switch (eventName) {
+                case "set":
+                    return SET;
+                case "del":
+                    return DEL;
+                case "expire":
+                    return EXPIRE;
+                case "expired":
+                    return EXPIRED;
+                case "evicted":
+                    return EVICTED;
+                case "rename_from":
+                    return RENAME_FROM;
+                case "rename_to":
+                    return RENAME_TO;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+
+    private final int database;
+    private final String key;
+    private final String eventName;
+    private final Type type;
+
+    public KeyspaceEvent(int database, String key, String eventName) {
+        this.database = database;
+        this.key = key;
+        this.eventName = eventName;
+        this.type = Type.of(eventName);
+    }
+
+    public int getDatabase() {
+        return database;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 服务端发送的事件名, 如 set / hset / lpush / expired.
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * key 已不存在(删除 / 过期 / 淘汰 / 被改名).
+     */
+    public boolean isRemoval() {
+        return type == Type.DEL || type == Type.EXPIRED || type == Type.EVICTED || type == Type.RENAME_FROM;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyspaceEvent[db=" + database + ", key=" + key + ", event=" + eventName + "]";
+    }
+}
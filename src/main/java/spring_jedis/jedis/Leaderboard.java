@@ -0,0 +1,359 @@
+package spring_jedis.jedis;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import redis.clients.jedis.Pipeline;
+
+/**
+ * 基于有序集合的排行榜, 分数从高到低排名(排名从 0 开始).
+ * <ul>
+ * <li>分数更新按批在一次 Pipeline 中执行.</li>
+ * <li>{@link #around(String, int)} 用一次脚本调用取得排名、分数与前后邻居.</li>
+ * <li>前 topN 名在本地缓存 topCacheMillis 毫秒, 以数组保存({@link ScoredMembers}), 落在其中的分页直接从缓存切片;
+ * 缓存过期后只有一个线程去刷新, 其他线程继续使用旧数据.</li>
+ * <li>按日 / 周分桶时, 更新同时写入总榜和当前桶(桶 key 保留 retainBuckets 个周期后过期),
+ * {@link #bucket(LocalDate)} 读取某个桶, {@link #merge(int)} 用 ZUNIONSTORE 合并最近几个桶.</li>
+ * </ul>
+ * 榜单 key 为 keyPrefix + "{" + name + "}", 桶为其后加 ":日期", 同一榜单的 key 位于同一分片.
+ */
+public class Leaderboard {
+
+    public enum Bucketing {
+        NONE, DAILY, WEEKLY
+    }
+
+    private static final int EXTRA_VIEWS = 8;
+
+    private final JedisTemplate jedisTemplate;
+    private final String key;
+    private final Bucketing bucketing;
+    private final int retainBuckets;
+    private final int topN;
+    private final long topCacheNanos;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    /**
+     * 桶与合并结果的只读视图, 按访问顺序最多保留 retainBuckets + {@value #EXTRA_VIEWS} 个, 过期桶的视图随之淘汰.
+     */
+    private final Map<String, Leaderboard> views;
+    private volatile ScoredMembers top;
+    private volatile long topLoadedAt;
+    private volatile boolean topStale;
+
+    /**
+     * @param bucketing      分桶方式, NONE 时只有总榜
+     * @param retainBuckets  桶保留的周期数
+     * @param topN           本地缓存的名次数, 0 表示不缓存
+     * @param topCacheMillis 本地缓存的有效期
+     */
+    public Leaderboard(JedisTemplate jedisTemplate, String keyPrefix, String name, Bucketing bucketing, int retainBuckets, int topN, long topCacheMillis) {
+        this(jedisTemplate, keyPrefix + '{' + name + '}', bucketing, retainBuckets, topN, topCacheMillis);
+    }
+
+    private Leaderboard(JedisTemplate jedisTemplate, String key, Bucketing bucketing, int retainBuckets, int topN, long topCacheMillis) {
+        this.jedisTemplate = jedisTemplate;
+        this.key = key;
+        this.bucketing = bucketing;
+        this.retainBuckets = Math.max(1, retainBuckets);
+        this.topN = Math.max(0, topN);
+        this.topCacheNanos = TimeUnit.MILLISECONDS.toNanos(topCacheMillis);
+        final int maxViews = this.retainBuckets + EXTRA_VIEWS;
+        this.views = Collections.synchronizedMap(new LinkedHashMap<String, Leaderboard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Leaderboard> eldest) {
+                return size() > maxViews;
+            }
+        });
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    //================================Update
+
+    /**
+     * 批量增加分数(ZINCRBY), 一次 Pipeline; 分桶时同时写入当前桶.
+     */
+    public void incrementScores(final Map<String, Double> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        final String bucketKey = bucketing == Bucketing.NONE ? null : bucketKey(LocalDate.now(zone));
+        jedisTemplate.executePipeline((pipeline) -> {
+            for (Map.Entry<String, Double> entry : increments.entrySet()) {
+                pipeline.zincrby(key, entry.getValue(), entry.getKey());
+                if (bucketKey != null) {
+                    pipeline.zincrby(bucketKey, entry.getValue(), entry.getKey());
+                }
+            }
+            expireBucket(pipeline, bucketKey);
+        });
+        invalidateTop();
+    }
+
+    public void incrementScore(String member, double increment) {
+        incrementScores(Collections.singletonMap(member, increment));
+    }
+
+    /**
+     * 批量设置分数(一条 ZADD); 分桶时同时写入当前桶.
+     */
+    public void setScores(final Map<String, Double> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        final String bucketKey = bucketing == Bucketing.NONE ? null : bucketKey(LocalDate.now(zone));
+        jedisTemplate.executePipeline((pipeline) -> {
+            pipeline.zadd(key, scores);
+            if (bucketKey != null) {
+                pipeline.zadd(bucketKey, scores);
+            }
+            expireBucket(pipeline, bucketKey);
+        });
+        invalidateTop();
+    }
+
+    /**
+     * 从总榜移除成员, 桶中的记录随桶过期.
+     */
+    public void remove(final String... members) {
+        jedisTemplate.executePipeline((pipeline) -> pipeline.zrem(key, members));
+        invalidateTop();
+    }
+
+    private void expireBucket(Pipeline pipeline, String bucketKey) {
+        if (bucketKey != null) {
+            pipeline.pexpire(bucketKey, bucketMillis() * retainBuckets);
+        }
+    }
+
+    //================================Query
+
+    /**
+     * 前 n 名, n 不超过 topN 时读本地缓存.
+     */
+    public ScoredMembers top(int n) {
+        return range(0, n);
+    }
+
+    /**
+     * 第 page 页(从 0 开始), 每页 pageSize 名.
+     */
+    public ScoredMembers page(int page, int pageSize) {
+        return range((long) page * pageSize, pageSize);
+    }
+
+    private ScoredMembers range(long start, int count) {
+        if (count <= 0) {
+            return ScoredMembers.empty(start);
+        }
+        if (start + count <= topN) {
+            ScoredMembers cached = cachedTop();
+            // 缓存未满 topN 说明榜单总人数不足, 缓存即为全部
+            if (cached.size() >= start + count || cached.size() < topN) {
+                return cached.slice((int) start, (int) (start + count));
+            }
+        }
+        return jedisTemplate.zrevrangeScored(key, start, start + count - 1);
+    }
+
+    private ScoredMembers cachedTop() {
+        ScoredMembers cached = top;
+        if (cached != null && !topStale && System.nanoTime() - topLoadedAt < topCacheNanos) {
+            return cached;
+        }
+        boolean refresher = refreshing.compareAndSet(false, true);
+        if (cached != null && !refresher) {
+            return cached;
+        }
+        try {
+            // 先清除标记, 加载期间的写入会重新标记, 下次读取再加载
+            topStale = false;
+            long loadedAt = System.nanoTime();
+            cached = jedisTemplate.zrevrangeScored(key, 0, topN - 1);
+            top = cached;
+            topLoadedAt = loadedAt;
+            return cached;
+        } catch (RuntimeException e) {
+            topStale = true;
+            throw e;
+        } finally {
+            if (refresher) {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    public Long rank(String member) {
+        return jedisTemplate.zrevrank(key, member);
+    }
+
+    public Double score(String member) {
+        return jedisTemplate.zscore(key, member);
+    }
+
+    public Long size() {
+        return jedisTemplate.zcard(key);
+    }
+
+    /**
+     * 成员的排名、分数及前后各 neighbours 名, 一次往返; 成员不在榜单中返回 null.
+     */
+    public Position around(String member, int neighbours) {
+        return jedisTemplate.eval(RedisScripts.LEADERBOARD_AROUND, Collections.singletonList(key),
+                Arrays.asList(member, String.valueOf(Math.max(0, neighbours))));
+    }
+
+    /**
+     * 多个成员的 {@link #around(String, int)}, 一次 Pipeline; 结果与 members 一一对应.
+     */
+    public List<Position> around(final List<String> members, int neighbours) {
+        final List<String> keys = Collections.singletonList(key);
+        final String neighboursArg = String.valueOf(Math.max(0, neighbours));
+        final List<ScriptResponse<Position>> responses = new ArrayList<>(members.size());
+        jedisTemplate.executePipeline((pipeline) -> {
+            for (String member : members) {
+                responses.add(jedisTemplate.eval(pipeline, RedisScripts.LEADERBOARD_AROUND, keys, Arrays.asList(member, neighboursArg)));
+            }
+        });
+        List<Position> positions = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            positions.add(responses.get(i).get());
+        }
+        return positions;
+    }
+
+    //================================Buckets
+
+    /**
+     * 包含 date 的桶(日榜 / 周榜), 只读视图, 有独立的本地缓存.
+     */
+    public Leaderboard bucket(LocalDate date) {
+        checkBucketed();
+        return view(bucketKey(date));
+    }
+
+    public Leaderboard currentBucket() {
+        return bucket(LocalDate.now(zone));
+    }
+
+    /**
+     * 用 ZUNIONSTORE 合并最近 buckets 个桶(含当前桶), 结果保存 1 个周期, 返回其只读视图.
+     * 每次调用都会重新合并, 调用方按需要的新鲜度定期调用, 读取时复用返回的视图.
+     */
+    public Leaderboard merge(int buckets) {
+        checkBucketed();
+        LocalDate today = LocalDate.now(zone);
+        final String[] sources = new String[Math.max(1, buckets)];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = bucketKey(bucketing == Bucketing.DAILY ? today.minusDays(i) : today.minusWeeks(i));
+        }
+        final String destination = key + ":last" + sources.length + (bucketing == Bucketing.DAILY ? "d" : "w");
+        jedisTemplate.executePipeline((pipeline) -> {
+            pipeline.zunionstore(destination, sources);
+            pipeline.pexpire(destination, bucketMillis());
+        });
+        Leaderboard merged = view(destination);
+        merged.invalidateTop();
+        return merged;
+    }
+
+    /**
+     * 使本地缓存的前 topN 名失效; nanoTime 的起点任意, 不能把 topLoadedAt 置 0 表示失效.
+     */
+    private void invalidateTop() {
+        topStale = true;
+    }
+
+    private Leaderboard view(String viewKey) {
+        return views.computeIfAbsent(viewKey, (k) -> new Leaderboard(jedisTemplate, k, Bucketing.NONE, 1, topN, TimeUnit.NANOSECONDS.toMillis(topCacheNanos)));
+    }
+
+    private void checkBucketed() {
+        if (bucketing == Bucketing.NONE) {
+            throw new IllegalStateException("Leaderboard " + key + " is not bucketed");
+        }
+    }
+
+    String bucketKey(LocalDate date) {
+        if (bucketing == Bucketing.DAILY) {
+            return key + ':' + date.getYear() + twoDigits(date.getMonthValue()) + twoDigits(date.getDayOfMonth());
+        }
+        return key + ':' + date.get(IsoFields.WEEK_BASED_YEAR) + 'W' + twoDigits(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private long bucketMillis() {
+        return TimeUnit.DAYS.toMillis(bucketing == Bucketing.WEEKLY ? 7 : 1);
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    /**
+     * 成员的排名、分数与前后邻居.
+     */
+    public static final class Position {
+
+        private final String member;
+        private final long rank;
+        private final double score;
+        private final ScoredMembers neighbours;
+
+        Position(String member, long rank, double score, ScoredMembers neighbours) {
+            this.member = member;
+            this.rank = rank;
+            this.score = score;
+            this.neighbours = neighbours;
+        }
+
+        /**
+         * 解析 leaderboard_around.lua 的应答.
+         */
+        static Position fromReply(Object result) {
+            if (result == null) {
+                return null;
+            }
+            List<?> reply = (List<?>) result;
+            long rank = (Long) reply.get(0);
+            ScoredMembers neighbours = ScoredMembers.fromReply((Long) reply.get(2), reply, 3);
+            String member = neighbours.getMember((int) (rank - neighbours.getStartRank()));
+            return new Position(member, rank, ScoredMembers.parseScore(ScoredMembers.decode(reply.get(1))), neighbours);
+        }
+
+        public String getMember() {
+            return member;
+        }
+
+        public long getRank() {
+            return rank;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * 包含该成员自身在内的前后邻居.
+         */
+        public ScoredMembers getNeighbours() {
+            return neighbours;
+        }
+
+        @Override
+        public String toString() {
+            return "Position[" + member + ", rank=" + rank + ", score=" + score + ", neighbours=" + neighbours + "]";
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * 进程内近端缓存(L1), 缓存 {@link JedisTemplate#get(String)} / mget 读到的字符串值.
+ * 按 key 哈希分段, 每段是一个按访问顺序淘汰的 LRU, 条目带 TTL.
+ * 每段维护一个失效版本号: 读穿透前取版本号, 回填时版本号已变化(期间发生过写/失效)则放弃回填, 避免把旧值写回缓存.
+ * 配置了 {@link ReplicaRouter} 时读穿透仍由主节点执行, 从节点的复制延迟不会把旧值写入缓存.
+ * 可选地通过 Redis pub/sub 频道广播失效消息, 让其他实例同步失效; 或者订阅键空间通知, 任何客户端修改 key 都会失效本地缓存.
+ */
+public class NearCache implements Closeable {
+
+    private static final int BROADCAST_BATCH = 256;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private volatile boolean running = true;
+    private String channel;
+    private JedisTemplate jedisTemplate;
+    private BlockingQueue<String> broadcastQueue;
+    private Thread publisher;
+    private Thread subscriber;
+    private volatile JedisPubSub pubSub;
+    private volatile RedisSubscriptionManager subscriptionManager;
+    private final List<RedisSubscriptionManager.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public NearCache(int maxEntries, long ttlMillis) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, maxEntries / 16)));
+        this.segments = new Segment[segmentCount];
+        int perSegment = Math.max(1, maxEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 返回未过期的缓存值, 没有命中返回 null.
+     */
+    public String get(String key) {
+        String value = segmentFor(key).get(key, System.nanoTime());
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 读穿透前获取 key 所在分段的失效版本号.
+     */
+    public long stamp(String key) {
+        return segmentFor(key).epoch;
+    }
+
+    /**
+     * 回填缓存, 若 stamp 之后发生过失效则忽略.
+     */
+    public void put(String key, String value, long stamp) {
+        if (value != null) {
+            segmentFor(key).put(key, value, stamp, System.nanoTime() + ttlNanos);
+        }
+    }
+
+    /**
+     * 本地失效, 开启广播时同时通知其他实例.
+     */
+    public void invalidate(String key) {
+        invalidateLocal(key);
+        BlockingQueue<String> queue = broadcastQueue;
+        if (queue != null) {
+            queue.offer(key);
+        }
+        RedisSubscriptionManager vManager = subscriptionManager;
+        if (vManager != null) {
+            vManager.publishAsync(channel, instanceId + ':' + key);
+        }
+    }
+
+    public void invalidateLocal(String key) {
+        segmentFor(key).remove(key);
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 开启跨实例失效广播: 本地写操作的 key 批量 PUBLISH 到 channel,
+     * 同时用一个独立连接(不占用连接池)订阅该频道, 收到其他实例的消息后本地失效.
+     * 订阅连接断开重连后会清空整个缓存, 以免漏掉断线期间的失效消息.
+     */
+    public synchronized void enableBroadcast(JedisTemplate jedisTemplate, Supplier<Jedis> subscriberFactory, String channel) {
+        if (broadcastQueue != null || subscriptionManager != null) {
+            return;
+        }
+        this.jedisTemplate = jedisTemplate;
+        this.channel = channel;
+        this.broadcastQueue = new LinkedBlockingQueue<>();
+        this.publisher = new Thread(this::runPublisher, "near-cache-publisher");
+        this.publisher.setDaemon(true);
+        this.publisher.start();
+        this.subscriber = new Thread(() -> runSubscriber(subscriberFactory), "near-cache-subscriber");
+        this.subscriber.setDaemon(true);
+        this.subscriber.start();
+    }
+
+    /**
+     * 同上, 发布与订阅复用 {@link RedisSubscriptionManager} 的连接与批量发布线程.
+     */
+    public synchronized void enableBroadcast(RedisSubscriptionManager manager, String channel) {
+        if (broadcastQueue != null || subscriptionManager != null) {
+            return;
+        }
+        this.channel = channel;
+        subscriptions.add(manager.subscribe(channel, new RedisSubscriptionManager.Listener() {
+            @Override
+            public void onMessage(String channel, String message) {
+                onBroadcast(message);
+            }
+
+            @Override
+            public void onSubscribed() {
+                invalidateAll();
+            }
+        }));
+        this.subscriptionManager = manager;
+    }
+
+    /**
+     * 订阅 database 中匹配 keyPattern 的键空间通知, 任何客户端(包括不经过本类的写入与过期)修改 key 后本地失效,
+     * 不需要其他实例广播; 服务端需要开启 notify-keyspace-events(至少 "Kg$xe" 或 "KA").
+     * 重新订阅后清空整个缓存.
+     */
+    public RedisSubscriptionManager.Subscription enableKeyspaceInvalidation(RedisSubscriptionManager manager, int database, String keyPattern) {
+        RedisSubscriptionManager.Subscription subscription = manager.subscribeKeyspace(database, keyPattern, new RedisSubscriptionManager.KeyspaceListener() {
+            @Override
+            public void onEvent(KeyspaceEvent event) {
+                invalidateLocal(event.getKey());
+            }
+
+            @Override
+            public void onSubscribed() {
+                invalidateAll();
+            }
+        });
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * 广播消息为 "实例 id:key", 忽略本实例发出的消息.
+     */
+    private void onBroadcast(String message) {
+        int split = message.indexOf(':');
+        if (split > 0 && !(split == instanceId.length() && message.startsWith(instanceId))) {
+            invalidateLocal(message.substring(split + 1));
+        }
+    }
+
+    private void runPublisher() {
+        List<String> batch = new ArrayList<>(BROADCAST_BATCH);
+        while (running) {
+            try {
+                String first = broadcastQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                broadcastQueue.drainTo(batch, BROADCAST_BATCH - 1);
+                jedisTemplate.executePipeline((pipeline) -> {
+                    for (String key : batch) {
+                        pipeline.publish(channel, instanceId + ':' + key);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                //logger.error("near cache broadcast error :{}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void runSubscriber(Supplier<Jedis> subscriberFactory) {
+        while (running) {
+            Jedis jedis = null;
+            try {
+                jedis = subscriberFactory.get();
+                JedisPubSub vPubSub = new JedisPubSub() {
+                    @Override
+                    public void onMessage(String channel, String message) {
+                        onBroadcast(message);
+                    }
+
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        invalidateAll();
+                    }
+                };
+                pubSub = vPubSub;
+                jedis.subscribe(vPubSub, channel);
+            } catch (RuntimeException e) {
+                //logger.error("near cache subscriber error :{}", e.getMessage());
+                invalidateAll();
+                sleepQuietly(1000);
+            } finally {
+                if (jedis != null) {
+                    JedisUtils.destroyJedis(jedis);
+                }
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        for (RedisSubscriptionManager.Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+        subscriptionManager = null;
+        JedisPubSub vPubSub = pubSub;
+        if (vPubSub != null && vPubSub.isSubscribed()) {
+            vPubSub.unsubscribe();
+        }
+        if (publisher != null) {
+            publisher.interrupt();
+        }
+        if (subscriber != null) {
+            subscriber.interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NearCache[size=" + size()
+                + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount()
+                + ", invalidations=" + getInvalidationCount() + "]";
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static final class Entry {
+        final String value;
+        final long expireAt;
+
+        Entry(String value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private final class Segment {
+        private final LinkedHashMap<String, Entry> map;
+        volatile long epoch;
+
+        Segment(final int capacity) {
+            this.map = new LinkedHashMap<String, Entry>(Math.min(capacity, 1024), 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized String get(String key, long now) {
+            Entry entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expireAt >= 0) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(String key, String value, long stamp, long expireAt) {
+            if (stamp == epoch) {
+                map.put(key, new Entry(value, expireAt));
+            }
+        }
+
+        synchronized void remove(String key) {
+            epoch++;
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            epoch++;
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
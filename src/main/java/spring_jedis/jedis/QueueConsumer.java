@@ -0,0 +1,406 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * 可靠队列消费者, 使用独立的连接池, 阻塞命令不会占用 {@link JedisTemplate} 的连接.
+ * 生产者 LPUSH 到 queueKey; 每个拉取线程长期持有一个连接,
+ * 用 BRPOPLPUSH 阻塞等待第一条消息, 队列非空后再用一次 Pipeline 的 RPOPLPUSH 批量取出最多 batchSize - 1 条,
+ * 取出的消息同时进入 processingKey 列表, 交给处理线程执行 {@link Handler}.
+ * 处理成功后从 processingKey 中 LREM(ack); 处理失败则在事务中移出 processingKey 并 LPUSH 回队列末尾重试;
+ * 配置 {@link #deadLetter(String, int)} 后按消息内容记录失败次数(processingKey + ":attempts" hash, 内容相同的消息共用计数),
+ * 达到上限的消息移入死信列表, 不再重试;
+ * ack 失败(连接错误)时消息留在 processingKey 中, 不会自动重新投递, 需在没有消费者运行时由 {@link #requeueProcessing()} 放回;
+ * 进程崩溃时消息留在 processingKey 中, 可由 {@link #requeueProcessing()} 放回队列;
+ * 批量取消息的 Pipeline 中途失败时, 已收到的消息照常处理, 已执行但应答丢失的 RPOPLPUSH 取出的消息同样留在 processingKey 中.
+ * 在途消息数(已取出未 ack)不超过 maxInFlight, 达到上限时拉取线程停止取消息, 消息留在 Redis 中由其他实例消费.
+ * 分片模式下 queueKey、processingKey 与死信列表需位于同一分片, 例如 "{orders}"、"{orders}:processing" 与 "{orders}:dead".
+ */
+public class QueueConsumer implements Closeable {
+
+    /**
+     * 消息处理逻辑, 抛出异常表示整批处理失败, 整批消息重新入队.
+     */
+    public interface Handler {
+        void handle(List<String> messages) throws Exception;
+    }
+
+    private final JedisPool consumerPool;
+    private final String queueKey;
+    private final String processingKey;
+    private final String attemptsKey;
+    private final Handler handler;
+    private final int batchSize;
+    private final int blockSeconds;
+    private final Semaphore inFlight;
+    private final List<Thread> fetchers = new ArrayList<>();
+    private final ExecutorService handlers;
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final AtomicInteger fetchErrors = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean running;
+    private volatile String deadLetterKey;
+    private volatile int maxAttempts;
+
+    /**
+     * @param consumerPool   消费者专用连接池, 由本对象关闭, 容量至少为 fetchers + handlerThreads
+     * @param fetchers       拉取线程数, 每个线程长期占用一个连接
+     * @param handlerThreads 处理线程数
+     * @param batchSize      每次最多取出的消息数
+     * @param maxInFlight    已取出未 ack 的消息数上限
+     * @param blockSeconds   BRPOPLPUSH 的阻塞超时, 也是关闭时拉取线程退出的最长等待
+     */
+    public QueueConsumer(JedisPool consumerPool, String queueKey, String processingKey, Handler handler,
+                         int fetchers, int handlerThreads, int batchSize, int maxInFlight, int blockSeconds) {
+        this.consumerPool = consumerPool;
+        this.queueKey = queueKey;
+        this.processingKey = processingKey;
+        this.attemptsKey = processingKey + ":attempts";
+        this.handler = handler;
+        this.batchSize = Math.max(1, batchSize);
+        this.blockSeconds = Math.max(1, blockSeconds);
+        this.inFlight = new Semaphore(Math.max(this.batchSize, maxInFlight));
+        for (int i = 0; i < Math.max(1, fetchers); i++) {
+            Thread fetcher = new Thread(this::runFetcher, "jedis-queue-" + queueKey + "-fetch-" + i);
+            fetcher.setDaemon(true);
+            this.fetchers.add(fetcher);
+        }
+        AtomicInteger handlerIndex = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(Math.max(1, handlerThreads), (r) -> {
+            Thread thread = new Thread(r, "jedis-queue-" + queueKey + "-handler-" + handlerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 同一消息处理失败 maxAttempts 次后移入 deadLetterKey 列表(LPUSH), 不再重新入队; 在 {@link #start()} 之前调用, maxAttempts 不大于 0 表示不限次数.
+     */
+    public QueueConsumer deadLetter(String deadLetterKey, int maxAttempts) {
+        this.deadLetterKey = deadLetterKey;
+        this.maxAttempts = deadLetterKey == null ? 0 : maxAttempts;
+        return this;
+    }
+
+    public QueueConsumer start() {
+        running = true;
+        for (Thread fetcher : fetchers) {
+            fetcher.start();
+        }
+        return this;
+    }
+
+    private void runFetcher() {
+        while (running) {
+            Jedis jedis = null;
+            boolean broken = false;
+            try {
+                jedis = consumerPool.getResource();
+                while (running) {
+                    int permits = acquirePermits();
+                    if (permits == 0) {
+                        break;
+                    }
+                    List<String> batch = new ArrayList<>(permits);
+                    JedisException fetchError = null;
+                    try {
+                        fetch(jedis, batch, permits);
+                    } catch (JedisException e) {
+                        // BRPOPLPUSH 之后的 Pipeline 失败时, 已取出的消息已在 processingKey 中, 照常交给处理线程后再按拉取失败处理
+                        fetchError = e;
+                    } finally {
+                        inFlight.release(permits - batch.size());
+                    }
+                    if (!batch.isEmpty()) {
+                        consumed.add(batch.size());
+                        pending.addAndGet(batch.size());
+                        try {
+                            handlers.execute(() -> handle(batch));
+                        } catch (RejectedExecutionException e) {
+                            // 关闭超时后仍在拉取, 消息留在 processingKey 中
+                            pending.addAndGet(-batch.size());
+                            inFlight.release(batch.size());
+                            return;
+                        }
+                    }
+                    if (fetchError != null) {
+                        throw fetchError;
+                    }
+                }
+            } catch (JedisException e) {
+                //logger.error("queue fetch error :{}", e.getMessage());
+                fetchErrors.incrementAndGet();
+                broken = JedisUtils.isConnectionBroken(e);
+                pause(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                JedisUtils.closeResource(jedis, broken);
+            }
+        }
+    }
+
+    /**
+     * 至少取得 1 个在途名额, 再尽量多取, 最多 batchSize 个; 已关闭时返回 0.
+     */
+    private int acquirePermits() throws InterruptedException {
+        while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                return 0;
+            }
+        }
+        int permits = 1;
+        while (permits < batchSize && inFlight.tryAcquire()) {
+            permits++;
+        }
+        return permits;
+    }
+
+    /**
+     * BRPOPLPUSH 等待第一条消息, 之后一次 Pipeline 取出其余消息.
+     */
+    private void fetch(Jedis jedis, List<String> batch, int max) {
+        String first = jedis.brpoplpush(queueKey, processingKey, blockSeconds);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        if (max == 1) {
+            return;
+        }
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<String>> responses = new ArrayList<>(max - 1);
+        for (int i = 1; i < max; i++) {
+            responses.add(pipeline.rpoplpush(queueKey, processingKey));
+        }
+        pipeline.sync();
+        JedisException error = null;
+        for (Response<String> response : responses) {
+            // 生产者可能在两条 RPOPLPUSH 之间写入, 空结果之后仍可能有消息, 每条都要收下
+            try {
+                String message = response.get();
+                if (message != null) {
+                    batch.add(message);
+                }
+            } catch (JedisException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void handle(List<String> batch) {
+        boolean handled = false;
+        try {
+            handler.handle(batch);
+            handled = true;
+        } catch (Exception e) {
+            //logger.error("queue handler error :{}", e.getMessage());
+        }
+        try {
+            if (handled) {
+                ack(batch);
+            } else {
+                requeue(batch);
+            }
+        } finally {
+            pending.addAndGet(-batch.size());
+            inFlight.release(batch.size());
+        }
+    }
+
+    /**
+     * 一次 Pipeline 从 processingKey 中移除整批消息(配置了死信列表时同时清除失败次数); 失败时消息留在 processingKey 中.
+     */
+    private void ack(List<String> batch) {
+        Jedis jedis = null;
+        boolean broken = false;
+        try {
+            jedis = consumerPool.getResource();
+            Pipeline pipeline = jedis.pipelined();
+            boolean counted = maxAttempts > 0;
+            for (String message : batch) {
+                pipeline.lrem(processingKey, 1, message);
+                if (counted) {
+                    pipeline.hdel(attemptsKey, message);
+                }
+            }
+            pipeline.sync();
+            acked.add(batch.size());
+        } catch (JedisException e) {
+            //logger.error("queue ack error :{}", e.getMessage());
+            broken = JedisUtils.isConnectionBroken(e);
+        } finally {
+            JedisUtils.closeResource(jedis, broken);
+        }
+    }
+
+    /**
+     * 在事务中把整批消息移出 processingKey 并放回队列末尾; 配置了死信列表时改由脚本执行, 失败次数达到上限的消息移入死信列表.
+     */
+    private void requeue(List<String> batch) {
+        Jedis jedis = null;
+        boolean broken = false;
+        try {
+            jedis = consumerPool.getResource();
+            int vMaxAttempts = maxAttempts;
+            if (vMaxAttempts > 0) {
+                long dead = requeueOrDeadLetter(jedis, batch, vMaxAttempts);
+                requeued.add(batch.size() - dead);
+                deadLettered.add(dead);
+                return;
+            }
+            Transaction transaction = jedis.multi();
+            for (String message : batch) {
+                transaction.lrem(processingKey, 1, message);
+                transaction.lpush(queueKey, message);
+            }
+            transaction.exec();
+            requeued.add(batch.size());
+        } catch (JedisException e) {
+            //logger.error("queue requeue error :{}", e.getMessage());
+            broken = JedisUtils.isConnectionBroken(e);
+        } finally {
+            JedisUtils.closeResource(jedis, broken);
+        }
+    }
+
+    private long requeueOrDeadLetter(Jedis jedis, List<String> batch, int vMaxAttempts) {
+        RedisScript<Long> script = RedisScripts.QUEUE_REQUEUE;
+        List<String> keys = Arrays.asList(processingKey, queueKey, attemptsKey, deadLetterKey);
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        args.add(String.valueOf(vMaxAttempts));
+        args.addAll(batch);
+        Object result;
+        try {
+            result = jedis.evalsha(script.getSha1(), keys, args);
+        } catch (JedisNoScriptException e) {
+            result = jedis.eval(script.getSource(), keys, args);
+        }
+        return script.map(result);
+    }
+
+    /**
+     * 把 processingKey 中的全部消息放回队列, 返回数量.
+     * 仅在没有消费者使用该 processingKey 时调用(如进程崩溃后重启, 尚未 {@link #start()} 之前), 否则会重复投递正在处理的消息.
+     */
+    public long requeueProcessing() {
+        Jedis jedis = null;
+        boolean broken = false;
+        try {
+            jedis = consumerPool.getResource();
+            long count = 0;
+            while (jedis.rpoplpush(processingKey, queueKey) != null) {
+                count++;
+            }
+            return count;
+        } catch (JedisException e) {
+            broken = JedisUtils.isConnectionBroken(e);
+            throw e;
+        } finally {
+            JedisUtils.closeResource(jedis, broken);
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已取出的消息数.
+     */
+    public long getConsumedCount() {
+        return consumed.sum();
+    }
+
+    public long getAckedCount() {
+        return acked.sum();
+    }
+
+    public long getRequeuedCount() {
+        return requeued.sum();
+    }
+
+    /**
+     * 失败次数达到上限移入死信列表的消息数.
+     */
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+
+    public int getFetchErrorCount() {
+        return fetchErrors.get();
+    }
+
+    /**
+     * 已取出尚未处理完成的消息数.
+     */
+    public int getInFlight() {
+        return pending.get();
+    }
+
+    public String getQueueKey() {
+        return queueKey;
+    }
+
+    public String getProcessingKey() {
+        return processingKey;
+    }
+
+    /**
+     * 优雅关闭: 停止取新消息, 等待拉取线程退出(最多 blockSeconds), 再等待已取出的消息处理并 ack 完成, 最后关闭连接池.
+     * 超时仍未处理完的消息留在 processingKey 中.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        try {
+            for (Thread fetcher : fetchers) {
+                fetcher.join(TimeUnit.SECONDS.toMillis(blockSeconds) + 1000);
+            }
+            handlers.shutdown();
+            terminated = handlers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminated = false;
+        } finally {
+            handlers.shutdownNow();
+            consumerPool.close();
+        }
+        return terminated;
+    }
+
+    @Override
+    public void close() {
+        shutdown(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,305 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * 旁路缓存(cache-aside)加载器, 取代手写的 get -> 未命中 -> 查库 -> Setex:
+ * <ul>
+ * <li>同一 JVM 内同一 key 的并发未命中合并为一次加载(single-flight), 其他线程等待其结果.</li>
+ * <li>leaseMillis 大于 0 时, 加载前用 SET NX PX 在 key + ":lease" 上取得租约, 多实例中只有一个去加载;
+ * 未取得租约的实例轮询等待缓存写入, 租约期满仍未写入则自行加载.</li>
+ * <li>提前刷新(XFetch): 记录每次加载耗时 delta, 命中时以 now - delta * beta * ln(rand) >= expiry 的概率
+ * 在后台刷新, 越接近过期、加载越慢, 提前刷新的概率越大; 热点 key 在过期前就会被刷新.</li>
+ * <li>值在逻辑过期后仍在 Redis 中保留 graceMillis, 期间读到旧值并触发后台刷新, 热点 key 不会冷启动.</li>
+ * </ul>
+ * 缓存值带 {@value #HEADER_LENGTH} 字节的头部(过期时刻与加载耗时), 这些 key 只应通过本类读写;
+ * 没有头部的旧值(如原先手写 Setex 写入的)原样返回, 不提前刷新, 过期后由本类重新写入.
+ * loader 返回 null 时不缓存.
+ */
+public class RedisCacheLoader implements Closeable {
+
+    static final int HEADER_LENGTH = 14;
+    static final long POLL_MILLIS = 20;
+
+    private static final short MAGIC = (short) 0xCA01;
+
+    private static final RedisScript<Boolean> RELEASE_LEASE_SCRIPT = RedisScript.of("cache-lease-release",
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('DEL', KEYS[1]) "
+            + "end "
+            + "return 0", ScriptResults.bool());
+
+    private final JedisTemplate jedisTemplate;
+    private final double beta;
+    private final long leaseMillis;
+    private final long graceMillis;
+    private final ThreadPoolExecutor refresher;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong leaseSequence = new AtomicLong();
+
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * @param beta           XFetch 系数, 越大越早刷新, 1.0 为论文推荐值, 0 关闭提前刷新
+     * @param leaseMillis    跨实例加载租约, 0 表示不使用
+     * @param graceMillis    逻辑过期后值仍保留的时间
+     * @param refreshThreads 后台刷新线程数
+     */
+    public RedisCacheLoader(JedisTemplate jedisTemplate, double beta, long leaseMillis, long graceMillis, int refreshThreads) {
+        this.jedisTemplate = jedisTemplate;
+        this.beta = Math.max(0, beta);
+        this.leaseMillis = Math.max(0, leaseMillis);
+        this.graceMillis = Math.max(0, graceMillis);
+        int threads = Math.max(1, refreshThreads);
+        this.refresher = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1024), (r) -> {
+            Thread thread = new Thread(r, "redis-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.allowCoreThreadTimeOut(true);
+    }
+
+    public String getOrLoad(String key, int ttlSeconds, Supplier<String> loader) {
+        return getOrLoad(key, ttlSeconds, RedisSerializers.string(), loader);
+    }
+
+    /**
+     * 读取缓存, 未命中时加载并写入, ttlSeconds 为逻辑有效期.
+     */
+    public <T> T getOrLoad(String key, int ttlSeconds, RedisSerializer<T> serializer, Supplier<T> loader) {
+        byte[] raw = jedisTemplate.get(SafeEncoder.encode(key));
+        if (raw == null) {
+            misses.increment();
+            return loadCoalesced(key, ttlSeconds, serializer, loader);
+        }
+        if (!hasHeader(raw)) {
+            hits.increment();
+            return serializer.deserialize(raw);
+        }
+        ByteBuffer header = ByteBuffer.wrap(raw, 2, HEADER_LENGTH - 2);
+        long expiry = header.getLong();
+        int delta = header.getInt();
+        long now = System.currentTimeMillis();
+        if (now >= expiry) {
+            staleHits.increment();
+            refreshAsync(key, ttlSeconds, serializer, loader);
+        } else {
+            hits.increment();
+            if (beta > 0 && now - delta * beta * Math.log(ThreadLocalRandom.current().nextDouble()) >= expiry) {
+                refreshAsync(key, ttlSeconds, serializer, loader);
+            }
+        }
+        return serializer.deserialize(Arrays.copyOfRange(raw, HEADER_LENGTH, raw.length));
+    }
+
+    /**
+     * 删除缓存, 下次读取时重新加载.
+     */
+    public void evict(String key) {
+        jedisTemplate.del(key);
+    }
+
+    /**
+     * 同一 key 的并发未命中只有一个线程加载, 其他线程等待结果; 加载失败时异常传给所有等待者.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadCoalesced(String key, int ttlSeconds, RedisSerializer<T> serializer, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) await(existing);
+        }
+        try {
+            T value = loadWithLease(key, ttlSeconds, serializer, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private <T> T loadWithLease(String key, int ttlSeconds, RedisSerializer<T> serializer, Supplier<T> loader) {
+        if (leaseMillis == 0) {
+            return loadAndStore(key, ttlSeconds, serializer, loader);
+        }
+        String leaseKey = key + ":lease";
+        String token = instanceId + ':' + leaseSequence.incrementAndGet();
+        if (!Boolean.TRUE.equals(jedisTemplate.setIfNotnxpx(leaseKey, token, leaseMillis))) {
+            // 其他实例正在加载, 等它写入
+            byte[] bkey = SafeEncoder.encode(key);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            while (System.nanoTime() - deadline < 0) {
+                sleep(POLL_MILLIS);
+                byte[] raw = jedisTemplate.get(bkey);
+                if (raw != null) {
+                    return serializer.deserialize(hasHeader(raw) ? Arrays.copyOfRange(raw, HEADER_LENGTH, raw.length) : raw);
+                }
+            }
+            return loadAndStore(key, ttlSeconds, serializer, loader);
+        }
+        try {
+            return loadAndStore(key, ttlSeconds, serializer, loader);
+        } finally {
+            releaseLease(leaseKey, token);
+        }
+    }
+
+    private <T> T loadAndStore(String key, int ttlSeconds, RedisSerializer<T> serializer, Supplier<T> loader) {
+        loads.increment();
+        long start = System.nanoTime();
+        T value = loader.get();
+        long delta = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (value != null) {
+            byte[] payload = serializer.serialize(value);
+            long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payload.length);
+            buffer.putShort(MAGIC).putLong(System.currentTimeMillis() + ttlMillis).putInt((int) Math.min(Integer.MAX_VALUE, delta)).put(payload);
+            jedisTemplate.psetex(SafeEncoder.encode(key), buffer.array(), ttlMillis + graceMillis);
+        }
+        return value;
+    }
+
+    /**
+     * 后台刷新: 同一 key 同时只有一个刷新任务; 使用租约时未取得租约说明其他实例正在刷新, 直接放弃.
+     */
+    private <T> void refreshAsync(final String key, final int ttlSeconds, final RedisSerializer<T> serializer, final Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refreshes.increment();
+                    if (leaseMillis == 0) {
+                        loadAndStore(key, ttlSeconds, serializer, loader);
+                        return;
+                    }
+                    String leaseKey = key + ":lease";
+                    String token = instanceId + ':' + leaseSequence.incrementAndGet();
+                    if (Boolean.TRUE.equals(jedisTemplate.setIfNotnxpx(leaseKey, token, leaseMillis))) {
+                        try {
+                            loadAndStore(key, ttlSeconds, serializer, loader);
+                        } finally {
+                            releaseLease(leaseKey, token);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    //logger.error("redis cache refresh error :{}", e.getMessage());
+                    refreshFailures.increment();
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            jedisTemplate.eval(RELEASE_LEASE_SCRIPT, Collections.singletonList(leaseKey), Collections.singletonList(token));
+        } catch (JedisException e) {
+            //logger.error("redis cache lease release error :{}", e.getMessage());
+        }
+    }
+
+    private static boolean hasHeader(byte[] raw) {
+        return raw.length >= HEADER_LENGTH && raw[0] == (byte) (MAGIC >> 8) && raw[1] == (byte) MAGIC;
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new JedisException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while waiting for cache load", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while waiting for cache lease", e);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 读到逻辑过期(仍在 grace 期内)的值的次数.
+     */
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    /**
+     * 等待同一 JVM 内其他线程加载结果的次数.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 实际调用 loader 的次数(含后台刷新).
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
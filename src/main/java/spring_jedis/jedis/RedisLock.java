@@ -0,0 +1,291 @@
+package spring_jedis.jedis;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * 基于 Redis 的可重入分布式锁, 由 {@link RedisLockManager#getLock(String)} 创建.
+ * 同一进程内的线程先竞争本地的 ReentrantLock, 只有持有本地锁的线程才访问 Redis, 重入只增加本地计数, 不产生网络往返.
+ * 解锁时若本进程还有线程在等待, Redis 上的锁直接转交给下一个本地线程(最多连续 {@value #MAX_LOCAL_HANDOFFS} 次, 以免其他实例饿死),
+ * 转交期间栅栏令牌不变.
+ * 加锁: Lua 脚本在 key 不存在时 INCR 栅栏计数并写入 "持有者:栅栏令牌" 和租期, 令牌单调递增, 可交给下游存储拒绝过期持有者的写入.
+ * 等待: 不轮询, 在 PTTL 剩余时间内等待释放通知(pub/sub), 订阅不可用时最多等到锁过期再重试.
+ * 续期: 持有期间看门狗每 1/3 租期续期一次, 续期失败(锁已过期被他人获得)后 {@link #isLost()} 返回 true.
+ * 解锁: Lua 脚本比较值后删除并发布释放通知, 不会误删他人的锁.
+ */
+public class RedisLock implements Lock {
+
+    static final int MAX_LOCAL_HANDOFFS = 32;
+
+    private final RedisLockManager manager;
+    private final String name;
+    private final String key;
+    private final String fenceKey;
+    private final ReentrantLock localLock = new ReentrantLock(true);
+    private final Object signal = new Object();
+    private long releaseGeneration;
+
+    // 以下字段只由持有本地锁的线程读写, 看门狗只读 holderValue
+    private volatile String holderValue;
+    private long fencingToken;
+    private ScheduledFuture<?> renewal;
+    private int localHandoffs;
+    private volatile boolean lost;
+
+    RedisLock(RedisLockManager manager, String name) {
+        this.manager = manager;
+        this.name = name;
+        this.key = manager.lockKey(name);
+        this.fenceKey = key + ":fence";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前持有的栅栏令牌, 每次(非重入)加锁递增; 未持有时抛出 IllegalMonitorStateException.
+     */
+    public long getFencingToken() {
+        checkHeld();
+        return fencingToken;
+    }
+
+    /**
+     * 持有期间租约是否已丢失(续期失败), 丢失后应放弃受保护的操作.
+     */
+    public boolean isLost() {
+        checkHeld();
+        return lost;
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return localLock.isHeldByCurrentThread();
+    }
+
+    public int getHoldCount() {
+        return localLock.getHoldCount();
+    }
+
+    @Override
+    public void lock() {
+        try {
+            lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while acquiring lock " + name, e);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        try {
+            localLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            releaseIfOrphaned();
+            throw e;
+        }
+        if (localLock.getHoldCount() > 1) {
+            return;
+        }
+        boolean acquired = false;
+        try {
+            acquired = acquireRemote(Long.MAX_VALUE);
+        } finally {
+            if (!acquired) {
+                localLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (!localLock.tryLock()) {
+            return false;
+        }
+        return afterLocalLock(0);
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        boolean locked = false;
+        try {
+            locked = localLock.tryLock(time, unit);
+        } finally {
+            if (!locked) {
+                releaseIfOrphaned();
+            }
+        }
+        if (!locked) {
+            return false;
+        }
+        return afterLocalLock(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    private boolean afterLocalLock(long waitNanos) {
+        if (localLock.getHoldCount() > 1) {
+            return true;
+        }
+        boolean acquired = false;
+        try {
+            acquired = acquireRemote(waitNanos);
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (!acquired) {
+                localLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 在 Redis 上加锁, waitNanos 为 Long.MAX_VALUE 时一直等待.
+     */
+    private boolean acquireRemote(long waitNanos) throws InterruptedException {
+        if (holderValue != null) {
+            if (!lost) {
+                // 上一个本地持有者转交的租约
+                return true;
+            }
+            releaseRemote();
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        String owner = manager.ownerId(Thread.currentThread());
+        while (true) {
+            long generation;
+            synchronized (signal) {
+                generation = releaseGeneration;
+            }
+            List<Long> reply = manager.tryAcquire(key, fenceKey, owner);
+            if (reply.get(0) == 1L) {
+                fencingToken = reply.get(1);
+                holderValue = owner + ':' + fencingToken;
+                lost = false;
+                renewal = manager.scheduleRenewal(this);
+                return true;
+            }
+            long remaining = waitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            long ttlMillis = reply.get(1);
+            long waitMillis = ttlMillis > 0 ? ttlMillis : RedisLockManager.RETRY_MILLIS;
+            awaitRelease(generation, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(waitMillis)));
+        }
+    }
+
+    private void awaitRelease(long generation, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        synchronized (signal) {
+            while (releaseGeneration == generation) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+            }
+        }
+    }
+
+    /**
+     * 收到释放通知, 唤醒本进程中等待的线程.
+     */
+    void onReleased() {
+        synchronized (signal) {
+            releaseGeneration++;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * 看门狗续期, 返回 false 表示锁已丢失.
+     */
+    boolean renew() {
+        String value = holderValue;
+        if (value == null) {
+            return false;
+        }
+        if (!manager.renew(key, value)) {
+            lost = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        checkHeld();
+        if (localLock.getHoldCount() > 1) {
+            localLock.unlock();
+            return;
+        }
+        boolean handoff = !lost && localLock.hasQueuedThreads() && localHandoffs < MAX_LOCAL_HANDOFFS;
+        try {
+            if (handoff) {
+                localHandoffs++;
+            } else {
+                localHandoffs = 0;
+                releaseRemote();
+            }
+        } finally {
+            localLock.unlock();
+        }
+        if (handoff) {
+            releaseIfOrphaned();
+        }
+    }
+
+    /**
+     * 转交租约后等待的线程可能已超时离开, 此时没有人接手, 需要释放 Redis 上的锁.
+     */
+    private void releaseIfOrphaned() {
+        if (localLock.hasQueuedThreads() || !localLock.tryLock()) {
+            return;
+        }
+        try {
+            if (localLock.getHoldCount() == 1 && holderValue != null) {
+                localHandoffs = 0;
+                releaseRemote();
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private void releaseRemote() {
+        String value = holderValue;
+        holderValue = null;
+        if (renewal != null) {
+            renewal.cancel(false);
+            renewal = null;
+        }
+        if (!lost) {
+            manager.release(key, value, name);
+        }
+    }
+
+    private void checkHeld() {
+        if (!localLock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("Lock " + name + " is not held by current thread");
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("RedisLock does not support conditions");
+    }
+
+    @Override
+    public String toString() {
+        return "RedisLock[" + name + ", locked=" + localLock.isLocked() + "]";
+    }
+}
@@ -0,0 +1,204 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * 分布式锁的创建与公共设施: 加锁 / 续期 / 解锁脚本, 看门狗线程, 释放通知的订阅连接.
+ * 所有锁共用一个频道, 消息内容为锁名, 订阅只占用一个独立连接(不占用连接池).
+ * 锁对象按名称缓存以共享进程内的重入状态, 名称数量应当有限; 对数量不限的细粒度 key 使用 {@link StripedRedisLock}.
+ */
+public class RedisLockManager implements Closeable {
+
+    static final long RETRY_MILLIS = 100;
+
+    private static final RedisScript<List<Long>> ACQUIRE_SCRIPT = RedisScript.of("redis-lock-acquire",
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+            + "local token = redis.call('INCR', KEYS[2]) "
+            + "redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2]) "
+            + "return {1, token} "
+            + "end "
+            + "return {0, redis.call('PTTL', KEYS[1])}", ScriptResults.longList());
+
+    private static final RedisScript<Boolean> RENEW_SCRIPT = RedisScript.of("redis-lock-renew",
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+            + "end "
+            + "return 0", ScriptResults.bool());
+
+    private static final RedisScript<Boolean> RELEASE_SCRIPT = RedisScript.of("redis-lock-release",
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "redis.call('DEL', KEYS[1]) "
+            + "redis.call('PUBLISH', ARGV[2], ARGV[3]) "
+            + "return 1 "
+            + "end "
+            + "return 0", ScriptResults.bool());
+
+    private final JedisTemplate jedisTemplate;
+    private final String keyPrefix;
+    private final String channel;
+    private final long leaseMillis;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, RedisLock> locks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+    private final Thread subscriber;
+    private volatile JedisPubSub pubSub;
+    private volatile boolean running = true;
+
+    /**
+     * @param subscriberFactory 创建订阅用的独立连接
+     * @param keyPrefix         锁 key 前缀, 锁 key 为 keyPrefix + "{" + name + "}"
+     * @param leaseMillis       租期, 持有者进程崩溃后最多经过该时间锁自动释放
+     */
+    public RedisLockManager(JedisTemplate jedisTemplate, Supplier<Jedis> subscriberFactory, String keyPrefix, long leaseMillis) {
+        this.jedisTemplate = jedisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.channel = keyPrefix + "released";
+        this.leaseMillis = Math.max(3, leaseMillis);
+        ScheduledThreadPoolExecutor vWatchdog = new ScheduledThreadPoolExecutor(1, (r) -> {
+            Thread thread = new Thread(r, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        vWatchdog.setRemoveOnCancelPolicy(true);
+        this.watchdog = Executors.unconfigurableScheduledExecutorService(vWatchdog);
+        this.subscriber = new Thread(() -> runSubscriber(subscriberFactory), "redis-lock-subscriber");
+        this.subscriber.setDaemon(true);
+        this.subscriber.start();
+    }
+
+    /**
+     * 获取(首次使用时创建)指定名称的锁.
+     */
+    public RedisLock getLock(String name) {
+        return locks.computeIfAbsent(name, (n) -> new RedisLock(this, n));
+    }
+
+    /**
+     * stripes 把锁分段: 任意 key 映射到其中一把锁, 不同 key 可能共用同一把锁.
+     */
+    public StripedRedisLock getStripedLock(String name, int stripes) {
+        return new StripedRedisLock(this, name, stripes);
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    String lockKey(String name) {
+        return keyPrefix + '{' + name + '}';
+    }
+
+    String ownerId(Thread thread) {
+        return instanceId + ':' + thread.getId();
+    }
+
+    /**
+     * 返回 [1, 栅栏令牌] 表示加锁成功, [0, 剩余毫秒] 表示锁被占用.
+     */
+    List<Long> tryAcquire(String key, String fenceKey, String owner) {
+        return jedisTemplate.eval(ACQUIRE_SCRIPT, Arrays.asList(key, fenceKey), Arrays.asList(owner, String.valueOf(leaseMillis)));
+    }
+
+    boolean renew(String key, String value) {
+        return jedisTemplate.eval(RENEW_SCRIPT, Collections.singletonList(key), Arrays.asList(value, String.valueOf(leaseMillis)));
+    }
+
+    void release(String key, String value, String name) {
+        jedisTemplate.eval(RELEASE_SCRIPT, Collections.singletonList(key), Arrays.asList(value, channel, name));
+    }
+
+    ScheduledFuture<?> scheduleRenewal(final RedisLock lock) {
+        long period = leaseMillis / 3;
+        final ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+        synchronized (self) {
+            self[0] = watchdog.scheduleAtFixedRate(() -> {
+                boolean renewed;
+                try {
+                    renewed = lock.renew();
+                } catch (RuntimeException e) {
+                    //logger.error("redis lock renew error :{}", e.getMessage());
+                    // 网络错误时保留看门狗, 下个周期重试
+                    return;
+                }
+                if (!renewed) {
+                    synchronized (self) {
+                        self[0].cancel(false);
+                    }
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            return self[0];
+        }
+    }
+
+    private void runSubscriber(Supplier<Jedis> subscriberFactory) {
+        while (running) {
+            Jedis jedis = null;
+            try {
+                jedis = subscriberFactory.get();
+                JedisPubSub vPubSub = new JedisPubSub() {
+                    @Override
+                    public void onMessage(String channel, String message) {
+                        RedisLock lock = locks.get(message);
+                        if (lock != null) {
+                            lock.onReleased();
+                        }
+                    }
+
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        // 断线期间可能漏掉释放通知, 重新订阅后唤醒所有等待者重试
+                        for (RedisLock lock : locks.values()) {
+                            lock.onReleased();
+                        }
+                    }
+                };
+                pubSub = vPubSub;
+                jedis.subscribe(vPubSub, channel);
+            } catch (RuntimeException e) {
+                //logger.error("redis lock subscriber error :{}", e.getMessage());
+                sleepQuietly(1000);
+            } finally {
+                if (jedis != null) {
+                    JedisUtils.destroyJedis(jedis);
+                }
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 停止看门狗与订阅; 仍被持有的锁不再续期, 租期到后自动释放.
+     */
+    @Override
+    public void close() {
+        running = false;
+        watchdog.shutdownNow();
+        JedisPubSub vPubSub = pubSub;
+        if (vPubSub != null && vPubSub.isSubscribed()) {
+            vPubSub.unsubscribe();
+        }
+        subscriber.interrupt();
+    }
+}
@@ -0,0 +1,211 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * 基于 Redis 的限流器, 每次检查是一次 Lua 脚本调用(一次往返, 服务端原子执行), 取代 zadd / zremByScore / zcard 三次调用.
+ * <ul>
+ * <li>{@link Mode#SLIDING_LOG}: 有序集合记录窗口内每次请求, 精确, 内存与 limit 成正比.</li>
+ * <li>{@link Mode#SLIDING_WINDOW_COUNTER}: 当前与上一固定窗口两个计数器加权估算, 内存固定, 近似.</li>
+ * <li>{@link Mode#TOKEN_BUCKET}: 容量 limit, 每 windowMillis 补满 limit 个令牌, 允许突发.</li>
+ * </ul>
+ * 脚本拒绝时同时返回至少还需等待的毫秒数, 在此期间无论其他实例如何调用都不可能放行;
+ * 开启 localPrecheck 后本地记住该时刻, 到期前的检查直接拒绝, 不访问网络.
+ * 时间取本机时钟, 多实例共用同一限流 key 时各实例时钟需同步.
+ */
+public class RedisRateLimiter {
+
+    public enum Mode {
+        SLIDING_LOG, SLIDING_WINDOW_COUNTER, TOKEN_BUCKET
+    }
+
+    /**
+     * 本地拒绝记录超过该数量时清理已到期的记录.
+     */
+    static final int MAX_LOCAL_BLOCKED = 100000;
+
+    private final JedisTemplate jedisTemplate;
+    private final String keyPrefix;
+    private final Mode mode;
+    private final long limit;
+    private final long windowMillis;
+    private final boolean localPrecheck;
+    private final String limitArg;
+    private final String windowArg;
+    private final String refillArg;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder locallyRejected = new LongAdder();
+
+    /**
+     * @param keyPrefix     限流 key 前缀, 调用方 id 放在 hash tag 中, 分片模式下同一调用方的 key 位于同一分片
+     * @param limit         每个窗口允许的请求数(令牌桶为容量)
+     * @param windowMillis  窗口长度(令牌桶为补满 limit 个令牌的时间)
+     * @param localPrecheck 是否在本地拒绝已知仍处于拒绝期的调用方
+     */
+    public RedisRateLimiter(JedisTemplate jedisTemplate, String keyPrefix, Mode mode, long limit, long windowMillis, boolean localPrecheck) {
+        if (limit <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("limit and windowMillis must be positive");
+        }
+        this.jedisTemplate = jedisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.mode = mode;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.localPrecheck = localPrecheck;
+        this.limitArg = String.valueOf(limit);
+        this.windowArg = String.valueOf(windowMillis);
+        this.refillArg = String.valueOf((double) limit / windowMillis);
+    }
+
+    /**
+     * 检查 id 是否可以放行一次请求, 放行时计入限额.
+     */
+    public boolean tryAcquire(String id) {
+        long now = System.currentTimeMillis();
+        if (isLocallyBlocked(id, now)) {
+            return false;
+        }
+        List<Long> reply = jedisTemplate.eval(script(), keys(id, now), args(now));
+        return onReply(id, reply, now);
+    }
+
+    /**
+     * 批量检查, 本地未拒绝的 id 在一次 Pipeline 中检查; 结果与 ids 一一对应, 重复的 id 每次都计入限额.
+     */
+    public List<Boolean> tryAcquireAll(List<String> ids) {
+        final long now = System.currentTimeMillis();
+        final Boolean[] results = new Boolean[ids.size()];
+        final List<Integer> remote = new ArrayList<>(ids.size());
+        for (int i = 0; i < results.length; i++) {
+            if (isLocallyBlocked(ids.get(i), now)) {
+                results[i] = Boolean.FALSE;
+            } else {
+                remote.add(i);
+            }
+        }
+        if (!remote.isEmpty()) {
+            final RedisScript<List<Long>> vScript = script();
+            final List<ScriptResponse<List<Long>>> responses = new ArrayList<>(remote.size());
+            jedisTemplate.executePipeline((pipeline) -> {
+                for (Integer index : remote) {
+                    String id = ids.get(index);
+                    responses.add(jedisTemplate.eval(pipeline, vScript, keys(id, now), args(now)));
+                }
+            });
+            for (int i = 0; i < remote.size(); i++) {
+                int index = remote.get(i);
+                results[index] = onReply(ids.get(index), responses.get(i).get(), now);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean isLocallyBlocked(String id, long now) {
+        if (!localPrecheck) {
+            return false;
+        }
+        Long until = blockedUntil.get(id);
+        if (until == null) {
+            return false;
+        }
+        if (now < until) {
+            locallyRejected.increment();
+            rejected.increment();
+            return true;
+        }
+        blockedUntil.remove(id, until);
+        return false;
+    }
+
+    private boolean onReply(String id, List<Long> reply, long now) {
+        if (reply.get(0) == 1L) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        if (localPrecheck) {
+            if (blockedUntil.size() >= MAX_LOCAL_BLOCKED) {
+                blockedUntil.values().removeIf((until) -> until <= now);
+            }
+            if (blockedUntil.size() < MAX_LOCAL_BLOCKED) {
+                blockedUntil.put(id, now + reply.get(1));
+            }
+        }
+        return false;
+    }
+
+    private RedisScript<List<Long>> script() {
+        switch (mode) {
+            case SLIDING_WINDOW_COUNTER:
+                return RedisScripts.SLIDING_WINDOW_COUNTER_RATE_LIMIT;
+            case TOKEN_BUCKET:
+                return RedisScripts.TOKEN_BUCKET_RATE_LIMIT;
+            default:
+                return RedisScripts.SLIDING_WINDOW_RATE_LIMIT;
+        }
+    }
+
+    private List<String> keys(String id, long now) {
+        String key = keyPrefix + '{' + id + '}';
+        if (mode == Mode.SLIDING_WINDOW_COUNTER) {
+            long window = now / windowMillis;
+            return Arrays.asList(key + ':' + window, key + ':' + (window - 1));
+        }
+        return Collections.singletonList(key);
+    }
+
+    private List<String> args(long now) {
+        String nowArg = String.valueOf(now);
+        switch (mode) {
+            case SLIDING_WINDOW_COUNTER:
+                return Arrays.asList(nowArg, windowArg, limitArg);
+            case TOKEN_BUCKET:
+                return Arrays.asList(nowArg, limitArg, refillArg, "1");
+            default:
+                return Arrays.asList(nowArg, windowArg, limitArg, instanceId + ':' + sequence.incrementAndGet());
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    /**
+     * 拒绝次数, 包括本地拒绝.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 未访问 Redis 直接在本地拒绝的次数.
+     */
+    public long getLocallyRejectedCount() {
+        return locallyRejected.sum();
+    }
+}
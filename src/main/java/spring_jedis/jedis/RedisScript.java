@@ -0,0 +1,91 @@
+package spring_jedis.jedis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Function;
+
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Lua 脚本及其结果映射.
+ * SHA1 在本地计算, 通过 {@link JedisTemplate#eval(RedisScript, java.util.List, java.util.List)} 执行时优先 EVALSHA,
+ * 服务端没有缓存该脚本(NOSCRIPT)时自动改用 EVAL 发送脚本源码, 之后服务端即已缓存.
+ * 映射函数接收与 {@link redis.clients.jedis.Jedis#eval(String)} 相同的解码结果: 整数为 Long, 字符串为 String, 数组为 List, nil 为 null.
+ */
+public final class RedisScript<T> {
+
+    private final String name;
+    private final String source;
+    private final String sha1;
+    private final Function<Object, T> resultMapper;
+
+    private RedisScript(String name, String source, Function<Object, T> resultMapper) {
+        this.name = name;
+        this.source = source;
+        this.sha1 = sha1Hex(source);
+        this.resultMapper = resultMapper;
+    }
+
+    public static <T> RedisScript<T> of(String name, String source, Function<Object, T> resultMapper) {
+        return new RedisScript<>(name, source, resultMapper);
+    }
+
+    /**
+     * 从 classpath 加载脚本(UTF-8), 脚本名为资源路径.
+     */
+    public static <T> RedisScript<T> fromClasspath(String path, Function<Object, T> resultMapper) {
+        ClassLoader classLoader = RedisScript.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new JedisException("Lua script not found on classpath: " + path);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new RedisScript<>(path, new String(out.toByteArray(), StandardCharsets.UTF_8), resultMapper);
+        } catch (IOException e) {
+            throw new JedisException("Cannot read Lua script " + path, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+    T map(Object result) {
+        return resultMapper.apply(result);
+    }
+
+    private static String sha1Hex(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RedisScript[" + name + ", sha1=" + sha1 + "]";
+    }
+}
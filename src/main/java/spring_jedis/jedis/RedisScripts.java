@@ -0,0 +1,89 @@
+package spring_jedis.jedis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 内置 Lua 脚本, 源码位于 classpath 的 scripts/ 目录, 每个复合操作一次往返且原子执行.
+ */
+public final class RedisScripts {
+
+    /**
+     * LPUSH + LTRIM, 返回列表长度.
+     */
+    public static final RedisScript<Long> CAPPED_LPUSH = RedisScript.fromClasspath("scripts/capped_lpush.lua", ScriptResults.longValue());
+
+    /**
+     * ZADD + 按排名裁剪, 只保留分数最高的 N 个成员, 返回集合大小.
+     */
+    public static final RedisScript<Long> CAPPED_ZADD = RedisScript.fromClasspath("scripts/capped_zadd.lua", ScriptResults.longValue());
+
+    /**
+     * 检查上限后 INCRBY, 超过上限返回 null.
+     */
+    public static final RedisScript<Long> INCRBY_CAPPED = RedisScript.fromClasspath("scripts/incrby_capped.lua", ScriptResults.longValue());
+
+    /**
+     * 滑动窗口日志限流, 返回 [1, 0] 表示允许, [0, 至少等待毫秒] 表示拒绝.
+     */
+    public static final RedisScript<List<Long>> SLIDING_WINDOW_RATE_LIMIT = RedisScript.fromClasspath("scripts/sliding_window_rate_limit.lua", ScriptResults.longList());
+
+    /**
+     * 滑动窗口计数限流, 返回值同上.
+     */
+    public static final RedisScript<List<Long>> SLIDING_WINDOW_COUNTER_RATE_LIMIT = RedisScript.fromClasspath("scripts/sliding_window_counter_rate_limit.lua", ScriptResults.longList());
+
+    /**
+     * 令牌桶限流, 返回值同上.
+     */
+    public static final RedisScript<List<Long>> TOKEN_BUCKET_RATE_LIMIT = RedisScript.fromClasspath("scripts/token_bucket_rate_limit.lua", ScriptResults.longList());
+
+    /**
+     * 排行榜中成员的排名、分数与前后邻居, 成员不存在返回 null.
+     */
+    public static final RedisScript<Leaderboard.Position> LEADERBOARD_AROUND = RedisScript.fromClasspath("scripts/leaderboard_around.lua", Leaderboard.Position::fromReply);
+
+    /**
+     * 一次追加多条 stream 消息, 可选 MAXLEN ~ 裁剪, 返回各条消息的 id.
+     */
+    public static final RedisScript<List<String>> STREAM_ADD = RedisScript.fromClasspath("scripts/stream_add.lua", ScriptResults.stringList());
+
+    /**
+     * 创建消费组(不存在时同时创建 stream), 已存在返回 false.
+     */
+    public static final RedisScript<Boolean> STREAM_GROUP_CREATE = RedisScript.fromClasspath("scripts/stream_group_create.lua", ScriptResults.bool());
+
+    /**
+     * 非阻塞的 XREADGROUP, 只读一个 stream.
+     */
+    public static final RedisScript<List<StreamEntry>> STREAM_READ_GROUP = RedisScript.fromClasspath("scripts/stream_read_group.lua", StreamEntry::fromReadReply);
+
+    /**
+     * 以 stream key 为第一个参数的其他 stream 命令(脚本中限定为 XLEN / XACK / XCLAIM / XAUTOCLAIM / XPENDING), 结果原样返回.
+     * 只用于当前 Jedis 版本缺少的 stream 命令, 不对外公开.
+     */
+    static final RedisScript<Object> STREAM_COMMAND = RedisScript.fromClasspath("scripts/stream_command.lua", ScriptResults.raw());
+
+    /**
+     * {@link QueueConsumer} 处理失败时的重新入队, 失败次数达到上限的消息移入死信列表, 返回移入死信列表的条数.
+     */
+    static final RedisScript<Long> QUEUE_REQUEUE = RedisScript.fromClasspath("scripts/queue_requeue.lua", ScriptResults.longValue());
+
+    private static final List<RedisScript<?>> ALL = Collections.unmodifiableList(Arrays.<RedisScript<?>>asList(
+            CAPPED_LPUSH, CAPPED_ZADD, INCRBY_CAPPED,
+            SLIDING_WINDOW_RATE_LIMIT, SLIDING_WINDOW_COUNTER_RATE_LIMIT, TOKEN_BUCKET_RATE_LIMIT,
+            LEADERBOARD_AROUND,
+            STREAM_ADD, STREAM_GROUP_CREATE, STREAM_READ_GROUP, STREAM_COMMAND,
+            QUEUE_REQUEUE));
+
+    private RedisScripts() {
+    }
+
+    /**
+     * 全部内置脚本, 用于启动时预加载.
+     */
+    public static List<RedisScript<?>> all() {
+        return ALL;
+    }
+}
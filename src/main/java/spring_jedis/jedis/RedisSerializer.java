@@ -0,0 +1,18 @@
+package spring_jedis.jedis;
+
+/**
+ * 值的二进制序列化 SPI, 配合 JedisTemplate 的 byte[] 重载使用, 避免 对象 -> String -> UTF-8 的两次拷贝.
+ * 实现必须线程安全. 常用实现见 {@link RedisSerializers}.
+ */
+public interface RedisSerializer<T> {
+
+    /**
+     * null 值由调用方处理, 不会传入.
+     */
+    byte[] serialize(T value);
+
+    /**
+     * bytes 为 null(key 不存在)时不会调用.
+     */
+    T deserialize(byte[] bytes);
+}
@@ -0,0 +1,247 @@
+package spring_jedis.jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * 内置的 {@link RedisSerializer} 实现.
+ */
+public final class RedisSerializers {
+
+    private static final RedisSerializer<String> STRING = new RedisSerializer<String>() {
+        @Override
+        public byte[] serialize(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final RedisSerializer<byte[]> BYTES = new RedisSerializer<byte[]>() {
+        @Override
+        public byte[] serialize(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] deserialize(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    private static final RedisSerializer<Long> VAR_LONG = new RedisSerializer<Long>() {
+        @Override
+        public byte[] serialize(Long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            byte[] buffer = new byte[varLongSize(zigzag)];
+            writeVarLong(buffer, 0, zigzag);
+            return buffer;
+        }
+
+        @Override
+        public Long deserialize(byte[] bytes) {
+            long zigzag = readVarLong(bytes, new int[1]);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    };
+
+    private static final RedisSerializer<List<String>> STRING_LIST = new RedisSerializer<List<String>>() {
+        @Override
+        public byte[] serialize(List<String> value) {
+            List<byte[]> encoded = new ArrayList<>(value.size());
+            int size = varLongSize(value.size());
+            for (String item : value) {
+                byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                size += varLongSize(bytes.length) + bytes.length;
+            }
+            byte[] buffer = new byte[size];
+            int offset = writeVarLong(buffer, 0, value.size());
+            for (byte[] bytes : encoded) {
+                offset = writeVarLong(buffer, offset, bytes.length);
+                System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+                offset += bytes.length;
+            }
+            return buffer;
+        }
+
+        @Override
+        public List<String> deserialize(byte[] bytes) {
+            int[] offset = new int[1];
+            int count = (int) readVarLong(bytes, offset);
+            List<String> value = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = (int) readVarLong(bytes, offset);
+                value.add(new String(bytes, offset[0], length, StandardCharsets.UTF_8));
+                offset[0] += length;
+            }
+            return value;
+        }
+    };
+
+    private RedisSerializers() {
+    }
+
+    /**
+     * UTF-8 字符串.
+     */
+    public static RedisSerializer<String> string() {
+        return STRING;
+    }
+
+    /**
+     * 原样透传.
+     */
+    public static RedisSerializer<byte[]> bytes() {
+        return BYTES;
+    }
+
+    /**
+     * zigzag + varint 编码的 long, 小数值只占 1~2 字节.
+     * 注意编码结果不是十进制文本, 不能再与 incr / incrBy 混用.
+     */
+    public static RedisSerializer<Long> varLong() {
+        return VAR_LONG;
+    }
+
+    /**
+     * varint 长度前缀的字符串列表: [count][len][bytes][len][bytes]...
+     */
+    public static RedisSerializer<List<String>> stringList() {
+        return STRING_LIST;
+    }
+
+    /**
+     * 超过 threshold 字节的值用 Deflate(java.util.zip, 最快级别)压缩, 首字节标记是否压缩, 小值只多 1 字节.
+     * 压缩后的格式为 [1][原始长度 varint][zlib 数据], 解压时按原始长度一次分配; 压缩后不比原值小时原样存储.
+     */
+    public static <T> RedisSerializer<T> compressed(final RedisSerializer<T> delegate, final int threshold) {
+        return new RedisSerializer<T>() {
+            @Override
+            public byte[] serialize(T value) {
+                byte[] raw = delegate.serialize(value);
+                if (raw.length < threshold) {
+                    return prependFlag((byte) 0, raw);
+                }
+                byte[] bytes = deflate(raw);
+                return bytes == null ? prependFlag((byte) 0, raw) : bytes;
+            }
+
+            @Override
+            public T deserialize(byte[] bytes) {
+                if (bytes.length == 0) {
+                    throw new JedisDataException("Empty compressed value");
+                }
+                if (bytes[0] == 0) {
+                    byte[] raw = new byte[bytes.length - 1];
+                    System.arraycopy(bytes, 1, raw, 0, raw.length);
+                    return delegate.deserialize(raw);
+                }
+                if (bytes[0] != 1) {
+                    throw new JedisDataException("Unknown compression flag " + bytes[0]);
+                }
+                return delegate.deserialize(inflate(bytes));
+            }
+        };
+    }
+
+    /**
+     * 输出缓冲区与原值等长, 写满仍未压缩完即认为不可压缩, 返回 null.
+     */
+    private static byte[] deflate(byte[] raw) {
+        byte[] buffer = new byte[1 + varLongSize(raw.length) + raw.length];
+        buffer[0] = 1;
+        int offset = writeVarLong(buffer, 1, raw.length);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            while (!deflater.finished() && offset < buffer.length) {
+                offset += deflater.deflate(buffer, offset, buffer.length - offset);
+            }
+            return deflater.finished() && offset < buffer.length ? Arrays.copyOf(buffer, offset) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        int[] offset = {1};
+        long length = readVarLong(bytes, offset);
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new JedisDataException("Malformed compressed value length " + length);
+        }
+        byte[] raw = new byte[(int) length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset[0], bytes.length - offset[0]);
+            int written = 0;
+            while (!inflater.finished()) {
+                int n = inflater.inflate(raw, written, raw.length - written);
+                written += n;
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary() || written == raw.length)) {
+                    throw new JedisDataException("Corrupt compressed value");
+                }
+            }
+            if (written != raw.length) {
+                throw new JedisDataException("Corrupt compressed value");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new JedisDataException("Corrupt compressed value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] prependFlag(byte flag, byte[] raw) {
+        byte[] bytes = new byte[raw.length + 1];
+        bytes[0] = flag;
+        System.arraycopy(raw, 0, bytes, 1, raw.length);
+        return bytes;
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int writeVarLong(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    static long readVarLong(byte[] buffer, int[] offset) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (offset[0] >= buffer.length || shift > 63) {
+                throw new JedisDataException("Malformed varint");
+            }
+            byte b = buffer[offset[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * 订阅管理: 一个 Redis 节点只占用一个独立的订阅连接(不占用连接池), 多个频道 / 模式的监听器复用该连接.
+ * <ul>
+ * <li>消息在订阅线程收到后按频道哈希分派到 dispatchThreads 个单线程派发队列, 同一频道的消息按到达顺序串行回调,
+ * 不同频道并行; 每个派发队列最多 queueCapacity 条, 满时阻塞订阅线程(背压), 积压过多时服务端会按
+ * client-output-buffer-limit pubsub 断开连接, 随后自动重连.</li>
+ * <li>断线后每秒重连一次, 重连后重新订阅所有频道与模式, 并回调监听器的 {@link Listener#onSubscribed()},
+ * 断线期间的消息已经丢失, 监听器应在此时做全量处理(如清空本地缓存).</li>
+ * <li>发布: {@link #publish(String, String)} 同步发送, {@link #publish(String, List)} 一次管道发送多条,
+ * {@link #publishAsync(String, String)} 放入队列由后台线程每批最多 {@value #PUBLISH_BATCH} 条管道发送.</li>
+ * <li>键空间通知: {@link #subscribeKeyspace(int, String, KeyspaceListener)} 把 __keyspace@db__ 频道的消息转换为 {@link KeyspaceEvent}.</li>
+ * </ul>
+ * 连接始终订阅一个本实例专用的控制频道, 以便在没有任何业务订阅时保持连接并随时追加订阅.
+ * 分片 / 读写分离时每个节点各建一个实例(PUBLISH 只会送达同一节点的订阅者).
+ */
+public class RedisSubscriptionManager implements Closeable {
+
+    static final int PUBLISH_BATCH = 256;
+    static final long RECONNECT_MILLIS = 1000;
+
+    /**
+     * 监听器在派发线程中回调, 同一频道的回调不会并发.
+     */
+    public interface Listener {
+        /**
+         * @param channel 消息所在的频道, 模式订阅时为实际匹配到的频道
+         */
+        void onMessage(String channel, String message);
+
+        /**
+         * 订阅生效(包括断线重连后重新生效)时回调, 此前的消息可能已丢失.
+         */
+        default void onSubscribed() {
+        }
+    }
+
+    public interface KeyspaceListener {
+        void onEvent(KeyspaceEvent event);
+
+        default void onSubscribed() {
+        }
+    }
+
+    /**
+     * 订阅句柄, close 后不再回调该监听器; 频道 / 模式上没有监听器时向服务端退订.
+     */
+    public final class Subscription implements Closeable {
+
+        private final String topic;
+        private final boolean pattern;
+        private final Listener listener;
+
+        Subscription(String topic, boolean pattern, Listener listener) {
+            this.topic = topic;
+            this.pattern = pattern;
+            this.listener = listener;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public boolean isPattern() {
+            return pattern;
+        }
+
+        @Override
+        public void close() {
+            remove(this);
+        }
+    }
+
+    private final JedisTemplate jedisTemplate;
+    private final String controlChannel = "__spring_jedis:subscriptions:" + UUID.randomUUID();
+    private final Map<String, List<Listener>> channels = new ConcurrentHashMap<>();
+    private final Map<String, List<Listener>> patterns = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor[] lanes;
+    private final BlockingQueue<String[]> publishQueue;
+    private final Thread subscriber;
+    private volatile Thread publisher;
+
+    /**
+     * 保护订阅连接的写入与 connected 状态: 订阅线程只读连接, 追加 / 退订由调用线程写入.
+     */
+    private final Object sendLock = new Object();
+    private volatile JedisPubSub pubSub;
+    private boolean connected;
+    private volatile boolean running = true;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder listenerErrors = new LongAdder();
+    private final LongAdder backpressure = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishDropped = new LongAdder();
+
+    /**
+     * @param subscriberFactory 创建订阅用的独立连接, 断线重连时再次调用
+     * @param dispatchThreads   派发线程数, 同一频道固定由其中一个线程回调
+     * @param queueCapacity     每个派发线程的积压上限, 同时也是 publishAsync 队列的容量
+     */
+    public RedisSubscriptionManager(JedisTemplate jedisTemplate, Supplier<Jedis> subscriberFactory, int dispatchThreads, int queueCapacity) {
+        this.jedisTemplate = jedisTemplate;
+        int capacity = Math.max(1, queueCapacity);
+        this.lanes = new ThreadPoolExecutor[Math.max(1, dispatchThreads)];
+        for (int i = 0; i < lanes.length; i++) {
+            final String name = "redis-pubsub-dispatch-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity), (r) -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            }, (r, executor) -> {
+                // 派发队列已满: 阻塞订阅线程, 由服务端缓冲后续消息
+                backpressure.increment();
+                if (!executor.isShutdown()) {
+                    try {
+                        executor.getQueue().put(r);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            lanes[i].prestartAllCoreThreads();
+        }
+        this.publishQueue = new LinkedBlockingQueue<>(capacity);
+        this.subscriber = new Thread(() -> runSubscriber(subscriberFactory), "redis-pubsub-subscriber");
+        this.subscriber.setDaemon(true);
+        this.subscriber.start();
+    }
+
+    public Subscription subscribe(String channel, Listener listener) {
+        return add(channels, channel, false, listener);
+    }
+
+    /**
+     * 模式订阅(PSUBSCRIBE), 如 "news.*".
+     */
+    public Subscription psubscribe(String pattern, Listener listener) {
+        return add(patterns, pattern, true, listener);
+    }
+
+    /**
+     * 订阅 database 中匹配 keyPattern 的 key 的键空间通知.
+     */
+    public Subscription subscribeKeyspace(final int database, String keyPattern, final KeyspaceListener listener) {
+        final String prefix = "__keyspace@" + database + "__:";
+        return psubscribe(prefix + keyPattern, new Listener() {
+            @Override
+            public void onMessage(String channel, String message) {
+                listener.onEvent(new KeyspaceEvent(database, channel.substring(prefix.length()), message));
+            }
+
+            @Override
+            public void onSubscribed() {
+                listener.onSubscribed();
+            }
+        });
+    }
+
+    /**
+     * 设置服务端的 notify-keyspace-events(CONFIG SET), 如 "Kg$xe"; 托管的 Redis 可能禁用 CONFIG, 此时抛出异常.
+     */
+    public void enableKeyspaceEvents(final String flags) {
+        jedisTemplate.execute((jedis) -> {
+            jedis.configSet("notify-keyspace-events", flags);
+        });
+    }
+
+    public Long publish(String channel, String message) {
+        Long receivers = jedisTemplate.publish(channel, message);
+        published.increment();
+        return receivers;
+    }
+
+    /**
+     * 一次管道发送多条消息, 消息顺序不变.
+     */
+    public void publish(String channel, List<String> messages) {
+        jedisTemplate.publishAll(channel, messages);
+        published.add(messages.size());
+    }
+
+    /**
+     * 放入发布队列后立即返回, 后台线程批量发送; 队列已满或发送失败时消息被丢弃(计入 {@link #getPublishDroppedCount()}).
+     */
+    public void publishAsync(String channel, String message) {
+        if (publisher == null) {
+            startPublisher();
+        }
+        if (!publishQueue.offer(new String[] {channel, message})) {
+            publishDropped.increment();
+        }
+    }
+
+    private synchronized void startPublisher() {
+        if (publisher == null && running) {
+            publisher = new Thread(this::runPublisher, "redis-pubsub-publisher");
+            publisher.setDaemon(true);
+            publisher.start();
+        }
+    }
+
+    private Subscription add(Map<String, List<Listener>> listeners, String topic, boolean pattern, Listener listener) {
+        Subscription subscription = new Subscription(topic, pattern, listener);
+        boolean alreadySubscribed = false;
+        synchronized (sendLock) {
+            List<Listener> list = listeners.computeIfAbsent(topic, (t) -> new CopyOnWriteArrayList<>());
+            boolean first = list.isEmpty();
+            list.add(listener);
+            if (connected) {
+                if (!first) {
+                    alreadySubscribed = true;
+                } else if (pattern) {
+                    pubSub.psubscribe(topic);
+                } else {
+                    pubSub.subscribe(topic);
+                }
+            }
+        }
+        if (alreadySubscribed) {
+            // 频道已经订阅, 新监听器立即生效; 派发队列满时会阻塞, 在锁外派发, 避免卡住其他订阅 / 退订与监听器中的再订阅
+            dispatchSubscribed(topic, listener);
+        }
+        return subscription;
+    }
+
+    private void remove(Subscription subscription) {
+        Map<String, List<Listener>> listeners = subscription.pattern ? patterns : channels;
+        synchronized (sendLock) {
+            List<Listener> list = listeners.get(subscription.topic);
+            if (list == null || !list.remove(subscription.listener) || !list.isEmpty()) {
+                return;
+            }
+            listeners.remove(subscription.topic);
+            if (connected) {
+                if (subscription.pattern) {
+                    pubSub.punsubscribe(subscription.topic);
+                } else {
+                    pubSub.unsubscribe(subscription.topic);
+                }
+            }
+        }
+    }
+
+    private void runSubscriber(Supplier<Jedis> subscriberFactory) {
+        boolean reconnect = false;
+        while (running) {
+            Jedis jedis = null;
+            try {
+                if (reconnect) {
+                    reconnects.increment();
+                }
+                reconnect = true;
+                jedis = subscriberFactory.get();
+                JedisPubSub vPubSub = new JedisPubSub() {
+                    @Override
+                    public void onMessage(String channel, String message) {
+                        received.increment();
+                        dispatch(channel, channels.get(channel), message);
+                    }
+
+                    @Override
+                    public void onPMessage(String pattern, String channel, String message) {
+                        received.increment();
+                        dispatch(channel, patterns.get(pattern), message);
+                    }
+
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        if (controlChannel.equals(channel)) {
+                            onConnected(this);
+                        } else {
+                            dispatchSubscribed(channel, channels.get(channel));
+                        }
+                    }
+
+                    @Override
+                    public void onPSubscribe(String pattern, int subscribedChannels) {
+                        dispatchSubscribed(pattern, patterns.get(pattern));
+                    }
+                };
+                pubSub = vPubSub;
+                jedis.subscribe(vPubSub, controlChannel);
+            } catch (RuntimeException e) {
+                //logger.error("redis subscriber error :{}", e.getMessage());
+            } finally {
+                synchronized (sendLock) {
+                    connected = false;
+                }
+                if (jedis != null) {
+                    JedisUtils.destroyJedis(jedis);
+                }
+            }
+            if (running) {
+                sleepQuietly(RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * 控制频道订阅成功即连接就绪: 一次性重新订阅所有频道与模式.
+     */
+    private void onConnected(JedisPubSub vPubSub) {
+        synchronized (sendLock) {
+            connected = true;
+            if (!channels.isEmpty()) {
+                vPubSub.subscribe(channels.keySet().toArray(new String[0]));
+            }
+            if (!patterns.isEmpty()) {
+                vPubSub.psubscribe(patterns.keySet().toArray(new String[0]));
+            }
+        }
+    }
+
+    private void dispatch(final String channel, final List<Listener> listeners, final String message) {
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        laneFor(channel).execute(() -> {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onMessage(channel, message);
+                } catch (RuntimeException e) {
+                    //logger.error("redis subscription listener error :{}", e.getMessage());
+                    listenerErrors.increment();
+                }
+            }
+        });
+    }
+
+    private void dispatchSubscribed(final String topic, final List<Listener> listeners) {
+        if (listeners == null) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            dispatchSubscribed(topic, listener);
+        }
+    }
+
+    private void dispatchSubscribed(String topic, final Listener listener) {
+        laneFor(topic).execute(() -> {
+            try {
+                listener.onSubscribed();
+            } catch (RuntimeException e) {
+                //logger.error("redis subscription listener error :{}", e.getMessage());
+                listenerErrors.increment();
+            }
+        });
+    }
+
+    private ThreadPoolExecutor laneFor(String channel) {
+        return lanes[(channel.hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    private void runPublisher() {
+        List<String[]> batch = new ArrayList<>(PUBLISH_BATCH);
+        while (running) {
+            try {
+                String[] first = publishQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                publishQueue.drainTo(batch, PUBLISH_BATCH - 1);
+                jedisTemplate.executePipeline((pipeline) -> {
+                    for (String[] entry : batch) {
+                        pipeline.publish(entry[0], entry[1]);
+                    }
+                });
+                published.add(batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                //logger.error("redis publish error :{}", e.getMessage());
+                publishDropped.add(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isConnected() {
+        synchronized (sendLock) {
+            return connected;
+        }
+    }
+
+    /**
+     * 当前订阅的频道数与模式数(不含控制频道).
+     */
+    public int getSubscriptionCount() {
+        return channels.size() + patterns.size();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    /**
+     * 监听器回调抛出异常的次数.
+     */
+    public long getListenerErrorCount() {
+        return listenerErrors.sum();
+    }
+
+    /**
+     * 派发队列已满、订阅线程被阻塞的次数.
+     */
+    public long getBackpressureCount() {
+        return backpressure.sum();
+    }
+
+    public long getReconnectCount() {
+        return reconnects.sum();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getPublishDroppedCount() {
+        return publishDropped.sum();
+    }
+
+    /**
+     * 派发队列中尚未回调的消息数.
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            pending += lane.getQueue().size();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        synchronized (sendLock) {
+            JedisPubSub vPubSub = pubSub;
+            if (connected && vPubSub != null && vPubSub.isSubscribed()) {
+                vPubSub.punsubscribe();
+                vPubSub.unsubscribe();
+            }
+            connected = false;
+        }
+        subscriber.interrupt();
+        synchronized (this) {
+            if (publisher != null) {
+                publisher.interrupt();
+            }
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redis.clients.jedis.JedisPool;
+
+/**
+ * 读写分离: 为 {@link JedisTemplate} 的只读方法选择从节点, 写操作始终走主节点.
+ * 选择采用 "两次随机选优"(power of two choices): 随机取两个可用从节点, 按策略打分取较优者, 避免所有线程同时涌向同一节点.
+ * 开启 read-your-writes 窗口后, 线程在写操作之后的窗口期内读操作仍走主节点, 以读到自己刚写入的数据.
+ * 从节点连接失败后暂停使用一段时间, 期间读操作由其他从节点或主节点承担.
+ */
+public class ReplicaRouter implements Closeable {
+
+    public enum Strategy {
+        /**
+         * 在途请求数最少.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * 往返耗时的指数移动平均 × (在途请求数 + 1) 最小.
+         */
+        LATENCY_WEIGHTED
+    }
+
+    private static final long DOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final long readYourWritesNanos;
+    private final ThreadLocal<long[]> lastWrite;
+
+    public ReplicaRouter(List<JedisPool> replicaPools, Strategy strategy, long readYourWritesMillis) {
+        List<Replica> list = new ArrayList<>(replicaPools.size());
+        for (JedisPool pool : replicaPools) {
+            list.add(new Replica(pool));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.strategy = strategy;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, readYourWritesMillis));
+        final long initial = readYourWritesNanos;
+        this.lastWrite = ThreadLocal.withInitial(() -> new long[] {System.nanoTime() - initial});
+    }
+
+    /**
+     * 当前线程发生了写操作.
+     */
+    void recordWrite() {
+        if (readYourWritesNanos > 0) {
+            lastWrite.get()[0] = System.nanoTime();
+        }
+    }
+
+    /**
+     * 当前线程处于 read-your-writes 窗口内, 读操作应走主节点.
+     */
+    boolean isPinnedToPrimary() {
+        return readYourWritesNanos > 0 && System.nanoTime() - lastWrite.get()[0] < readYourWritesNanos;
+    }
+
+    /**
+     * 选择一个可用的从节点, 全部不可用时返回 null.
+     */
+    Replica select() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (size == 1) {
+            Replica only = replicas.get(0);
+            return only.isUp(now) ? only : null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica a = replicas.get(first);
+        Replica b = replicas.get(second);
+        boolean aUp = a.isUp(now);
+        boolean bUp = b.isUp(now);
+        if (aUp && bUp) {
+            return score(a) <= score(b) ? a : b;
+        }
+        if (aUp || bUp) {
+            return aUp ? a : b;
+        }
+        for (Replica replica : replicas) {
+            if (replica.isUp(now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private double score(Replica replica) {
+        int outstanding = replica.outstanding.get();
+        if (strategy == Strategy.LEAST_OUTSTANDING) {
+            return outstanding;
+        }
+        return replica.ewmaNanos * (outstanding + 1);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 关闭所有从节点连接池.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    /**
+     * 一个从节点及其负载状态.
+     */
+    public static final class Replica {
+        private static final double EWMA_WEIGHT = 0.2;
+
+        private final JedisPool pool;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private volatile long downUntil;
+
+        Replica(JedisPool pool) {
+            this.pool = pool;
+            this.downUntil = System.nanoTime();
+        }
+
+        JedisPool getPool() {
+            return pool;
+        }
+
+        void begin() {
+            outstanding.incrementAndGet();
+        }
+
+        /**
+         * 请求结束, 更新耗时的移动平均. 并发更新可能丢失个别样本, 对平均值影响可以忽略.
+         */
+        void end(long rttNanos) {
+            outstanding.decrementAndGet();
+            double current = ewmaNanos;
+            ewmaNanos = current == 0 ? rttNanos : current + EWMA_WEIGHT * (rttNanos - current);
+        }
+
+        void markDown() {
+            downUntil = System.nanoTime() + DOWN_NANOS;
+        }
+
+        boolean isUp(long now) {
+            return now - downUntil >= 0;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public double getEwmaMillis() {
+            return ewmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return "Replica[outstanding=" + getOutstanding() + ", ewmaMillis=" + getEwmaMillis() + "]";
+        }
+    }
+}
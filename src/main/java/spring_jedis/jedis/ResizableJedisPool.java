@@ -0,0 +1,63 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * 可在运行期调整容量的 JedisPool, 供 {@link JedisPoolSizer} 扩缩连接池使用.
+ * 池中的连接为 {@link InstrumentedJedis}, 供 {@link CommandMetrics} 按命令统计.
+ */
+public class ResizableJedisPool extends JedisPool {
+
+    public ResizableJedisPool(GenericObjectPoolConfig poolConfig, String host, int port, int timeout,
+                              String password, int database) {
+        super(poolConfig, host, port, timeout, password, database);
+        initPool(poolConfig, new InstrumentedJedisFactory(host, port, timeout, password, database));
+    }
+
+    public int getMaxTotal() {
+        return internalPool.getMaxTotal();
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        internalPool.setMaxTotal(maxTotal);
+    }
+
+    public int getMaxIdle() {
+        return internalPool.getMaxIdle();
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        internalPool.setMaxIdle(maxIdle);
+    }
+
+    public int getMinIdle() {
+        return internalPool.getMinIdle();
+    }
+
+    /**
+     * 预热: 启动时先建立 count 个连接放回池中, 避免冷启动时第一批请求承担建连耗时.
+     * 与 {@link #addObjects(int)} 不同, 失败时不会关闭连接池, 只返回实际建立的连接数.
+     */
+    public int prewarm(int count) {
+        List<Jedis> borrowed = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                borrowed.add(getResource());
+            }
+        } catch (JedisException e) {
+            //logger.error("prewarm jedis pool error :{}", e.getMessage());
+        } finally {
+            for (Jedis jedis : borrowed) {
+                JedisUtils.closeResource(jedis);
+            }
+        }
+        return borrowed.size();
+    }
+}
@@ -0,0 +1,141 @@
+package spring_jedis.jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.redis.ArrayRedisMessage;
+import io.netty.handler.codec.redis.ErrorRedisMessage;
+import io.netty.handler.codec.redis.FullBulkStringRedisMessage;
+import io.netty.handler.codec.redis.IntegerRedisMessage;
+import io.netty.handler.codec.redis.RedisMessage;
+import io.netty.handler.codec.redis.SimpleStringRedisMessage;
+import io.netty.util.ReferenceCountUtil;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * RESP 客户端处理器: 出站时把命令编码为 RESP 数组并登记回调, 入站时按 FIFO 顺序完成回调.
+ * Redis 对同一连接上的请求严格按序应答, 因此一个队列即可实现多条命令在同一通道上的管道复用.
+ * 所有方法都在通道所属的 EventLoop 线程上执行, 队列无需加锁.
+ */
+class RespClientHandler extends ChannelDuplexHandler {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Queue<CompletableFuture<Object>> inflight = new ArrayDeque<>();
+
+    /**
+     * 待发送的命令.
+     */
+    static final class Command {
+        final String[] args;
+        final CompletableFuture<Object> future;
+
+        Command(String[] args, CompletableFuture<Object> future) {
+            this.args = args;
+            this.future = future;
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (!(msg instanceof Command)) {
+            ctx.write(msg, promise);
+            return;
+        }
+        Command command = (Command) msg;
+        ByteBuf buf = ctx.alloc().ioBuffer(estimateSize(command.args));
+        buf.writeByte('*').writeBytes(Integer.toString(command.args.length).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+        for (String arg : command.args) {
+            byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+            buf.writeByte('$').writeBytes(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+            buf.writeBytes(bytes).writeBytes(CRLF);
+        }
+        inflight.add(command.future);
+        ctx.write(buf, promise);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        try {
+            CompletableFuture<Object> future = inflight.poll();
+            if (future == null) {
+                return;
+            }
+            Object reply = convert((RedisMessage) msg);
+            if (reply instanceof JedisDataException) {
+                future.completeExceptionally((JedisDataException) reply);
+            } else {
+                future.complete(reply);
+            }
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failAll(new JedisConnectionException("Redis connection closed"));
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        failAll(new JedisConnectionException(cause));
+        ctx.close();
+    }
+
+    private void failAll(Throwable cause) {
+        CompletableFuture<Object> future;
+        while ((future = inflight.poll()) != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private static int estimateSize(String[] args) {
+        int size = 16;
+        for (String arg : args) {
+            size += arg.length() + 16;
+        }
+        return size;
+    }
+
+    /**
+     * RedisMessage 转换为 Java 对象: String / Long / List&lt;Object&gt; / null, 错误应答转换为 JedisDataException.
+     */
+    private static Object convert(RedisMessage msg) {
+        if (msg instanceof FullBulkStringRedisMessage) {
+            FullBulkStringRedisMessage bulk = (FullBulkStringRedisMessage) msg;
+            return bulk.isNull() ? null : bulk.content().toString(StandardCharsets.UTF_8);
+        }
+        if (msg instanceof SimpleStringRedisMessage) {
+            return ((SimpleStringRedisMessage) msg).content();
+        }
+        if (msg instanceof IntegerRedisMessage) {
+            return ((IntegerRedisMessage) msg).value();
+        }
+        if (msg instanceof ErrorRedisMessage) {
+            return new JedisDataException(((ErrorRedisMessage) msg).content());
+        }
+        if (msg instanceof ArrayRedisMessage) {
+            ArrayRedisMessage array = (ArrayRedisMessage) msg;
+            if (array.isNull()) {
+                return null;
+            }
+            List<Object> values = new ArrayList<>(array.children().size());
+            for (RedisMessage child : array.children()) {
+                values.add(convert(child));
+            }
+            return values;
+        }
+        return new JedisDataException("Unknown reply: " + msg);
+    }
+}
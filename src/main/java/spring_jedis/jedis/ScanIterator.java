@@ -0,0 +1,96 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * 按游标分页的惰性迭代器.
+ * 每页单独借还一次连接, 调用方消费当前页时后台已在拉取下一页, 内存中最多同时存在两页;
+ * executor 饱和时若改由调用线程执行(CallerRunsPolicy), 下一页在调用线程同步拉取.
+ * 与 SCAN 系列命令语义一致: 迭代期间被修改的元素可能被重复返回或遗漏.
+ */
+public class ScanIterator<T> implements Iterator<T>, Closeable {
+
+    private final Function<String, ScanResult<T>> pageFetcher;
+    private final Executor executor;
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<ScanResult<T>> nextPage;
+
+    public ScanIterator(Function<String, ScanResult<T>> pageFetcher, Executor executor) {
+        this.pageFetcher = pageFetcher;
+        this.executor = executor;
+        this.nextPage = fetch(ScanParams.SCAN_POINTER_START);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+            ScanResult<T> page = await(nextPage);
+            String cursor = page.getStringCursor();
+            nextPage = ScanParams.SCAN_POINTER_START.equals(cursor) ? null : fetch(cursor);
+            current = page.getResult().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 停止预取, 已发出的预取请求完成后结果被丢弃.
+     */
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+        current = Collections.emptyIterator();
+    }
+
+    /**
+     * 包装为顺序 Stream, 关闭 Stream 时停止预取.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    private CompletableFuture<ScanResult<T>> fetch(String cursor) {
+        return CompletableFuture.supplyAsync(() -> pageFetcher.apply(cursor), executor);
+    }
+
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JedisException) {
+                throw (JedisException) cause;
+            }
+            throw new JedisException(cause);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package spring_jedis.jedis;
+
+import java.util.List;
+
+import redis.clients.util.SafeEncoder;
+
+/**
+ * 有序集合中按排名连续的一段成员与分数, 用数组保存, 不创建 Tuple 与 Set.
+ * 不可变; {@link #slice(int, int)} 与原对象共用数组, 不复制.
+ */
+public final class ScoredMembers {
+
+    private static final ScoredMembers EMPTY = new ScoredMembers(0, new String[0], new double[0], 0, 0);
+
+    private final long startRank;
+    private final String[] members;
+    private final double[] scores;
+    private final int offset;
+    private final int size;
+
+    private ScoredMembers(long startRank, String[] members, double[] scores, int offset, int size) {
+        this.startRank = startRank;
+        this.members = members;
+        this.scores = scores;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static ScoredMembers empty(long startRank) {
+        return startRank == 0 ? EMPTY : new ScoredMembers(startRank, EMPTY.members, EMPTY.scores, 0, 0);
+    }
+
+    /**
+     * 解析 WITHSCORES 应答: 成员与分数交替出现, 元素为 byte[] 或 String.
+     *
+     * @param from 应答中第一个成员的下标
+     */
+    static ScoredMembers fromReply(long startRank, List<?> reply, int from) {
+        int count = (reply.size() - from) / 2;
+        if (count <= 0) {
+            return empty(startRank);
+        }
+        String[] vMembers = new String[count];
+        double[] vScores = new double[count];
+        for (int i = 0; i < count; i++) {
+            vMembers[i] = decode(reply.get(from + 2 * i));
+            vScores[i] = parseScore(decode(reply.get(from + 2 * i + 1)));
+        }
+        return new ScoredMembers(startRank, vMembers, vScores, 0, count);
+    }
+
+    static String decode(Object item) {
+        return item instanceof byte[] ? SafeEncoder.encode((byte[]) item) : (String) item;
+    }
+
+    static double parseScore(String score) {
+        if ("inf".equals(score) || "+inf".equals(score)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("-inf".equals(score)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.parseDouble(score);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 第一个成员的排名(从 0 开始).
+     */
+    public long getStartRank() {
+        return startRank;
+    }
+
+    public long getRank(int index) {
+        return startRank + checkIndex(index);
+    }
+
+    public String getMember(int index) {
+        return members[offset + checkIndex(index)];
+    }
+
+    public double getScore(int index) {
+        return scores[offset + checkIndex(index)];
+    }
+
+    /**
+     * 成员在本段中的下标, 不存在返回 -1.
+     */
+    public int indexOf(String member) {
+        for (int i = 0; i < size; i++) {
+            if (members[offset + i].equals(member)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 下标 [from, to) 的子段, 超出范围的部分被截去.
+     */
+    public ScoredMembers slice(int from, int to) {
+        int vFrom = Math.max(0, Math.min(from, size));
+        int vTo = Math.max(vFrom, Math.min(to, size));
+        return new ScoredMembers(startRank + vFrom, members, scores, offset + vFrom, vTo - vFrom);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(startRank + i).append(':').append(members[offset + i]).append('=').append(scores[offset + i]);
+        }
+        return builder.append(']').toString();
+    }
+}
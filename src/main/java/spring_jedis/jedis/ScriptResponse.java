@@ -0,0 +1,44 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import redis.clients.jedis.Response;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * Pipeline 中脚本的执行结果, Pipeline sync 之后调用 {@link #get()} 取得映射后的结果.
+ * Pipeline 中的脚本总是以 EVAL 发送, 不会出现 NOSCRIPT; 只写不读结果时可以不调用 {@link #get()}.
+ */
+public final class ScriptResponse<T> {
+
+    private final RedisScript<T> script;
+    private final Response<Object> response;
+
+    ScriptResponse(RedisScript<T> script, Response<Object> response) {
+        this.script = script;
+        this.response = response;
+    }
+
+    public T get() {
+        return script.map(decode(response.get()));
+    }
+
+    /**
+     * 与 Jedis.eval 相同的解码: byte[] 转为 String, 数组逐个解码.
+     */
+    static Object decode(Object raw) {
+        if (raw instanceof byte[]) {
+            return SafeEncoder.encode((byte[]) raw);
+        }
+        if (raw instanceof List) {
+            List<?> items = (List<?>) raw;
+            List<Object> values = new ArrayList<>(items.size());
+            for (Object item : items) {
+                values.add(decode(item));
+            }
+            return values;
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,73 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 内置的 Lua 脚本结果映射.
+ */
+public final class ScriptResults {
+
+    private ScriptResults() {
+    }
+
+    /**
+     * 原样返回.
+     */
+    public static Function<Object, Object> raw() {
+        return (result) -> result;
+    }
+
+    /**
+     * 整数结果, nil 为 null.
+     */
+    public static Function<Object, Long> longValue() {
+        return (result) -> (Long) result;
+    }
+
+    /**
+     * 整数 1 为 true, 其他(包括 nil)为 false.
+     */
+    public static Function<Object, Boolean> bool() {
+        return (result) -> Long.valueOf(1L).equals(result);
+    }
+
+    public static Function<Object, String> string() {
+        return (result) -> result == null ? null : result.toString();
+    }
+
+    /**
+     * 数组结果, 每个元素转为字符串(nil 元素为 null).
+     */
+    public static Function<Object, List<String>> stringList() {
+        return (result) -> {
+            if (result == null) {
+                return null;
+            }
+            List<?> items = (List<?>) result;
+            List<String> values = new ArrayList<>(items.size());
+            for (Object item : items) {
+                values.add(item == null ? null : item.toString());
+            }
+            return values;
+        };
+    }
+
+    /**
+     * 数组结果, 每个元素为整数.
+     */
+    public static Function<Object, List<Long>> longList() {
+        return (result) -> {
+            if (result == null) {
+                return null;
+            }
+            List<?> items = (List<?>) result;
+            List<Long> values = new ArrayList<>(items.size());
+            for (Object item : items) {
+                values.add((Long) item);
+            }
+            return values;
+        };
+    }
+}
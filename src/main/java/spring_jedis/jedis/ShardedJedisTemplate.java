@@ -0,0 +1,294 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.JedisClusterCRC16;
+
+/**
+ * 客户端分片: 按 Redis Cluster 的哈希槽算法(CRC16(key) mod 16384, 支持 {hashtag})把 key 路由到各分片的 {@link JedisTemplate}.
+ * 16384 个槽按分片顺序平均分成连续区间, 同一 {hashtag} 的 key 必然落在同一分片.
+ * 单 key 命令通过 {@link #forKey(String)} 取得所属分片后调用; mget / mset / del 按分片拆分并行执行;
+ * 其他多 key 命令要求所有 key 位于同一分片, 否则抛出 CROSSSLOT 错误.
+ * 分片数变化会改变槽的归属, 已有数据需要自行迁移.
+ */
+public class ShardedJedisTemplate implements Closeable {
+
+    public static final int SLOT_COUNT = 16384;
+
+    private static final int PARALLELISM_PER_SHARD = 4;
+
+    private final List<JedisTemplate> shards;
+    private final JedisTemplate[] slotOwners = new JedisTemplate[SLOT_COUNT];
+    private final ExecutorService executor;
+
+    public ShardedJedisTemplate(List<JedisTemplate> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            slotOwners[slot] = this.shards.get((int) ((long) slot * this.shards.size() / SLOT_COUNT));
+        }
+        // 最多每个分片 PARALLELISM_PER_SHARD 个线程, 线程都忙时由调用线程自己执行该分片的子请求
+        this.executor = new ThreadPoolExecutor(0, this.shards.size() * PARALLELISM_PER_SHARD, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), (r) -> {
+                    Thread thread = new Thread(r, "jedis-shard");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * key 所在的哈希槽.
+     */
+    public static int slotOf(String key) {
+        return JedisClusterCRC16.getSlot(key);
+    }
+
+    /**
+     * key 所属分片, 单 key 命令都通过它执行.
+     */
+    public JedisTemplate forKey(String key) {
+        return slotOwners[slotOf(key)];
+    }
+
+    /**
+     * 所有 key 必须属于同一分片, 否则抛出 CROSSSLOT 错误.
+     */
+    public JedisTemplate forKeys(String... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key is required");
+        }
+        JedisTemplate owner = forKey(keys[0]);
+        for (int i = 1; i < keys.length; i++) {
+            if (forKey(keys[i]) != owner) {
+                throw new JedisDataException("CROSSSLOT Keys in request don't hash to the same shard, use {hashtag} to co-locate them: "
+                        + Arrays.toString(keys));
+            }
+        }
+        return owner;
+    }
+
+    public List<JedisTemplate> getShards() {
+        return shards;
+    }
+
+    // Common Actions S
+
+    /**
+     * 按分片拆分后并行删除, 与 {@link JedisTemplate#del(String...)} 相同, 所有 key 都被删除时返回 true.
+     */
+    public Boolean del(final String... keys) {
+        List<Long> counts = fanOut(Arrays.asList(keys), (shardKeys) -> (shard) -> shard.delAll(shardKeys));
+        long total = 0;
+        for (Long count : counts) {
+            total += count == null ? 0 : count;
+        }
+        return total == keys.length;
+    }
+
+    /**
+     * 所有分片的 key 总数.
+     */
+    public Long dbSize() {
+        long total = 0;
+        for (Long size : onAllShards(JedisTemplate::dbSize)) {
+            total += size;
+        }
+        return total;
+    }
+
+    public void flushDB() {
+        onAllShards((shard) -> {
+            shard.flushDB();
+            return null;
+        });
+    }
+
+    // Common Actions E
+
+    //================================String Action S ============================================
+
+    public String get(final String key) {
+        return forKey(key).get(key);
+    }
+
+    public void set(final String key, final String value) {
+        forKey(key).set(key, value);
+    }
+
+    /**
+     * 按分片拆分后并行 MGET, 结果顺序与 keys 一致.
+     */
+    public List<String> mget(final String... keys) {
+        if (keys.length == 0) {
+            return new ArrayList<>();
+        }
+        JedisTemplate single = singleOwner(keys);
+        if (single != null) {
+            return single.mget(keys);
+        }
+        Map<JedisTemplate, List<Integer>> indexesByShard = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            indexesByShard.computeIfAbsent(forKey(keys[i]), (shard) -> new ArrayList<>()).add(i);
+        }
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(indexesByShard.size());
+        for (Map.Entry<JedisTemplate, List<Integer>> entry : indexesByShard.entrySet()) {
+            final JedisTemplate shard = entry.getKey();
+            final String[] shardKeys = new String[entry.getValue().size()];
+            for (int i = 0; i < shardKeys.length; i++) {
+                shardKeys[i] = keys[entry.getValue().get(i)];
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> shard.mget(shardKeys), executor));
+        }
+        String[] values = new String[keys.length];
+        int part = 0;
+        for (List<Integer> indexes : indexesByShard.values()) {
+            List<String> shardValues = await(futures.get(part++));
+            for (int i = 0; i < indexes.size(); i++) {
+                values[indexes.get(i)] = shardValues.get(i);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(values));
+    }
+
+    /**
+     * 按分片拆分后并行 MSET. 不同分片之间不是原子的.
+     */
+    public void mset(final Map<String, String> keyValues) {
+        Map<JedisTemplate, Map<String, String>> byShard = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : keyValues.entrySet()) {
+            byShard.computeIfAbsent(forKey(entry.getKey()), (shard) -> new HashMap<>()).put(entry.getKey(), entry.getValue());
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(byShard.size());
+        for (Map.Entry<JedisTemplate, Map<String, String>> entry : byShard.entrySet()) {
+            final JedisTemplate shard = entry.getKey();
+            final Map<String, String> shardValues = entry.getValue();
+            futures.add(CompletableFuture.runAsync(() -> shard.mset(shardValues), executor));
+        }
+        for (CompletableFuture<Void> future : futures) {
+            await(future);
+        }
+    }
+
+    //================================String Action E ============================================
+
+    //================================List Actions S ============================================
+
+    /**
+     * 两个 key 需位于同一分片, 例如 "{queue}:pending" 与 "{queue}:processing".
+     */
+    public String rpoplpush(final String sourceKey, final String destinationKey) {
+        return forKeys(sourceKey, destinationKey).rpoplpush(sourceKey, destinationKey);
+    }
+
+    /**
+     * 两个 key 需位于同一分片.
+     */
+    public String brpoplpush(final String source, final String destination, final int timeout) {
+        return forKeys(source, destination).brpoplpush(source, destination, timeout);
+    }
+
+    //================================List Actions E ============================================
+
+    //================================Set Actions S ============================================
+
+    /**
+     * 两个 key 需位于同一分片.
+     */
+    public Set<String> sdiff(final String key1, final String key2) {
+        return forKeys(key1, key2).sdiff(key1, key2);
+    }
+
+    //================================Set Actions E ============================================
+
+    /**
+     * 在每个分片上执行同一操作, 结果按分片顺序返回.
+     */
+    public <R> List<R> onAllShards(final Function<JedisTemplate, R> action) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (JedisTemplate shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> action.apply(shard), executor));
+        }
+        List<R> results = new ArrayList<>(shards.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * 关闭分片执行线程与各分片的连接池.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        for (JedisTemplate shard : shards) {
+            shard.getJedisPool().close();
+        }
+    }
+
+    /**
+     * 把 keys 按分片分组, 每组在所属分片上并行执行, 结果顺序与分片分组顺序一致.
+     */
+    private <R> List<R> fanOut(final List<String> keys, final Function<List<String>, Function<JedisTemplate, R>> action) {
+        Map<JedisTemplate, List<String>> byShard = new LinkedHashMap<>();
+        for (String key : keys) {
+            byShard.computeIfAbsent(forKey(key), (shard) -> new ArrayList<>()).add(key);
+        }
+        if (byShard.size() == 1) {
+            Map.Entry<JedisTemplate, List<String>> only = byShard.entrySet().iterator().next();
+            return Collections.singletonList(action.apply(only.getValue()).apply(only.getKey()));
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(byShard.size());
+        for (Map.Entry<JedisTemplate, List<String>> entry : byShard.entrySet()) {
+            final JedisTemplate shard = entry.getKey();
+            final Function<JedisTemplate, R> shardAction = action.apply(entry.getValue());
+            futures.add(CompletableFuture.supplyAsync(() -> shardAction.apply(shard), executor));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private JedisTemplate singleOwner(String... keys) {
+        JedisTemplate owner = forKey(keys[0]);
+        for (int i = 1; i < keys.length; i++) {
+            if (forKey(keys[i]) != owner) {
+                return null;
+            }
+        }
+        return owner;
+    }
+
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JedisException) {
+                throw (JedisException) cause;
+            }
+            throw new JedisException(cause);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package spring_jedis.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Stream 消费组消费者, 取代 {@link QueueConsumer} 的 LPUSH + BRPOPLPUSH 队列: 消息有 ack, 可重放, 处理失败不需要搬回队列.
+ * <ul>
+ * <li>一个拉取线程用 XREADGROUP 每次取最多 batchSize 条, 同一 stream 中的消息由 handlerThreads 个处理线程并行处理(不保证顺序).</li>
+ * <li>处理成功的 id 先攒起来, 与下一次 XREADGROUP 在同一个 Pipeline 中以一条 XACK 发送, ack 不额外占用往返.</li>
+ * <li>处理失败的消息不 ack, 留在消费组的待确认列表(PEL)中; 拉取线程每 claimIdleMillis / 2 用 XAUTOCLAIM
+ * 认领空闲超过 claimIdleMillis 的消息(包括已崩溃的其他消费者的)重新处理. claimIdleMillis 应大于单条消息的最长处理时间,
+ * 否则仍在处理的消息会被重复投递.</li>
+ * <li>启动时先重新读取本消费者(同名)上次未 ack 的消息.</li>
+ * <li>在途消息数(已读取未处理完)不超过 maxInFlight.</li>
+ * </ul>
+ * 当前 Jedis 版本不支持阻塞的 XREADGROUP, 没有消息时拉取线程从 1 毫秒开始加倍退避, 最长等待 pollMillis 再读,
+ * 空闲时每秒约 1000 / pollMillis 次请求; 有消息时连续读取.
+ * 使用 {@link JedisTemplate} 的连接池, 所有命令都不阻塞, 不需要独立连接池. 需要 Redis 6.2+(XAUTOCLAIM).
+ */
+public class StreamConsumer implements Closeable {
+
+    static final int MAX_ACKS_PER_COMMAND = 1000;
+
+    /**
+     * 单条消息的处理逻辑, 抛出异常表示处理失败, 消息不 ack, 空闲超过 claimIdleMillis 后重新投递.
+     */
+    public interface Handler {
+        void handle(StreamEntry entry) throws Exception;
+    }
+
+    private final JedisTemplate jedisTemplate;
+    private final String streamKey;
+    private final String group;
+    private final String consumer;
+    private final Handler handler;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long claimIdleMillis;
+    private final Semaphore inFlight;
+    private final Queue<String> acks = new ConcurrentLinkedQueue<>();
+    private final Thread fetcher;
+    private final ExecutorService handlers;
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final AtomicInteger fetchErrors = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private String claimCursor = "0-0";
+    private long nextClaim;
+    private volatile boolean running;
+
+    /**
+     * @param group           消费组, 不存在时从 stream 开头创建
+     * @param consumer        消费者名称, 同一消费组内唯一; 重启后使用相同名称可以接着处理上次未 ack 的消息
+     * @param handlerThreads  处理线程数
+     * @param batchSize       每次 XREADGROUP 最多读取的消息数
+     * @param maxInFlight     已读取未处理完的消息数上限
+     * @param pollMillis      没有消息时两次读取的最长间隔
+     * @param claimIdleMillis 待确认消息空闲超过该时间后被重新认领, 0 表示不认领
+     */
+    public StreamConsumer(JedisTemplate jedisTemplate, String streamKey, String group, String consumer, Handler handler,
+                          int handlerThreads, int batchSize, int maxInFlight, long pollMillis, long claimIdleMillis) {
+        this.jedisTemplate = jedisTemplate;
+        this.streamKey = streamKey;
+        this.group = group;
+        this.consumer = consumer;
+        this.handler = handler;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = Math.max(1, pollMillis);
+        this.claimIdleMillis = Math.max(0, claimIdleMillis);
+        this.inFlight = new Semaphore(Math.max(this.batchSize, maxInFlight));
+        this.fetcher = new Thread(this::runFetcher, "jedis-stream-" + streamKey + "-fetch");
+        this.fetcher.setDaemon(true);
+        AtomicInteger handlerIndex = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(Math.max(1, handlerThreads), (r) -> {
+            Thread thread = new Thread(r, "jedis-stream-" + streamKey + "-handler-" + handlerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 创建消费组(已存在则忽略)并开始消费.
+     */
+    public StreamConsumer start() {
+        jedisTemplate.xgroupCreate(streamKey, group, "0");
+        running = true;
+        fetcher.start();
+        return this;
+    }
+
+    private void runFetcher() {
+        // 先处理本消费者上次未 ack 的消息, 读到空列表后改读新消息
+        String readId = "0";
+        long idleMillis = 0;
+        nextClaim = System.currentTimeMillis() + claimIdleMillis / 2;
+        while (running) {
+            try {
+                int permits = acquirePermits();
+                if (permits == 0) {
+                    break;
+                }
+                List<StreamEntry> batch = Collections.emptyList();
+                JedisException claimError = null;
+                try {
+                    batch = readAndAck(permits, readId);
+                    if (!">".equals(readId)) {
+                        // 待确认消息的读取不会前进, 从本批最后一条之后继续读
+                        readId = batch.isEmpty() ? ">" : batch.get(batch.size() - 1).getId();
+                    }
+                    if (batch.size() < permits && claimIdleMillis > 0 && System.currentTimeMillis() >= nextClaim) {
+                        batch = new ArrayList<>(batch);
+                        try {
+                            batch.addAll(claim(permits - batch.size()));
+                        } catch (JedisException e) {
+                            // 已读取的消息照常派发, 之后再按拉取失败处理
+                            claimError = e;
+                        }
+                    }
+                } finally {
+                    inFlight.release(permits - batch.size());
+                }
+                if (!batch.isEmpty()) {
+                    idleMillis = 0;
+                    consumed.add(batch.size());
+                    dispatch(batch);
+                }
+                if (claimError != null) {
+                    throw claimError;
+                }
+                if (batch.isEmpty()) {
+                    idleMillis = idleMillis == 0 ? 1 : Math.min(pollMillis, idleMillis * 2);
+                    Thread.sleep(idleMillis);
+                }
+            } catch (JedisException e) {
+                //logger.error("stream fetch error :{}", e.getMessage());
+                fetchErrors.incrementAndGet();
+                pause(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 至少取得 1 个在途名额, 再尽量多取, 最多 batchSize 个; 已关闭时返回 0.
+     */
+    private int acquirePermits() throws InterruptedException {
+        while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                return 0;
+            }
+        }
+        int permits = 1;
+        while (permits < batchSize && inFlight.tryAcquire()) {
+            permits++;
+        }
+        return permits;
+    }
+
+    /**
+     * 已处理完的 id 以一条 XACK 与 XREADGROUP 放在同一个 Pipeline 中发送; 发送或 XACK 失败时 id 放回, 下次重试.
+     */
+    private List<StreamEntry> readAndAck(final int count, final String readId) {
+        final List<String> ackIds = drainAcks();
+        final List<ScriptResponse<Object>> ackResponses = new ArrayList<>(1);
+        JedisTemplate.PipelineAction<Pipeline, ScriptResponse<List<StreamEntry>>> vPipelineAction = (pipeline) -> {
+            if (!ackIds.isEmpty()) {
+                ackResponses.add(jedisTemplate.xack(pipeline, streamKey, group, ackIds));
+            }
+            return jedisTemplate.xreadgroup(pipeline, streamKey, group, consumer, count, readId);
+        };
+
+        ScriptResponse<List<StreamEntry>> readResponse;
+        try {
+            readResponse = jedisTemplate.execute(vPipelineAction);
+            // XACK 失败时 id 放回
+            for (ScriptResponse<Object> ackResponse : ackResponses) {
+                ackResponse.get();
+            }
+        } catch (JedisException e) {
+            acks.addAll(ackIds);
+            throw e;
+        }
+        acked.add(ackIds.size());
+        return readResponse.get();
+    }
+
+    private List<StreamEntry> claim(int count) {
+        StreamEntry.ClaimPage page = jedisTemplate.xautoclaim(streamKey, group, consumer, claimIdleMillis, claimCursor, count);
+        claimCursor = page.getNextId();
+        if ("0-0".equals(claimCursor)) {
+            // 扫描完一轮, 下一轮等到 claimIdleMillis / 2 之后
+            nextClaim = System.currentTimeMillis() + claimIdleMillis / 2;
+        }
+        claimed.add(page.getEntries().size());
+        return page.getEntries();
+    }
+
+    private List<String> drainAcks() {
+        List<String> ids = new ArrayList<>();
+        String id;
+        while (ids.size() < MAX_ACKS_PER_COMMAND && (id = acks.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void dispatch(List<StreamEntry> batch) {
+        for (StreamEntry entry : batch) {
+            pending.incrementAndGet();
+            try {
+                handlers.execute(() -> handle(entry));
+            } catch (RejectedExecutionException e) {
+                // 关闭超时后仍在拉取, 消息留在待确认列表中
+                pending.decrementAndGet();
+                inFlight.release();
+            }
+        }
+    }
+
+    private void handle(StreamEntry entry) {
+        try {
+            if (!entry.isDeleted()) {
+                handler.handle(entry);
+            }
+            acks.add(entry.getId());
+        } catch (Exception e) {
+            //logger.error("stream handler error :{}", e.getMessage());
+            failed.increment();
+        } finally {
+            pending.decrementAndGet();
+            inFlight.release();
+        }
+    }
+
+    /**
+     * 立即发送攒下的 ack.
+     */
+    public void flushAcks() {
+        List<String> ids;
+        while (!(ids = drainAcks()).isEmpty()) {
+            try {
+                jedisTemplate.xack(streamKey, group, ids);
+                acked.add(ids.size());
+            } catch (JedisException e) {
+                //logger.error("stream ack error :{}", e.getMessage());
+                acks.addAll(ids);
+                throw e;
+            }
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已读取的消息数(含重新认领的).
+     */
+    public long getConsumedCount() {
+        return consumed.sum();
+    }
+
+    public long getAckedCount() {
+        return acked.sum();
+    }
+
+    /**
+     * 处理失败(未 ack)的次数.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * 通过 XAUTOCLAIM 重新认领的消息数.
+     */
+    public long getClaimedCount() {
+        return claimed.sum();
+    }
+
+    public int getFetchErrorCount() {
+        return fetchErrors.get();
+    }
+
+    /**
+     * 已读取尚未处理完成的消息数.
+     */
+    public int getInFlight() {
+        return pending.get();
+    }
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    /**
+     * 优雅关闭: 停止读取, 等待已读取的消息处理完成, 最后发送剩余的 ack.
+     * 超时仍未处理完的消息留在待确认列表中, 由同名消费者重启后或其他消费者认领后处理.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        try {
+            fetcher.join(Math.max(1, unit.toMillis(timeout)));
+            handlers.shutdown();
+            terminated = handlers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminated = false;
+        } finally {
+            handlers.shutdownNow();
+            try {
+                flushAcks();
+            } catch (JedisException e) {
+                terminated = false;
+            }
+        }
+        return terminated;
+    }
+
+    @Override
+    public void close() {
+        shutdown(30, TimeUnit.SECONDS);
+    }
+}
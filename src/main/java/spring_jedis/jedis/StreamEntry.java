@@ -0,0 +1,114 @@
+package spring_jedis.jedis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stream 中的一条消息: id 与按写入顺序排列的字段.
+ * 消息在 XREADGROUP 之后被删除(XDEL / 裁剪)时, 重新读取待确认消息得到的字段为空.
+ */
+public final class StreamEntry {
+
+    private final String id;
+    private final Map<String, String> fields;
+
+    public StreamEntry(String id, Map<String, String> fields) {
+        this.id = id;
+        this.fields = fields;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    public String getField(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * 消息已被删除, 只剩下待确认记录.
+     */
+    public boolean isDeleted() {
+        return fields.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamEntry[" + id + ", " + fields + "]";
+    }
+
+    /**
+     * XAUTOCLAIM 的一页结果: 下一次扫描的起始 id("0-0" 表示已扫描完一轮)与认领到的消息.
+     */
+    public static final class ClaimPage {
+
+        private final String nextId;
+        private final List<StreamEntry> entries;
+
+        ClaimPage(String nextId, List<StreamEntry> entries) {
+            this.nextId = nextId;
+            this.entries = entries;
+        }
+
+        public String getNextId() {
+            return nextId;
+        }
+
+        public List<StreamEntry> getEntries() {
+            return entries;
+        }
+
+        static ClaimPage fromReply(Object result) {
+            List<?> reply = (List<?>) result;
+            return new ClaimPage(String.valueOf(reply.get(0)), fromEntries(reply.get(1)));
+        }
+    }
+
+    /**
+     * [[id, [字段1, 值1, ...]], ...], 跳过 nil 元素.
+     */
+    static List<StreamEntry> fromEntries(Object result) {
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        List<?> items = (List<?>) result;
+        List<StreamEntry> entries = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item == null) {
+                continue;
+            }
+            List<?> pair = (List<?>) item;
+            Map<String, String> fields = new LinkedHashMap<>();
+            Object values = pair.size() > 1 ? pair.get(1) : null;
+            if (values != null) {
+                List<?> flat = (List<?>) values;
+                for (int i = 0; i + 1 < flat.size(); i += 2) {
+                    fields.put(String.valueOf(flat.get(i)), flat.get(i + 1) == null ? null : flat.get(i + 1).toString());
+                }
+            }
+            entries.add(new StreamEntry(String.valueOf(pair.get(0)), fields));
+        }
+        return entries;
+    }
+
+    /**
+     * XREADGROUP 的结果 [[stream, entries]], 只读一个 stream; nil 为空列表.
+     */
+    static List<StreamEntry> fromReadReply(Object result) {
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        List<?> streams = (List<?>) result;
+        if (streams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return fromEntries(((List<?>) streams.get(0)).get(1));
+    }
+}
@@ -0,0 +1,31 @@
+package spring_jedis.jedis;
+
+/**
+ * 分段锁: 把数量不限的细粒度 key(如订单号)按哈希映射到固定数量的 {@link RedisLock},
+ * 锁对象与 Redis key 的数量都不超过 stripes, 代价是不同 key 偶尔共用同一把锁.
+ * 映射只依赖 String.hashCode, 各实例对同一 key 总是得到同名的锁.
+ */
+public class StripedRedisLock {
+
+    private final RedisLock[] stripes;
+
+    StripedRedisLock(RedisLockManager manager, String name, int stripes) {
+        this.stripes = new RedisLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = manager.getLock(name + ':' + i);
+        }
+    }
+
+    /**
+     * key 对应的锁.
+     */
+    public RedisLock get(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
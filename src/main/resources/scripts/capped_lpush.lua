@@ -0,0 +1,12 @@
+-- LPUSH 后只保留最新的 ARGV[1] 个元素, 返回列表长度; ARGV[1] 不大于 0 时删除列表, 返回 0.
+-- KEYS[1] 列表; ARGV[1] 最大长度; ARGV[2..] 元素
+local max = tonumber(ARGV[1])
+if max <= 0 then
+    redis.call('DEL', KEYS[1])
+    return 0
+end
+for i = 2, #ARGV do
+    redis.call('LPUSH', KEYS[1], ARGV[i])
+end
+redis.call('LTRIM', KEYS[1], 0, max - 1)
+return redis.call('LLEN', KEYS[1])
@@ -0,0 +1,14 @@
+-- ZADD 后只保留分数最高的 ARGV[1] 个成员, 返回集合大小; ARGV[1] 不大于 0 时删除集合, 返回 0.
+-- KEYS[1] 有序集合; ARGV[1] 最大成员数; ARGV[2] 分数; ARGV[3] 成员
+local max = tonumber(ARGV[1])
+if max <= 0 then
+    redis.call('DEL', KEYS[1])
+    return 0
+end
+redis.call('ZADD', KEYS[1], ARGV[2], ARGV[3])
+local size = redis.call('ZCARD', KEYS[1])
+if size > max then
+    redis.call('ZREMRANGEBYRANK', KEYS[1], 0, size - max - 1)
+    size = max
+end
+return size
@@ -0,0 +1,19 @@
+-- 增加后不超过上限时 INCRBY 并返回新值, 否则不修改并返回 nil.
+-- KEYS[1] 计数器; ARGV[1] 增量; ARGV[2] 上限; ARGV[3] 过期毫秒(0 表示不设置, 只在新建时设置)
+local raw = redis.call('GET', KEYS[1])
+local current = 0
+if raw then
+    current = tonumber(raw)
+    if current == nil then
+        return redis.error_reply('ERR value is not an integer or out of range')
+    end
+end
+local increment = tonumber(ARGV[1])
+if current + increment > tonumber(ARGV[2]) then
+    return nil
+end
+local value = redis.call('INCRBY', KEYS[1], increment)
+if not raw and tonumber(ARGV[3]) > 0 then
+    redis.call('PEXPIRE', KEYS[1], ARGV[3])
+end
+return value
@@ -0,0 +1,15 @@
+-- 成员的排名(从 0 开始, 分数从高到低)、分数, 以及前后各 ARGV[2] 名的成员与分数, 一次往返完成.
+-- 返回 {排名, 分数, 邻居起始排名, 成员1, 分数1, ...}; 成员不在榜单中时返回 nil.
+-- KEYS[1] 榜单; ARGV[1] 成员; ARGV[2] 前后各取的名次数
+local rank = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+if not rank then
+    return nil
+end
+local neighbours = tonumber(ARGV[2])
+local start = math.max(0, rank - neighbours)
+local result = {rank, redis.call('ZSCORE', KEYS[1], ARGV[1]), start}
+local range = redis.call('ZREVRANGE', KEYS[1], start, rank + neighbours, 'WITHSCORES')
+for i = 1, #range do
+    result[#result + 1] = range[i]
+end
+return result
@@ -0,0 +1,17 @@
+-- 处理失败的消息移出处理中列表: 失败次数未达上限时放回队列末尾, 达到上限时移入死信列表并清除计数, 返回移入死信列表的条数.
+-- KEYS[1] 处理中列表; KEYS[2] 队列; KEYS[3] 失败次数 hash; KEYS[4] 死信列表; ARGV[1] 最多尝试次数; ARGV[2..] 消息
+local maxAttempts = tonumber(ARGV[1])
+local dead = 0
+for i = 2, #ARGV do
+    local message = ARGV[i]
+    redis.call('LREM', KEYS[1], 1, message)
+    local attempts = redis.call('HINCRBY', KEYS[3], message, 1)
+    if attempts >= maxAttempts then
+        redis.call('HDEL', KEYS[3], message)
+        redis.call('LPUSH', KEYS[4], message)
+        dead = dead + 1
+    else
+        redis.call('LPUSH', KEYS[2], message)
+    end
+end
+return dead
@@ -0,0 +1,19 @@
+-- 滑动窗口计数限流: 按上一窗口计数 × 剩余比例 + 当前窗口计数估算窗口内请求数, 每个调用方只占两个计数器.
+-- 返回 {1, 0} 表示允许; {0, 毫秒} 表示拒绝, 毫秒为估算值降到上限以下至少还需等待的时间.
+-- KEYS[1] 当前窗口计数; KEYS[2] 上一窗口计数; ARGV[1] 当前毫秒; ARGV[2] 窗口毫秒; ARGV[3] 上限
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local limit = tonumber(ARGV[3])
+local elapsed = now % window
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+local previous = tonumber(redis.call('GET', KEYS[2]) or '0')
+if previous * (window - elapsed) / window + current + 1 <= limit then
+    redis.call('INCR', KEYS[1])
+    redis.call('PEXPIRE', KEYS[1], window * 2)
+    return {1, 0}
+end
+local wait = window - elapsed
+if current + 1 <= limit and previous > 0 then
+    wait = math.ceil(window * (1 - (limit - 1 - current) / previous)) - elapsed
+end
+return {0, math.max(1, wait)}
@@ -0,0 +1,15 @@
+-- 滑动窗口日志限流: 窗口内请求数未达上限时记录本次请求.
+-- 返回 {1, 0} 表示允许; {0, 毫秒} 表示拒绝, 毫秒为窗口内最早的请求过期前至少还需等待的时间.
+-- KEYS[1] 有序集合; ARGV[1] 当前毫秒; ARGV[2] 窗口毫秒; ARGV[3] 上限; ARGV[4] 本次请求的唯一成员
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local limit = tonumber(ARGV[3])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+local count = redis.call('ZCARD', KEYS[1])
+if count < limit then
+    redis.call('ZADD', KEYS[1], now, ARGV[4])
+    redis.call('PEXPIRE', KEYS[1], window)
+    return {1, 0}
+end
+local blocking = redis.call('ZRANGE', KEYS[1], count - limit, count - limit, 'WITHSCORES')
+return {0, math.max(1, math.floor(tonumber(blocking[2]) + window - now))}
@@ -0,0 +1,21 @@
+-- 一次追加多条消息(XADD), ARGV[1] 大于 0 时按 MAXLEN ~ 近似裁剪, 返回各条消息的 id.
+-- KEYS[1] stream; ARGV[1] 最大长度; 之后每条消息为: 字段数 n, 字段1, 值1, ... 字段n, 值n
+local maxlen = tonumber(ARGV[1])
+local ids = {}
+local i = 2
+while i <= #ARGV do
+    local n = tonumber(ARGV[i])
+    local args = {KEYS[1]}
+    if maxlen > 0 then
+        args[#args + 1] = 'MAXLEN'
+        args[#args + 1] = '~'
+        args[#args + 1] = ARGV[1]
+    end
+    args[#args + 1] = '*'
+    for j = i + 1, i + 2 * n do
+        args[#args + 1] = ARGV[j]
+    end
+    ids[#ids + 1] = redis.call('XADD', unpack(args))
+    i = i + 2 * n + 1
+end
+return ids
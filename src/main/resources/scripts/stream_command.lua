@@ -0,0 +1,8 @@
+-- 执行以 stream key 为第一个参数的 stream 命令(仅限 XLEN / XACK / XCLAIM / XAUTOCLAIM / XPENDING), 原样返回结果.
+-- KEYS[1] stream; ARGV[1] 命令; ARGV[2..] 其余参数
+local allowed = {XLEN = true, XACK = true, XCLAIM = true, XAUTOCLAIM = true, XPENDING = true}
+local command = string.upper(ARGV[1])
+if not allowed[command] then
+    return redis.error_reply('ERR unsupported stream command ' .. ARGV[1])
+end
+return redis.call(command, KEYS[1], unpack(ARGV, 2))
@@ -0,0 +1,10 @@
+-- 创建消费组(XGROUP CREATE ... MKSTREAM), 返回 1; 消费组已存在(BUSYGROUP)时返回 0.
+-- KEYS[1] stream; ARGV[1] 消费组; ARGV[2] 起始 id, "0" 从头消费, "$" 只消费之后的消息
+local reply = redis.pcall('XGROUP', 'CREATE', KEYS[1], ARGV[1], ARGV[2], 'MKSTREAM')
+if type(reply) == 'table' and reply.err then
+    if string.find(reply.err, 'BUSYGROUP') then
+        return 0
+    end
+    return reply
+end
+return 1
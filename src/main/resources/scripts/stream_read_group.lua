@@ -0,0 +1,3 @@
+-- 以消费组方式读取最多 ARGV[3] 条消息(XREADGROUP, 脚本中不能阻塞), 没有消息返回 nil.
+-- KEYS[1] stream; ARGV[1] 消费组; ARGV[2] 消费者; ARGV[3] 条数; ARGV[4] ">" 新消息, "0" 本消费者未 ack 的消息
+return redis.call('XREADGROUP', 'GROUP', ARGV[1], ARGV[2], 'COUNT', ARGV[3], 'STREAMS', KEYS[1], ARGV[4])
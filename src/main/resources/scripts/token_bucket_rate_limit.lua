@@ -0,0 +1,24 @@
+-- 令牌桶限流: 按时间补充令牌, 令牌足够时扣减.
+-- 返回 {1, 0} 表示允许; {0, 毫秒} 表示拒绝, 毫秒为补足所需令牌至少还需等待的时间.
+-- KEYS[1] 桶(hash: tokens, ts); ARGV[1] 当前毫秒; ARGV[2] 容量; ARGV[3] 每毫秒补充的令牌数; ARGV[4] 本次消耗的令牌数
+local now = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local rate = tonumber(ARGV[3])
+local requested = tonumber(ARGV[4])
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * rate)
+    ts = now
+end
+local allowed = tokens >= requested
+if allowed then
+    tokens = tokens - requested
+end
+redis.call('HMSET', KEYS[1], 'tokens', tokens, 'ts', ts)
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)
+if allowed then
+    return {1, 0}
+end
+return {0, math.max(1, math.ceil((requested - tokens) / rate))}